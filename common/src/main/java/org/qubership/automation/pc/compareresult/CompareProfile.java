@@ -0,0 +1,112 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.compareresult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time and memory spent by stages of a comparison, returned in {@link CompareResult} if rule
+ * {@code profile=true} is set.
+ * <p>
+ * Stage names are paths of nested stages, e.g. {@code compare/xml.diff} is XMLUnit diffing made
+ * inside the {@code compare} stage of ComparatorManager; time of a stage includes time of its nested stages.
+ * Allocated bytes are measured per thread and are {@code null} if the JVM does not support it.
+ */
+public class CompareProfile {
+
+    private double totalMs;
+    private Long allocatedBytes;
+    private List<Stage> stages = new ArrayList<>();
+
+    public double getTotalMs() {
+        return totalMs;
+    }
+
+    public void setTotalMs(double totalMs) {
+        this.totalMs = totalMs;
+    }
+
+    public Long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(Long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<Stage> stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * Totals of a stage over all times it was run.
+     */
+    public static class Stage {
+
+        private String name;
+        private int count;
+        private double timeMs;
+        private Long allocatedBytes;
+
+        public Stage() {
+        }
+
+        public Stage(String name, int count, double timeMs, Long allocatedBytes) {
+            this.name = name;
+            this.count = count;
+            this.timeMs = timeMs;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public double getTimeMs() {
+            return timeMs;
+        }
+
+        public void setTimeMs(double timeMs) {
+            this.timeMs = timeMs;
+        }
+
+        public Long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public void setAllocatedBytes(Long allocatedBytes) {
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+}
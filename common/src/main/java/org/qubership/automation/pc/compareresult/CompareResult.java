@@ -33,7 +33,8 @@ import org.qubership.automation.pc.data.Data;
  *   <li>the original data,</li>
  *   <li>a list of comparison results for individual attributes,</li>
  *   <li>nested comparison results for child objects,</li>
- *   <li>a summary result and a message describing the differences.</li>
+ *   <li>a summary result and a message describing the differences,</li>
+ *   <li>optional {@link CompareProfile} of the comparison.</li>
  * </ul>
  * Can be used to build a difference tree for complex data structures.
  */
@@ -45,6 +46,7 @@ public class CompareResult {
     protected List<CompareResult> childs = new ArrayList<>(); //Child Records
     protected ResultType summaryResult; //Summary result
     protected DiffMessage summaryMessage; //Contain DiffMessages
+    protected CompareProfile profile; //Time spent by stages, if requested
 
     public String getId() {
         return id;
@@ -101,4 +103,12 @@ public class CompareResult {
     public void setSummaryMessage(DiffMessage summaryMessage) {
         this.summaryMessage = summaryMessage;
     }        
+
+    public CompareProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(CompareProfile profile) {
+        this.profile = profile;
+    }
 }
@@ -37,6 +37,8 @@ package org.qubership.automation.pc.compareresult;
  *   <li>{@code MISSED} – Expected data is missing in actual result.</li>
  *   <li>{@code FAILED} – Comparison failed.</li>
  *   <li>{@code ERROR} – Error occurred during processing.</li>
+ *   <li>{@code CANCELLED} – Comparison was cancelled before it completed.</li>
+ *   <li>{@code TIMEOUT} – Comparison did not complete before the request deadline.</li>
  * </ul>
  */
 public enum ResultType {
@@ -55,5 +57,7 @@ public enum ResultType {
     EXTRA,
     MISSED,
     FAILED,
-    ERROR
+    ERROR,
+    CANCELLED,
+    TIMEOUT
 }
@@ -55,6 +55,15 @@ public class ComparatorConfiguration {
         this.sets = sets;
     }
 
+    /**
+     * Returns configuration set of a test case.
+     *
+     * <p>The sets are searched only if {@code applyTo} is empty; for any other value the global set
+     * is returned, so the lookup made for each AR test case does not scan the sets.</p>
+     *
+     * @param applyTo external id of the test case
+     * @return set which applies to the test case or the global set
+     */
     public ComparatorConfigurationSet getComparatorConfigurationSet(String applyTo) {        
         if (StringUtils.isEmpty(applyTo)) {
             for (int i = 0; i < sets.size(); i++) {
@@ -66,6 +75,19 @@ public class ComparatorConfiguration {
         return global;
     }
 
+    /**
+     * Prepares the global set and the other sets (see {@link ComparatorConfigurationSet#prepare()}),
+     * so that comparisons made with the configuration only read it.
+     */
+    public void prepare() {
+        global.prepare();
+        if (sets != null) {
+            for (ComparatorConfigurationSet set : sets) {
+                set.prepare();
+            }
+        }
+    }
+
     public void merge(ComparatorConfiguration configuration) {
         
     }
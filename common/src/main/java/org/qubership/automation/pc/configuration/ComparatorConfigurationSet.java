@@ -40,13 +40,23 @@ import org.qubership.automation.pc.configuration.parameters.Parameters;
  * Grouped parameters can be extracted using the {@code groupParameters()} method, which transforms grouped keys
  * into flat structure for further processing.
  * The merging logic ensures consistent rule extension and parameter consolidation.
+ * <p>
+ * Parameters are grouped once, on the first {@link #getParameters()} call, and step rules are indexed by step
+ * on the first {@link #getStepRule(String)} call; {@link #prepare()} does both at once. They are done again
+ * after parameters or rules are set or merged; {@link #groupParameters()} is to be called again
+ * if grouped parameters are put directly into the instance returned by {@link #getParameters()}.
+ * Once prepared, the set is only read by comparisons, so it can be used by several threads.
  */
 public class ComparatorConfigurationSet {
     public static final String GROUP_REGEXP_MASK = "(.*?)\\[(.*?)\\]";
+    private static final Pattern GROUP_PATTERN = Pattern.compile(GROUP_REGEXP_MASK);
     
     private String applyTo = "";
     private Parameters parameters = new Parameters();
     private List<Rule> rules = new ArrayList<>();    
+    // results of preparation, dropped when parameters or rules are changed by the methods of this class
+    private transient volatile boolean grouped;
+    private transient volatile Map<String, Rule> stepRules;
 
     public String getApplyTo() {
         return applyTo;
@@ -60,37 +70,74 @@ public class ComparatorConfigurationSet {
         return this.getParameters(false);
     }
     
+    /**
+     * Returns parameters, grouped (see {@link #groupParameters()}) on the first call after parameters are set
+     * or merged. The argument is ignored, as it always was: parameters were grouped on every call before.
+     * Unlike then, grouped parameters put directly into the returned instance later are not grouped
+     * by the next call; {@link #groupParameters()} is to be called for them.
+     *
+     * @param groupParameters ignored
+     * @return parameters of the set
+     */
     public Parameters getParameters(Boolean groupParameters) {
-        this.groupParameters();
+        if (!grouped) {
+            synchronized (this) {
+                if (!grouped) {
+                    this.groupParameters();
+                }
+            }
+        }
         return parameters;
     }
 
-    public void setParameters(Parameters parameters) {
+    public synchronized void setParameters(Parameters parameters) {
         this.parameters = parameters;
+        this.grouped = false;
     }
 
     public List<Rule> getRules() {
         return rules;
     }
 
-    public void setRules(List<Rule> rules) {
+    public synchronized void setRules(List<Rule> rules) {
         this.rules = rules;
+        this.stepRules = null;
     }        
     
     public Rule getStepRule(String stepNumber) {
-        for (int i = 0; i < rules.size(); i++) {
-            if (rules.get(i).getStep().equals(stepNumber)) {
-                return rules.get(i);
+        Rule rule = stepRules().get(stepNumber);
+        return rule == null ? new Rule(stepNumber) : rule;
+    }
+
+    /**
+     * Groups parameters and indexes rules by step and messages of the rules by name,
+     * so that comparisons made with the set only read it.
+     */
+    public synchronized void prepare() {
+        getParameters(true);
+        stepRules();
+        for (Rule rule : rules) {
+            rule.prepare();
+        }
+    }
+
+    private Map<String, Rule> stepRules() {
+        Map<String, Rule> current = stepRules;
+        if (current == null) {
+            current = new HashMap<>();
+            for (Rule rule : rules) {
+                // the first rule of a step is used, as it was found by the scan of the list
+                current.putIfAbsent(rule.getStep(), rule);
             }
+            stepRules = current;
         }
-        return new Rule(stepNumber);        
+        return current;
     }
     
-    public void groupParameters() {
+    public synchronized void groupParameters() {
         Map<String,Map<String,String>> groupedParameters = new HashMap<>();
-        Pattern p = Pattern.compile(GROUP_REGEXP_MASK);
         for (Parameter parameter : this.parameters.getParameters()) {
-            Matcher m = p.matcher(parameter.name);
+            Matcher m = GROUP_PATTERN.matcher(parameter.name);
             if (m.find()) {
                 String parameterName = m.group(1);
                 String parameterGroup = m.group(2);
@@ -115,9 +162,10 @@ public class ComparatorConfigurationSet {
                 this.parameters.put(groupedParameter.getKey(), groupedParameter.getValue());                
             }            
         }
+        this.grouped = true;
     }
     
-    public void merge(ComparatorConfigurationSet set) {
+    public synchronized void merge(ComparatorConfigurationSet set) {
         if (!this.applyTo.isEmpty()) {
             if (!set.getApplyTo().equals(this.applyTo)) {
                 return;
@@ -125,6 +173,8 @@ public class ComparatorConfigurationSet {
         }        
         //merge parameters
         this.parameters.putAll(set.getParameters());        
+        this.grouped = false;
+        this.stepRules = null;
         //merge rules
         for (Rule mergeRule : set.getRules()) {
             Rule foundRule = null;
@@ -146,7 +196,7 @@ public class ComparatorConfigurationSet {
                     if (foundMessage != null) {
                         foundMessage.getParameters().putAll(mergeMessage.getParameters());
                     } else {
-                        foundRule.getMessages().add(mergeMessage);
+                        foundRule.addMessage(mergeMessage);
                     }                    
                 }                
             } else {
@@ -17,7 +17,9 @@
 package org.qubership.automation.pc.configuration;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.qubership.automation.pc.configuration.parameters.Parameters;
@@ -36,12 +38,17 @@ import org.qubership.automation.pc.configuration.parameters.Parameters;
  *     <li>Message handling through a list of named {@link Message} objects.</li>
  *     <li>Convenience methods to retrieve or create messages and their parameters by name.</li>
  * </ul>
+ * <p>
+ * Messages are looked up in an index by name, built on the first lookup; messages are to be added
+ * by the methods of this class, so that the index is rebuilt.
  */
 public class Rule {
 
     private String step;
     private boolean skip = false;
     private List<Message> messages;
+    // the first message of each name; null until the first lookup after a change
+    private transient volatile Map<String, Message> messagesByName;
 
     public Rule() {
 
@@ -73,17 +80,46 @@ public class Rule {
 
     public void setMessages(List<Message> messages) {
         this.messages = messages;
+        this.messagesByName = null;
+    }
+
+    /**
+     * Adds the message to the rule.
+     *
+     * @param message message to add
+     */
+    public void addMessage(Message message) {
+        if (this.messages == null) {
+            this.messages = new ArrayList<>();
+        }
+        this.messages.add(message);
+        this.messagesByName = null;
     }
 
     public Parameters getParameters(String messageName) {
-        if (this.messages != null) {
-            for (Message message : this.messages) {
-                if (message.getName().equals(messageName)) {
-                    return message.getParameters();
+        Message message = messagesByName().get(messageName);
+        return message == null ? new Parameters() : message.getParameters();
+    }
+
+    /**
+     * Indexes messages by name, so that lookups made by comparisons only read the rule.
+     */
+    public void prepare() {
+        messagesByName();
+    }
+
+    private Map<String, Message> messagesByName() {
+        Map<String, Message> current = messagesByName;
+        if (current == null) {
+            current = new HashMap<>();
+            if (this.messages != null) {
+                for (Message message : this.messages) {
+                    current.putIfAbsent(message.getName(), message);
                 }
             }
+            messagesByName = current;
         }
-        return new Parameters();
+        return current;
     }
 
     public Message getMessage(String messageName, boolean createNew) {
@@ -101,6 +137,7 @@ public class Rule {
             Message newMessage = new Message();
             newMessage.setName(messageName);
             this.messages.add(newMessage);
+            this.messagesByName = null;
             int index = this.messages.size() - 1;
             return this.messages.get(index);
         } else {
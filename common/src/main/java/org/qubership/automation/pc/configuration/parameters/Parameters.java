@@ -17,6 +17,7 @@
 package org.qubership.automation.pc.configuration.parameters;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -37,11 +38,21 @@ import org.qubership.automation.pc.core.interfaces.IConfiguration;
  * This class implements the {@link IConfiguration} interface and can be used to inject
  * or extract configuration data in a consistent way throughout the application.
  * </p>
+ *
+ * <p>
+ * Values are looked up in an index by name, built on the first lookup and dropped when parameters
+ * are changed by the methods of this class (the list returned by {@link #getParameters()} is not to be
+ * changed once parameters are read). Lookups do not change the instance, so it may be read by several
+ * threads while nobody changes it. {@link #freeze()} returns an immutable copy which can be shared
+ * by concurrent comparisons without copying it for each of them.
+ * </p>
  */
 public class Parameters implements IConfiguration {
     
     private List<Parameter> parameters = new ArrayList<>();
-    private int lastContainsKeyIndex = -1;
+    // values by name, in the order they are put; null until the first lookup after a change
+    private transient volatile Map<String, List<String>> index;
+    private transient boolean frozen;
     
     public Parameters() {
         
@@ -56,15 +67,18 @@ public class Parameters implements IConfiguration {
     }
 
     public void clear() {
+        checkNotFrozen();
         this.parameters.clear();
-        lastContainsKeyIndex = -1;
+        this.index = null;
     }
     
     public void put(String key, String value) {
+        checkNotFrozen();
         Parameter parameter = new Parameter();
         parameter.name = key;
         parameter.value = value;
         this.parameters.add(parameter);
+        this.index = null;
     }
 
     public void putAll(List<Parameter> parameters) {
@@ -77,31 +91,21 @@ public class Parameters implements IConfiguration {
     }
     
     public void putAll(Parameters parameters) {
+        checkNotFrozen();
         for (Parameter parameter : parameters.getParameters()) {
             this.parameters.add(parameter);
         }
+        this.index = null;
     }
     
     
     public boolean containsKey(String parameterName) {
-        int counter = -1;
-        for (Parameter parameter : this.parameters) {
-            counter++;
-            if (parameter.name.equals(parameterName)) {
-                this.lastContainsKeyIndex = counter;
-                return true;
-            }
-            
-        }
-        return false;
+        return index().containsKey(parameterName);
     }
     
     public String get(String parameterName) {
-        if (containsKey(parameterName)) {
-            return this.parameters.get(lastContainsKeyIndex).value;
-        } else {
-            return null;
-        }
+        List<String> values = index().get(parameterName);
+        return values == null ? null : values.get(0);
     }
     
     @Override
@@ -110,22 +114,14 @@ public class Parameters implements IConfiguration {
     }
 
     public List<Parameter> getParameters() {
-        return this.parameters;
+        return frozen ? Collections.unmodifiableList(this.parameters) : this.parameters;
     }
     
     @Override
     public List<String> getParameters(String parameterName) {
-        if (containsKey(parameterName)) {
-            List<String> resultList = new ArrayList<>();
-            for (int i = lastContainsKeyIndex; i < this.parameters.size(); i++) {
-                if (this.parameters.get(i).name.equals(parameterName)) {
-                    resultList.add(this.parameters.get(i).value);
-                }
-            }
-            return resultList;
-        } else {
-            return null;
-        }
+        List<String> values = index().get(parameterName);
+        // a copy, as callers are free to change the list
+        return values == null ? null : new ArrayList<>(values);
     }
     
     @Override
@@ -203,15 +199,14 @@ public class Parameters implements IConfiguration {
 
     public Map<String, List<String>> toMap() {
         Map<String, List<String>> result = new HashMap<>();
-        for (Parameter item : this.parameters) {
-            if (!result.containsKey(item.name)) {
-                result.put(item.name, getParameters(item.name));
-            }
+        for (Map.Entry<String, List<String>> item : index().entrySet()) {
+            result.put(item.getKey(), new ArrayList<>(item.getValue()));
         }
         return result;
     }
     
     public void removeParameter(String parameterName) {
+        checkNotFrozen();
         Iterator<Parameter> it = this.parameters.iterator();
         while (it.hasNext()) {
             Parameter item = it.next();
@@ -219,5 +214,54 @@ public class Parameters implements IConfiguration {
                 it.remove();
             }
         }
+        this.index = null;
+    }
+
+    /**
+     * Returns immutable copy of the parameters; methods changing it throw {@link UnsupportedOperationException}.
+     * The copy is indexed at once and does not depend on this instance, so it can be read by any number of threads.
+     *
+     * @return immutable copy, or this instance if it is immutable already
+     */
+    public Parameters freeze() {
+        if (frozen) {
+            return this;
+        }
+        Parameters copy = new Parameters();
+        for (Parameter parameter : this.parameters) {
+            Parameter item = new Parameter();
+            item.name = parameter.name;
+            item.value = parameter.value;
+            copy.parameters.add(item);
+        }
+        copy.index = copy.buildIndex();
+        copy.frozen = true;
+        return copy;
+    }
+
+    private Map<String, List<String>> index() {
+        Map<String, List<String>> current = index;
+        if (current == null) {
+            current = buildIndex();
+            index = current;
+        }
+        return current;
+    }
+
+    private Map<String, List<String>> buildIndex() {
+        Map<String, List<String>> result = new HashMap<>();
+        for (Parameter parameter : this.parameters) {
+            result.computeIfAbsent(parameter.name, name -> new ArrayList<>(1)).add(parameter.value);
+        }
+        for (Map.Entry<String, List<String>> item : result.entrySet()) {
+            item.setValue(Collections.unmodifiableList(item.getValue()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Parameters are frozen and can't be changed");
+        }
     }
 }
@@ -0,0 +1,31 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.exceptions;
+
+/**
+ * Unchecked exception thrown from comparator loops when the comparison thread is interrupted,
+ * i.e. the comparison is cancelled or its deadline is reached.
+ * <p>
+ * It is unchecked so it can leave deeply nested comparison code which does not declare
+ * {@link ComparatorException}.
+ */
+public class CompareCancelledException extends RuntimeException {
+
+    public CompareCancelledException(String message) {
+        super(message);
+    }
+}
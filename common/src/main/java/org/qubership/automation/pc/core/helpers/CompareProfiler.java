@@ -0,0 +1,179 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.helpers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.qubership.automation.pc.compareresult.CompareProfile;
+import org.qubership.automation.pc.core.jfr.CompareStageEvent;
+import org.qubership.automation.pc.core.jfr.JfrEvents;
+
+/**
+ * Records {@link CompareProfile} of the comparison made by the current thread.
+ *
+ * <p>
+ * The profiler is bound to the thread by {@link #start()}, so comparators and helpers mark their stages with
+ * {@link #stage(String)} without passing it around:
+ * <pre>
+ * try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.parse")) {
+ *     ...
+ * }
+ * </pre>
+ * If no profiler is started, {@link #stage(String)} returns a shared stage which does nothing,
+ * so marking stages costs next to nothing unless the comparison is profiled.
+ * Stages must be closed in the thread and in the reverse order they are opened, as try-with-resources does.
+ * </p>
+ *
+ * <p>
+ * Each stage is also emitted as {@link CompareStageEvent} while it is recorded by JFR, whether the comparison
+ * is profiled or not.
+ * </p>
+ */
+public final class CompareProfiler {
+
+    private static final ThreadLocal<CompareProfiler> current = new ThreadLocal<>();
+    private static final Stage NO_STAGE = () -> {
+    };
+    private static final com.sun.management.ThreadMXBean allocationBean = getAllocationBean();
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final CompareProfiler previous;
+    private final long startNanos = System.nanoTime();
+    private final long startAllocated = allocatedBytes();
+    // path of the stage -> count, nanos, allocated bytes
+    private final Map<String, long[]> stages = new LinkedHashMap<>();
+    private String path = "";
+
+    private CompareProfiler(CompareProfiler previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Starts profiling of the current thread; the profiler started before, if any, is suspended
+     * until {@link #finish()} is called.
+     *
+     * @return started profiler
+     */
+    public static CompareProfiler start() {
+        CompareProfiler profiler = new CompareProfiler(current.get());
+        current.set(profiler);
+        return profiler;
+    }
+
+    /**
+     * Opens a stage of the profiler of the current thread.
+     *
+     * @param name name of the stage
+     * @return stage to be closed when it is over
+     */
+    public static Stage stage(String name) {
+        Stage event = JfrEvents.ENABLED ? CompareStageEvent.open(name) : null;
+        CompareProfiler profiler = current.get();
+        if (profiler == null) {
+            return event == null ? NO_STAGE : event;
+        }
+        Stage stage = profiler.open(name);
+        if (event == null) {
+            return stage;
+        }
+        return () -> {
+            stage.close();
+            event.close();
+        };
+    }
+
+    /**
+     * Stops profiling and resumes the profiler suspended by {@link #start()}.
+     *
+     * @return recorded profile
+     */
+    public CompareProfile finish() {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+        CompareProfile profile = new CompareProfile();
+        profile.setTotalMs((System.nanoTime() - startNanos) / NANOS_PER_MILLI);
+        profile.setAllocatedBytes(allocated(startAllocated, allocatedBytes()));
+        List<CompareProfile.Stage> result = new ArrayList<>(stages.size());
+        for (Map.Entry<String, long[]> stage : stages.entrySet()) {
+            long[] totals = stage.getValue();
+            result.add(new CompareProfile.Stage(stage.getKey(), (int) totals[0], totals[1] / NANOS_PER_MILLI,
+                    totals[2] < 0 ? null : totals[2]));
+        }
+        profile.setStages(result);
+        return profile;
+    }
+
+    private Stage open(String name) {
+        final String parentPath = path;
+        final String stagePath = parentPath.isEmpty() ? name : parentPath + "/" + name;
+        path = stagePath;
+        // registered when opened, so a stage is listed before its nested stages
+        final long[] totals = stages.computeIfAbsent(stagePath, key -> new long[3]);
+        final long stageStartNanos = System.nanoTime();
+        final long stageStartAllocated = allocatedBytes();
+        return () -> {
+            totals[0]++;
+            totals[1] += System.nanoTime() - stageStartNanos;
+            Long allocated = allocated(stageStartAllocated, allocatedBytes());
+            totals[2] = allocated == null ? -1 : totals[2] + allocated;
+            path = parentPath;
+        };
+    }
+
+    private static Long allocated(long start, long end) {
+        return start < 0 || end < 0 ? null : end - start;
+    }
+
+    private static long allocatedBytes() {
+        return allocationBean == null ? -1 : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                if (sunBean.isThreadAllocatedMemorySupported()
+                        && sunBean.isThreadAllocatedMemoryEnabled()) {
+                    return sunBean;
+                }
+            }
+        } catch (LinkageError | UnsupportedOperationException ex) {
+            // allocation is not measured on JVMs without com.sun.management
+        }
+        return null;
+    }
+
+    /**
+     * Stage of the comparison, recorded when it is closed.
+     */
+    @FunctionalInterface
+    public interface Stage extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -66,6 +66,18 @@ public class ResponseMessages {
         
         messages.put(20111, "er isn't valid");
         messages.put(20112, "ar isn't valid");
+        messages.put(20113, "Comparison is cancelled: %s");
+        messages.put(20114, "Comparison is timed out: %s");
+        messages.put(20115, "Compare queue %s is not found");
+        messages.put(10108, "Compare queue %s is cancelled");
+        messages.put(20116, "Too many compare jobs, try again later");
+        messages.put(20117, "Compare job %s is not found");
+        messages.put(20118, "Compare job %s already exists");
+        messages.put(20119, "Not enough memory to compare the package (%s KB), try again later");
+        messages.put(20120, "Illegal value of compareTimeout parameter: %s");
+        messages.put(10109, "Compare job %s is submitted");
+        messages.put(10110, "Compare job %s is removed");
+        messages.put(10111, "Compare result cache is invalidated");
         
         //Highlighter Messages
         messages.put(20150, "Highlighter exception while DOM parsing and/or Differences processing: %s");
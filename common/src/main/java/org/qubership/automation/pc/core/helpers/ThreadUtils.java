@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+import org.qubership.automation.pc.core.exceptions.CompareCancelledException;
 import org.slf4j.MDC;
 
 public final class ThreadUtils {
@@ -63,6 +64,18 @@ public final class ThreadUtils {
         return Objects.isNull(isThreadNameChanged.get()) ? false : isThreadNameChanged.get();
     }
 
+    /**
+     * Stops the current comparison if its thread is interrupted (the comparison is cancelled or timed out).
+     * Intended to be called from long-running comparator loops; the interrupted status is kept.
+     *
+     * @throws CompareCancelledException if the current thread is interrupted
+     */
+    public static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CompareCancelledException("Comparison is interrupted in thread " + getThreadName());
+        }
+    }
+
     public static void setMdcContextMap(Map<String, String> mdcMap) {
         MDC.setContextMap((Objects.isNull(mdcMap) || mdcMap.isEmpty()) ? new HashMap<>() : mdcMap);
     }
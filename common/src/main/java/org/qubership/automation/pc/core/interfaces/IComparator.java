@@ -22,6 +22,8 @@ import org.qubership.automation.pc.compareresult.DiffMessage;
 import org.qubership.automation.pc.configuration.parameters.Parameters;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
 import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.PreparedExpectation;
 
 /**
  * Interface defining a contract for comparing two data inputs (expected vs actual).
@@ -29,6 +31,10 @@ import org.qubership.automation.pc.data.Data;
  * Implementations of this interface perform comparisons using structured or raw data,
  * returning a list of {@link DiffMessage} objects that describe the differences.
  * Supports both base64-encoded and plain data formats.
+ * <p>
+ * When one ER is compared with many ARs, {@link #prepare(Data, Parameters)} is called once
+ * and {@link #compare(PreparedExpectation, Data)} is called for each AR, so decoding, parsing
+ * and rules reading of ER are not repeated.
  */
 public interface IComparator {
     /* Content of er/ar is base64-encoded by default */
@@ -43,4 +49,23 @@ public interface IComparator {
     Extra boolean parameter 'encoded' contains information about it */
     List<DiffMessage> compare(String er, String ar, Parameters configuration,
                               boolean encoded) throws ComparatorException;
+
+    /**
+     * Prepares base64-encoded ER to be compared with many ARs.
+     * By default, ER is only decoded; comparators override it to parse ER and compile rules once,
+     * together with {@link #compare(PreparedExpectation, Data)}.
+     *
+     * @param er            expected data
+     * @param configuration parameters of the comparison
+     * @return prepared expectation
+     * @throws ComparatorException if ER can't be prepared
+     */
+    default PreparedExpectation prepare(Data er, Parameters configuration) throws ComparatorException {
+        return new PreparedExpectation(er, DataContentConverter.toString(er), configuration);
+    }
+
+    /* Content of ar is base64-encoded; er is prepared by prepare() of the same comparator class */
+    default List<DiffMessage> compare(PreparedExpectation er, Data ar) throws ComparatorException {
+        return compare(er.getData(), ar, er.getParameters());
+    }
 }
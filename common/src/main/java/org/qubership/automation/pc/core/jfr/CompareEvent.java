@@ -0,0 +1,86 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.jfr;
+
+import java.util.List;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.data.Data;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Simple comparison of ER with ARs, see {@link JfrEvents}.
+ */
+@Name("org.qubership.pc.Compare")
+@Label("Compare")
+@Category(JfrEvents.CATEGORY)
+@Description("Simple comparison of ER with ARs")
+@StackTrace(false)
+public class CompareEvent extends Event {
+
+    @Label("Content Type")
+    private String contentType;
+
+    @Label("ER Size")
+    @DataAmount
+    private long erSize;
+
+    @Label("AR Size")
+    @DataAmount
+    private long arSize;
+
+    @Label("AR Count")
+    private int arCount;
+
+    @Label("Diff Count")
+    private int diffCount;
+
+    @Label("Result")
+    private String result;
+
+    public CompareEvent() {
+        begin();
+    }
+
+    /**
+     * Commits the event if it is recorded.
+     *
+     * @param er            expected data
+     * @param ar            actual data
+     * @param compareResult result of the comparison, {@code null} if it failed
+     */
+    public void finish(Data er, List<Data> ar, CompareResult compareResult) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        contentType = er == null ? null : String.valueOf(er.getContentType());
+        erSize = JfrEvents.contentSize(er);
+        arSize = JfrEvents.contentSize(ar);
+        arCount = ar == null ? 0 : ar.size();
+        diffCount = JfrEvents.diffCount(compareResult);
+        result = JfrEvents.summaryResult(compareResult);
+        commit();
+    }
+}
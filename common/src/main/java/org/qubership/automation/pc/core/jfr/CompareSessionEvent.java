@@ -0,0 +1,77 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.jfr;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Run of a compare session on a worker of the compare pool, see {@link JfrEvents}.
+ */
+@Name("org.qubership.pc.CompareSession")
+@Label("Compare Session")
+@Category(JfrEvents.CATEGORY)
+@Description("Comparison of a package run as a session of a compare queue")
+@StackTrace(false)
+public class CompareSessionEvent extends Event {
+
+    @Label("Session Id")
+    private String sessionId;
+
+    @Label("Queue Id")
+    private String queueId;
+
+    @Label("Estimated Cost")
+    private long estimatedCost;
+
+    @Label("Diff Count")
+    private int diffCount;
+
+    @Label("Result")
+    private String result;
+
+    public CompareSessionEvent() {
+        begin();
+    }
+
+    /**
+     * Commits the event if it is recorded.
+     *
+     * @param sessionId     id of the session
+     * @param queueId       id of the queue of the session, if any
+     * @param estimatedCost estimated cost of the session
+     * @param compareResult result of the session, {@code null} if it failed
+     */
+    public void finish(String sessionId, String queueId, long estimatedCost, CompareResult compareResult) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.sessionId = sessionId;
+        this.queueId = queueId;
+        this.estimatedCost = estimatedCost;
+        diffCount = JfrEvents.diffCount(compareResult);
+        result = JfrEvents.summaryResult(compareResult);
+        commit();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.jfr;
+
+import org.qubership.automation.pc.core.helpers.CompareProfiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Stage of a comparison marked with {@link CompareProfiler#stage(String)}, see {@link JfrEvents};
+ * nested stages are nested events of the same thread.
+ */
+@Name("org.qubership.pc.CompareStage")
+@Label("Compare Stage")
+@Category(JfrEvents.CATEGORY)
+@Description("Stage of a comparison, e.g. decoding, parsing or diffing")
+@StackTrace(false)
+public class CompareStageEvent extends Event implements CompareProfiler.Stage {
+
+    @Label("Stage")
+    private String stage;
+
+    /**
+     * Begins the stage event.
+     *
+     * @param stage name of the stage
+     * @return started event, or {@code null} if the event is not recorded
+     */
+    public static CompareProfiler.Stage open(String stage) {
+        CompareStageEvent event = new CompareStageEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void close() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Highlighting of differences in ER and AR, see {@link JfrEvents}.
+ */
+@Name("org.qubership.pc.Highlight")
+@Label("Highlight")
+@Category(JfrEvents.CATEGORY)
+@Description("Highlighting of differences in ER and AR")
+@StackTrace(false)
+public class HighlightEvent extends Event {
+
+    @Label("Content Type")
+    private String contentType;
+
+    @Label("ER Size")
+    @DataAmount
+    private long erSize;
+
+    @Label("AR Size")
+    @DataAmount
+    private long arSize;
+
+    @Label("Diff Count")
+    private int diffCount;
+
+    @Label("Status Code")
+    private String statusCode;
+
+    public HighlightEvent() {
+        begin();
+    }
+
+    /**
+     * Commits the event if it is recorded.
+     *
+     * @param contentType content type the data is highlighted as
+     * @param er          ER content
+     * @param ar          AR content
+     * @param diffCount   number of differences to highlight
+     * @param statusCode  status code of the highlighting, {@code null} if it succeeded
+     */
+    public void finish(String contentType, String er, String ar, int diffCount, String statusCode) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.contentType = contentType;
+        erSize = er == null ? 0 : er.length();
+        arSize = ar == null ? 0 : ar.length();
+        this.diffCount = diffCount;
+        this.statusCode = statusCode;
+        commit();
+    }
+}
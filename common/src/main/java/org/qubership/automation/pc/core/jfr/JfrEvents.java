@@ -0,0 +1,96 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.jfr;
+
+import java.util.List;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.compareresult.ResultData;
+import org.qubership.automation.pc.data.Data;
+
+/**
+ * Java Flight Recorder events of comparisons, highlighting and reading.
+ *
+ * <p>
+ * Events are emitted only if the JVM provides the {@code jdk.jfr} API (JDK 11+, 8u262+) and
+ * {@value #ENABLED_PROPERTY} is not {@code false}. Callers check {@link #ENABLED} before an event class
+ * is touched, so the classes are not loaded on JVMs without JFR:
+ * <pre>
+ * CompareEvent event = JfrEvents.ENABLED ? new CompareEvent() : null;
+ * ...
+ * if (event != null) {
+ *     event.finish(er, ar, result);
+ * }
+ * </pre>
+ * An event begins when it is created and is committed by its {@code finish} method, which collects the fields
+ * only if the event is enabled in a running recording, so the cost is next to nothing while nothing is recorded.
+ * All events are in "Process Comparator" category; stages of comparisons (see
+ * {@link org.qubership.automation.pc.core.helpers.CompareProfiler}) are emitted as {@link CompareStageEvent}.
+ * </p>
+ */
+public final class JfrEvents {
+
+    public static final String ENABLED_PROPERTY = "pc.jfr.enabled";
+    public static final String CATEGORY = "Process Comparator";
+    public static final boolean ENABLED = isAvailable();
+
+    private JfrEvents() {
+    }
+
+    static long contentSize(Data data) {
+        // size of decoded content, which neither encodes content set decoded nor decodes encoded content
+        return data == null ? 0 : Math.max(0, data.getContentSize());
+    }
+
+    static long contentSize(List<Data> data) {
+        long size = 0;
+        if (data != null) {
+            for (Data item : data) {
+                size += contentSize(item);
+            }
+        }
+        return size;
+    }
+
+    static int diffCount(CompareResult result) {
+        int count = 0;
+        if (result != null && result.getAr() != null) {
+            for (ResultData resultData : result.getAr()) {
+                if (resultData.getDifferences() != null) {
+                    count += resultData.getDifferences().size();
+                }
+            }
+        }
+        return count;
+    }
+
+    static String summaryResult(CompareResult result) {
+        return result == null || result.getSummaryResult() == null ? null : result.getSummaryResult().name();
+    }
+
+    private static boolean isAvailable() {
+        if ("false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY))) {
+            return false;
+        }
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+}
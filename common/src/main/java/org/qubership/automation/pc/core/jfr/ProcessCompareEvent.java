@@ -0,0 +1,83 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.jfr;
+
+import java.util.List;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.data.Data;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Comparison of ER process (test case) with AR processes, see {@link JfrEvents}.
+ * Comparisons of its parameters are recorded as {@link CompareEvent}s.
+ */
+@Name("org.qubership.pc.ProcessCompare")
+@Label("Process Compare")
+@Category(JfrEvents.CATEGORY)
+@Description("Comparison of ER process with AR processes step by step")
+@StackTrace(false)
+public class ProcessCompareEvent extends Event {
+
+    @Label("ER Name")
+    private String erName;
+
+    @Label("ER Size")
+    @DataAmount
+    private long erSize;
+
+    @Label("AR Count")
+    private int arCount;
+
+    @Label("Result Count")
+    private int resultCount;
+
+    @Label("Result")
+    private String result;
+
+    public ProcessCompareEvent() {
+        begin();
+    }
+
+    /**
+     * Commits the event if it is recorded.
+     *
+     * @param er            ER process
+     * @param ar            AR processes
+     * @param compareResult result of the comparison
+     */
+    public void finish(Data er, List<Data> ar, CompareResult compareResult) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        erName = er == null ? null : er.getName();
+        erSize = JfrEvents.contentSize(er);
+        arCount = ar == null ? 0 : ar.size();
+        resultCount = compareResult == null || compareResult.getChilds() == null
+                ? 0 : compareResult.getChilds().size();
+        result = JfrEvents.summaryResult(compareResult);
+        commit();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.jfr;
+
+import java.util.List;
+
+import org.qubership.automation.pc.data.DataList;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Read of data by a reader, see {@link JfrEvents}.
+ */
+@Name("org.qubership.pc.Read")
+@Label("Read")
+@Category(JfrEvents.CATEGORY)
+@Description("Read of data by a reader")
+@StackTrace(false)
+public class ReadEvent extends Event {
+
+    @Label("Reader Type")
+    private String readerType;
+
+    @Label("Reader Mode")
+    private String readerMode;
+
+    @Label("Data Source")
+    private String dataSource;
+
+    @Label("List Count")
+    private int listCount;
+
+    @Label("Row Count")
+    private long rowCount;
+
+    public ReadEvent() {
+        begin();
+    }
+
+    /**
+     * Commits the event if it is recorded.
+     *
+     * @param readerType type of the reader
+     * @param readerMode mode of the reader
+     * @param dataSource names of the data sources read, if any
+     * @param data       data read, {@code null} if the read failed
+     */
+    public void finish(String readerType, String readerMode, String dataSource, List<DataList> data) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.readerType = readerType;
+        this.readerMode = readerMode;
+        this.dataSource = dataSource;
+        if (data != null) {
+            listCount = data.size();
+            for (DataList dataList : data) {
+                if (dataList != null && dataList.getDatas() != null) {
+                    rowCount += dataList.getDatas().size();
+                }
+            }
+        }
+        commit();
+    }
+}
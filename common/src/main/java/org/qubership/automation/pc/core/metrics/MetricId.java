@@ -0,0 +1,72 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Name and tags of a metric; tags are name/value pairs in the order they are given.
+ */
+final class MetricId implements Comparable<MetricId> {
+
+    private final String name;
+    private final String[] tags;
+
+    MetricId(String name, String... tags) {
+        if (tags.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags of metric " + name + " are not name/value pairs");
+        }
+        this.name = name;
+        this.tags = tags.clone();
+        for (int i = 1; i < this.tags.length; i += 2) {
+            if (this.tags[i] == null) {
+                this.tags[i] = "none";
+            }
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String[] getTags() {
+        return tags;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof MetricId)) {
+            return false;
+        }
+        MetricId id = (MetricId) other;
+        return name.equals(id.name) && Arrays.equals(tags, id.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + Arrays.hashCode(tags);
+    }
+
+    @Override
+    public int compareTo(MetricId other) {
+        int result = name.compareTo(other.name);
+        return result != 0 ? result : Arrays.toString(tags).compareTo(Arrays.toString(other.tags));
+    }
+}
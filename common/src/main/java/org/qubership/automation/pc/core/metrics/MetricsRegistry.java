@@ -0,0 +1,237 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Registry of metrics of the hot paths: compare, highlight and read latencies, sizes of compared data,
+ * differences, queues and caches.
+ *
+ * <p>
+ * A metric is identified by its name and tags (name/value pairs), e.g.
+ * {@code timer("pc.compare.duration", "contentType", "XML")}; the same metric is returned for the same
+ * name and tags, so callers may look metrics up on each event. Gauges are read when the metrics are
+ * exported, a gauge registered again replaces the previous one.
+ * </p>
+ *
+ * <p>
+ * Metrics are exported as JSON ({@link #toJson()}) or in Prometheus text format ({@link #toPrometheus()}),
+ * where dots of the names are replaced with underscores, timers are histograms in seconds with
+ * {@code _seconds} suffix and counters have {@code _total} suffix.
+ * </p>
+ */
+public class MetricsRegistry {
+
+    /**
+     * Tag value of values which are not known, see {@link #enumTag(Class, String)}.
+     */
+    public static final String UNKNOWN_TAG_VALUE = "unknown";
+
+    private static final MetricsRegistry instance = new MetricsRegistry();
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<MetricId, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<MetricId, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<MetricId, Supplier<Number>> gauges = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns tag value of a value taken from a request: the value itself if it is a name of a constant
+     * of the enum, {@value #UNKNOWN_TAG_VALUE} otherwise, so arbitrary values do not make metrics of their own.
+     *
+     * @param enumClass enum of the known values
+     * @param value     value, may be {@code null}
+     * @param <E>       type of the enum
+     * @return tag value
+     */
+    public static <E extends Enum<E>> String enumTag(Class<E> enumClass, String value) {
+        if (value != null) {
+            for (E constant : enumClass.getEnumConstants()) {
+                if (constant.name().equals(value)) {
+                    return value;
+                }
+            }
+        }
+        return UNKNOWN_TAG_VALUE;
+    }
+
+    /**
+     * Returns the timer, creating it on first use.
+     *
+     * @param name name of the metric
+     * @param tags tag names and values
+     * @return timer of the name and tags
+     */
+    public Timer timer(String name, String... tags) {
+        return timers.computeIfAbsent(new MetricId(name, tags), id -> new Timer());
+    }
+
+    /**
+     * Returns the counter, creating it on first use.
+     *
+     * @param name name of the metric
+     * @param tags tag names and values
+     * @return counter of the name and tags
+     */
+    public Counter counter(String name, String... tags) {
+        return counters.computeIfAbsent(new MetricId(name, tags), id -> new Counter());
+    }
+
+    /**
+     * Registers the gauge, replacing the gauge of the same name and tags.
+     *
+     * @param name  name of the metric
+     * @param value supplier of the current value, called on export
+     * @param tags  tag names and values
+     */
+    public void gauge(String name, Supplier<Number> value, String... tags) {
+        gauges.put(new MetricId(name, tags), value);
+    }
+
+    /**
+     * Exports the metrics as JSON.
+     *
+     * @return JSON object with {@code timers} (count, total and max duration in ms, cumulative counts
+     *     by bucket bounds in seconds), {@code counters} and {@code gauges} arrays
+     */
+    public JsonObject toJson() {
+        JsonArray timerArray = new JsonArray();
+        for (Map.Entry<MetricId, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            Timer timer = entry.getValue();
+            JsonObject json = metricJson(entry.getKey());
+            json.addProperty("count", timer.getCount());
+            json.addProperty("totalMs", timer.getTotalNanos() / NANOS_PER_MILLI);
+            json.addProperty("maxMs", timer.getMaxNanos() / NANOS_PER_MILLI);
+            JsonObject buckets = new JsonObject();
+            long[] counts = timer.getBucketCounts();
+            for (int i = 0; i < counts.length; i++) {
+                buckets.addProperty(String.valueOf(Timer.BUCKETS[i]), counts[i]);
+            }
+            json.add("buckets", buckets);
+            timerArray.add(json);
+        }
+        JsonArray counterArray = new JsonArray();
+        for (Map.Entry<MetricId, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            JsonObject json = metricJson(entry.getKey());
+            json.addProperty("count", entry.getValue().getCount());
+            counterArray.add(json);
+        }
+        JsonArray gaugeArray = new JsonArray();
+        for (Map.Entry<MetricId, Supplier<Number>> entry : new TreeMap<>(gauges).entrySet()) {
+            JsonObject json = metricJson(entry.getKey());
+            json.addProperty("value", entry.getValue().get());
+            gaugeArray.add(json);
+        }
+        JsonObject result = new JsonObject();
+        result.add("timers", timerArray);
+        result.add("counters", counterArray);
+        result.add("gauges", gaugeArray);
+        return result;
+    }
+
+    /**
+     * Exports the metrics in Prometheus text format.
+     *
+     * @return text to be scraped
+     */
+    public String toPrometheus() {
+        StringBuilder text = new StringBuilder();
+        String typed = null;
+        for (Map.Entry<MetricId, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            String name = prometheusName(entry.getKey().getName()) + "_seconds";
+            typed = typeLine(text, name, "histogram", typed);
+            Timer timer = entry.getValue();
+            long[] counts = timer.getBucketCounts();
+            for (int i = 0; i < counts.length; i++) {
+                sample(text, name + "_bucket", entry.getKey(), String.valueOf(Timer.BUCKETS[i]), counts[i]);
+            }
+            sample(text, name + "_bucket", entry.getKey(), "+Inf", timer.getCount());
+            sample(text, name + "_sum", entry.getKey(), null, timer.getTotalNanos() / NANOS_PER_SECOND);
+            sample(text, name + "_count", entry.getKey(), null, timer.getCount());
+        }
+        for (Map.Entry<MetricId, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            String name = prometheusName(entry.getKey().getName()) + "_total";
+            typed = typeLine(text, name, "counter", typed);
+            sample(text, name, entry.getKey(), null, entry.getValue().getCount());
+        }
+        for (Map.Entry<MetricId, Supplier<Number>> entry : new TreeMap<>(gauges).entrySet()) {
+            String name = prometheusName(entry.getKey().getName());
+            typed = typeLine(text, name, "gauge", typed);
+            sample(text, name, entry.getKey(), null, entry.getValue().get());
+        }
+        return text.toString();
+    }
+
+    private static JsonObject metricJson(MetricId id) {
+        JsonObject json = new JsonObject();
+        json.addProperty("name", id.getName());
+        String[] tags = id.getTags();
+        if (tags.length > 0) {
+            JsonObject tagJson = new JsonObject();
+            for (int i = 0; i < tags.length; i += 2) {
+                tagJson.addProperty(tags[i], tags[i + 1]);
+            }
+            json.add("tags", tagJson);
+        }
+        return json;
+    }
+
+    private static String typeLine(StringBuilder text, String name, String type, String typed) {
+        if (!name.equals(typed)) {
+            text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+        return name;
+    }
+
+    private static void sample(StringBuilder text, String name, MetricId id, String bucket, Number value) {
+        text.append(name);
+        String[] tags = id.getTags();
+        if (tags.length > 0 || bucket != null) {
+            text.append('{');
+            for (int i = 0; i < tags.length; i += 2) {
+                label(text, prometheusName(tags[i]), tags[i + 1]);
+            }
+            if (bucket != null) {
+                label(text, "le", bucket);
+            }
+            text.setCharAt(text.length() - 1, '}');
+        }
+        text.append(' ').append(value == null ? "NaN" : value).append('\n');
+    }
+
+    private static void label(StringBuilder text, String name, String value) {
+        text.append(name).append("=\"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append("\",");
+    }
+
+    private static String prometheusName(String name) {
+        return name.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+}
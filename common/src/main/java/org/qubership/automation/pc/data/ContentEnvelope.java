@@ -0,0 +1,322 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.codec.binary.Base64;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Binary wire format of compare requests and results, which passes contents of {@link Data} as raw bytes
+ * instead of Base64 strings inside JSON.
+ *
+ * <p>
+ * The envelope is the usual JSON followed by the contents: magic bytes {@code PCE1}, length of the JSON
+ * and the JSON itself in UTF-8, number of contents, then kind (0 - text, 1 - Base64 content as decoded
+ * bytes), length and bytes of each content. In the JSON, {@code content} of each {@link Data} is replaced
+ * by {@value #CONTENT_INDEX} - index of its content in the envelope.
+ * </p>
+ *
+ * <p>
+ * Objects are converted to/from the JSON with {@link #getGson()}, which moves contents to/from the envelope.
+ * Data without {@value #CONTENT_INDEX} keeps its {@code content} from the JSON, so the JSON part
+ * can be made by any means. An instance is used for one request or response by one thread.
+ * </p>
+ *
+ * <p>
+ * Lengths in the envelope are not trusted: an envelope larger than {@value #MAX_SIZE_PROPERTY} megabytes
+ * ({@value #DEFAULT_MAX_SIZE_MB} by default) is rejected, and bytes are allocated as they arrive,
+ * so a short request declaring a huge length fails without taking the memory it declares.
+ * </p>
+ */
+public class ContentEnvelope {
+
+    public static final String MEDIA_TYPE = "application/x-pc-envelope";
+    public static final String CONTENT_INDEX = "contentIndex";
+    public static final String MAX_SIZE_PROPERTY = "pc.envelope.maxMb";
+    public static final long DEFAULT_MAX_SIZE_MB = 512;
+
+    private static final byte[] MAGIC = {'P', 'C', 'E', '1'};
+    private static final byte TEXT = 0;
+    private static final byte ENCODED = 1;
+    private static final String CONTENT = "content";
+    private static final int CHUNK_SIZE = 64 * 1024;
+    // kind and length of a content
+    private static final int CONTENT_HEADER_SIZE = 5;
+
+    private final List<Content> contents = new ArrayList<>();
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new DataAdapterFactory())
+            .addSerializationExclusionStrategy(new ContentExclusionStrategy())
+            .create();
+    private String json;
+
+    /**
+     * Reads the envelope of size up to {@value #MAX_SIZE_PROPERTY} megabytes.
+     *
+     * @param input input stream, it is not closed
+     * @return envelope with the JSON and contents read
+     * @throws IOException if the stream can not be read, it is not an envelope or it is too large
+     */
+    public static ContentEnvelope read(InputStream input) throws IOException {
+        return read(input, getConfiguredMaxBytes());
+    }
+
+    /**
+     * Reads the envelope.
+     *
+     * @param input    input stream, it is not closed
+     * @param maxBytes max size of the JSON and contents
+     * @return envelope with the JSON and contents read
+     * @throws IOException if the stream can not be read, it is not an envelope or it is larger than maxBytes
+     */
+    public static ContentEnvelope read(InputStream input, long maxBytes) throws IOException {
+        BoundedInput in = new BoundedInput(new DataInputStream(new BufferedInputStream(input)), maxBytes);
+        byte[] magic = new byte[MAGIC.length];
+        in.data.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Content is not in " + MEDIA_TYPE + " format");
+        }
+        ContentEnvelope envelope = new ContentEnvelope();
+        envelope.json = new String(in.readBytes(), StandardCharsets.UTF_8);
+        int count = in.readLength();
+        if ((long) count * CONTENT_HEADER_SIZE > in.remaining) {
+            throw new IOException("Illegal number of contents: " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            byte kind = in.data.readByte();
+            if (kind != TEXT && kind != ENCODED) {
+                throw new IOException("Illegal kind of content: " + kind);
+            }
+            envelope.contents.add(new Content(kind, in.readBytes()));
+        }
+        return envelope;
+    }
+
+    /**
+     * Writes the envelope: the JSON and contents of the data converted by {@link #getGson()} so far.
+     *
+     * @param json   JSON part
+     * @param output output stream, it is flushed but not closed
+     * @throws IOException if the stream can not be written
+     */
+    public void write(String json, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.write(MAGIC);
+        writeBytes(out, json.getBytes(StandardCharsets.UTF_8));
+        out.writeInt(contents.size());
+        for (Content content : contents) {
+            out.writeByte(content.kind);
+            writeBytes(out, content.bytes);
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns JSON part of the envelope read.
+     *
+     * @return JSON or {@code null} if the envelope is not read but made
+     */
+    public String getJson() {
+        return json;
+    }
+
+    /**
+     * Returns Gson which takes contents of {@link Data} from this envelope on reading
+     * and puts them to this envelope on writing.
+     *
+     * @return Gson bound to the envelope
+     */
+    public Gson getGson() {
+        return gson;
+    }
+
+    private int addContent(Data data) {
+        if (data.isContentEncoded() && data.hasDecodedContent()) {
+            // content set decoded is passed as it is, without encoding it
+            contents.add(new Content(ENCODED, data.getDecodedBytes()));
+        } else {
+            String content = data.getContent();
+            contents.add(isEncoded(data)
+                    ? new Content(ENCODED, data.getDecodedBytes())
+                    : new Content(TEXT, content.getBytes(StandardCharsets.UTF_8)));
+        }
+        return contents.size() - 1;
+    }
+
+    private void setContent(Data data, int index) {
+        if (index < 0 || index >= contents.size()) {
+            throw new JsonSyntaxException("Illegal " + CONTENT_INDEX + ": " + index);
+        }
+        Content content = contents.get(index);
+        if (content.kind == ENCODED) {
+            data.setDecodedBytes(content.bytes);
+        } else {
+            data.setContent(new String(content.bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static boolean isEncoded(Data data) {
+        return data.isContentEncoded() && Base64.isBase64(data.getContent());
+    }
+
+    private static long getConfiguredMaxBytes() {
+        long maxMb = DEFAULT_MAX_SIZE_MB;
+        String configured = System.getProperty(MAX_SIZE_PROPERTY);
+        if (configured != null) {
+            try {
+                maxMb = Long.parseLong(configured.trim());
+            } catch (NumberFormatException ex) {
+                maxMb = DEFAULT_MAX_SIZE_MB;
+            }
+        }
+        return maxMb * 1024 * 1024;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static final class BoundedInput {
+        private final DataInputStream data;
+        private long remaining;
+
+        private BoundedInput(DataInputStream data, long maxBytes) {
+            this.data = data;
+            this.remaining = maxBytes;
+        }
+
+        private byte[] readBytes() throws IOException {
+            int length = readLength();
+            if (length > remaining) {
+                throw new IOException("Envelope is larger than the limit, see " + MAX_SIZE_PROPERTY);
+            }
+            remaining -= length;
+            // the buffer grows as bytes arrive, so the declared length is allocated only if it is really sent
+            byte[] bytes = new byte[Math.min(length, CHUNK_SIZE)];
+            int read = 0;
+            while (read < length) {
+                if (read == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+                }
+                int chunk = bytes.length - read;
+                data.readFully(bytes, read, chunk);
+                read += chunk;
+            }
+            return bytes;
+        }
+
+        private int readLength() throws IOException {
+            int length = data.readInt();
+            if (length < 0) {
+                throw new IOException("Illegal length: " + length);
+            }
+            return length;
+        }
+    }
+
+    private static final class Content {
+        private final byte kind;
+        private final byte[] bytes;
+
+        private Content(byte kind, byte[] bytes) {
+            this.kind = kind;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Leaves {@code content} of {@link Data} out of the JSON on writing, as contents are passed
+     * in the envelope; on reading, content given in the JSON is kept.
+     */
+    private static final class ContentExclusionStrategy implements ExclusionStrategy {
+
+        @Override
+        public boolean shouldSkipField(FieldAttributes field) {
+            return field.getDeclaringClass() == Data.class && CONTENT.equals(field.getName());
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> type) {
+            return false;
+        }
+    }
+
+    private final class DataAdapterFactory implements TypeAdapterFactory {
+
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (!Data.class.isAssignableFrom(type.getRawType())) {
+                return null;
+            }
+            TypeAdapter<T> dataAdapter = gson.getDelegateAdapter(this, type);
+            if (dataAdapter instanceof Data.ContentAdapter) {
+                // the content field is not written, so content set decoded is not encoded for it
+                dataAdapter = ((Data.ContentAdapter<T>) dataAdapter).getDelegate();
+            }
+            final TypeAdapter<T> delegate = dataAdapter;
+            final TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+            return new TypeAdapter<T>() {
+                @Override
+                public void write(JsonWriter out, T value) throws IOException {
+                    JsonElement tree = delegate.toJsonTree(value);
+                    Data data = (Data) value;
+                    if (data != null && data.getContentSize() >= 0 && tree.isJsonObject()) {
+                        tree.getAsJsonObject().addProperty(CONTENT_INDEX, addContent(data));
+                    }
+                    elementAdapter.write(out, tree);
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    JsonElement tree = elementAdapter.read(in);
+                    JsonElement index = tree != null && tree.isJsonObject()
+                            ? tree.getAsJsonObject().remove(CONTENT_INDEX) : null;
+                    T value = delegate.fromJsonTree(tree);
+                    if (value != null && index != null) {
+                        setContent((Data) value, index.getAsInt());
+                    }
+                    return value;
+                }
+            };
+        }
+    }
+}
@@ -16,19 +16,40 @@
 
 package org.qubership.automation.pc.data;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.qubership.automation.pc.core.enums.DataContentType;
 import org.qubership.automation.pc.core.enums.DataType;
+import org.qubership.automation.pc.core.helpers.CompareProfiler;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 /*
  * MAIN Data format for Process Comparator
 */
+@JsonAdapter(value = Data.ContentAdapterFactory.class, nullSafe = false)
 public class Data {
 
+    /**
+     * Max size of decoded content in bytes which text is kept, see {@link #getDecodedContent()}.
+     */
+    public static final int DECODED_TEXT_CACHE_LIMIT = 1024 * 1024;
+
     /**
      * Generating by Process Comparator Internal use.
      */
@@ -62,6 +83,7 @@ public class Data {
     /**
      * Data content For primitives its stay in decoded format For
      * CSV,XML,JSON,EXCEL,BITMAP it's will be encoded with Base64.
+     * It is null until it is needed, if content is set decoded, see {@link #setDecodedContent(String)}.
      */
     protected String content;
 
@@ -72,6 +94,27 @@ public class Data {
 
     protected int orderNum;
 
+    /**
+     * Length of decoded content, set instead of the content in results, see {@link #copyWithoutContent(boolean)}.
+     */
+    protected Integer contentLength;
+
+    /**
+     * SHA-256 hash (hex) of decoded content, set instead of the content in results,
+     * see {@link #copyWithoutContent(boolean)}.
+     */
+    protected String contentHash;
+
+    /**
+     * Positions of children by name, see {@link #getChildIndexByName(String)}.
+     */
+    private transient volatile ChildIndex childIndex;
+
+    /**
+     * Content decoded from {@link #content}, see {@link #getDecodedContent()}.
+     */
+    private transient volatile DecodedContent decodedContent;
+
     //CONSTRUCTORS
     public Data() {
     }
@@ -132,12 +175,119 @@ public class Data {
         this.contentType = contentType;
     }
 
+    /**
+     * Returns content, encoded from the decoded form first if content is set decoded and not encoded yet.
+     *
+     * @return content
+     */
     public String getContent() {
-        return content;
+        String encoded = this.content;
+        DecodedContent decoded = this.decodedContent;
+        if (encoded == null && decoded != null && decoded.encoded == null) {
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("encode")) {
+                encoded = DataContentConverter.fromBytes(decoded.bytes);
+            }
+            this.decodedContent = new DecodedContent(encoded, decoded.bytes, decoded.text);
+            this.content = encoded;
+        }
+        return encoded;
     }
 
     public void setContent(String content) {
         this.content = content;
+        this.decodedContent = null;
+    }
+
+    /**
+     * Returns content decoded from Base64 as UTF-8 text.
+     *
+     * <p>
+     * Content is decoded once and kept until it is changed. Text of content up to
+     * {@value #DECODED_TEXT_CACHE_LIMIT} bytes is kept as well; larger content is kept as bytes only,
+     * which take half the memory of the text, and the text is made of them on each call.
+     * </p>
+     *
+     * @return decoded content
+     */
+    public String getDecodedContent() {
+        return decoded().text();
+    }
+
+    /**
+     * Returns content decoded from Base64.
+     *
+     * @return decoded content; the array is shared and must not be modified
+     */
+    public byte[] getDecodedBytes() {
+        return decoded().bytes;
+    }
+
+    /**
+     * Sets content given as decoded text. The decoded form is kept, so it is not decoded again,
+     * and it is encoded only when the encoded content is needed, see {@link #getContent()}.
+     *
+     * @param decodedContent decoded content
+     */
+    public void setDecodedContent(String decodedContent) {
+        this.content = null;
+        this.decodedContent = new DecodedContent(null, decodedContent.getBytes(StandardCharsets.UTF_8),
+                decodedContent);
+    }
+
+    /**
+     * Sets content given as decoded bytes, like {@link #setDecodedContent(String)} does.
+     *
+     * @param decodedBytes decoded content; the array is kept and must not be modified
+     */
+    public void setDecodedBytes(byte[] decodedBytes) {
+        this.content = null;
+        this.decodedContent = new DecodedContent(null, decodedBytes,
+                decodedBytes.length <= DECODED_TEXT_CACHE_LIMIT
+                        ? new String(decodedBytes, StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Returns size of content in bytes without encoding or decoding it. For content kept encoded
+     * (see {@link #isContentEncoded()}) it is the size of decoded content, taken from the decoded form
+     * if it is kept or calculated from the length of Base64 content otherwise; for other content
+     * it is the length of the text.
+     *
+     * @return size of content, -1 if there is no content
+     */
+    public long getContentSize() {
+        String encoded = this.content;
+        DecodedContent decoded = this.decodedContent;
+        if (decoded != null && decoded.encoded == encoded && (encoded == null || isContentEncoded())) {
+            return decoded.bytes.length;
+        }
+        if (encoded == null) {
+            return -1;
+        }
+        if (!isContentEncoded()) {
+            return encoded.length();
+        }
+        int length = encoded.length();
+        int padding = 0;
+        while (padding < 2 && padding < length && encoded.charAt(length - 1 - padding) == '=') {
+            padding++;
+        }
+        return Math.max(0, (long) length * 3 / 4 - padding);
+    }
+
+    private DecodedContent decoded() {
+        String encoded = this.content;
+        DecodedContent decoded = this.decodedContent;
+        // compared by identity, so content changed via a subclass field is decoded again as well;
+        // content set decoded and not encoded yet is null on both sides
+        if (decoded == null || decoded.encoded != encoded) {
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("decode")) {
+                byte[] bytes = DataContentConverter.toBytes(encoded);
+                decoded = new DecodedContent(encoded, bytes, bytes.length <= DECODED_TEXT_CACHE_LIMIT
+                        ? new String(bytes, StandardCharsets.UTF_8) : null);
+            }
+            this.decodedContent = decoded;
+        }
+        return decoded;
     }
 
     public List<Data> getChilds() {
@@ -146,6 +296,7 @@ public class Data {
 
     public void setChilds(List<Data> childs) {
         this.childs = childs;
+        this.childIndex = null;
     }
 
     public int getOrderNum() {
@@ -156,34 +307,103 @@ public class Data {
         this.orderNum = orderNum;
     }
 
+    public Integer getContentLength() {
+        return contentLength;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
     //END: GETTERS AND SETTERS
-    public boolean containsChildWithName(String name) {
-        if (this.childs != null) {
-            for (Data child : this.childs) {
-                if (child.getName().equals(name)) {
-                    return true;
-                }
-            }
+
+    /**
+     * Tells if content of the type is kept Base64-encoded, as it is for all types but primitives
+     * and task lists, see {@link DataContentConverter#contentTransformation(String, DataContentType, String)}.
+     *
+     * @return true if content is encoded
+     */
+    public boolean isContentEncoded() {
+        return contentType != null
+                && contentType != DataContentType.PRIMITIVES
+                && contentType != DataContentType.TASK_LIST;
+    }
+
+    /**
+     * Returns copy of the data without content and children, e.g. to be returned in results
+     * when the caller has the content already.
+     *
+     * @param withHash true to set {@link #getContentLength()} and {@link #getContentHash()} of decoded content
+     * @return copy of the data
+     */
+    public Data copyWithoutContent(boolean withHash) {
+        Data copy = new Data(name, dataType, externalId, timeStamp);
+        copy.internalId = internalId;
+        copy.contentType = contentType;
+        copy.orderNum = orderNum;
+        if (withHash && hasContent()) {
+            byte[] bytes = isContentEncoded() ? getDecodedBytes() : getContent().getBytes(StandardCharsets.UTF_8);
+            copy.contentLength = bytes.length;
+            copy.contentHash = DigestUtils.sha256Hex(bytes);
         }
-        return false;
+        return copy;
+    }
+
+    /**
+     * Tells if decoded form of current content is kept, so {@link #getDecodedBytes()} neither decodes
+     * nor encodes content.
+     */
+    boolean hasDecodedContent() {
+        DecodedContent decoded = this.decodedContent;
+        return decoded != null && decoded.encoded == content;
+    }
+
+    private boolean hasContent() {
+        DecodedContent decoded = this.decodedContent;
+        return content != null || decoded != null && decoded.encoded == null;
+    }
+
+    public boolean containsChildWithName(String name) {
+        return getChildIndexByName(name) >= 0;
     }
 
     public Data getChildByName(String name) {
-        for (Data child : this.childs) {
-            if (child.getName().equals(name)) {
-                return child;
-            }
-        }
-        return null;
+        int index = getChildIndexByName(name);
+        return index < 0 ? null : this.childs.get(index);
     }
 
+    /**
+     * Returns index of the first child with the name.
+     * <p>
+     * Children are looked up in an index by name, built on the first lookup. The index is built again
+     * when the list of children is replaced or its size is changed. If a child found by the index
+     * has another name (it is renamed or replaced in the list), children are scanned and the index is dropped.
+     *
+     * @param name name of the child
+     * @return index of the child, -1 if there is no child with the name
+     */
     public int getChildIndexByName(String name) {
-        int counter = 0;
-        for (Data child : this.childs) {
-            if (child.getName().equals(name)) {
-                return counter;
+        List<Data> currentChilds = this.childs;
+        if (currentChilds == null) {
+            return -1;
+        }
+        ChildIndex index = this.childIndex;
+        if (index == null || index.childs != currentChilds || index.size != currentChilds.size()) {
+            index = new ChildIndex(currentChilds);
+            this.childIndex = index;
+        }
+        Integer position = index.positions.get(name);
+        if (position == null) {
+            return -1;
+        }
+        if (Objects.equals(currentChilds.get(position).getName(), name)) {
+            return position;
+        }
+        this.childIndex = null;
+        for (int i = 0; i < currentChilds.size(); i++) {
+            if (Objects.equals(currentChilds.get(i).getName(), name)) {
+                return i;
             }
-            counter++;
         }
         return -1;
     }
@@ -210,4 +430,85 @@ public class Data {
         return counter;
     }
 
+    private static final class ChildIndex {
+        private final List<Data> childs;
+        private final int size;
+        private final Map<String, Integer> positions = new HashMap<>();
+
+        private ChildIndex(List<Data> childs) {
+            this.childs = childs;
+            this.size = childs.size();
+            for (int i = 0; i < size; i++) {
+                // the first child of a name is found, as it was found by the scan of the list
+                positions.putIfAbsent(childs.get(i).getName(), i);
+            }
+        }
+    }
+
+    /**
+     * Encodes content set decoded before the data is written by Gson, which writes the content field as it is.
+     * The adapter is not wrapped to be null-safe, as its delegate handles null, so {@link ContentEnvelope}
+     * can take the delegate.
+     */
+    static final class ContentAdapterFactory implements TypeAdapterFactory {
+
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (!Data.class.isAssignableFrom(type.getRawType())) {
+                return null;
+            }
+            return new ContentAdapter<>(gson.getDelegateAdapter(this, type));
+        }
+    }
+
+    /**
+     * Adapter made by {@link ContentAdapterFactory}.
+     */
+    static final class ContentAdapter<T> extends TypeAdapter<T> {
+
+        private final TypeAdapter<T> delegate;
+
+        private ContentAdapter(TypeAdapter<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Returns the adapter which writes the data as it is, without encoding content set decoded;
+         * it is for Gson which does not write the content field.
+         *
+         * @return delegate adapter
+         */
+        TypeAdapter<T> getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value != null) {
+                ((Data) value).getContent();
+            }
+            delegate.write(out, value);
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            return delegate.read(in);
+        }
+    }
+
+    private static final class DecodedContent {
+        private final String encoded;
+        private final byte[] bytes;
+        private final String text;
+
+        private DecodedContent(String encoded, byte[] bytes, String text) {
+            this.encoded = encoded;
+            this.bytes = bytes;
+            this.text = text;
+        }
+
+        private String text() {
+            return text != null ? text : new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
 }
@@ -35,8 +35,7 @@ public class DataContentConverter {
      * @return String decoded String
      */
     public static String toString(Data data) {
-        byte[] decodedBytes = Base64.decodeBase64(data.getContent());
-        return new String(decodedBytes,StandardCharsets.UTF_8);
+        return data.getDecodedContent();
     }
 
     /**
@@ -51,6 +50,27 @@ public class DataContentConverter {
         return new String(decodedBytes,StandardCharsets.UTF_8);
     }
 
+    /**
+     * Decode encoded String to bytes.
+     *
+     * @param content
+     *            encoded string
+     * @return byte[] decoded bytes
+     */
+    public static byte[] toBytes(String content) {
+        return Base64.decodeBase64(content);
+    }
+
+    /**
+     * Encode bytes to base64.
+     *
+     * @param content   bytes for encode
+     * @return String Encoded string
+     */
+    public static String fromBytes(byte[] content) {
+        return new String(Base64.encodeBase64(content));
+    }
+
     /**
      * Encode String to base64.
      * 
@@ -0,0 +1,61 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.data;
+
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+
+/**
+ * Expected result prepared once to be compared with many actual results.
+ *
+ * <p>
+ * Holds decoded ER content and parameters of the comparison; comparators extend it
+ * to keep parsed ER and compiled rules, see {@code IComparator.prepare(Data, Parameters)}.
+ * An instance is not changed after creation, but is used by one thread at a time
+ * (like the comparator which prepared it), because parsed documents are not thread-safe.
+ * </p>
+ */
+public class PreparedExpectation {
+
+    private final Data data;
+    private final String content;
+    private final Parameters parameters;
+
+    /**
+     * Creates prepared expectation.
+     *
+     * @param data       expected data, may be null if ER is given as a string
+     * @param content    decoded ER content
+     * @param parameters parameters of the comparison
+     */
+    public PreparedExpectation(Data data, String content, Parameters parameters) {
+        this.data = data;
+        this.content = content;
+        this.parameters = parameters;
+    }
+
+    public Data getData() {
+        return data;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Parameters getParameters() {
+        return parameters;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+
+public class ComparatorConfigurationSetTest {
+
+    @Test
+    public void getParameters_groupsParametersOnce_andAgainAfterMerge() {
+        ComparatorConfigurationSet set = new ComparatorConfigurationSet();
+        set.getParameters().put("sortBy[first]", "a");
+        set.groupParameters();
+        set.getParameters().put("sortBy[first]", "b");
+        set.getParameters(true);
+
+        assertEquals(Arrays.asList("\na"), set.getParameters().getParameters("sortBy"));
+        assertTrue(set.getParameters().containsKey("sortBy[first]"));
+
+        ComparatorConfigurationSet other = new ComparatorConfigurationSet();
+        other.getParameters().put("ignoreCase[second]", "true");
+        set.merge(other);
+        assertFalse(set.getParameters().containsKey("sortBy[first]"));
+        assertEquals(Arrays.asList("\ntrue"), set.getParameters().getParameters("ignoreCase"));
+    }
+
+    @Test
+    public void getParameters_returnsGroupedParameters_whateverTheArgumentIs() {
+        ComparatorConfigurationSet set = new ComparatorConfigurationSet();
+        Parameters parameters = new Parameters();
+        parameters.put("sortBy[first]", "a");
+        set.setParameters(parameters);
+
+        Parameters grouped = set.getParameters(false);
+
+        assertSame(grouped, set.getParameters(true));
+        assertEquals(Arrays.asList("\na"), grouped.getParameters("sortBy"));
+        assertFalse(grouped.containsKey("sortBy[first]"));
+
+        grouped.put("ignoreCase[second]", "true");
+        assertTrue(set.getParameters(true).containsKey("ignoreCase[second]"));
+        set.groupParameters();
+        assertEquals(Arrays.asList("\ntrue"), set.getParameters(true).getParameters("ignoreCase"));
+    }
+
+    @Test
+    public void getStepRule_findsFirstRuleOfStep_andMessagesByName() {
+        Rule first = rule("1", "request", "ignoreCase", "true");
+        Rule duplicate = rule("1", "request", "ignoreCase", "false");
+        ComparatorConfigurationSet set = new ComparatorConfigurationSet();
+        set.setRules(new ArrayList<>(Arrays.asList(first, duplicate)));
+        set.prepare();
+
+        assertSame(first, set.getStepRule("1"));
+        assertEquals("true", set.getStepRule("1").getParameters("request").getParameter("ignoreCase"));
+        assertTrue(set.getStepRule("1").getParameters("response").getParameters().isEmpty());
+        assertEquals("2", set.getStepRule("2").getStep());
+
+        ComparatorConfigurationSet other = new ComparatorConfigurationSet();
+        other.setRules(new ArrayList<>(Arrays.asList(rule("1", "response", "sortBy", "a"),
+                rule("2", "request", "sortBy", "b"))));
+        set.merge(other);
+        assertEquals("a", set.getStepRule("1").getParameters("response").getParameter("sortBy"));
+        assertEquals("b", set.getStepRule("2").getParameters("request").getParameter("sortBy"));
+    }
+
+    private static Rule rule(String step, String messageName, String name, String value) {
+        Message message = new Message();
+        message.setName(messageName);
+        Parameters parameters = new Parameters();
+        parameters.put(name, value);
+        message.setParameters(parameters);
+        Rule rule = new Rule(step);
+        rule.addMessage(message);
+        return rule;
+    }
+}
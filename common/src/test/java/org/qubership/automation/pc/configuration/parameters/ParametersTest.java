@@ -17,8 +17,13 @@
 package org.qubership.automation.pc.configuration.parameters;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -38,4 +43,36 @@ public class ParametersTest {
         parameters.putAll(parameterList);
         assertEquals(parameters.getParameters().size(), 3);
     }
+
+    @Test
+    public void getParameters_keepsOrderOfValues_andReflectsChanges() {
+        Parameters parameters = new Parameters();
+        parameters.put("sortBy", "b");
+        parameters.put("ignoreCase", "true");
+        parameters.put("sortBy", "a");
+        assertEquals(Arrays.asList("b", "a"), parameters.getParameters("sortBy"));
+        assertEquals("b", parameters.getParameter("sortBy"));
+        assertNull(parameters.getParameters("missed"));
+
+        parameters.put("sortBy", "c");
+        parameters.removeParameter("ignoreCase");
+        assertEquals(Arrays.asList("b", "a", "c"), parameters.getParameters("sortBy"));
+        assertFalse(parameters.containsKey("ignoreCase"));
+    }
+
+    @Test
+    public void freeze_returnsImmutableCopy() {
+        Parameters parameters = new Parameters();
+        parameters.put("sortBy", "b");
+        parameters.put("sortBy", "a");
+        Parameters frozen = parameters.freeze();
+        parameters.put("sortBy", "c");
+
+        assertEquals(Arrays.asList("b", "a"), frozen.getParameters("sortBy"));
+        assertSame(frozen, frozen.freeze());
+        assertThrows(UnsupportedOperationException.class, () -> frozen.put("sortBy", "d"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getParameters().clear());
+        frozen.getParameters("sortBy").add("d");
+        assertEquals(2, frozen.getParameters("sortBy").size());
+    }
 }
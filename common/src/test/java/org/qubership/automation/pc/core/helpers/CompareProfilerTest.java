@@ -0,0 +1,77 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.compareresult.CompareProfile;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+
+public class CompareProfilerTest {
+
+    @Test
+    public void finish_returnsNestedStagesInOrderTheyAreOpened() {
+        CompareProfiler profiler = CompareProfiler.start();
+        for (int i = 0; i < 2; i++) {
+            try (CompareProfiler.Stage compare = CompareProfiler.stage("compare")) {
+                try (CompareProfiler.Stage parse = CompareProfiler.stage("xml.parse")) {
+                    Assertions.assertNotNull(parse);
+                }
+            }
+        }
+        try (CompareProfiler.Stage filter = CompareProfiler.stage("excludeDiffWithStatus")) {
+            Assertions.assertNotNull(filter);
+        }
+        CompareProfile profile = profiler.finish();
+
+        List<CompareProfile.Stage> stages = profile.getStages();
+        Assertions.assertEquals(3, stages.size());
+        Assertions.assertEquals("compare", stages.get(0).getName());
+        Assertions.assertEquals(2, stages.get(0).getCount());
+        Assertions.assertEquals("compare/xml.parse", stages.get(1).getName());
+        Assertions.assertEquals("excludeDiffWithStatus", stages.get(2).getName());
+        Assertions.assertTrue(stages.get(0).getTimeMs() >= stages.get(1).getTimeMs());
+        Assertions.assertTrue(profile.getTotalMs() >= stages.get(0).getTimeMs());
+    }
+
+    @Test
+    public void stage_isRecordedByCurrentProfilerOnly() {
+        Data data = new Data();
+        data.setContent(DataContentConverter.fromBytes("<a/>".getBytes(StandardCharsets.UTF_8)));
+        try (CompareProfiler.Stage stage = CompareProfiler.stage("compare")) {
+            Assertions.assertNotNull(stage);
+        }
+
+        CompareProfiler outer = CompareProfiler.start();
+        CompareProfiler inner = CompareProfiler.start();
+        data.getDecodedContent();
+        CompareProfile innerProfile = inner.finish();
+        try (CompareProfiler.Stage stage = CompareProfiler.stage("compare")) {
+            Assertions.assertNotNull(stage);
+        }
+        CompareProfile outerProfile = outer.finish();
+
+        Assertions.assertEquals(1, innerProfile.getStages().size());
+        Assertions.assertEquals("decode", innerProfile.getStages().get(0).getName());
+        Assertions.assertEquals(1, outerProfile.getStages().size());
+        Assertions.assertEquals("compare", outerProfile.getStages().get(0).getName());
+    }
+}
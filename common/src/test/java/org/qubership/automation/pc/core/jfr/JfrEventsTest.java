@@ -0,0 +1,91 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.jfr;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.core.enums.DataContentType;
+import org.qubership.automation.pc.core.helpers.CompareProfiler;
+import org.qubership.automation.pc.data.Data;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrEventsTest {
+
+    @Test
+    public void events_areCommitted_whileRecorded() throws Exception {
+        Assertions.assertTrue(JfrEvents.ENABLED);
+        Data data = new Data();
+        data.setContent("abcd");
+        Path file = Files.createTempFile("pc-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(CompareEvent.class);
+            recording.enable(CompareStageEvent.class);
+            recording.start();
+            CompareEvent event = new CompareEvent();
+            try (CompareProfiler.Stage outer = CompareProfiler.stage("outer")) {
+                try (CompareProfiler.Stage inner = CompareProfiler.stage("inner")) {
+                    // nothing to do
+                }
+            }
+            event.finish(data, Collections.singletonList(data), null);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<String> stages = new ArrayList<>();
+        RecordedEvent compare = null;
+        for (RecordedEvent recorded : RecordingFile.readAllEvents(file)) {
+            if (recorded.getEventType().getName().equals("org.qubership.pc.CompareStage")) {
+                stages.add(recorded.getString("stage"));
+            } else {
+                compare = recorded;
+            }
+        }
+        Files.delete(file);
+
+        Assertions.assertEquals(2, stages.size());
+        Assertions.assertTrue(stages.contains("outer") && stages.contains("inner"));
+        Assertions.assertNotNull(compare);
+        Assertions.assertEquals(4, compare.getLong("erSize"));
+        Assertions.assertEquals(1, compare.getInt("arCount"));
+        Assertions.assertEquals(0, compare.getInt("diffCount"));
+    }
+
+    @Test
+    public void contentSize_isSizeOfDecodedContent() {
+        Data data = new Data();
+        data.setContentType(DataContentType.XML);
+        data.setDecodedContent("<a/>");
+
+        Assertions.assertEquals(4, JfrEvents.contentSize(data));
+        Assertions.assertEquals(0, JfrEvents.contentSize(new Data()));
+    }
+
+    @Test
+    public void stage_isNotRecorded_withoutRecording() {
+        Assertions.assertNull(CompareStageEvent.open("stage"));
+    }
+}
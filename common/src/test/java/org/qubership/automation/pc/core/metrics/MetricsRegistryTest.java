@@ -0,0 +1,95 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonObject;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void timer_isSharedByNameAndTags_andCountsEventsByBuckets() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Timer timer = registry.timer("pc.compare.duration", "contentType", "XML");
+        Assertions.assertSame(timer, registry.timer("pc.compare.duration", "contentType", "XML"));
+        Assertions.assertNotSame(timer, registry.timer("pc.compare.duration", "contentType", "JSON"));
+
+        timer.record(TimeUnit.MICROSECONDS.toNanos(500));
+        timer.record(TimeUnit.MILLISECONDS.toNanos(20));
+        timer.record(TimeUnit.SECONDS.toNanos(60));
+
+        Assertions.assertEquals(3, timer.getCount());
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(60), timer.getMaxNanos());
+        long[] buckets = timer.getBucketCounts();
+        Assertions.assertEquals(1, buckets[0]);
+        Assertions.assertEquals(2, buckets[3]);
+        Assertions.assertEquals(2, buckets[buckets.length - 1]);
+    }
+
+    @Test
+    public void toJson_exportsTimersCountersAndGauges() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("pc.compare.diffs", "result", "MODIFIED").increment(3);
+        registry.timer("pc.read.duration", "readerType", "SQLReader").record(1);
+        registry.gauge("pc.compare.queues", () -> 2);
+
+        JsonObject json = registry.toJson();
+
+        JsonObject counter = json.getAsJsonArray("counters").get(0).getAsJsonObject();
+        Assertions.assertEquals("pc.compare.diffs", counter.get("name").getAsString());
+        Assertions.assertEquals("MODIFIED", counter.getAsJsonObject("tags").get("result").getAsString());
+        Assertions.assertEquals(3, counter.get("count").getAsLong());
+        Assertions.assertEquals(1, json.getAsJsonArray("timers").get(0).getAsJsonObject().get("count").getAsLong());
+        Assertions.assertEquals(2, json.getAsJsonArray("gauges").get(0).getAsJsonObject().get("value").getAsInt());
+    }
+
+    @Test
+    public void toPrometheus_writesHistogramsCountersAndGauges() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.timer("pc.compare.duration", "contentType", "XML").record(TimeUnit.MILLISECONDS.toNanos(2));
+        registry.counter("pc.compare.content.size", "contentType", "XML").increment(10);
+        registry.gauge("pc.compare.queue.depth", () -> 4);
+
+        String text = registry.toPrometheus();
+        String histogram = "pc_compare_duration_seconds";
+
+        Assertions.assertTrue(text.contains("# TYPE " + histogram + " histogram\n"));
+        Assertions.assertTrue(text.contains(histogram + "_bucket{contentType=\"XML\",le=\"0.001\"} 0\n"));
+        Assertions.assertTrue(text.contains(histogram + "_bucket{contentType=\"XML\",le=\"0.005\"} 1\n"));
+        Assertions.assertTrue(text.contains(histogram + "_bucket{contentType=\"XML\",le=\"+Inf\"} 1\n"));
+        Assertions.assertTrue(text.contains(histogram + "_count{contentType=\"XML\"} 1\n"));
+        Assertions.assertTrue(text.contains("pc_compare_content_size_total{contentType=\"XML\"} 10\n"));
+        Assertions.assertTrue(text.contains("# TYPE pc_compare_queue_depth gauge\npc_compare_queue_depth 4\n"));
+    }
+
+    @Test
+    public void enumTag_isUnknown_forValuesWhichAreNotConstantsOfEnum() {
+        Assertions.assertEquals("SECONDS", MetricsRegistry.enumTag(TimeUnit.class, "SECONDS"));
+        Assertions.assertEquals(MetricsRegistry.UNKNOWN_TAG_VALUE, MetricsRegistry.enumTag(TimeUnit.class, "seconds"));
+        Assertions.assertEquals(MetricsRegistry.UNKNOWN_TAG_VALUE, MetricsRegistry.enumTag(TimeUnit.class, null));
+    }
+
+    @Test
+    public void tags_mustBeNameValuePairs() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new MetricsRegistry().counter("pc.compare.diffs", "result"));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.core.enums.DataContentType;
+
+public class ContentEnvelopeTest {
+
+    @Test
+    public void write_passesContentsOutOfJson_andReadRestoresThem() throws IOException {
+        DataPackage dataPackage = new DataPackage();
+        dataPackage.setEr(data(DataContentType.XML, DataContentConverter.fromString("<a>é</a>")));
+        Data ar = data(DataContentType.PRIMITIVES, "plain text");
+        ar.getChilds().add(data(DataContentType.JSON, DataContentConverter.fromString("{\"a\":1}")));
+        dataPackage.getAr().add(ar);
+
+        ContentEnvelope request = new ContentEnvelope();
+        String json = request.getGson().toJson(dataPackage);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        request.write(json, body);
+        assertFalse(json.contains(dataPackage.getEr().getContent()));
+        assertFalse(json.contains("plain text"));
+
+        ContentEnvelope read = ContentEnvelope.read(new ByteArrayInputStream(body.toByteArray()));
+        assertEquals(json, read.getJson());
+        DataPackage readPackage = read.getGson().fromJson(read.getJson(), DataPackage.class);
+        assertEquals(dataPackage.getEr().getContent(), readPackage.getEr().getContent());
+        assertEquals("<a>é</a>", readPackage.getEr().getDecodedContent());
+        assertEquals("plain text", readPackage.getAr().get(0).getContent());
+        assertEquals("{\"a\":1}", readPackage.getAr().get(0).getChilds().get(0).getDecodedContent());
+    }
+
+    @Test
+    public void write_passesContentSetDecoded_withoutEncodingIt() throws IOException {
+        Data data = new Data();
+        data.setContentType(DataContentType.XML);
+        data.setDecodedContent("<a>é</a>");
+
+        ContentEnvelope request = new ContentEnvelope();
+        String json = request.getGson().toJson(data);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        request.write(json, body);
+
+        assertNull(data.content);
+        assertFalse(json.contains("\"content\""));
+        ContentEnvelope read = ContentEnvelope.read(new ByteArrayInputStream(body.toByteArray()));
+        assertEquals("<a>é</a>", read.getGson().fromJson(read.getJson(), Data.class).getDecodedContent());
+    }
+
+    @Test
+    public void read_keepsContentGivenInJson() throws IOException {
+        String json = "{\"content\":\"" + DataContentConverter.fromString("<b/>") + "\"}";
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        new ContentEnvelope().write(json, body);
+
+        ContentEnvelope read = ContentEnvelope.read(new ByteArrayInputStream(body.toByteArray()));
+        assertEquals("<b/>", read.getGson().fromJson(read.getJson(), Data.class).getDecodedContent());
+    }
+
+    @Test
+    public void read_fails_whenContentIsNotEnvelope() {
+        IOException ex = assertThrows(IOException.class, () -> ContentEnvelope.read(
+                new ByteArrayInputStream("{\"dataPackages\":[]}".getBytes(StandardCharsets.UTF_8))));
+        assertTrue(ex.getMessage().contains(ContentEnvelope.MEDIA_TYPE));
+    }
+
+    @Test
+    public void read_fails_whenDeclaredLengthExceedsLimit() {
+        byte[] body = {'P', 'C', 'E', '1', 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff};
+        IOException ex = assertThrows(IOException.class,
+                () -> ContentEnvelope.read(new ByteArrayInputStream(body), 1024));
+        assertTrue(ex.getMessage().contains(ContentEnvelope.MAX_SIZE_PROPERTY));
+    }
+
+    @Test
+    public void read_fails_whenStreamIsShorterThanDeclaredLength() {
+        byte[] body = {'P', 'C', 'E', '1', 0x10, 0, 0, 0, '{', '}'};
+        assertThrows(EOFException.class, () -> ContentEnvelope.read(new ByteArrayInputStream(body)));
+    }
+
+    private static Data data(DataContentType contentType, String content) {
+        Data data = new Data();
+        data.setContentType(contentType);
+        data.setContent(content);
+        return data;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.core.enums.DataContentType;
+
+import com.google.gson.Gson;
+
+public class DataTest {
+
+    @Test
+    public void getChildIndexByName_returnsFirstChildOfName() {
+        Data parent = parent("step1", "step2", "step1");
+
+        assertEquals(0, parent.getChildIndexByName("step1"));
+        assertEquals(1, parent.getChildIndexByName("step2"));
+        assertEquals(-1, parent.getChildIndexByName("step3"));
+        assertSame(parent.getChilds().get(0), parent.getChildByName("step1"));
+        assertNull(parent.getChildByName("step3"));
+    }
+
+    @Test
+    public void getChildIndexByName_followsChangesOfChildren() {
+        Data parent = parent("step1", "step2");
+        assertEquals(-1, parent.getChildIndexByName("step3"));
+
+        parent.getChilds().add(child("step3"));
+        assertEquals(2, parent.getChildIndexByName("step3"));
+
+        parent.getChilds().get(0).setName("renamed");
+        assertEquals(-1, parent.getChildIndexByName("step1"));
+        assertEquals(0, parent.getChildIndexByName("renamed"));
+
+        parent.setChilds(new ArrayList<>(Arrays.asList(child("step2"))));
+        assertEquals(0, parent.getChildIndexByName("step2"));
+        assertFalse(parent.containsChildWithName("step3"));
+    }
+
+    @Test
+    public void getDecodedContent_isCachedUntilContentIsChanged() {
+        Data data = new Data();
+        data.setContent(DataContentConverter.fromString("<a>\u00e9</a>"));
+
+        String decoded = data.getDecodedContent();
+        assertEquals("<a>\u00e9</a>", decoded);
+        assertSame(decoded, data.getDecodedContent());
+        assertSame(data.getDecodedBytes(), data.getDecodedBytes());
+
+        data.setContent(DataContentConverter.fromString("<b/>"));
+        assertEquals("<b/>", data.getDecodedContent());
+
+        data.setDecodedContent("<c/>");
+        assertEquals(DataContentConverter.fromString("<c/>"), data.getContent());
+        assertEquals("<c/>", DataContentConverter.toString(data));
+    }
+
+    @Test
+    public void setDecodedContent_isEncodedForGson_andKeptDecoded() {
+        Data data = parent("child");
+        data.setDecodedContent("<a>\u00e9</a>");
+        data.getChilds().get(0).setDecodedBytes(new byte[] {1, 2, 3});
+        String decoded = data.getDecodedContent();
+
+        Data read = new Gson().fromJson(new Gson().toJson(data), Data.class);
+        assertEquals("<a>\u00e9</a>", read.getDecodedContent());
+        assertEquals(DataContentConverter.fromBytes(new byte[] {1, 2, 3}), read.getChilds().get(0).getContent());
+        assertSame(decoded, data.getDecodedContent());
+    }
+
+    @Test
+    public void getContentSize_isSizeOfDecodedContent_withoutEncodingIt() {
+        Data data = new Data();
+        data.setContentType(DataContentType.XML);
+        assertEquals(-1, data.getContentSize());
+
+        for (String text : Arrays.asList("", "a", "ab", "abc", "<a>\u00e9</a>")) {
+            data.setContent(DataContentConverter.fromString(text));
+            assertEquals(text.getBytes(StandardCharsets.UTF_8).length, data.getContentSize());
+        }
+
+        data.setDecodedBytes(new byte[] {1, 2, 3, 4});
+        assertEquals(4, data.getContentSize());
+        data.setContentType(DataContentType.PRIMITIVES);
+        data.setContent("value");
+        assertEquals(5, data.getContentSize());
+    }
+
+    @Test
+    public void copyWithoutContent_keepsAttributes_andHashesDecodedContent() {
+        Data data = parent("child");
+        data.setName("er");
+        data.setContentType(DataContentType.XML);
+        data.setContent(DataContentConverter.fromString("<a/>"));
+
+        Data copy = data.copyWithoutContent(true);
+        assertEquals(data.getInternalId(), copy.getInternalId());
+        assertEquals("er", copy.getName());
+        assertNull(copy.getContent());
+        assertTrue(copy.getChilds().isEmpty());
+        assertEquals(4, copy.getContentLength().intValue());
+        assertEquals(DigestUtils.sha256Hex("<a/>"), copy.getContentHash());
+        assertEquals(1, data.getChilds().size());
+
+        data.setContentType(DataContentType.PRIMITIVES);
+        data.setContent("<a/>");
+        assertEquals(DigestUtils.sha256Hex("<a/>"), data.copyWithoutContent(true).getContentHash());
+        assertNull(data.copyWithoutContent(false).getContentHash());
+    }
+
+    private static Data parent(String... names) {
+        Data parent = new Data();
+        for (String name : names) {
+            parent.getChilds().add(child(name));
+        }
+        return parent;
+    }
+
+    private static Data child(String name) {
+        Data child = new Data();
+        child.setName(name);
+        return child;
+    }
+}
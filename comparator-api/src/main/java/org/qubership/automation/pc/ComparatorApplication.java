@@ -21,13 +21,16 @@ import java.util.Set;
 
 import javax.ws.rs.core.Application;
 
+import org.glassfish.jersey.message.GZipEncoder;
+import org.glassfish.jersey.server.filter.EncodingFilter;
 import org.qubership.automation.pc.filters.DefaultCrossDomainFilter;
 
 /**
  * The entry point of the JAX-RS application used to configure and bootstrap the REST API.
  *
  * <p>
- * Registers components and filters required for the comparator service, such as cross-domain support.
+ * Registers components and filters required for the comparator service, such as cross-domain support
+ * and gzip content encoding.
  * This class extends {@link javax.ws.rs.core.Application} and overrides the set of resource and provider classes.
  * </p>
  *
@@ -38,6 +41,9 @@ public class ComparatorApplication extends Application {
     public Set<Class<?>> getClasses() {
         final Set<Class<?>> classes = new HashSet<>();
         classes.add(DefaultCrossDomainFilter.class);
+        // gzip-compressed request bodies are decoded, responses are compressed if the client accepts gzip
+        classes.add(EncodingFilter.class);
+        classes.add(GZipEncoder.class);
         return classes;
     }
 }
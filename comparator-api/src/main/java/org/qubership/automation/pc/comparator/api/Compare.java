@@ -18,7 +18,8 @@ package org.qubership.automation.pc.comparator.api;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.ArrayList;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.List;
 
 import javax.servlet.ServletException;
@@ -32,12 +33,10 @@ import org.qubership.automation.pc.configuration.ComparatorConfiguration;
 import org.qubership.automation.pc.core.exceptions.ComparatorManagerException;
 import org.qubership.automation.pc.core.helpers.JSONUtils;
 import org.qubership.automation.pc.core.helpers.ResponseMessages;
+import org.qubership.automation.pc.data.ContentEnvelope;
 import org.qubership.automation.pc.data.DataPackage;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 
 /**
@@ -47,13 +46,20 @@ import com.google.gson.JsonSyntaxException;
  * containing comparator configuration and data packages. It delegates comparison
  * logic to the {@link ComparatorManager} and returns the result as a JSON response.</p>
  *
- * Expected request parameter: {@code content} - a JSON-formatted string that includes:
+ * Expected request parameter: {@code content} - a JSON-formatted string (if it is not given, the request body
+ * is read instead) that includes:
  * <ul>
  *   <li>{@code comparatorConfiguration} (optional) - comparison settings</li>
  *   <li>{@code dataPackages} (required) - data to compare</li>
  * </ul>
  *
- * <p>Responses are returned in JSON format and include comparison results or error messages.</p>
+ * <p>Responses are returned in JSON format and include comparison results or error messages.
+ * If request parameter {@code stream} is {@code true}, results are streamed as NDJSON (one result per line)
+ * as soon as each package is compared.</p>
+ *
+ * <p>Requests of {@code application/x-pc-envelope} content type are read from the body in
+ * {@link ContentEnvelope} format, where ER/AR contents are raw bytes instead of Base64 strings,
+ * and results are returned in the same format.</p>
  */
 public class Compare extends HttpServlet {
 
@@ -68,41 +74,44 @@ public class Compare extends HttpServlet {
      */
     protected void processRequest(HttpServletRequest request,
                                   HttpServletResponse response) throws ServletException, IOException {
-        response.setContentType("text/json;charset=UTF-8");
         response.setHeader("Access-Control-Allow-Origin", "*");
-        String content = request.getParameter("content");
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith(ContentEnvelope.MEDIA_TYPE)) {
+            ContentEnvelope envelope = ContentEnvelope.read(request.getInputStream());
+            response.setContentType(ContentEnvelope.MEDIA_TYPE);
+            new ComparatorResource().compare(envelope, response.getOutputStream());
+            return;
+        }
+        Reader content = getContent(request);
+        boolean stream = Boolean.parseBoolean(request.getParameter("stream"));
+        response.setContentType(stream ? "application/x-ndjson;charset=UTF-8" : "text/json;charset=UTF-8");
+        if (content == null) {
+            response.setStatus(20101);
+            try (PrintWriter out = response.getWriter()) {
+                out.write(JSONUtils.statusMessage(20101, ResponseMessages.msg(20101)).toString());
+                if (stream) {
+                    out.write('\n');
+                }
+            }
+            return;
+        }
+        if (stream) {
+            try (PrintWriter out = response.getWriter()) {
+                new ComparatorResource().compare(content, out);
+            }
+            return;
+        }
         Gson gson = new Gson();
         try (PrintWriter out = response.getWriter()) {
             try {
-                JsonObject contextObject = new JsonParser().parse(content).getAsJsonObject();
-                ComparatorConfiguration globalConfiguration;
-                List<DataPackage> dataPackages = new ArrayList<>();
-
-                //Deserialize contexts            
-                if (contextObject.has("comparatorConfiguration")) {
-                    globalConfiguration = gson.fromJson(
-                            contextObject.getAsJsonObject("comparatorConfiguration").toString(),
-                            ComparatorConfiguration.class);
-                } else {
-                    globalConfiguration = new ComparatorConfiguration();
-                }
-
-                if (contextObject.has("dataPackages")) {
-                    JsonArray jsonDataPackages = contextObject.getAsJsonArray("dataPackages");
-                    for (int i = 0; i < jsonDataPackages.size(); i++) {
-                        DataPackage dataPackage = gson.fromJson(jsonDataPackages.get(i).getAsJsonObject().toString(),
-                                DataPackage.class);
-                        dataPackages.add(dataPackage);
-                    }
-                    if (!dataPackages.isEmpty()) {
-                        ComparatorManager comparatorManager = new ComparatorManager();
-                        List<CompareResult> compareResult
-                                = comparatorManager.compare(dataPackages, globalConfiguration);
-                        out.write(gson.toJson(compareResult));
-                    } else {
-                        response.setStatus(20101);
-                        out.write(JSONUtils.statusMessage(20101, ResponseMessages.msg(20101)).toString());
-                    }
+                CompareRequestReader compareRequest = new CompareRequestReader(gson).read(content);
+                ComparatorConfiguration globalConfiguration = compareRequest.getConfiguration() == null
+                        ? new ComparatorConfiguration() : compareRequest.getConfiguration();
+                List<DataPackage> dataPackages = compareRequest.getDataPackages();
+                if (!dataPackages.isEmpty()) {
+                    ComparatorManager comparatorManager = new ComparatorManager();
+                    List<CompareResult> compareResult = comparatorManager.compare(dataPackages, globalConfiguration);
+                    out.write(gson.toJson(compareResult));
                 } else {
                     response.setStatus(20101);
                     out.write(JSONUtils.statusMessage(20101, ResponseMessages.msg(20101)).toString());
@@ -122,6 +131,27 @@ public class Compare extends HttpServlet {
         }
     }
 
+    /**
+     * Returns the request: {@code content} parameter if it is given, the body otherwise.
+     *
+     * @param request servlet request
+     * @return reader of the request or {@code null} if there is neither the parameter nor the body
+     * @throws IOException if the body can not be read
+     */
+    private static Reader getContent(HttpServletRequest request) throws IOException {
+        String content = request.getParameter("content");
+        if (content != null) {
+            return new StringReader(content);
+        }
+        String contentType = request.getContentType();
+        // a form body is taken by the parameters; a body of unknown length (-1) is read
+        if (request.getContentLength() == 0 || "GET".equals(request.getMethod())
+                || contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+            return null;
+        }
+        return request.getReader();
+    }
+
     // <editor-fold defaultstate="collapsed" desc="HttpServlet methods.
     // Click on the + sign on the left to edit the code.">
     /**
@@ -16,10 +16,27 @@
 
 package org.qubership.automation.pc.rest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.qubership.automation.pc.data.ContentEnvelope;
 
 /**
  * RESTful endpoint for handling comparison requests.
@@ -29,19 +46,167 @@ import javax.ws.rs.core.MediaType;
  * comparison logic to the internal comparator service implementation.
  * </p>
  *
- * <p>It supports HTTP <code>PUT</code> requests and produces JSON responses containing comparison results.</p>
+ * <p>It supports HTTP <code>PUT</code> requests and produces JSON responses containing comparison results.
+ * <code>PUT /compare/stream</code> accepts the same request and streams results as NDJSON
+ * (one result per line) as soon as each package is compared.
+ * <code>PUT /compare</code> with <code>application/x-pc-envelope</code> content type accepts the request
+ * in {@link ContentEnvelope} format, where ER/AR contents are raw bytes instead of Base64 strings,
+ * and returns results in the same format.
+ * <code>DELETE /compare/{queueId}</code> cancels comparison started with the <code>queueId</code> global
+ * parameter.</p>
+ *
+ * <p>Long comparisons can be run as background jobs: <code>POST /compare/jobs</code> accepts the same request
+ * and returns the job id, <code>GET /compare/jobs/{jobId}</code> returns progress,
+ * <code>GET /compare/jobs/{jobId}/results?offset=&amp;limit=</code> returns results compared so far page by page
+ * and <code>DELETE /compare/jobs/{jobId}</code> cancels the job and drops its results.</p>
+ *
+ * <p><code>GET /compare/memory</code> returns usage of the memory budget of comparisons.
+ * <code>GET /compare/admin/cache</code> returns statistics of the compare result cache,
+ * <code>DELETE /compare/admin/cache</code> invalidates it; it is kept apart
+ * from <code>DELETE /compare/{queueId}</code>, so no queue id is taken for the cache.
+ * <code>GET /compare/metrics</code> returns latencies, sizes, differences, queue and cache metrics as JSON,
+ * or in Prometheus text format if <code>text/plain</code> is accepted.</p>
  *
  * <p>Designed to be used in environments that support JAX-RS (e.g., Jersey, RESTEasy, etc.).</p>
  */
 @Path("/compare")
 public class ComparatorResource {
 
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     @PUT
     @Produces(MediaType.APPLICATION_JSON)
-    public String compare(String context) {
+    public String compare(Reader context) {
         org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
                 = new org.qubership.automation.pc.comparator.api.ComparatorResource();
 
         return comparatorResource.compare(context);
     }
+
+    @PUT
+    @Consumes(ContentEnvelope.MEDIA_TYPE)
+    @Produces(ContentEnvelope.MEDIA_TYPE)
+    public StreamingOutput compareEnvelope(InputStream input) throws IOException {
+        final ContentEnvelope request = ContentEnvelope.read(input);
+        return output -> {
+            org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                    = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+            comparatorResource.compare(request, output);
+        };
+    }
+
+    @PUT
+    @Path("stream")
+    @Produces(APPLICATION_NDJSON)
+    public StreamingOutput compareStream(final Reader context) {
+        return output -> {
+            org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                    = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            comparatorResource.compare(context, writer);
+            writer.flush();
+        };
+    }
+
+    @DELETE
+    @Path("{queueId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String cancel(@PathParam("queueId") String queueId) {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.cancel(queueId);
+    }
+
+    @POST
+    @Path("jobs")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String submitJob(String context) {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.submitJob(context);
+    }
+
+    @GET
+    @Path("jobs/{jobId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getJobStatus(@PathParam("jobId") String jobId) {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.getJobStatus(jobId);
+    }
+
+    @GET
+    @Path("jobs/{jobId}/results")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getJobResults(@PathParam("jobId") String jobId,
+                                @QueryParam("offset") @DefaultValue("0") int offset,
+                                @QueryParam("limit") @DefaultValue("0") int limit) {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.getJobResults(jobId, offset, limit);
+    }
+
+    @DELETE
+    @Path("jobs/{jobId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String removeJob(@PathParam("jobId") String jobId) {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.removeJob(jobId);
+    }
+
+    @GET
+    @Path("memory")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getMemoryBudget() {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.getMemoryBudget();
+    }
+
+    @GET
+    @Path("admin/cache")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getCacheStatistics() {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.getCacheStatistics();
+    }
+
+    @GET
+    @Path("metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getMetrics() {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.getMetrics();
+    }
+
+    @GET
+    @Path("metrics")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String getMetricsText() {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.getMetricsText();
+    }
+
+    @DELETE
+    @Path("admin/cache")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String invalidateCache() {
+        org.qubership.automation.pc.comparator.api.ComparatorResource comparatorResource
+                = new org.qubership.automation.pc.comparator.api.ComparatorResource();
+
+        return comparatorResource.invalidateCache();
+    }
 }
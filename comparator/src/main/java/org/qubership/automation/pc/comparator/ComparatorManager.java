@@ -17,13 +17,25 @@
 package org.qubership.automation.pc.comparator;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.qubership.automation.pc.comparator.cache.CompareResultCache;
+import org.qubership.automation.pc.compareresult.CompareProfile;
 import org.qubership.automation.pc.compareresult.CompareResult;
 import org.qubership.automation.pc.compareresult.DiffMessage;
 import org.qubership.automation.pc.compareresult.ResultData;
@@ -36,13 +48,20 @@ import org.qubership.automation.pc.core.ComparatorFactory;
 import org.qubership.automation.pc.core.enums.CompareResultType;
 import org.qubership.automation.pc.core.enums.DataContentType;
 import org.qubership.automation.pc.core.enums.DataType;
+import org.qubership.automation.pc.core.exceptions.CompareCancelledException;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
 import org.qubership.automation.pc.core.exceptions.ComparatorManagerException;
 import org.qubership.automation.pc.core.exceptions.ComparatorNotFoundException;
 import org.qubership.automation.pc.core.exceptions.FactoryInstatiationException;
+import org.qubership.automation.pc.core.helpers.CompareProfiler;
 import org.qubership.automation.pc.core.helpers.ResponseMessages;
 import org.qubership.automation.pc.core.helpers.ThreadUtils;
 import org.qubership.automation.pc.core.interfaces.IComparator;
+import org.qubership.automation.pc.core.jfr.CompareEvent;
+import org.qubership.automation.pc.core.jfr.JfrEvents;
+import org.qubership.automation.pc.core.jfr.ProcessCompareEvent;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
+import org.qubership.automation.pc.core.threads.CompareMemoryBudget;
 import org.qubership.automation.pc.core.threads.CompareSession;
 import org.qubership.automation.pc.core.threads.CompareSessionStatus;
 import org.qubership.automation.pc.core.threads.CompareSessionsManager;
@@ -51,6 +70,7 @@ import org.qubership.automation.pc.core.utils.ComparatorUtils;
 import org.qubership.automation.pc.data.Data;
 import org.qubership.automation.pc.data.DataContentConverter;
 import org.qubership.automation.pc.data.DataPackage;
+import org.qubership.automation.pc.data.PreparedExpectation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -68,24 +88,107 @@ import org.slf4j.MDC;
 public class ComparatorManager {
 
     public static final String COMPARE_STEPS_COUNT_NAME = "compareStepsCount";
+    /**
+     * Global parameter of the request or of a package: {@code false} to return ER/AR data in results
+     * without content and children, {@value #INCLUDE_DATA_CONTENT_HASH} to return length and hash
+     * of the content instead of it; content is returned by default.
+     */
     public static final String INCLUDE_DATA_CONTENT_NAME = "includeDataContent";
+    public static final String INCLUDE_DATA_CONTENT_HASH = "hash";
     public static final String COMPARE_PARAMETERS_COUNT_NAME = "compareParametersCount";
     public static final String SKIP_STEP_WITH_DUBLICATES_NAME = "skipStepWithDublicates";
+    public static final String PARALLEL_PROCESS_COMPARE_NAME = "parallelProcessCompare";
+    /**
+     * Global parameter: id of the compare queue, used to cancel the request
+     * with {@link CompareSessionsManager#cancelQueue(String)}.
+     */
+    public static final String COMPARE_QUEUE_ID_NAME = "queueId";
+    /**
+     * Global parameter: timeout of the request in milliseconds;
+     * packages which are not compared in time get {@link ResultType#TIMEOUT} results.
+     * A value which is not a non-negative number fails the request with status code 20120.
+     */
+    public static final String COMPARE_TIMEOUT_NAME = "compareTimeout";
 
     public static final String COMPARE_AS = "compareAs";
     public static final String CHANGE_COMPARE_RESULT = "changeResult";
     public static final String EXCLUDE_DIFF_WITH_STATUS = "excludeDiffWithStatus";
     public static final String PARAMETER_ER_SUBSTITUTION = "erSubstitution";
+    /**
+     * Rule: {@code true} to return {@link CompareProfile} (time and memory spent by stages of the comparison)
+     * with each simple compare result.
+     */
+    public static final String PROFILE_NAME = "profile";
+
+    /**
+     * Metrics of simple comparisons made (not taken from {@link CompareResultCache}), tagged with content type:
+     * latency, size of ER/AR contents compared (bytes of decoded content, see {@link Data#getContentSize()})
+     * and differences found by result type.
+     */
+    public static final String COMPARE_DURATION_METRIC = "pc.compare.duration";
+    public static final String COMPARE_CONTENT_SIZE_METRIC = "pc.compare.content.size";
+    public static final String COMPARE_DIFFS_METRIC = "pc.compare.diffs";
 
     private static final Logger log = LoggerFactory.getLogger(ComparatorManager.class);
-    private static final int PARALLEL_THRESHOLD = 10;
+    /**
+     * Estimated cost (see {@link CompareCostEstimator}) of a batch below which SIMPLE packages are compared
+     * inline, because dispatching them to the pool would cost more than it saves.
+     */
+    private static final long PARALLEL_COST_THRESHOLD = 256 * 1024;
     private static final int MAX_THREADS = 100;
-    private boolean parallelCompare = false;
 
     public List<CompareResult> compare(List<DataPackage> dataPackages,
                                        ComparatorConfiguration configuration)
             throws ComparatorManagerException, InterruptedException {
         List<CompareResult> results = new ArrayList<>();
+        compare(dataPackages, configuration, results::add, false);
+        return results;
+    }
+
+    /**
+     * Streaming variant of {@link #compare(List, ComparatorConfiguration)}.
+     * <p>
+     * Each {@link CompareResult} is handed to the consumer as soon as its package is compared, so the caller
+     * can serialize or persist it while other packages are still in progress.
+     * The consumer is always invoked on the calling thread, one result at a time;
+     * results of packages compared in parallel come in the order of completion.
+     *
+     * @param dataPackages   packages to compare
+     * @param configuration  comparator configuration
+     * @param resultConsumer consumer of the results
+     * @throws ComparatorManagerException if there are no packages to compare
+     * @throws InterruptedException       if the caller is interrupted while waiting for parallel results
+     */
+    public void compare(List<DataPackage> dataPackages,
+                        ComparatorConfiguration configuration,
+                        Consumer<CompareResult> resultConsumer)
+            throws ComparatorManagerException, InterruptedException {
+        compare(dataPackages, configuration, resultConsumer, true);
+    }
+
+    /**
+     * Returns the number of results {@link #compare(List, ComparatorConfiguration)} produces for the packages:
+     * one for each SIMPLE, PROCESS and PROCESS_STEP package; CONTEXT_PARAMETER packages produce none.
+     *
+     * @param dataPackages packages to compare
+     * @return number of results
+     */
+    public static int countResults(List<DataPackage> dataPackages) {
+        int count = 0;
+        for (DataPackage dataPackage : dataPackages) {
+            DataType dataType = dataPackage.getEr().getDataType();
+            if (dataType == DataType.SIMPLE || dataType == DataType.PROCESS || dataType == DataType.PROCESS_STEP) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void compare(List<DataPackage> dataPackages,
+                         ComparatorConfiguration configuration,
+                         Consumer<CompareResult> resultConsumer,
+                         boolean inCompletionOrder)
+            throws ComparatorManagerException, InterruptedException {
         List<DataPackage> contextPackages = new ArrayList<>();
         MultiThreadsQueue queue = null;
         log.debug("[ComparatorManager] multiThread start");
@@ -110,123 +213,430 @@ public class ComparatorManager {
                 }
             }
 
-            if (dataPackages.size() >= PARALLEL_THRESHOLD) {
-                parallelCompare = true;
+            // estimate SIMPLE packages to decide whether parallel compare pays off
+            Map<DataPackage, Long> estimatedCosts = new IdentityHashMap<>();
+            long totalCost = 0;
+            // group parameters and index rules once, before packages are compared in parallel
+            configuration.prepare();
+            for (DataPackage dataPackage : dataPackages) {
+                if (dataPackage.getConfiguration() != null) {
+                    dataPackage.getConfiguration().prepare();
+                }
+                if (dataPackage.getEr().getDataType() == DataType.SIMPLE) {
+                    long cost = CompareCostEstimator.estimate(dataPackage,
+                            dataPackage.getConfiguration().getGlobal().getParameters());
+                    estimatedCosts.put(dataPackage, cost);
+                    totalCost += cost;
+                }
+            }
+            boolean parallelCompare = estimatedCosts.size() > 1 && totalCost >= PARALLEL_COST_THRESHOLD;
+            Parameters requestParameters = configuration.getGlobal().getParameters();
+            String queueId = requestParameters.getParameter(COMPARE_QUEUE_ID_NAME);
+            long timeout = getTimeout(requestParameters);
+            final String includeDataContent = requestParameters.getParameter(INCLUDE_DATA_CONTENT_NAME);
+            if (parallelCompare || queueId != null || timeout > 0) {
+                // the queue is also needed to cancel inline compares of a request which can be cancelled
                 queue = new MultiThreadsQueue();
                 queue.setSize(MAX_THREADS);
+                if (queueId != null) {
+                    queue.setId(queueId);
+                }
             }
+            // 2nd loop - prepare SIMPLE packages and queue them if they are compared in parallel.
+            // Packages equal to one met before (see CompareFingerprint) are not compared,
+            // they get a copy of the result of the first one; a single package has no equal to look for.
+            boolean findDuplicates = estimatedCosts.size() > 1;
+            Map<String, DataPackage> distinctPackages = new HashMap<>();
+            final Map<DataPackage, List<DataPackage>> duplicates = new IdentityHashMap<>();
+            Set<DataPackage> skippedPackages = Collections.newSetFromMap(new IdentityHashMap<>());
+            final Map<CompareSession, DataPackage> sessionPackages = new IdentityHashMap<>();
             for (final DataPackage dataPackage : dataPackages) {
-                switch (dataPackage.getEr().getDataType()) {
-                    case SIMPLE:
-                        dataPackage.getEr().setContent(useSubstitutionRuleOnErContent(dataPackage));
-                        if (parallelCompare) {
-                            Map<String, String> mdcMap = MDC.getCopyOfContextMap();
-                            CompareSession bs = new CompareSession() {
-                                @Override
-                                public void run() throws ComparatorException {
-                                    ThreadUtils.setMdcContextMap(mdcMap);
-                                    setStarted(new Date());
-                                    setStatus(CompareSessionStatus.IN_PROGRESS);
-                                    CompareResult parameterResult;
-                                    try {
-                                        parameterResult = simpleCompare(dataPackage.getEr(), dataPackage.getAr(),
-                                                dataPackage.getConfiguration().getGlobal().getParameters(true));
-                                        setCompareResult(parameterResult);
-                                    } catch (ComparatorException ex) {
-                                        parameterResult = new CompareResult();
-                                        parameterResult.setId(dataPackage.getEr().getExternalId());
-                                        parameterResult.setType(CompareResultType.SIMPLE);
-                                        parameterResult.setSummaryResult(ResultType.ERROR);
-                                        parameterResult.setSummaryMessage(new DiffMessage(0,
-                                                ResponseMessages.msg(20002, ex.getMessage()),
-                                                ResponseMessages.msg(20002, "null"), ResultType.ERROR));
-                                        setCompareResult(parameterResult);
-                                    } finally {
-                                        markAsCompleted();
-                                        this.getParent().cdl.countDown();
-                                    }
-                                }
-                            };
-                            bs.setSessionId(dataPackage.getEr().getExternalId());
-                            assert queue != null;
-                            queue.add(bs);
-                        } else {
-                            try {
-                                results.add(simpleCompare(
-                                        dataPackage.getEr(),
-                                        dataPackage.getAr(),
-                                        dataPackage.getConfiguration().getGlobal().getParameters(true)));
-                            } catch (Exception ex) {
-                                CompareResult parameterResult = new CompareResult();
-                                parameterResult.setId(dataPackage.getEr().getExternalId());
-                                parameterResult.setType(CompareResultType.SIMPLE);
-                                parameterResult.setSummaryResult(ResultType.ERROR);
-                                parameterResult.setSummaryMessage(
-                                        new DiffMessage(
-                                                0,
-                                                ResponseMessages.msg(20002, ex.getMessage()),
-                                                ResponseMessages.msg(20002, "null"),
-                                                ResultType.ERROR));
-                                results.add(parameterResult);
-                            }
-                        }
-                        break;
-                    case PROCESS_STEP:
-                    case PROCESS:
-                        results.add(processCompare(
-                                dataPackage.getEr(),
-                                dataPackage.getAr(),
-                                dataPackage.getConfiguration()));
-                        break;
-                    default:
+                if (dataPackage.getEr().getDataType() == DataType.SIMPLE) {
+                    useSubstitutionRuleOnErContent(dataPackage);
+                    DataPackage distinctPackage = findDuplicates ? distinctPackages.putIfAbsent(CompareFingerprint.of(
+                            dataPackage.getEr(), dataPackage.getAr(),
+                            dataPackage.getConfiguration().getGlobal().getParameters()), dataPackage) : null;
+                    if (distinctPackage != null) {
+                        duplicates.computeIfAbsent(distinctPackage, key -> new ArrayList<>()).add(dataPackage);
+                        skippedPackages.add(dataPackage);
+                    } else if (parallelCompare) {
+                        CompareSession bs = createCompareSession(dataPackage);
+                        bs.setEstimatedCost(estimatedCosts.get(dataPackage));
+                        sessionPackages.put(bs, dataPackage);
+                        queue.add(bs);
+                    }
                 }
             }
-
-            if (parallelCompare) {
+            if (!skippedPackages.isEmpty()) {
+                log.debug("[ComparatorManager] {} of {} packages are duplicates and are not compared",
+                        skippedPackages.size(), dataPackages.size());
+            }
+            // results of duplicates which are handed over at positions of their packages
+            final Map<DataPackage, CompareResult> duplicateResults = new IdentityHashMap<>();
+            if (queue != null) {
+                // the queue runs in background while the rest of packages is compared on the calling thread
                 CompareSessionsManager.getInstance().runQueue(queue);
-                while (!queue.queueIsCompleted()) {
-                    Thread.sleep(250);
+                if (timeout > 0) {
+                    CompareSessionsManager.getInstance().scheduleTimeout(queue, timeout);
+                }
+            }
+            try {
+                for (final DataPackage dataPackage : dataPackages) {
+                    switch (dataPackage.getEr().getDataType()) {
+                        case SIMPLE:
+                            if (parallelCompare) {
+                                break;
+                            }
+                            if (skippedPackages.contains(dataPackage)) {
+                                // the package it duplicates is met before, so its result is ready
+                                acceptDuplicate(dataPackage, duplicateResults, includeDataContent, resultConsumer);
+                            } else {
+                                accept(compareInline(dataPackage, queue), dataPackage, duplicates.get(dataPackage),
+                                        duplicateResults, includeDataContent, resultConsumer);
+                            }
+                            break;
+                        case PROCESS_STEP:
+                        case PROCESS:
+                            accept(compareInline(dataPackage, queue), dataPackage, null, null, includeDataContent,
+                                    resultConsumer);
+                            break;
+                        default:
+                    }
+                }
+                if (parallelCompare) {
+                    if (inCompletionOrder) {
+                        queue.awaitSessions(session -> accept(session.getCompareResult(),
+                                sessionPackages.get(session), duplicates.get(sessionPackages.get(session)), null,
+                                includeDataContent, resultConsumer));
+                    } else {
+                        queue.awaitResults();
+                        Map<DataPackage, CompareSession> packageSessions = new IdentityHashMap<>();
+                        for (Map.Entry<CompareSession, DataPackage> sessionPackage : sessionPackages.entrySet()) {
+                            packageSessions.put(sessionPackage.getValue(), sessionPackage.getKey());
+                        }
+                        // results are handed over in the order of the packages, as in serial mode
+                        for (DataPackage dataPackage : dataPackages) {
+                            CompareSession session = packageSessions.get(dataPackage);
+                            if (session != null) {
+                                accept(session.getCompareResult(), dataPackage, duplicates.get(dataPackage),
+                                        duplicateResults, includeDataContent, resultConsumer);
+                            } else if (skippedPackages.contains(dataPackage)) {
+                                acceptDuplicate(dataPackage, duplicateResults, includeDataContent, resultConsumer);
+                            }
+                        }
+                    }
                 }
-                for (CompareSession bs : queue.getQueueSessions()) {
-                    results.add(bs.getCompareResult());
+            } finally {
+                if (queue != null) {
+                    CompareSessionsManager.getInstance().releaseQueue(queue.getId());
                 }
-                CompareSessionsManager.getInstance().releaseQueue(queue.getId());
             }
         } else {
             log.error(ResponseMessages.msg(20105));
             throw new ComparatorManagerException(ResponseMessages.msg(20105), 20105);
         }
-        //This method does not allow content to be passed to the response, to form the change mapping on the
-        //clearContent(results) side
         log.debug("[ComparatorManager] multiThread returnresult");
-        return results;
     }
 
-    private String useSubstitutionRuleOnErContent(DataPackage contextPackage) {
+    private static long getTimeout(Parameters parameters) throws ComparatorManagerException {
+        String value = parameters.getParameter(COMPARE_TIMEOUT_NAME);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            long timeout = Long.parseLong(value.trim());
+            if (timeout >= 0) {
+                return timeout;
+            }
+        } catch (NumberFormatException ex) {
+            // reported below, as a negative value is
+        }
+        log.error(ResponseMessages.msg(20120, value));
+        throw new ComparatorManagerException(ResponseMessages.msg(20120, value), 20120);
+    }
+
+    /**
+     * Hands the result to the consumer and makes copies of it for packages equal to the compared one.
+     * The copies are kept in duplicateResults to be handed over at positions of their packages
+     * by {@link #acceptDuplicate}, or, if duplicateResults is {@code null}, handed over right after the result.
+     * Data of the results are shaped by {@value #INCLUDE_DATA_CONTENT_NAME} parameter before.
+     */
+    private static void accept(CompareResult result, DataPackage dataPackage, List<DataPackage> duplicates,
+                               Map<DataPackage, CompareResult> duplicateResults, String includeDataContent,
+                               Consumer<CompareResult> resultConsumer) {
+        if (duplicates != null) {
+            // copies are made before the result is shaped, they take data of their own packages
+            List<CompareResult> copies = new ArrayList<>(duplicates.size());
+            for (DataPackage duplicate : duplicates) {
+                copies.add(result == null ? null : copyResult(result, duplicate.getEr(), duplicate.getAr()));
+            }
+            resultConsumer.accept(shapeResult(result, dataPackage, includeDataContent));
+            for (int i = 0; i < copies.size(); i++) {
+                if (duplicateResults == null) {
+                    resultConsumer.accept(shapeResult(copies.get(i), duplicates.get(i), includeDataContent));
+                } else {
+                    duplicateResults.put(duplicates.get(i), copies.get(i));
+                }
+            }
+        } else {
+            resultConsumer.accept(shapeResult(result, dataPackage, includeDataContent));
+        }
+    }
+
+    /**
+     * Hands the copy of the result kept by {@link #accept} for the duplicate package to the consumer.
+     */
+    private static void acceptDuplicate(DataPackage dataPackage, Map<DataPackage, CompareResult> duplicateResults,
+                                        String includeDataContent, Consumer<CompareResult> resultConsumer) {
+        resultConsumer.accept(shapeResult(duplicateResults.remove(dataPackage), dataPackage, includeDataContent));
+    }
+
+    /**
+     * Replaces ER/AR data of the result with copies without content and children
+     * (see {@link Data#copyWithoutContent(boolean)}) unless {@value #INCLUDE_DATA_CONTENT_NAME} parameter
+     * of the package, or of the request if the package has none, is {@code true} or not set.
+     * Data of the package are not changed.
+     */
+    private static CompareResult shapeResult(CompareResult result, DataPackage dataPackage,
+                                             String includeDataContent) {
+        String mode = dataPackage.getConfiguration() == null ? null
+                : dataPackage.getConfiguration().getGlobal().getParameters().getParameter(INCLUDE_DATA_CONTENT_NAME);
+        if (mode == null) {
+            mode = includeDataContent;
+        }
+        if (result == null || mode == null || Boolean.parseBoolean(mode)) {
+            return result;
+        }
+        stripContent(result, INCLUDE_DATA_CONTENT_HASH.equalsIgnoreCase(mode), new IdentityHashMap<>());
+        return result;
+    }
+
+    private static void stripContent(CompareResult result, boolean withHash, Map<Data, Data> copies) {
+        if (result.getData() != null) {
+            result.setData(copies.computeIfAbsent(result.getData(), data -> data.copyWithoutContent(withHash)));
+        }
+        if (result.getAr() != null) {
+            for (ResultData arData : result.getAr()) {
+                if (arData.getAr() != null) {
+                    arData.setAr(copies.computeIfAbsent(arData.getAr(), data -> data.copyWithoutContent(withHash)));
+                }
+            }
+        }
+        if (result.getChilds() != null) {
+            for (CompareResult child : result.getChilds()) {
+                if (child != null) {
+                    stripContent(child, withHash, copies);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the result of an equal comparison: diff messages are shared (lists are not),
+     * id and data are of the target comparison.
+     */
+    private static CompareResult copyResult(CompareResult source, Data er, List<Data> ar) {
+        CompareResult copy = new CompareResult();
+        copy.setId(er.getExternalId());
+        copy.setType(source.getType());
+        copy.setData(er);
+        copy.setChilds(new ArrayList<>(source.getChilds()));
+        copy.setSummaryResult(source.getSummaryResult());
+        copy.setSummaryMessage(source.getSummaryMessage());
+        List<ResultData> arData = new ArrayList<>();
+        if (source.getAr() != null) {
+            for (int i = 0; i < source.getAr().size(); i++) {
+                ResultData sourceData = source.getAr().get(i);
+                ResultData resultData = new ResultData();
+                resultData.setAr(ar.get(i));
+                resultData.setDifferences(sourceData.getDifferences() == null
+                        ? null : new ArrayList<>(sourceData.getDifferences()));
+                resultData.setSummaryResult(sourceData.getSummaryResult());
+                arData.add(resultData);
+            }
+        }
+        copy.setAr(arData);
+        return copy;
+    }
+
+    private CompareSession createCompareSession(final DataPackage dataPackage) {
+        final Map<String, String> mdcMap = MDC.getCopyOfContextMap();
+        CompareSession bs = new CompareSession() {
+            @Override
+            public void run() {
+                ThreadUtils.setMdcContextMap(mdcMap);
+                setStarted(new Date());
+                setStatus(CompareSessionStatus.IN_PROGRESS);
+                try {
+                    complete(comparePackage(dataPackage));
+                } finally {
+                    markAsCompleted();
+                }
+            }
+
+            @Override
+            protected CompareResult createCancelledResult(ResultType reason) {
+                return ComparatorManager.createCancelledResult(dataPackage, reason);
+            }
+        };
+        bs.setSessionId(dataPackage.getEr().getExternalId());
+        return bs;
+    }
+
+    /**
+     * Compares the package on the calling thread. If the request can be cancelled (the queue is not null),
+     * the thread is attached to the queue for the time of the comparison, and the result of a package
+     * interrupted by cancellation is replaced with the cancelled result.
+     */
+    private CompareResult compareInline(DataPackage dataPackage, MultiThreadsQueue queue) {
+        if (queue == null) {
+            return comparePackage(dataPackage);
+        }
+        Thread currentThread = Thread.currentThread();
+        if (!queue.attachInlineRunner(currentThread)) {
+            return createCancelledResult(dataPackage, queue.getCancelReason());
+        }
+        CompareResult result = null;
+        try {
+            result = comparePackage(dataPackage);
+        } catch (CompareCancelledException ex) {
+            log.debug("[ComparatorManager] compare of {} is interrupted", dataPackage.getEr().getExternalId());
+        } finally {
+            queue.detachInlineRunner(currentThread);
+        }
+        if (queue.isCancelled()) {
+            Thread.interrupted();
+            return createCancelledResult(dataPackage, queue.getCancelReason());
+        }
+        return result;
+    }
+
+    /**
+     * Compares the package within {@link CompareMemoryBudget}: the estimated working set of the package
+     * is reserved before the comparison, so the package waits while the budget is exhausted.
+     */
+    private CompareResult comparePackage(DataPackage dataPackage) {
+        CompareMemoryBudget budget = CompareMemoryBudget.getInstance();
+        long memory = CompareCostEstimator.estimateMemory(dataPackage);
+        try {
+            budget.acquire(memory);
+        } catch (ComparatorManagerException ex) {
+            return createErrorResult(dataPackage, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return createCancelledResult(dataPackage, ResultType.CANCELLED);
+        }
+        try {
+            if (dataPackage.getEr().getDataType() == DataType.SIMPLE) {
+                return compareSimplePackage(dataPackage);
+            }
+            return processCompare(dataPackage.getEr(), dataPackage.getAr(), dataPackage.getConfiguration());
+        } finally {
+            budget.release(memory);
+        }
+    }
+
+    private static CompareResult createErrorResult(DataPackage dataPackage, String message) {
+        CompareResult result = new CompareResult();
+        result.setId(dataPackage.getEr().getExternalId());
+        result.setType(dataPackage.getEr().getDataType() == DataType.SIMPLE
+                ? CompareResultType.SIMPLE : CompareResultType.TESTCASE);
+        result.setData(dataPackage.getEr());
+        result.setSummaryResult(ResultType.ERROR);
+        result.setSummaryMessage(new DiffMessage(0, message, "", ResultType.ERROR));
+        return result;
+    }
+
+    private static CompareResult createCancelledResult(DataPackage dataPackage, ResultType reason) {
+        CompareResult result = new CompareResult();
+        result.setId(dataPackage.getEr().getExternalId());
+        result.setType(dataPackage.getEr().getDataType() == DataType.SIMPLE
+                ? CompareResultType.SIMPLE : CompareResultType.TESTCASE);
+        result.setData(dataPackage.getEr());
+        result.setSummaryResult(reason);
+        result.setSummaryMessage(new DiffMessage(0,
+                ResponseMessages.msg(reason == ResultType.TIMEOUT ? 20114 : 20113, dataPackage.getEr().getExternalId()),
+                "", reason));
+        return result;
+    }
+
+    private CompareResult compareSimplePackage(DataPackage dataPackage) {
+        try {
+            return simpleCompare(
+                    dataPackage.getEr(),
+                    dataPackage.getAr(),
+                    dataPackage.getConfiguration().getGlobal().getParameters(true));
+        } catch (Exception ex) {
+            CompareResult parameterResult = new CompareResult();
+            parameterResult.setId(dataPackage.getEr().getExternalId());
+            parameterResult.setType(CompareResultType.SIMPLE);
+            parameterResult.setSummaryResult(ResultType.ERROR);
+            parameterResult.setSummaryMessage(
+                    new DiffMessage(
+                            0,
+                            ResponseMessages.msg(20002, ex.getMessage()),
+                            ResponseMessages.msg(20002, "null"),
+                            ResultType.ERROR));
+            return parameterResult;
+        }
+    }
+
+    private void useSubstitutionRuleOnErContent(DataPackage contextPackage) {
         //get er replacement rules from comparator config
         Parameters parameterRules = contextPackage.getConfiguration().getGlobal().getParameters();
-        String erValue = contextPackage.getEr().getContent();
+        Data er = contextPackage.getEr();
 
-        if (parameterRules.containsKey(PARAMETER_ER_SUBSTITUTION) && !erValue.isEmpty()) {
+        if (parameterRules.containsKey(PARAMETER_ER_SUBSTITUTION) && !er.getContent().isEmpty()) {
             List<String> erRules = parameterRules.getParameters(PARAMETER_ER_SUBSTITUTION);
-            String decodedEr = DataContentConverter.toString(erValue);
-            erValue = ComparatorUtils.applyErSubstitutionRule(decodedEr, erRules);
-            erValue = DataContentConverter.fromString(erValue);
+            // the decoded result is kept in ER, so the comparator does not decode it again
+            er.setDecodedContent(ComparatorUtils.applyErSubstitutionRule(er.getDecodedContent(), erRules));
         }
-        return erValue;
     }
 
     public CompareResult simpleCompare(Data er, List<Data> ar, Parameters parameters) throws ComparatorException {
-        DataContentType targetType = null;
-
-        if (parameters.has(COMPARE_AS) && EnumUtils.isValidEnum(DataContentType.class, parameters.get(COMPARE_AS))) {
-            try {
-                targetType = DataContentType.valueOf(parameters.get(COMPARE_AS));
-            } catch (IllegalArgumentException ex) {
-                log.warn("Parameter contains illegal data content type value. {}", ex);
+        CompareEvent event = JfrEvents.ENABLED ? new CompareEvent() : null;
+        CompareProfiler profiler = parameters.getBooleanParameter(PROFILE_NAME, false)
+                ? CompareProfiler.start() : null;
+        CompareResult result = null;
+        try {
+            result = compareSimple(er, ar, parameters);
+            return result;
+        } finally {
+            if (profiler != null) {
+                CompareProfile profile = profiler.finish();
+                if (result != null) {
+                    result.setProfile(profile);
+                }
+            }
+            if (event != null) {
+                event.finish(er, ar, result);
             }
         }
+    }
+
+    private CompareResult compareSimple(Data er, List<Data> ar, Parameters parameters) throws ComparatorException {
+        DataContentType targetType = getTargetType(parameters);
 
+        CompareResultCache cache = CompareResultCache.getInstance();
+        String cacheKey;
+        CompareResult cachedResult;
+        try (CompareProfiler.Stage stage = CompareProfiler.stage("cache")) {
+            cacheKey = cache.isEnabled() ? cache.key(er, ar, parameters) : null;
+            cachedResult = cacheKey == null ? null : cache.get(cacheKey);
+        }
+        if (cachedResult != null) {
+            if (targetType != null) {
+                try (CompareProfiler.Stage stage = CompareProfiler.stage("convert")) {
+                    convertContent(er, parameters);
+                    for (Data data : ar) {
+                        if (data.getContent() != null) {
+                            DataContentConverter.convertContent(data, targetType);
+                        }
+                    }
+                }
+            }
+            return copyResult(cachedResult, er, ar);
+        }
 
         IComparator comparator;
         CompareResult result = new CompareResult();
@@ -234,7 +644,9 @@ public class ComparatorManager {
         result.setData(er);
         result.setId(er.getExternalId());
         if (targetType != null) {
-            DataContentConverter.convertContent(er, targetType); //prepare data if rule 'compareAs' is set
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("convert")) {
+                convertContent(er, parameters); //prepare data if rule 'compareAs' is set
+            }
         }
         try {
             comparator = ComparatorFactory.getComparator(er.getContentType());
@@ -245,26 +657,51 @@ public class ComparatorManager {
         List<ResultData> arData = new ArrayList<>();
         ResultType fromResultType = null;
         ResultType toResultType = null;
+        PreparedExpectation prepared = null;
+        long startNanos = System.nanoTime();
+        long contentSize = 0;
+        Map<ResultType, Integer> diffCounts = new EnumMap<>(ResultType.class);
         for (Data data : ar) {
             ResultData resultData = new ResultData();
             resultData.setAr(data);
-            if (data.getContent() == null) {
+            if (data.getContentSize() < 0) {
                 resultData.setDifferences(arMissedResultList());
             } else {
                 if (targetType != null) {
-                    DataContentConverter.convertContent(data, targetType); //prepare data if rule 'compareAs' is set
+                    try (CompareProfiler.Stage stage = CompareProfiler.stage("convert")) {
+                        DataContentConverter.convertContent(data, targetType); //prepare data if rule 'compareAs' is set
+                    }
+                }
+                if (prepared == null) {
+                    // ER is parsed once for all ARs, and only if there is something to compare it with
+                    try (CompareProfiler.Stage stage = CompareProfiler.stage("prepare")) {
+                        prepared = comparator.prepare(er, parameters);
+                    }
+                    contentSize += Math.max(0, er.getContentSize());
+                }
+                contentSize += data.getContentSize();
+                List<DiffMessage> compareResults;
+                try (CompareProfiler.Stage stage = CompareProfiler.stage("compare")) {
+                    compareResults = comparator.compare(prepared, data);
                 }
-                List<DiffMessage> compareResults = comparator.compare(er, data, parameters);
                 if (parameters.has(EXCLUDE_DIFF_WITH_STATUS)) {
-                    List<String> excludes = parameters.getParameters(EXCLUDE_DIFF_WITH_STATUS);
-                    compareResults = compareResults.stream()
-                            .filter(el -> !excludes.contains(el.getResult().toString().toUpperCase()))
-                            .collect(Collectors.toList());
+                    try (CompareProfiler.Stage stage = CompareProfiler.stage("excludeDiffWithStatus")) {
+                        List<String> excludes = parameters.getParameters(EXCLUDE_DIFF_WITH_STATUS);
+                        compareResults = compareResults.stream()
+                                .filter(el -> !excludes.contains(el.getResult().toString().toUpperCase()))
+                                .collect(Collectors.toList());
+                    }
                 }
                 resultData.setDifferences(compareResults);
+                for (DiffMessage diff : compareResults) {
+                    if (diff.getResult() != null) {
+                        diffCounts.merge(diff.getResult(), 1, Integer::sum);
+                    }
+                }
             }
             arData.add(resultData);
         }
+        recordCompareMetrics(String.valueOf(er.getContentType()), startNanos, contentSize, diffCounts);
         result.setAr(arData);
         calculateSummaryResultForParameter(result, fromResultType, toResultType);
         try {
@@ -289,34 +726,29 @@ public class ComparatorManager {
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
+        if (cacheKey != null) {
+            cache.put(cacheKey, result);
+        }
         return result;
     }
 
+    private static void recordCompareMetrics(String contentType, long startNanos, long contentSize,
+                                             Map<ResultType, Integer> diffCounts) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.timer(COMPARE_DURATION_METRIC, "contentType", contentType).recordSince(startNanos);
+        metrics.counter(COMPARE_CONTENT_SIZE_METRIC, "contentType", contentType).increment(contentSize);
+        for (Map.Entry<ResultType, Integer> diffCount : diffCounts.entrySet()) {
+            metrics.counter(COMPARE_DIFFS_METRIC, "contentType", contentType, "result", diffCount.getKey().name())
+                    .increment(diffCount.getValue());
+        }
+    }
+
     public CompareResult simpleCompare(Data er, Data ar, Parameters parameters) throws ComparatorException {
         List<Data> arData = new ArrayList<>();
         arData.add(ar);
         return simpleCompare(er, arData, parameters);
     }
 
-    private void clearContent(List<CompareResult> results) {
-        if (results != null) {
-            for (CompareResult item : results) {
-                if (item != null) {
-                    if (item.getData() != null) {
-                        item.getData().setContent("");
-                    }
-                    if (item.getAr() != null) {
-                        for (ResultData arData : item.getAr()) {
-                            if (arData.getAr() != null) {
-                                arData.getAr().setContent("");
-                            }
-                        }
-                    }
-                }
-            }
-        }
-    }
-
     // This method constructs resultList in case when ar is null
     private static List<DiffMessage> arMissedResultList() {
         List<DiffMessage> resultList = new ArrayList<>();
@@ -324,137 +756,287 @@ public class ComparatorManager {
         return resultList;
     }
 
+    /**
+     * Compares ER process (test case) against each AR process step by step and parameter by parameter.
+     * <p>
+     * If global parameter {@value #PARALLEL_PROCESS_COMPARE_NAME} is {@code true}, parameter comparisons
+     * of all AR test cases are submitted to the shared compare executor of {@link CompareSessionsManager};
+     * the result tree is built in the same order as in serial mode and summary results of steps and
+     * test cases are calculated after all their children are compared. If the calling thread is interrupted
+     * (the compare is cancelled), tasks which are running are interrupted as well.
+     *
+     * @param er            ER process
+     * @param ar            AR processes
+     * @param configuration comparator configuration
+     * @return compare result of type {@link CompareResultType#TESTCASE}
+     */
     public CompareResult processCompare(Data er, List<Data> ar, ComparatorConfiguration configuration) {
+        ProcessCompareEvent event = JfrEvents.ENABLED ? new ProcessCompareEvent() : null;
         boolean compareStepsCount = false;
+        boolean parallel = configuration.getGlobal().getParameters()
+                .getBooleanParameter(PARALLEL_PROCESS_COMPARE_NAME, false);
+        ParameterTasks parameterTasks = parallel ? new ParameterTasks(MDC.getCopyOfContextMap()) : null;
+        List<CompareResult> pendingSummaries = new ArrayList<>();
+        // rules of a message are frozen once and shared by all its parallel tasks
+        Map<Parameters, Parameters> frozenRules = parallel ? new IdentityHashMap<>() : null;
         CompareResult result = new CompareResult();
         result.setType(CompareResultType.TESTCASE);
         result.setChilds(new ArrayList<CompareResult>());
-        for (Data arTestCase : ar) {
-            CompareResult arTestCaseResult = new CompareResult();
-            arTestCaseResult.setType(CompareResultType.PROCESS);
-            arTestCaseResult.setData(arTestCase);
-            if (compareStepsCount) {
-                if (er.getChilds().size() != arTestCase.getChilds().size()) {
-                    log.debug(ResponseMessages.msg(20107, arTestCase.getName()));
-                    arTestCaseResult.setSummaryMessage(
-                            new DiffMessage(
-                                    0,
-                                    ResponseMessages.msg(10102, String.valueOf(er.getChilds().size())),
-                                    ResponseMessages.msg(10103, String.valueOf(arTestCase.getChilds().size())),
-                                    ResultType.FAILED));
-                    arTestCaseResult.setSummaryResult(ResultType.FAILED);
-                    continue;
-                }
-            }
-            arTestCaseResult.setChilds(new ArrayList<CompareResult>());
-            ComparatorConfigurationSet tcConfSet
-                    = configuration.getComparatorConfigurationSet(arTestCase.getExternalId());
-
-            //Create StepMap
-            /*
-             * StepMap - ArrayList of StepMapItem objects
-             * StepMap is used to create combined map of er & ar steps.
-             * The KEY is NAME of a STEP in an er. The VALUE is NAME of a STEP in an ar.
-             * If step missed KEY or VALUE is NULL string
-             */
-            List<StepMapItem> stepMap = new ArrayList<>();
-            fillStepMap(stepMap, er, arTestCase);
-
-            for (StepMapItem stepMapItem : stepMap) {
-                CompareResult stepResult = new CompareResult();
-                stepResult.setType(CompareResultType.STEP);
-
-                if (stepMapItem.erStepName == null) {
-                    stepResult.setSummaryResult(ResultType.ER_MISSED);
-                    List<ResultData> arResultList = new ArrayList<>();
-                    ResultData arResult = new ResultData();
-                    arResult.setAr(arTestCase.getChilds().get(stepMapItem.arStepIndex));
-                    arResultList.add(arResult);
-                    stepResult.setAr(arResultList);
-                    arTestCaseResult.getChilds().add(stepResult);
-                    continue;
+        try {
+            for (Data arTestCase : ar) {
+                CompareResult arTestCaseResult = new CompareResult();
+                arTestCaseResult.setType(CompareResultType.PROCESS);
+                arTestCaseResult.setData(arTestCase);
+                if (compareStepsCount) {
+                    if (er.getChilds().size() != arTestCase.getChilds().size()) {
+                        log.debug(ResponseMessages.msg(20107, arTestCase.getName()));
+                        arTestCaseResult.setSummaryMessage(
+                                new DiffMessage(
+                                        0,
+                                        ResponseMessages.msg(10102, String.valueOf(er.getChilds().size())),
+                                        ResponseMessages.msg(10103, String.valueOf(arTestCase.getChilds().size())),
+                                        ResultType.FAILED));
+                        arTestCaseResult.setSummaryResult(ResultType.FAILED);
+                        continue;
+                    }
                 }
+                arTestCaseResult.setChilds(new ArrayList<CompareResult>());
+                ComparatorConfigurationSet tcConfSet
+                        = configuration.getComparatorConfigurationSet(arTestCase.getExternalId());
 
-                Data erStep = er.getChilds().get(stepMapItem.erStepIndex);
-                stepResult.setId(erStep.getExternalId());
+                //Create StepMap
+                /*
+                 * StepMap - ArrayList of StepMapItem objects
+                 * StepMap is used to create combined map of er & ar steps.
+                 * The KEY is NAME of a STEP in an er. The VALUE is NAME of a STEP in an ar.
+                 * If step missed KEY or VALUE is NULL string
+                 */
+                List<StepMapItem> stepMap = new ArrayList<>();
+                fillStepMap(stepMap, er, arTestCase);
 
-                if (stepMapItem.arStepName == null) {
-                    stepResult.setSummaryResult(ResultType.AR_MISSED);
-                    stepResult.setData(er.getChilds().get(stepMapItem.erStepIndex));
-                    arTestCaseResult.getChilds().add(stepResult);
-                    continue;
-                }
+                for (StepMapItem stepMapItem : stepMap) {
+                    CompareResult stepResult = new CompareResult();
+                    stepResult.setType(CompareResultType.STEP);
 
-                Data arStep = arTestCase.getChilds().get(stepMapItem.arStepIndex);
+                    if (stepMapItem.erStepName == null) {
+                        stepResult.setSummaryResult(ResultType.ER_MISSED);
+                        List<ResultData> arResultList = new ArrayList<>();
+                        ResultData arResult = new ResultData();
+                        arResult.setAr(arTestCase.getChilds().get(stepMapItem.arStepIndex));
+                        arResultList.add(arResult);
+                        stepResult.setAr(arResultList);
+                        arTestCaseResult.getChilds().add(stepResult);
+                        continue;
+                    }
 
-                String stepKey = String.valueOf(stepMapItem.erStepIndex + 1);
-                Rule stepRule = tcConfSet.getStepRule(stepKey);
-                if (stepRule.isSkip()) {
-                    stepResult.setSummaryResult(ResultType.SKIPPED);
-                    stepResult.setData(erStep);
-                } else {
-                    stepResult.setChilds(new ArrayList<CompareResult>());
-                    for (int paramIndex = 0; paramIndex < erStep.getChilds().size(); paramIndex++) {
-                        Data erParameter = erStep.getChilds().get(paramIndex);
-                        Data arParameter = getParameterByName(erParameter.getName(), arStep);
-                        CompareResult parameterResult = new CompareResult();
-                        parameterResult.setType(CompareResultType.SIMPLE);
-                        parameterResult.setData(erParameter);
-                        if (arParameter == null) { //ar parameter not found. do some action
-                            parameterResult.setSummaryResult(ResultType.MISSED);
-                            parameterResult.setSummaryMessage(
-                                    new DiffMessage(
-                                            0,
-                                            ResponseMessages.msg(10106, erParameter.getName()),
-                                            ResponseMessages.msg(10107, "null"),
-                                            ResultType.MISSED));
-                        } else {
-                            try {
-                                parameterResult = simpleCompare(
-                                        erParameter, arParameter, stepRule.getParameters(erParameter.getName()));
-                                calculateSummaryResultForParameter(parameterResult, null, null);
-                            } catch (ComparatorException ex) {
-                                parameterResult.setSummaryResult(ResultType.ERROR);
-                                parameterResult.setSummaryMessage(
-                                        new DiffMessage(
-                                                0,
-                                                ResponseMessages.msg(20002, ex.getMessage()),
-                                                ResponseMessages.msg(20002, "null"),
-                                                ResultType.ERROR));
+                    Data erStep = er.getChilds().get(stepMapItem.erStepIndex);
+                    stepResult.setId(erStep.getExternalId());
+
+                    if (stepMapItem.arStepName == null) {
+                        stepResult.setSummaryResult(ResultType.AR_MISSED);
+                        stepResult.setData(er.getChilds().get(stepMapItem.erStepIndex));
+                        arTestCaseResult.getChilds().add(stepResult);
+                        continue;
+                    }
+
+                    Data arStep = arTestCase.getChilds().get(stepMapItem.arStepIndex);
+
+                    String stepKey = String.valueOf(stepMapItem.erStepIndex + 1);
+                    Rule stepRule = tcConfSet.getStepRule(stepKey);
+                    if (stepRule.isSkip()) {
+                        stepResult.setSummaryResult(ResultType.SKIPPED);
+                        stepResult.setData(erStep);
+                    } else {
+                        final List<CompareResult> stepChilds = new ArrayList<>();
+                        stepResult.setChilds(stepChilds);
+                        for (int paramIndex = 0; paramIndex < erStep.getChilds().size(); paramIndex++) {
+                            final Data erParameter = erStep.getChilds().get(paramIndex);
+                            final Data arParameter = getParameterByName(erParameter.getName(), arStep);
+                            Parameters parameterRules = stepRule.getParameters(erParameter.getName());
+                            if (parameterTasks == null || arParameter == null) {
+                                stepChilds.add(compareParameter(erParameter, arParameter, parameterRules));
+                            } else {
+                                // reserve the slot so the result tree keeps the serial order
+                                final int childIndex = stepChilds.size();
+                                stepChilds.add(null);
+                                final Parameters taskRules
+                                        = frozenRules.computeIfAbsent(parameterRules, Parameters::freeze);
+                                // ER parameter is shared by tasks of all AR test cases, so it is converted here,
+                                // and the tasks only read it
+                                convertContent(erParameter, taskRules);
+                                parameterTasks.submit(() -> stepChilds.set(childIndex,
+                                        compareParameter(erParameter, arParameter, taskRules)));
                             }
                         }
-                        stepResult.getChilds().add(parameterResult);
+                        if (parameterTasks == null) {
+                            calculateSummaryResult(stepResult);
+                        } else {
+                            pendingSummaries.add(stepResult);
+                        }
                     }
-                    calculateSummaryResult(stepResult);
+                    if (stepMapItem.erStepIndex != stepMapItem.arStepIndex) {
+                        stepResult.setSummaryMessage(
+                                new DiffMessage(
+                                        0,
+                                        String.valueOf(stepMapItem.erStepIndex + 1),
+                                        String.valueOf(stepMapItem.arStepIndex + 1),
+                                        ResultType.BROKEN_STEP_INDEX));
+                    }
+                    arTestCaseResult.getChilds().add(stepResult);
                 }
-                if (stepMapItem.erStepIndex != stepMapItem.arStepIndex) {
-                    stepResult.setSummaryMessage(
-                            new DiffMessage(
-                                    0,
-                                    String.valueOf(stepMapItem.erStepIndex + 1),
-                                    String.valueOf(stepMapItem.arStepIndex + 1),
-                                    ResultType.BROKEN_STEP_INDEX));
+                if (parameterTasks == null) {
+                    calculateSummaryResult(arTestCaseResult); //set summary result
+                } else {
+                    pendingSummaries.add(arTestCaseResult);
                 }
-                arTestCaseResult.getChilds().add(stepResult);
+                result.getChilds().add(arTestCaseResult); //set testcase result
+            }
+            if (parameterTasks != null) {
+                parameterTasks.await();
+                // steps are listed before their test case, so children are always summarized first
+                for (CompareResult pendingSummary : pendingSummaries) {
+                    calculateSummaryResult(pendingSummary);
+                }
+            }
+            return result;
+        } finally {
+            if (parameterTasks != null) {
+                // tasks are still pending only if the compare failed or is cancelled
+                parameterTasks.cancel();
+            }
+            if (event != null) {
+                event.finish(er, ar, result);
             }
-            calculateSummaryResult(arTestCaseResult); //set summary result
-            result.getChilds().add(arTestCaseResult); //set testcase result
         }
-        return result;
     }
 
-    //process helper functions
-    private Data getParameterByName(String parameterName, Data stepData) {
-        if (!stepData.getChilds().isEmpty()) {
-            for (Data parameter : stepData.getChilds()) {
-                if (parameter.getName().equals(parameterName)) {
-                    return parameter;
-                }
+    private CompareResult compareParameter(Data erParameter, Data arParameter, Parameters parameterRules) {
+        CompareResult parameterResult = new CompareResult();
+        parameterResult.setType(CompareResultType.SIMPLE);
+        parameterResult.setData(erParameter);
+        if (arParameter == null) { //ar parameter not found. do some action
+            parameterResult.setSummaryResult(ResultType.MISSED);
+            parameterResult.setSummaryMessage(
+                    new DiffMessage(
+                            0,
+                            ResponseMessages.msg(10106, erParameter.getName()),
+                            ResponseMessages.msg(10107, "null"),
+                            ResultType.MISSED));
+        } else {
+            try {
+                parameterResult = simpleCompare(erParameter, arParameter, parameterRules);
+                calculateSummaryResultForParameter(parameterResult, null, null);
+            } catch (ComparatorException ex) {
+                parameterResult.setSummaryResult(ResultType.ERROR);
+                parameterResult.setSummaryMessage(
+                        new DiffMessage(
+                                0,
+                                ResponseMessages.msg(20002, ex.getMessage()),
+                                ResponseMessages.msg(20002, "null"),
+                                ResultType.ERROR));
+            }
+        }
+        return parameterResult;
+    }
+
+    private static Executor getCompareExecutor() {
+        return CompareSessionsManager.getInstance().getExecutor();
+    }
+
+    /**
+     * Sets content type of the data to {@value #COMPARE_AS} of the rules, if it is set.
+     */
+    private static DataContentType convertContent(Data data, Parameters parameters) {
+        DataContentType targetType = getTargetType(parameters);
+        if (targetType != null && data.getContentType() != targetType) {
+            DataContentConverter.convertContent(data, targetType);
+        }
+        return targetType;
+    }
+
+    private static DataContentType getTargetType(Parameters parameters) {
+        if (parameters.has(COMPARE_AS) && EnumUtils.isValidEnum(DataContentType.class, parameters.get(COMPARE_AS))) {
+            try {
+                return DataContentType.valueOf(parameters.get(COMPARE_AS));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Parameter contains illegal data content type value. {}", ex);
             }
         }
         return null;
     }
 
+    /**
+     * Parameter comparisons of a process compare run on the shared compare executor.
+     * The tasks are cancelled when the process compare ends, so if it fails or the waiting thread is interrupted
+     * (the compare is cancelled), tasks which are not started yet are skipped and threads running the tasks
+     * are interrupted.
+     */
+    private static final class ParameterTasks {
+
+        private final Map<String, String> mdcMap;
+        private final List<CompletableFuture<Void>> completions = new ArrayList<>();
+        private final Set<Thread> workers = new HashSet<>();
+        private boolean cancelled;
+
+        private ParameterTasks(Map<String, String> mdcMap) {
+            this.mdcMap = mdcMap;
+        }
+
+        private void submit(Runnable task) {
+            completions.add(CompletableFuture.runAsync(() -> {
+                Thread worker = Thread.currentThread();
+                synchronized (workers) {
+                    if (cancelled) {
+                        return;
+                    }
+                    workers.add(worker);
+                }
+                ThreadUtils.setMdcContextMap(mdcMap);
+                try {
+                    task.run();
+                } finally {
+                    synchronized (workers) {
+                        workers.remove(worker);
+                    }
+                    // the worker is reused, so neither the interruption nor MDC must leak to the next task
+                    Thread.interrupted();
+                    MDC.clear();
+                }
+            }, getCompareExecutor()));
+        }
+
+        private void await() {
+            try {
+                CompletableFuture.allOf(completions.toArray(new CompletableFuture[0])).get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CompareCancelledException("Parallel process compare is interrupted");
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+
+        private void cancel() {
+            synchronized (workers) {
+                cancelled = true;
+                for (Thread worker : workers) {
+                    worker.interrupt();
+                }
+            }
+            for (CompletableFuture<Void> completion : completions) {
+                completion.cancel(false);
+            }
+        }
+    }
+
+    //process helper functions
+    private Data getParameterByName(String parameterName, Data stepData) {
+        return stepData.getChildByName(parameterName);
+    }
+
     private void calculateSummaryResultForParameter(CompareResult crObject,
                                                     ResultType fromResult,
                                                     ResultType toResult) {
@@ -508,20 +1090,20 @@ public class ComparatorManager {
     }
 
     private void fillStepMap(List<StepMapItem> stepMap, Data er, Data ar) {
-        List<String> foundErSteps = new ArrayList<>();
-        List<String> foundArSteps = new ArrayList<>();
+        // AR steps are found by name in the index of AR children; if there are several steps with the same name,
+        // all ER steps with that name are mapped to the first one
+        Set<String> foundArSteps = new HashSet<>();
         int counter = 0;
         for (Data erChild : er.getChilds()) {
             StepMapItem stepMapItem = new StepMapItem();
             stepMapItem.setEr(erChild.getName(), counter);
-            foundErSteps.add(stepMapItem.erStepName);
 
-            Data arChild = ar.getChildByName(stepMapItem.erStepName);
+            int arIndex = ar.getChildIndexByName(stepMapItem.erStepName);
 
-            if (arChild == null) {
+            if (arIndex < 0) {
                 stepMapItem.setAr(null, -1);
             } else {
-                stepMapItem.setAr(arChild.getName(), ar.getChildIndexByName(arChild.getName()));
+                stepMapItem.setAr(ar.getChilds().get(arIndex).getName(), arIndex);
                 foundArSteps.add(stepMapItem.arStepName);
             }
             stepMap.add(stepMapItem);
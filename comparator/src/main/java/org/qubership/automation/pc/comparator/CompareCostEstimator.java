@@ -0,0 +1,161 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.comparator;
+
+import static org.qubership.automation.pc.comparator.enums.JsonComparatorParameters.PARAMETER_IGNORE_ARRAY_ELEMENTS_ORDER;
+import static org.qubership.automation.pc.comparator.enums.JsonComparatorParameters.PARAMETER_OBJECT_PRIMARY_KEY;
+import static org.qubership.automation.pc.comparator.enums.JsonComparatorParameters.PARAMETER_OBJECT_PRIMARY_KEY_V2;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.qubership.automation.pc.comparator.impl.XmlComparator;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+import org.qubership.automation.pc.core.enums.DataContentType;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataPackage;
+
+/**
+ * Estimates relative cost of comparing a {@link DataPackage}.
+ * <p>
+ * The estimation is a unitless number used only to order and batch work:
+ * content size of ER and every AR (see {@link Data#getContentSize()}), weighted by {@link DataContentType}
+ * (structured content is parsed and diffed, which is much more expensive than a plain string comparison)
+ * and by rules known to be expensive
+ * ({@code SortBy}/{@code abcSort} XSLT transforms, order-insensitive JSON array matching).
+ * Every package also has a fixed cost which covers session and result bookkeeping.
+ * <p>
+ * {@link #estimateMemory(DataPackage)} estimates the working set of a package in bytes,
+ * which is reserved in {@link org.qubership.automation.pc.core.threads.CompareMemoryBudget}.
+ */
+public final class CompareCostEstimator {
+
+    /**
+     * Fixed cost of a package regardless of its content.
+     */
+    public static final long BASE_PACKAGE_COST = 4096;
+
+    /**
+     * Fixed working set of a package: result, diff messages, comparator state.
+     */
+    public static final long BASE_PACKAGE_MEMORY = 16 * 1024;
+
+    private static final int DEFAULT_CONTENT_WEIGHT = 2;
+    private static final int SORT_RULE_FACTOR = 3;
+    private static final int UNORDERED_ARRAYS_FACTOR = 4;
+    private static final Map<DataContentType, Integer> CONTENT_WEIGHTS = new EnumMap<>(DataContentType.class);
+    private static final int DEFAULT_MEMORY_FACTOR = 8;
+    private static final Map<DataContentType, Integer> MEMORY_FACTORS = new EnumMap<>(DataContentType.class);
+
+    static {
+        CONTENT_WEIGHTS.put(DataContentType.PRIMITIVES, 1);
+        CONTENT_WEIGHTS.put(DataContentType.PLAIN_TEXT, 1);
+        CONTENT_WEIGHTS.put(DataContentType.BITMAP, 1);
+        CONTENT_WEIGHTS.put(DataContentType.FULL_TEXT, 4);
+        CONTENT_WEIGHTS.put(DataContentType.CSV, 4);
+        CONTENT_WEIGHTS.put(DataContentType.EXCEL, 4);
+        CONTENT_WEIGHTS.put(DataContentType.TABLE, 4);
+        CONTENT_WEIGHTS.put(DataContentType.TASK_LIST, 4);
+        CONTENT_WEIGHTS.put(DataContentType.JSON, 6);
+        CONTENT_WEIGHTS.put(DataContentType.XML, 8);
+        CONTENT_WEIGHTS.put(DataContentType.MASKED_XML, 8);
+        CONTENT_WEIGHTS.put(DataContentType.XSD, 8);
+
+        // bytes per byte of content: encoded and decoded strings plus parsed trees
+        MEMORY_FACTORS.put(DataContentType.TABLE, 16);
+        MEMORY_FACTORS.put(DataContentType.CSV, 16);
+        MEMORY_FACTORS.put(DataContentType.EXCEL, 16);
+        MEMORY_FACTORS.put(DataContentType.JSON, 22);
+        MEMORY_FACTORS.put(DataContentType.XML, 32);
+        MEMORY_FACTORS.put(DataContentType.MASKED_XML, 32);
+        MEMORY_FACTORS.put(DataContentType.XSD, 32);
+    }
+
+    private CompareCostEstimator() {
+    }
+
+    /**
+     * Estimates cost of the package compared with the given parameters.
+     *
+     * @param dataPackage package to estimate
+     * @param parameters  effective parameters of the package
+     * @return estimated cost, never less than {@link #BASE_PACKAGE_COST}
+     */
+    public static long estimate(DataPackage dataPackage, Parameters parameters) {
+        Data er = dataPackage.getEr();
+        long contentLength = length(er);
+        if (dataPackage.getAr() != null) {
+            for (Data ar : dataPackage.getAr()) {
+                contentLength += length(ar);
+            }
+        }
+        Integer weight = er.getContentType() == null ? null : CONTENT_WEIGHTS.get(er.getContentType());
+        long cost = contentLength * (weight == null ? DEFAULT_CONTENT_WEIGHT : weight);
+        if (parameters != null) {
+            if (parameters.has(XmlComparator.PARAMETER_NAME_SORTBY)
+                    || parameters.has(XmlComparator.PARAMETER_ALPHABET_SORT)) {
+                cost *= SORT_RULE_FACTOR;
+            }
+            if (parameters.getBooleanParameter(PARAMETER_IGNORE_ARRAY_ELEMENTS_ORDER.getParameterName(), false)
+                    || parameters.has(PARAMETER_OBJECT_PRIMARY_KEY.getParameterName())
+                    || parameters.has(PARAMETER_OBJECT_PRIMARY_KEY_V2.getParameterName())) {
+                cost *= UNORDERED_ARRAYS_FACTOR;
+            }
+        }
+        return BASE_PACKAGE_COST + cost;
+    }
+
+    /**
+     * Estimates memory taken while the package is compared: encoded and decoded content of ER and every AR,
+     * DOM/JSON trees built from it and the result. Content of children (steps and parameters of processes)
+     * is counted as well, by content type of each child.
+     *
+     * @param dataPackage package to estimate
+     * @return estimated size in bytes, never less than {@link #BASE_PACKAGE_MEMORY}
+     */
+    public static long estimateMemory(DataPackage dataPackage) {
+        Data er = dataPackage.getEr();
+        long contentLength = length(er);
+        long childMemory = childMemory(er);
+        if (dataPackage.getAr() != null) {
+            for (Data ar : dataPackage.getAr()) {
+                contentLength += length(ar);
+                childMemory += childMemory(ar);
+            }
+        }
+        return BASE_PACKAGE_MEMORY + contentLength * memoryFactor(er.getContentType()) + childMemory;
+    }
+
+    private static long childMemory(Data data) {
+        long memory = 0;
+        if (data != null && data.getChilds() != null) {
+            for (Data child : data.getChilds()) {
+                memory += length(child) * memoryFactor(child.getContentType()) + childMemory(child);
+            }
+        }
+        return memory;
+    }
+
+    private static int memoryFactor(DataContentType contentType) {
+        Integer factor = contentType == null ? null : MEMORY_FACTORS.get(contentType);
+        return factor == null ? DEFAULT_MEMORY_FACTOR : factor;
+    }
+
+    private static long length(Data data) {
+        return data == null ? 0 : Math.max(0, data.getContentSize());
+    }
+}
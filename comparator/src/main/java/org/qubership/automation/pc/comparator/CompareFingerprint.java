@@ -0,0 +1,142 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.comparator;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.qubership.automation.pc.configuration.parameters.Parameter;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+import org.qubership.automation.pc.data.Data;
+
+/**
+ * Fingerprint of a simple comparison: SHA-256 of ER and AR content and content types
+ * and of the parameters the comparison is made with.
+ * <p>
+ * Two comparisons with equal fingerprints produce the same differences,
+ * so the result of one can be reused for another.
+ * Content kept Base64-encoded (see {@link Data#isContentEncoded()}) is hashed decoded, as it is compared,
+ * so content set decoded (e.g. by ER substitution) is not encoded again to be hashed.
+ * Parameters are hashed in canonical order: sorted by name,
+ * values of the same parameter are kept in their order as it may matter (e.g. substitution rules).
+ */
+public final class CompareFingerprint {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private CompareFingerprint() {
+    }
+
+    /**
+     * Calculates fingerprint of comparison of the ER with the ARs.
+     *
+     * @param er         expected data
+     * @param ar         actual data
+     * @param parameters parameters of the comparison
+     * @return hex string of the fingerprint
+     */
+    public static String of(Data er, List<Data> ar, Parameters parameters) {
+        MessageDigest digest = newDigest();
+        update(digest, er);
+        if (ar != null) {
+            for (Data data : ar) {
+                update(digest, data);
+            }
+        }
+        update(digest, parameters);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Calculates fingerprint of the parameters alone, e.g. to find rules already compiled from equal parameters.
+     *
+     * @param parameters parameters of a comparison
+     * @return hex string of the fingerprint
+     */
+    public static String of(Parameters parameters) {
+        MessageDigest digest = newDigest();
+        update(digest, parameters);
+        return toHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, Parameters parameters) {
+        if (parameters == null) {
+            return;
+        }
+        List<Parameter> canonical = new ArrayList<>(parameters.getParameters());
+        canonical.sort(Comparator.comparing(parameter -> parameter.name,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (Parameter parameter : canonical) {
+            update(digest, parameter.name);
+            update(digest, parameter.getValue());
+        }
+    }
+
+    private static void update(MessageDigest digest, Data data) {
+        if (data == null) {
+            update(digest, (String) null);
+            return;
+        }
+        update(digest, data.getContentType() == null ? null : data.getContentType().name());
+        if (data.isContentEncoded()) {
+            update(digest, data.getContentSize() < 0 ? null : data.getDecodedBytes());
+        } else {
+            update(digest, data.getContent());
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        update(digest, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(MessageDigest digest, byte[] bytes) {
+        if (bytes == null) {
+            // marked differently from any value, including the empty one
+            digest.update((byte) 0);
+            return;
+        }
+        digest.update((byte) 1);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
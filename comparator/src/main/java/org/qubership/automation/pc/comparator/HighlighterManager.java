@@ -36,6 +36,9 @@ import org.qubership.automation.pc.core.helpers.BuildColoredXML;
 import org.qubership.automation.pc.core.helpers.BuildColoredXsdXML;
 import org.qubership.automation.pc.core.helpers.ResponseMessages;
 import org.qubership.automation.pc.core.helpers.XmlHelpers;
+import org.qubership.automation.pc.core.jfr.HighlightEvent;
+import org.qubership.automation.pc.core.jfr.JfrEvents;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
 import org.qubership.automation.pc.core.utils.ComparatorUtils;
 import org.qubership.automation.pc.data.DataContentConverter;
 import org.qubership.automation.pc.models.HighlighterResult;
@@ -47,6 +50,12 @@ import com.google.gson.reflect.TypeToken;
 
 public class HighlighterManager {
 
+    /**
+     * Latency of highlighting, tagged with content type ({@link DataContentType} name, XML transformation
+     * is tagged as XML, other values of requests as {@value MetricsRegistry#UNKNOWN_TAG_VALUE}).
+     */
+    public static final String HIGHLIGHT_DURATION_METRIC = "pc.highlight.duration";
+
     private static final String PARAMETER_NAME_CHECK_CONTEXT = "checkContext";
 
     public List<HighlighterResult> highlight(JsonArray arrayContext) {
@@ -154,6 +163,8 @@ public class HighlighterManager {
                                               boolean encoded,
                                               boolean encodeResults) {
         HighlighterResult resultMap = new HighlighterResult();
+        HighlightEvent event = JfrEvents.ENABLED ? new HighlightEvent() : null;
+        long startNanos = System.nanoTime();
         try {
             String decodedER = (er == null) ? "" : er;
             if (!decodedER.isEmpty() && encoded) {
@@ -227,6 +238,15 @@ public class HighlighterManager {
                         + ResponseMessages.msg(-1, (ex.getMessage() == null) ? ex.toString() : ex.getMessage()));
             }
             return resultMap;
+        } finally {
+            MetricsRegistry.getInstance().timer(HIGHLIGHT_DURATION_METRIC, "contentType",
+                    MetricsRegistry.enumTag(DataContentType.class,
+                            "XML2Transform".equals(contentType) ? DataContentType.XML.name() : contentType))
+                    .recordSince(startNanos);
+            if (event != null) {
+                event.finish(contentType, er, ar, differs == null ? 0 : differs.size(),
+                        resultMap == null ? null : resultMap.getStatusCode());
+            }
         }
     }
 
@@ -16,23 +16,38 @@
 
 package org.qubership.automation.pc.comparator.api;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.qubership.automation.pc.comparator.ComparatorManager;
+import org.qubership.automation.pc.comparator.cache.CompareResultCache;
 import org.qubership.automation.pc.compareresult.CompareResult;
 import org.qubership.automation.pc.configuration.ComparatorConfiguration;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
 import org.qubership.automation.pc.core.exceptions.ComparatorManagerException;
 import org.qubership.automation.pc.core.helpers.JSONUtils;
 import org.qubership.automation.pc.core.helpers.ResponseMessages;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
+import org.qubership.automation.pc.core.threads.CompareJob;
+import org.qubership.automation.pc.core.threads.CompareJobsManager;
+import org.qubership.automation.pc.core.threads.CompareMemoryBudget;
+import org.qubership.automation.pc.core.threads.CompareSessionStatus;
+import org.qubership.automation.pc.core.threads.CompareSessionsManager;
+import org.qubership.automation.pc.data.ContentEnvelope;
 import org.qubership.automation.pc.data.DataPackage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 
 /**
@@ -44,36 +59,43 @@ public class ComparatorResource {
     Gson gson = new Gson();
 
     public String compare(String context) {
-        try {
-            JsonObject contextObject = new JsonParser().parse(context).getAsJsonObject();
-            ComparatorConfiguration globalConfiguration;
-            List<DataPackage> dataPackages = new ArrayList<>();
-
-            //Deserialize contexts            
-            if (contextObject.has("comparatorConfiguration")) {
-                globalConfiguration = gson.fromJson(
-                        contextObject.getAsJsonObject("comparatorConfiguration").toString(),
-                        ComparatorConfiguration.class
-                );
-            } else {
-                log.info(ResponseMessages.msg(10101));
-                globalConfiguration = new ComparatorConfiguration();
-            }
+        return compare(new StringReader(context));
+    }
 
-            if (contextObject.has("dataPackages")) {
-                JsonArray jsonDataPackages = contextObject.getAsJsonArray("dataPackages");
-                for (int i = 0; i < jsonDataPackages.size(); i++) {
-                    DataPackage dataPackage = gson.fromJson(jsonDataPackages.get(i).getAsJsonObject().toString(),
-                            DataPackage.class);
-                    dataPackages.add(dataPackage);
-                }
-                if (!dataPackages.isEmpty()) {
-                    ComparatorManager comparatorManager = new ComparatorManager();
-                    List<CompareResult> compareResult = comparatorManager.compare(dataPackages, globalConfiguration);
-                    return gson.toJson(compareResult);
-                } else {
-                    return reportError(20101, ResponseMessages.msg(20101));
-                }
+    /**
+     * Variant of {@link #compare(String)} reading the request directly from the body.
+     *
+     * @param context request body
+     * @return results or error status message
+     */
+    public String compare(Reader context) {
+        return compare(context, gson, gson);
+    }
+
+    /**
+     * Variant of {@link #compare(String)} for requests in {@link ContentEnvelope} format, where ER/AR contents
+     * are passed as raw bytes instead of Base64 strings inside JSON. Results or error status message
+     * are written in the same format.
+     *
+     * @param request request read
+     * @param output  response stream
+     * @throws IOException if the response can not be written
+     */
+    public void compare(ContentEnvelope request, OutputStream output) throws IOException {
+        ContentEnvelope response = new ContentEnvelope();
+        response.write(compare(new StringReader(request.getJson()), request.getGson(), response.getGson()),
+                output);
+    }
+
+    private String compare(Reader context, Gson requestGson, Gson responseGson) {
+        try {
+            CompareRequestReader request = new CompareRequestReader(requestGson).read(context);
+            ComparatorConfiguration globalConfiguration = getConfiguration(request);
+            List<DataPackage> dataPackages = request.getDataPackages();
+            if (!dataPackages.isEmpty()) {
+                ComparatorManager comparatorManager = new ComparatorManager();
+                List<CompareResult> compareResult = comparatorManager.compare(dataPackages, globalConfiguration);
+                return responseGson.toJson(compareResult);
             } else {
                 return reportError(20101, ResponseMessages.msg(20101));
             }
@@ -85,7 +107,253 @@ public class ComparatorResource {
             return reportError(20002, ResponseMessages.msg(20002, ex.getMessage()), ex);
         }
     }
-    
+
+    /**
+     * Streaming variant of {@link #compare(String)} which writes results as NDJSON
+     * (one {@link CompareResult} JSON object per line) as soon as each package is compared.
+     * Errors are written as a single status message line, the same object {@link #compare(String)} returns.
+     *
+     * @param context request body
+     * @param writer  response writer; flushed after every line
+     * @throws IOException if the response can not be written
+     */
+    public void compare(String context, final Writer writer) throws IOException {
+        compare(new StringReader(context), writer);
+    }
+
+    /**
+     * Variant of {@link #compare(String, Writer)} reading the request directly from the body.
+     *
+     * @param context request body
+     * @param writer  response writer; flushed after every line
+     * @throws IOException if the response can not be written
+     */
+    public void compare(Reader context, final Writer writer) throws IOException {
+        try {
+            CompareRequestReader request = new CompareRequestReader(gson).read(context);
+            ComparatorConfiguration globalConfiguration = getConfiguration(request);
+            List<DataPackage> dataPackages = request.getDataPackages();
+            if (!dataPackages.isEmpty()) {
+                ComparatorManager comparatorManager = new ComparatorManager();
+                comparatorManager.compare(dataPackages, globalConfiguration, result -> writeLine(writer,
+                        gson.toJson(result)));
+            } else {
+                writeLine(writer, reportError(20101, ResponseMessages.msg(20101)));
+            }
+        } catch (JsonSyntaxException ex) {
+            writeLine(writer, reportError(20102, ResponseMessages.msg(20102, ex.getMessage()), ex));
+        } catch (ComparatorManagerException ex) {
+            writeLine(writer, reportError(ex.getStatusCode(),
+                    ResponseMessages.msg(ex.getStatusCode(), ex.getMessage()), ex));
+        } catch (InterruptedException ex) {
+            writeLine(writer, reportError(20002, ResponseMessages.msg(20002, ex.getMessage()), ex));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Cancels comparison started with the given {@code queueId} global parameter.
+     * Packages which are not compared yet are reported with {@code CANCELLED} result.
+     *
+     * @param queueId id of the compare queue
+     * @return status message
+     */
+    public String cancel(String queueId) {
+        if (CompareJobsManager.getInstance().cancelJob(queueId)
+                || CompareSessionsManager.getInstance().cancelQueue(queueId)) {
+            log.info(ResponseMessages.msg(10108, queueId));
+            return JSONUtils.statusMessage(10108, ResponseMessages.msg(10108, queueId)).toString();
+        }
+        return reportError(20115, ResponseMessages.msg(20115, queueId));
+    }
+
+    /**
+     * Submits comparison to be run in background, see {@link CompareJobsManager}.
+     * The {@code queueId} global parameter, if set, is used as the job id.
+     *
+     * @param context request body, the same as for {@link #compare(String)}
+     * @return status message with {@code jobId} property, or error status message
+     *     (20116 if there are too many jobs already)
+     */
+    public String submitJob(String context) {
+        try {
+            CompareRequestReader request = new CompareRequestReader(gson).read(new StringReader(context));
+            final ComparatorConfiguration globalConfiguration = getConfiguration(request);
+            final List<DataPackage> dataPackages = request.getDataPackages();
+            if (dataPackages.isEmpty()) {
+                return reportError(20101, ResponseMessages.msg(20101));
+            }
+            Parameters parameters = globalConfiguration.getGlobal().getParameters();
+            String jobId = parameters.getParameter(ComparatorManager.COMPARE_QUEUE_ID_NAME);
+            if (jobId == null) {
+                jobId = UUID.randomUUID().toString();
+                parameters.put(ComparatorManager.COMPARE_QUEUE_ID_NAME, jobId);
+            }
+            CompareJob job = CompareJobsManager.getInstance().submit(jobId,
+                    ComparatorManager.countResults(dataPackages),
+                    compareJob -> new ComparatorManager().compare(dataPackages, globalConfiguration,
+                            compareJob::addResult));
+            JsonObject response = JSONUtils.statusMessage(10109, ResponseMessages.msg(10109, job.getId()));
+            response.addProperty("jobId", job.getId());
+            return response.toString();
+        } catch (JsonSyntaxException ex) {
+            return reportError(20102, ResponseMessages.msg(20102, ex.getMessage()), ex);
+        } catch (ComparatorManagerException ex) {
+            return reportError(ex.getStatusCode(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns progress of the job: its status, number of compared and total packages
+     * and statuses of the sessions being compared in parallel.
+     *
+     * @param jobId id of the job
+     * @return job status or error status message (20117 if there is no such job)
+     */
+    public String getJobStatus(String jobId) {
+        CompareJob job = CompareJobsManager.getInstance().getJob(jobId);
+        if (job == null) {
+            return reportError(20117, ResponseMessages.msg(20117, jobId));
+        }
+        JsonObject response = job.getErrorCode() == 0
+                ? JSONUtils.statusMessage(10000)
+                : JSONUtils.statusMessage(job.getErrorCode(), job.getErrorMessage());
+        response.addProperty("jobId", job.getId());
+        response.addProperty("status", job.getStatus().toString());
+        response.addProperty("completed", job.getCompletedCount());
+        response.addProperty("total", job.getTotal());
+        response.add("created", gson.toJsonTree(job.getCreated()));
+        response.add("started", gson.toJsonTree(job.getStarted()));
+        response.add("finished", gson.toJsonTree(job.getFinished()));
+        Map<String, CompareSessionStatus> sessions = CompareSessionsManager.getInstance()
+                .getSessionStatusesByQueue(jobId);
+        if (sessions != null) {
+            response.add("sessions", gson.toJsonTree(sessions));
+        }
+        return response.toString();
+    }
+
+    /**
+     * Returns a page of results of the job in order of completion.
+     * Results can be fetched while the job is running: the next page starts where the previous one ended.
+     *
+     * @param jobId  id of the job
+     * @param offset index of the first result
+     * @param limit  max number of results; not positive value means all the rest
+     * @return JSON array of results or error status message (20117 if there is no such job)
+     */
+    public String getJobResults(String jobId, int offset, int limit) {
+        CompareJob job = CompareJobsManager.getInstance().getJob(jobId);
+        if (job == null) {
+            return reportError(20117, ResponseMessages.msg(20117, jobId));
+        }
+        return gson.toJson(job.getResults(offset, limit));
+    }
+
+    /**
+     * Cancels the job if it is still running and forgets it along with its results.
+     *
+     * @param jobId id of the job
+     * @return status message
+     */
+    public String removeJob(String jobId) {
+        if (CompareJobsManager.getInstance().removeJob(jobId) == null) {
+            return reportError(20117, ResponseMessages.msg(20117, jobId));
+        }
+        log.info(ResponseMessages.msg(10110, jobId));
+        return JSONUtils.statusMessage(10110, ResponseMessages.msg(10110, jobId)).toString();
+    }
+
+    /**
+     * Returns usage of the memory budget of comparisons, see {@link CompareMemoryBudget}.
+     *
+     * @return JSON object with {@code capacity} and {@code used} bytes and number of {@code waiting} threads
+     */
+    public String getMemoryBudget() {
+        CompareMemoryBudget budget = CompareMemoryBudget.getInstance();
+        JsonObject response = JSONUtils.statusMessage(10000);
+        response.addProperty("capacity", budget.getCapacityBytes());
+        response.addProperty("used", budget.getUsedBytes());
+        response.addProperty("waiting", budget.getWaitingCount());
+        return response.toString();
+    }
+
+    /**
+     * Returns statistics of the compare result cache, see {@link CompareResultCache}.
+     *
+     * @return JSON object with {@code enabled} flag, {@code hits}, {@code misses}, {@code count} of entries
+     *     and their {@code size} in bytes
+     */
+    public String getCacheStatistics() {
+        CompareResultCache cache = CompareResultCache.getInstance();
+        JsonObject response = JSONUtils.statusMessage(10000);
+        response.addProperty("enabled", cache.isEnabled());
+        response.addProperty("hits", cache.getHits());
+        response.addProperty("misses", cache.getMisses());
+        response.addProperty("count", cache.getCount());
+        response.addProperty("size", cache.getSizeBytes());
+        return response.toString();
+    }
+
+    /**
+     * Returns metrics of comparisons, highlighting, queues and caches, see {@link MetricsRegistry}.
+     *
+     * @return JSON object with {@code timers}, {@code counters} and {@code gauges} arrays
+     */
+    public String getMetrics() {
+        JsonObject response = JSONUtils.statusMessage(10000);
+        for (Map.Entry<String, JsonElement> metrics : registerMetrics().toJson().entrySet()) {
+            response.add(metrics.getKey(), metrics.getValue());
+        }
+        return response.toString();
+    }
+
+    /**
+     * Returns the same metrics as {@link #getMetrics()} in Prometheus text format.
+     *
+     * @return metrics to be scraped
+     */
+    public String getMetricsText() {
+        return registerMetrics().toPrometheus();
+    }
+
+    private static MetricsRegistry registerMetrics() {
+        // gauges of the shared instances are registered when they are created
+        CompareSessionsManager.getInstance();
+        CompareMemoryBudget.getInstance();
+        CompareResultCache.getInstance();
+        return MetricsRegistry.getInstance();
+    }
+
+    /**
+     * Removes all entries of the compare result cache.
+     *
+     * @return status message
+     */
+    public String invalidateCache() {
+        CompareResultCache.getInstance().invalidateAll();
+        return JSONUtils.statusMessage(10111, ResponseMessages.msg(10111)).toString();
+    }
+
+    private ComparatorConfiguration getConfiguration(CompareRequestReader request) {
+        if (request.getConfiguration() != null) {
+            return request.getConfiguration();
+        }
+        log.info(ResponseMessages.msg(10101));
+        return new ComparatorConfiguration();
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
     private String reportError(int statusCode, String errMessage, Throwable t) {
         log.error(errMessage, t);
         return JSONUtils.statusMessage(statusCode, errMessage).toString();
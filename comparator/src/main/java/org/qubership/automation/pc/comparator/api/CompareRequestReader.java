@@ -0,0 +1,126 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.comparator.api;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.qubership.automation.pc.configuration.ComparatorConfiguration;
+import org.qubership.automation.pc.data.DataPackage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reads compare request ({@code comparatorConfiguration} and {@code dataPackages}) in a single pass
+ * with {@link JsonReader}, building objects directly from the input instead of parsing it into a tree
+ * and converting subtrees of it to text and back.
+ *
+ * <p>
+ * All data packages are read into one list, in the order of the request; nothing is done with a package
+ * while the rest of the request is read. Context packages, duplicates and the memory budget are dealt with
+ * by {@link org.qubership.automation.pc.comparator.ComparatorManager} once it gets the whole list.
+ * </p>
+ *
+ * <p>
+ * Other properties of the request are skipped. An instance reads one request.
+ * </p>
+ */
+public class CompareRequestReader {
+
+    public static final String CONFIGURATION = "comparatorConfiguration";
+    public static final String DATA_PACKAGES = "dataPackages";
+
+    private final Gson gson;
+    private ComparatorConfiguration configuration;
+    private final List<DataPackage> dataPackages = new ArrayList<>();
+
+    /**
+     * Creates the reader.
+     *
+     * @param gson Gson to build the objects with
+     */
+    public CompareRequestReader(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Reads the request.
+     *
+     * @param input request body; it is not closed
+     * @return this reader
+     * @throws JsonSyntaxException if the request is not valid JSON object or can not be read
+     */
+    public CompareRequestReader read(Reader input) {
+        JsonReader reader = new JsonReader(input);
+        // the same leniency as JsonParser had
+        reader.setLenient(true);
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.skipValue();
+                } else if (CONFIGURATION.equals(name)) {
+                    configuration = gson.fromJson(reader, ComparatorConfiguration.class);
+                } else if (DATA_PACKAGES.equals(name)) {
+                    readDataPackages(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException ex) {
+            throw new JsonSyntaxException(ex.getMessage(), ex);
+        }
+        return this;
+    }
+
+    /**
+     * Returns configuration of the request.
+     *
+     * @return configuration or {@code null} if the request has none
+     */
+    public ComparatorConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Returns data packages of the request.
+     *
+     * @return all packages read, in the order of the request, except {@code null} ones
+     */
+    public List<DataPackage> getDataPackages() {
+        return dataPackages;
+    }
+
+    private void readDataPackages(JsonReader reader) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            DataPackage dataPackage = gson.fromJson(reader, DataPackage.class);
+            if (dataPackage != null) {
+                dataPackages.add(dataPackage);
+            }
+        }
+        reader.endArray();
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.comparator.cache;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.qubership.automation.pc.comparator.CompareFingerprint;
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.compareresult.ResultData;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
+import org.qubership.automation.pc.data.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of simple comparison results shared by all requests.
+ *
+ * <p>
+ * The key is {@link CompareFingerprint} of ER/AR content, content types and parameters, so a comparison
+ * repeated with the same data and rules is not made again. Results are stored without ER/AR data,
+ * the caller puts data of its own comparison back into a copy of the cached result.
+ * </p>
+ *
+ * <p>
+ * The cache is off unless {@value #MAX_SIZE_PROPERTY} (megabytes) is set. Results are kept in heap,
+ * or in files in {@value #DIRECTORY_PROPERTY} directory if it is set; another {@link CompareResultStore}
+ * can be plugged in with {@link #setStore(CompareResultStore)}.
+ * </p>
+ *
+ * <p>
+ * Hits, misses and hit ratio of the shared cache are exported as gauges of {@link MetricsRegistry}.
+ * </p>
+ */
+public class CompareResultCache {
+
+    public static final String MAX_SIZE_PROPERTY = "pc.compare.cache.maxMb";
+    public static final String DIRECTORY_PROPERTY = "pc.compare.cache.dir";
+    public static final String HITS_METRIC = "pc.compare.cache.hits";
+    public static final String MISSES_METRIC = "pc.compare.cache.misses";
+    public static final String HIT_RATIO_METRIC = "pc.compare.cache.hit.ratio";
+
+    private static final Logger log = LoggerFactory.getLogger(CompareResultCache.class);
+    private static final CompareResultCache instance = new CompareResultCache(createConfiguredStore());
+
+    static {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge(HITS_METRIC, instance::getHits);
+        metrics.gauge(MISSES_METRIC, instance::getMisses);
+        metrics.gauge(HIT_RATIO_METRIC, instance::getHitRatio);
+    }
+
+    private volatile CompareResultStore store;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates the cache.
+     *
+     * @param store store of the results, {@code null} to turn the cache off
+     */
+    public CompareResultCache(CompareResultStore store) {
+        this.store = store;
+    }
+
+    public static CompareResultCache getInstance() {
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * Replaces the store; entries of the previous store are not moved.
+     *
+     * @param store store of the results, {@code null} to turn the cache off
+     */
+    public void setStore(CompareResultStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Calculates the key of a comparison.
+     *
+     * @param er         expected data
+     * @param ar         actual data
+     * @param parameters parameters of the comparison
+     * @return cache key
+     */
+    public String key(Data er, List<Data> ar, Parameters parameters) {
+        return CompareFingerprint.of(er, ar, parameters);
+    }
+
+    /**
+     * Returns the cached result.
+     *
+     * @param key cache key
+     * @return result without ER/AR data or {@code null}; it must not be modified by the caller
+     */
+    public CompareResult get(String key) {
+        CompareResultStore currentStore = store;
+        if (currentStore == null) {
+            return null;
+        }
+        CompareResult result = currentStore.get(key);
+        if (result == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Caches the result. A copy without ER/AR data is stored, the result itself is not changed.
+     *
+     * @param key    cache key
+     * @param result result of the comparison
+     */
+    public void put(String key, CompareResult result) {
+        CompareResultStore currentStore = store;
+        if (currentStore == null) {
+            return;
+        }
+        CompareResult stored = new CompareResult();
+        stored.setId(null);
+        stored.setType(result.getType());
+        stored.setSummaryResult(result.getSummaryResult());
+        stored.setSummaryMessage(result.getSummaryMessage());
+        List<ResultData> arData = new ArrayList<>();
+        if (result.getAr() != null) {
+            for (ResultData resultData : result.getAr()) {
+                ResultData storedData = new ResultData();
+                storedData.setSummaryResult(resultData.getSummaryResult());
+                storedData.setDifferences(resultData.getDifferences() == null
+                        ? null : new ArrayList<>(resultData.getDifferences()));
+                arData.add(storedData);
+            }
+        }
+        stored.setAr(arData);
+        currentStore.put(key, stored);
+    }
+
+    /**
+     * Removes all cached results, e.g. after comparators are changed.
+     */
+    public void invalidateAll() {
+        CompareResultStore currentStore = store;
+        if (currentStore != null) {
+            currentStore.clear();
+            log.info("[CompareResultCache] cache is invalidated");
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the share of lookups which found a result.
+     *
+     * @return hit ratio, {@code 0} if there were no lookups
+     */
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public int getCount() {
+        CompareResultStore currentStore = store;
+        return currentStore == null ? 0 : currentStore.getCount();
+    }
+
+    public long getSizeBytes() {
+        CompareResultStore currentStore = store;
+        return currentStore == null ? 0 : currentStore.getSizeBytes();
+    }
+
+    private static CompareResultStore createConfiguredStore() {
+        String configured = System.getProperty(MAX_SIZE_PROPERTY);
+        if (configured == null) {
+            return null;
+        }
+        long maxBytes;
+        try {
+            maxBytes = Long.parseLong(configured.trim()) * 1024 * 1024;
+        } catch (NumberFormatException ex) {
+            log.warn("[CompareResultCache] illegal value of {}: {}", MAX_SIZE_PROPERTY, configured);
+            return null;
+        }
+        if (maxBytes <= 0) {
+            return null;
+        }
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        log.info("[CompareResultCache] cache is on, {} MB in {}", configured.trim(),
+                directory == null ? "heap" : directory);
+        return directory == null
+                ? new MemoryCompareResultStore(maxBytes)
+                : new FileCompareResultStore(Paths.get(directory), maxBytes);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.comparator.cache;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+
+/**
+ * Storage behind {@link CompareResultCache}.
+ * <p>
+ * Keeps results without ER/AR data (see {@link CompareResultCache#put(String, CompareResult)}),
+ * bounded by size; which entries are evicted is up to the implementation.
+ * Implementations must be thread-safe.
+ */
+public interface CompareResultStore {
+
+    /**
+     * Returns the stored result.
+     *
+     * @param key fingerprint of the comparison
+     * @return stored result or {@code null}; it must not be modified by the caller
+     */
+    CompareResult get(String key);
+
+    void put(String key, CompareResult result);
+
+    /**
+     * Removes all entries.
+     */
+    void clear();
+
+    int getCount();
+
+    /**
+     * Returns estimated size of the stored entries.
+     *
+     * @return size in bytes
+     */
+    long getSizeBytes();
+}
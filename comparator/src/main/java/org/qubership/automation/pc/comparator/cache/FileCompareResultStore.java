@@ -0,0 +1,228 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.comparator.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+/**
+ * {@link CompareResultStore} keeping results as JSON files in a local directory, so the cache survives
+ * restarts and does not take heap. Least-recently-used files are deleted once the total size of the files
+ * exceeds the limit; recency is tracked in memory and restored from modification times on start.
+ *
+ * <p>
+ * Files are kept in a subdirectory named after {@link #FORMAT_VERSION} and the version of the artifact,
+ * so results cached by another release are not read. Files of a key are read and written under a lock
+ * of that key only; the lock of the store guards the bookkeeping of sizes and recency.
+ * </p>
+ */
+public class FileCompareResultStore implements CompareResultStore {
+
+    /**
+     * Version of the file format; it is increased when stored results of the same release are no longer
+     * compatible.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final String EXTENSION = ".json";
+    private static final int LOCK_STRIPES = 64;
+    private static final Logger log = LoggerFactory.getLogger(FileCompareResultStore.class);
+
+    private final Gson gson = new Gson();
+    private final Path directory;
+    private final long maxBytes;
+    private final Object[] keyLocks = new Object[LOCK_STRIPES];
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+
+    /**
+     * Creates the store, taking files of the same version already present in the directory.
+     *
+     * @param directory directory of the files, created if it does not exist
+     * @param maxBytes  max total size of the files
+     */
+    public FileCompareResultStore(Path directory, long maxBytes) {
+        this.directory = directory.resolve(getVersionDirectoryName());
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < keyLocks.length; i++) {
+            keyLocks[i] = new Object();
+        }
+        try {
+            Files.createDirectories(this.directory);
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + EXTENSION)) {
+                stream.forEach(files::add);
+            }
+            files.sort((first, second) -> lastModified(first).compareTo(lastModified(second)));
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long size = Files.size(file);
+                sizes.put(name.substring(0, name.length() - EXTENSION.length()), size);
+                sizeBytes += size;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        evict();
+    }
+
+    /**
+     * Returns the name of the subdirectory of the files: {@link #FORMAT_VERSION} followed by the version
+     * of the artifact, if it is known.
+     *
+     * @return name of the subdirectory
+     */
+    public static String getVersionDirectoryName() {
+        Package classPackage = FileCompareResultStore.class.getPackage();
+        String artifactVersion = classPackage == null ? null : classPackage.getImplementationVersion();
+        return "v" + FORMAT_VERSION + (artifactVersion == null ? "" : "-" + artifactVersion);
+    }
+
+    @Override
+    public CompareResult get(String key) {
+        synchronized (keyLock(key)) {
+            synchronized (this) {
+                if (sizes.get(key) == null) {
+                    return null;
+                }
+            }
+            try {
+                return gson.fromJson(new String(Files.readAllBytes(file(key)), StandardCharsets.UTF_8),
+                        CompareResult.class);
+            } catch (NoSuchFileException ex) {
+                synchronized (this) {
+                    forget(key);
+                }
+            } catch (IOException ex) {
+                log.warn("[FileCompareResultStore] failed to read {}", key, ex);
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, CompareResult result) {
+        byte[] content = gson.toJson(result).getBytes(StandardCharsets.UTF_8);
+        if (content.length > maxBytes) {
+            return;
+        }
+        synchronized (keyLock(key)) {
+            try {
+                Files.write(file(key), content);
+            } catch (IOException ex) {
+                log.warn("[FileCompareResultStore] failed to write {}", key, ex);
+                return;
+            }
+            synchronized (this) {
+                forget(key);
+                sizes.put(key, (long) content.length);
+                sizeBytes += content.length;
+            }
+        }
+        evict();
+    }
+
+    @Override
+    public void clear() {
+        List<String> keys;
+        synchronized (this) {
+            keys = new ArrayList<>(sizes.keySet());
+        }
+        for (String key : keys) {
+            delete(key);
+        }
+    }
+
+    @Override
+    public synchronized int getCount() {
+        return sizes.size();
+    }
+
+    @Override
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    private void evict() {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            long remainingBytes = sizeBytes;
+            for (Map.Entry<String, Long> entry : sizes.entrySet()) {
+                if (remainingBytes <= maxBytes) {
+                    break;
+                }
+                evicted.add(entry.getKey());
+                remainingBytes -= entry.getValue();
+            }
+        }
+        for (String key : evicted) {
+            delete(key);
+        }
+    }
+
+    private void delete(String key) {
+        synchronized (keyLock(key)) {
+            try {
+                Files.deleteIfExists(file(key));
+            } catch (IOException ex) {
+                log.warn("[FileCompareResultStore] failed to delete {}", key, ex);
+            }
+            synchronized (this) {
+                forget(key);
+            }
+        }
+    }
+
+    private void forget(String key) {
+        Long size = sizes.remove(key);
+        if (size != null) {
+            sizeBytes -= size;
+        }
+    }
+
+    private Object keyLock(String key) {
+        return keyLocks[(key.hashCode() & Integer.MAX_VALUE) % keyLocks.length];
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + EXTENSION);
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException ex) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
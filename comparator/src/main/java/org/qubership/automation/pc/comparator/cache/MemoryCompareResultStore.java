@@ -0,0 +1,126 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.comparator.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.compareresult.DiffMessage;
+import org.qubership.automation.pc.compareresult.ResultData;
+
+/**
+ * Heap {@link CompareResultStore} with least-recently-used eviction once the estimated size
+ * of the entries exceeds the limit.
+ */
+public class MemoryCompareResultStore implements CompareResultStore {
+
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final int DIFF_OVERHEAD = 96;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+
+    /**
+     * Creates the store.
+     *
+     * @param maxBytes max estimated size of the entries
+     */
+    public MemoryCompareResultStore(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public synchronized CompareResult get(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.result;
+    }
+
+    @Override
+    public synchronized void put(String key, CompareResult result) {
+        long size = estimateSize(key, result);
+        if (size > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(result, size));
+        if (previous != null) {
+            sizeBytes -= previous.size;
+        }
+        sizeBytes += size;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && eldest.hasNext()) {
+            sizeBytes -= eldest.next().getValue().size;
+            eldest.remove();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    @Override
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    private static long estimateSize(String key, CompareResult result) {
+        long size = ENTRY_OVERHEAD + length(key) + estimateSize(result.getSummaryMessage());
+        if (result.getAr() != null) {
+            for (ResultData resultData : result.getAr()) {
+                size += DIFF_OVERHEAD;
+                if (resultData.getDifferences() != null) {
+                    for (DiffMessage diff : resultData.getDifferences()) {
+                        size += estimateSize(diff);
+                    }
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long estimateSize(DiffMessage diff) {
+        if (diff == null) {
+            return 0;
+        }
+        return DIFF_OVERHEAD + length(diff.getExpected()) + length(diff.getExpectedValue())
+                + length(diff.getActual()) + length(diff.getActualValue()) + length(diff.getDescription());
+    }
+
+    private static long length(String value) {
+        // chars are 2 bytes at most
+        return value == null ? 0 : 2L * value.length();
+    }
+
+    private static final class Entry {
+        private final CompareResult result;
+        private final long size;
+
+        private Entry(CompareResult result, long size) {
+            this.result = result;
+            this.size = size;
+        }
+    }
+}
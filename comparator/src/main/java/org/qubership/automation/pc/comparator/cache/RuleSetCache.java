@@ -0,0 +1,186 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.comparator.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.qubership.automation.pc.comparator.CompareFingerprint;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+import org.qubership.automation.pc.core.exceptions.ComparatorException;
+import org.qubership.automation.pc.core.helpers.CompareProfiler;
+import org.qubership.automation.pc.core.metrics.Counter;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rules of a comparator compiled from parameters (regexps, XPaths, parsed rule strings), kept across requests.
+ *
+ * <p>
+ * The key is {@link CompareFingerprint} of the parameters, so rules are compiled once for equal parameters
+ * whatever their order and whatever request they come with. Least-recently-used rules are evicted once there
+ * are more than {@value #MAX_ENTRIES_PROPERTY} entries ({@value #DEFAULT_MAX_ENTRIES} by default).
+ * </p>
+ *
+ * <p>
+ * Cached rules are used by concurrent comparisons, so they must not be changed after they are compiled.
+ * Rules holding objects which are not thread-safe (e.g. compiled XPath expressions) are to be cached
+ * per thread, one cache for each thread.
+ * Failed compilation is not cached: the exception is thrown to each caller.
+ * </p>
+ *
+ * <p>
+ * Hits and misses of all rule set caches are summed up in counters of {@link MetricsRegistry},
+ * their hit ratio is exported as a gauge.
+ * </p>
+ *
+ * @param <R> type of the compiled rules
+ */
+public class RuleSetCache<R> {
+
+    public static final String MAX_ENTRIES_PROPERTY = "pc.rules.cache.maxEntries";
+    public static final int DEFAULT_MAX_ENTRIES = 128;
+    public static final String HITS_METRIC = "pc.rules.cache.hits";
+    public static final String MISSES_METRIC = "pc.rules.cache.misses";
+    public static final String HIT_RATIO_METRIC = "pc.rules.cache.hit.ratio";
+
+    private static final Logger log = LoggerFactory.getLogger(RuleSetCache.class);
+    private static final Counter totalHits = MetricsRegistry.getInstance().counter(HITS_METRIC);
+    private static final Counter totalMisses = MetricsRegistry.getInstance().counter(MISSES_METRIC);
+
+    static {
+        MetricsRegistry.getInstance().gauge(HIT_RATIO_METRIC, () -> {
+            long hitCount = totalHits.getCount();
+            long total = hitCount + totalMisses.getCount();
+            return total == 0 ? 0 : (double) hitCount / total;
+        });
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, R> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates the cache of configured size.
+     */
+    public RuleSetCache() {
+        this(configuredMaxEntries());
+    }
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxEntries max count of the rule sets kept, 0 to turn the cache off
+     */
+    public RuleSetCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns rules compiled from the parameters, compiling them if there are no such rules in the cache.
+     * <p>
+     * Compilation is made outside of the lock, so the same rules may be compiled concurrently
+     * by several threads; the last compiled ones are kept.
+     *
+     * @param parameters parameters of the comparison
+     * @param compiler   compiles the rules from the parameters
+     * @return compiled rules; they must not be modified by the caller
+     * @throws ComparatorException if the rules can't be compiled
+     */
+    public R get(Parameters parameters, RuleSetCompiler<R> compiler) throws ComparatorException {
+        try (CompareProfiler.Stage stage = CompareProfiler.stage("rules")) {
+            return getRules(parameters, compiler);
+        }
+    }
+
+    private R getRules(Parameters parameters, RuleSetCompiler<R> compiler) throws ComparatorException {
+        if (maxEntries <= 0 || parameters == null) {
+            return compiler.compile(parameters);
+        }
+        String key = CompareFingerprint.of(parameters);
+        R rules;
+        synchronized (entries) {
+            rules = entries.get(key);
+        }
+        if (rules != null) {
+            hits.incrementAndGet();
+            totalHits.increment();
+            return rules;
+        }
+        misses.incrementAndGet();
+        totalMisses.increment();
+        rules = compiler.compile(parameters);
+        synchronized (entries) {
+            entries.put(key, rules);
+            if (entries.size() > maxEntries) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Removes all rule sets.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int getCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static int configuredMaxEntries() {
+        String configured = System.getProperty(MAX_ENTRIES_PROPERTY);
+        if (configured == null) {
+            return DEFAULT_MAX_ENTRIES;
+        }
+        try {
+            return Integer.parseInt(configured.trim());
+        } catch (NumberFormatException ex) {
+            log.warn("[RuleSetCache] illegal value of {}: {}", MAX_ENTRIES_PROPERTY, configured);
+            return DEFAULT_MAX_ENTRIES;
+        }
+    }
+
+    /**
+     * Compiles rules of a comparator from parameters.
+     *
+     * @param <R> type of the compiled rules
+     */
+    @FunctionalInterface
+    public interface RuleSetCompiler<R> {
+
+        R compile(Parameters parameters) throws ComparatorException;
+    }
+}
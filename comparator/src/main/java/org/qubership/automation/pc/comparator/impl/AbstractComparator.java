@@ -25,6 +25,7 @@ import org.qubership.automation.pc.core.exceptions.ComparatorException;
 import org.qubership.automation.pc.core.interfaces.IComparator;
 import org.qubership.automation.pc.data.Data;
 import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.PreparedExpectation;
 
 /**
  * Abstract base implementation of the {@link IComparator} interface.
@@ -35,6 +36,11 @@ import org.qubership.automation.pc.data.DataContentConverter;
  * </p>
  *
  * <p>
+ * ER prepared by {@link #prepare(Data, Parameters)} is decoded once, so only AR is decoded
+ * for each comparison with it.
+ * </p>
+ *
+ * <p>
  * Subclasses are expected to override the core {@code compare(String er, String ar, Parameters configuration)}
  * method to implement specific comparison behavior.
  * </p>
@@ -56,6 +62,11 @@ public abstract class AbstractComparator implements IComparator {
         }
     }
 
+    @Override
+    public List<DiffMessage> compare(PreparedExpectation er, Data ar) throws ComparatorException {
+        return compare(er.getContent(), DataContentConverter.toString(ar), er.getParameters());
+    }
+
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration,
                                      boolean encoded) throws ComparatorException {
@@ -34,13 +34,15 @@ public class CsvComparator extends AbstractComparator {
 
     public static final String CSV_DELIMITER_RULE = "delimiter";
     public static final String CSV_FIRST_ROW_IS_COLUMNS_RULE = "firstRowIsColumns";
-    private final CsvConverter csvConverter = new CsvConverter();
+    private final TableComparator tableComparator = new TableComparator();
 
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
         Map<String, String> csvParserConfiguration = getCsvParserRules(configuration);
         String tableEr;
         String tableAr;
+        // The converter keeps settings of the current conversion, so it is not shared
+        CsvConverter csvConverter = new CsvConverter();
         try {
             tableEr = csvConverter.process(er, csvParserConfiguration).getValue();
             tableAr = csvConverter.process(ar, csvParserConfiguration).getValue();
@@ -50,7 +52,6 @@ public class CsvComparator extends AbstractComparator {
             throw new ComparatorException(message, e);
         }
 
-        TableComparator tableComparator = new TableComparator();
         return tableComparator.compare(tableEr, tableAr, configuration);
     }
 
@@ -28,6 +28,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.qubership.automation.pc.comparator.cache.RuleSetCache;
 import org.qubership.automation.pc.compareresult.DiffMessage;
 import org.qubership.automation.pc.compareresult.ResultType;
 import org.qubership.automation.pc.configuration.parameters.Parameters;
@@ -35,6 +36,9 @@ import org.qubership.automation.pc.core.exceptions.ComparatorException;
 import org.qubership.automation.pc.core.helpers.StringHelper;
 import org.qubership.automation.pc.core.helpers.TextHelpers;
 import org.qubership.automation.pc.core.utils.DiffMatchPatch;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.PreparedExpectation;
 import org.qubership.automation.pc.models.CheckRegexpRule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,54 +101,73 @@ public class FullTextComparator extends AbstractComparator {
     public static final String SUCCESS_IF_MATCH = "successIfMatch"; // rule: name = "successIfMatch", value = regexp
     public static final String FAIL_IF_MATCH = "failIfMatch";    // rule: name = "failIfMatch", value = regexp
 
-    public static boolean ignoreIdentical;
-
     // rule: name = "singleRowMode", value = "true" or "false" (default - false)
     public static final String SINGLE_ROW_MODE = "singleRowMode";
 
-    private List<CheckRegexpRule> listCheckRegexpRule;
-    private List<CheckRegexpRule> listReplaceRegexpRule;
-    private List<CheckRegexpRule> listReplaceRegexpRuleFullText;
-    private List<CheckRegexpRule> listSuccessIfMatchRule;
-    private List<CheckRegexpRule> listFailIfMatchRule;
-
-    private boolean skipBlank;
-    private boolean ignoreCase;
-    private boolean singleRowMode;
-    private boolean ignoreChanged;
-    private boolean sortErAr;
-    private boolean replaceFullText;
-    private List<String> failText = new ArrayList<>();
-
     private final Logger log = LoggerFactory.getLogger(PlainTextComparator.class);
+    private final RuleSetCache<FullTextRules> ruleSets = new RuleSetCache<>();
 
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
+        return compare(prepare(null, er, configuration), ar);
+    }
+
+    @Override
+    public PreparedExpectation prepare(Data er, Parameters configuration) throws ComparatorException {
+        return prepare(er, DataContentConverter.toString(er), configuration);
+    }
+
+    @Override
+    public List<DiffMessage> compare(PreparedExpectation er, Data ar) throws ComparatorException {
+        FullTextExpectation expectation = er instanceof FullTextExpectation
+                ? (FullTextExpectation) er : prepare(er.getData(), er.getContent(), er.getParameters());
+        return compare(expectation, DataContentConverter.toString(ar));
+    }
+
+    /*
+     * Reads rules and applies full-text replacements to ER once for all ARs compared with it.
+     */
+    private FullTextExpectation prepare(Data data, String er, Parameters configuration) throws ComparatorException {
+        try {
+            FullTextRules prepared = ruleSets.get(configuration, this::getConfigurationParameters);
+            String erText = replaceRegexpFullText(er, prepared.listReplaceRegexpRuleFullText);
+            return new FullTextExpectation(data, er, configuration, prepared,
+                    TextHelpers.stringToList((prepared.ignoreCase) ? erText.toLowerCase() : erText));
+        } catch (Exception ex) {
+            throw new ComparatorException(ex.toString() /* ex.getMessage()*/, 20002);
+        }
+    }
+
+    private List<DiffMessage> compare(FullTextExpectation expectation, String ar) throws ComparatorException {
         List<DiffMessage> differences = new ArrayList<>();
+        String er = expectation.getContent();
+        Parameters configuration = expectation.getParameters();
         try {
-            getConfigurationParameters(configuration);
+            FullTextRules rules = expectation.rules;
 
-            if (!listSuccessIfMatchRule.isEmpty()) {
-                differences.add(checkEntireValue(TextHelpers.skipCR(er), 1, listSuccessIfMatchRule, true, true));
-                differences.add(checkEntireValue(TextHelpers.skipCR(ar), 2, listSuccessIfMatchRule, false, true));
+            if (!rules.listSuccessIfMatchRule.isEmpty()) {
+                differences.add(checkEntireValue(TextHelpers.skipCR(er), 1, rules.listSuccessIfMatchRule, true, true));
+                differences.add(checkEntireValue(TextHelpers.skipCR(ar), 2, rules.listSuccessIfMatchRule, false, true));
                 return differences;
             }
-            if (!listFailIfMatchRule.isEmpty()) {
-                differences.add(checkEntireValue(TextHelpers.skipCR(er), 1, listFailIfMatchRule, true, false));
-                differences.add(checkEntireValue(TextHelpers.skipCR(ar), 2, listFailIfMatchRule, false, false));
+            if (!rules.listFailIfMatchRule.isEmpty()) {
+                differences.add(checkEntireValue(TextHelpers.skipCR(er), 1, rules.listFailIfMatchRule, true, false));
+                differences.add(checkEntireValue(TextHelpers.skipCR(ar), 2, rules.listFailIfMatchRule, false, false));
                 return differences;
             }
-            final List<String> erList = TextHelpers.stringToList((ignoreCase)
-                    ? replaceRegexpFullText(er).toLowerCase() : replaceRegexpFullText(er));
-            final List<String> arList = TextHelpers.stringToList((ignoreCase)
-                    ? replaceRegexpFullText(ar).toLowerCase() : replaceRegexpFullText(ar));
+            // ER lines are changed by the rules below, so each comparison takes a copy
+            final List<String> erList = new ArrayList<>(expectation.erList);
+            final List<String> arList = TextHelpers.stringToList((rules.ignoreCase)
+                    ? replaceRegexpFullText(ar, rules.listReplaceRegexpRuleFullText).toLowerCase()
+                    : replaceRegexpFullText(ar, rules.listReplaceRegexpRuleFullText));
 
             TextHelpers.processRule_ExcludeTextBlocks(erList, arList, configuration);
-            replaceRegexpByLine(erList);
-            replaceRegexpByLine(arList);
-            differences.addAll((singleRowMode) ? compareRowByRow(erList, arList) : compareAsPlainText(erList, arList));
+            replaceRegexpByLine(erList, rules.listReplaceRegexpRule);
+            replaceRegexpByLine(arList, rules.listReplaceRegexpRule);
+            differences.addAll((rules.singleRowMode)
+                    ? compareRowByRow(erList, arList, rules) : compareAsPlainText(erList, arList, rules));
 
-            for (CheckRegexpRule rule : listCheckRegexpRule) {
+            for (CheckRegexpRule rule : rules.listCheckRegexpRule) {
                 for (int k = 0; k < rule.regexpsCompiled.size(); k++) {
                     Pattern regexpCompiled = rule.regexpsCompiled.get(k);
                     String regexp = rule.regexps.get(k);
@@ -208,10 +231,6 @@ public class FullTextComparator extends AbstractComparator {
         }
     }
 
-    private String replaceRegexpFullText(String text) {
-        return replaceRegexpFullText(text, listReplaceRegexpRuleFullText);
-    }
-
     public static String replaceRegexpFullText(String text, List<CheckRegexpRule> regexpRulesList) {
         for (CheckRegexpRule rule : regexpRulesList) {
             for (int k = 0; k < rule.regexps.size(); k++) {
@@ -223,10 +242,6 @@ public class FullTextComparator extends AbstractComparator {
         return text;
     }
 
-    private void replaceRegexpByLine(List<String> textList) {
-        replaceRegexpByLine(textList, listReplaceRegexpRule);
-    }
-
     public static void replaceRegexpByLine(List<String> textList, List<CheckRegexpRule> regexpRulesList) {
         for (CheckRegexpRule rule : regexpRulesList) {
             for (int k = 0; k < rule.regexps.size(); k++) {
@@ -290,13 +305,13 @@ public class FullTextComparator extends AbstractComparator {
         return diff;
     }
 
-    private List<DiffMessage> compareRowByRow(List<String> erList, List<String> arList) {
+    private List<DiffMessage> compareRowByRow(List<String> erList, List<String> arList, FullTextRules rules) {
         List<DiffMessage> differences = new ArrayList<>();
         DiffMatchPatch dmp = new DiffMatchPatch();
         int diffCounter = 0;
         int erSize = erList.size();
         int arSize = arList.size();
-        if (!ignoreChanged) {
+        if (!rules.ignoreChanged) {
             for (int k = 0; k < Math.min(erSize, arSize); k++) {
                 if (!erList.get(k).equals(arList.get(k))) {
                     differences.add(compareRow(dmp, escapeHtmlEntities(erList.get(k)),
@@ -321,8 +336,8 @@ public class FullTextComparator extends AbstractComparator {
         return differences;
     }
 
-    private List<DiffMessage> compareAsPlainText(List<String> erList, List<String> arList) {
-        if (sortErAr) {
+    private List<DiffMessage> compareAsPlainText(List<String> erList, List<String> arList, FullTextRules rules) {
+        if (rules.sortErAr) {
             Collections.sort(erList);
             Collections.sort(arList);
         }
@@ -349,10 +364,11 @@ public class FullTextComparator extends AbstractComparator {
                 // Contrary to PlainTextComparator we should determine more detailed differences for 'CHANGE'-deltas...
                 case CHANGE:
                     if (dfg == null) {
-                        dfg = initDiffRowGenerator();
+                        dfg = initDiffRowGenerator(rules.skipBlank);
                     }
                     List<DiffMessage> addDiffs
-                            = compareChanged(dfg, diffCounter, delta.getOriginal(), delta.getRevised());
+                            = compareChanged(dfg, diffCounter, delta.getOriginal(), delta.getRevised(),
+                            rules.ignoreChanged);
                     if (!addDiffs.isEmpty()) {
                         diffCounter += addDiffs.size();
                         differences.addAll(addDiffs);
@@ -375,7 +391,7 @@ public class FullTextComparator extends AbstractComparator {
         return differences;
     }
 
-    private DiffRowGenerator initDiffRowGenerator() {
+    private DiffRowGenerator initDiffRowGenerator(boolean skipBlank) {
         DiffRowGenerator.Builder builder = new DiffRowGenerator.Builder();
         boolean sideBySide = true;              //default -> inline - Inherited from v.1
 
@@ -388,7 +404,7 @@ public class FullTextComparator extends AbstractComparator {
     }
 
     private List<DiffMessage> compareChanged(DiffRowGenerator dfg, int parentDiffCounter, Chunk infoOriginal,
-                                             Chunk infoRevised) {
+                                             Chunk infoRevised, boolean ignoreChanged) {
         List<DiffMessage> differences = new ArrayList<>();
         DiffMessage extraDiffmsg = null;
         List<DiffRow> rows = new ArrayList<>();
@@ -493,13 +509,14 @@ public class FullTextComparator extends AbstractComparator {
         }
     }
 
-    private void getConfigurationParameters(Parameters configuration) throws ComparatorException {
+    private FullTextRules getConfigurationParameters(Parameters configuration) throws ComparatorException {
+        FullTextRules rules = new FullTextRules();
         /* EXCLUDE_TEXT_BLOCKS & EXCLUDE_REPLACE_SYMBOL rules' values are
         get in TextHelpers.processRule_ExcludeTextBlocks(...) */
 
-        skipBlank = configuration.getBooleanParameter(SKIP_BLANK, false);
-        ignoreChanged = configuration.getBooleanParameter(IGNORE_CHANGED, false);
-        /* skipBlank = true; */
+        rules.skipBlank = configuration.getBooleanParameter(SKIP_BLANK, false);
+        rules.ignoreChanged = configuration.getBooleanParameter(IGNORE_CHANGED, false);
+        /* rules.skipBlank = true; */
         /* only for debug purposes */
         /* CHECKED: this functionality doesn't implemented in current version of DiffRowGenerator.Builder */
 
@@ -511,23 +528,22 @@ public class FullTextComparator extends AbstractComparator {
             String[] failTextVariants = fullTextComparatorFailIfText.split(";");
             for (String s : failTextVariants) {
                 if (!s.isEmpty()) {
-                    failText.add(s);
+                    rules.failText.add(s);
                 }
             }
         }
 
-        ignoreIdentical = configuration.getBooleanParameter(IGNORE_IDENTICAL, false);
-        ignoreCase = configuration.getBooleanParameter(IGNORE_CASE, false);
-        singleRowMode = configuration.getBooleanParameter(SINGLE_ROW_MODE, false);
-        sortErAr = configuration.getBooleanParameter(SORT_ER_AR, false);
+        rules.ignoreCase = configuration.getBooleanParameter(IGNORE_CASE, false);
+        rules.singleRowMode = configuration.getBooleanParameter(SINGLE_ROW_MODE, false);
+        rules.sortErAr = configuration.getBooleanParameter(SORT_ER_AR, false);
 
-        listCheckRegexpRule = new ArrayList<>();
+        rules.listCheckRegexpRule = new ArrayList<>();
         List<String> regexps = configuration.getParameters(MAPPING_REGEXP);
         if (regexps == null) {
             regexps = new ArrayList<>();
         }
         if (!regexps.isEmpty()) {
-            listCheckRegexpRule.add(new CheckRegexpRule("check", regexps, new ArrayList<String>()));
+            rules.listCheckRegexpRule.add(new CheckRegexpRule("check", regexps, new ArrayList<String>()));
         }
 
         regexps = configuration.getParameters(IGNORE_REGEXP);
@@ -535,30 +551,31 @@ public class FullTextComparator extends AbstractComparator {
             regexps = new ArrayList<>();
         }
         if (!regexps.isEmpty()) {
-            listCheckRegexpRule.add(new CheckRegexpRule("ignore", regexps, new ArrayList<String>()));
+            rules.listCheckRegexpRule.add(new CheckRegexpRule("ignore", regexps, new ArrayList<String>()));
         }
 
 
-        listReplaceRegexpRule = prepareReplaceRegexpRules(configuration, REPLACE_REGEXP);
-        listReplaceRegexpRuleFullText = prepareReplaceRegexpRules(configuration, REPLACE_REGEXP_FULL_TEXT);
+        rules.listReplaceRegexpRule = prepareReplaceRegexpRules(configuration, REPLACE_REGEXP);
+        rules.listReplaceRegexpRuleFullText = prepareReplaceRegexpRules(configuration, REPLACE_REGEXP_FULL_TEXT);
 
-        listSuccessIfMatchRule = new ArrayList<>();
+        rules.listSuccessIfMatchRule = new ArrayList<>();
         regexps = configuration.getParameters(SUCCESS_IF_MATCH);
         if (regexps == null) {
             regexps = new ArrayList<>();
         }
         if (!regexps.isEmpty()) {
-            listSuccessIfMatchRule.add(new CheckRegexpRule("check", regexps, new ArrayList<String>()));
+            rules.listSuccessIfMatchRule.add(new CheckRegexpRule("check", regexps, new ArrayList<String>()));
         }
 
-        listFailIfMatchRule = new ArrayList<>();
+        rules.listFailIfMatchRule = new ArrayList<>();
         regexps = configuration.getParameters(FAIL_IF_MATCH);
         if (regexps == null) {
             regexps = new ArrayList<>();
         }
         if (!regexps.isEmpty()) {
-            listFailIfMatchRule.add(new CheckRegexpRule("check", regexps, new ArrayList<String>()));
+            rules.listFailIfMatchRule.add(new CheckRegexpRule("check", regexps, new ArrayList<String>()));
         }
+        return rules;
     }
 
     public static List<CheckRegexpRule> prepareReplaceRegexpRules(Parameters configuration,
@@ -631,9 +648,9 @@ public class FullTextComparator extends AbstractComparator {
         return (cols.isEmpty()) ? "" : str + cols;
     }
 
-    private Boolean failIfDiffContains(String er, String ar) {
-        if (!failText.isEmpty()) {
-            for (String text : failText) {
+    private Boolean failIfDiffContains(String er, String ar, FullTextRules rules) {
+        if (!rules.failText.isEmpty()) {
+            for (String text : rules.failText) {
                 if (ar.contains(text) || er.contains(text)) {
                     return true;
                 }
@@ -643,6 +660,40 @@ public class FullTextComparator extends AbstractComparator {
         return false;
     }
 
+    /*
+     * Rules of the comparison read from parameters (regexps are compiled).
+     * Rules are shared by comparisons with equal parameters, so they are not changed once read.
+     */
+    private static class FullTextRules {
+        private List<CheckRegexpRule> listCheckRegexpRule;
+        private List<CheckRegexpRule> listReplaceRegexpRule;
+        private List<CheckRegexpRule> listReplaceRegexpRuleFullText;
+        private List<CheckRegexpRule> listSuccessIfMatchRule;
+        private List<CheckRegexpRule> listFailIfMatchRule;
+
+        private boolean skipBlank;
+        private boolean ignoreCase;
+        private boolean singleRowMode;
+        private boolean ignoreChanged;
+        private boolean sortErAr;
+        private List<String> failText = new ArrayList<>();
+    }
+
+    /*
+     * ER lines after full-text replacements, with the rules to apply to each AR.
+     */
+    private static class FullTextExpectation extends PreparedExpectation {
+        private final FullTextRules rules;
+        private final List<String> erList;
+
+        private FullTextExpectation(Data data, String content, Parameters parameters,
+                                    FullTextRules rules, List<String> erList) {
+            super(data, content, parameters);
+            this.rules = rules;
+            this.erList = erList;
+        }
+    }
+
     private static class Interval {
         public int start;
         public int end;
@@ -59,8 +59,6 @@ import org.xml.sax.InputSource;
  */
 public class JmsComparator implements IComparator {
 
-    List<DiffMessage> resultList = new ArrayList<>();
-
     public static final Pattern BODY
             = Pattern.compile("^([a-zA-Z\\s]+[\\=\\{]+[a-zA-Z\\s]+[\\=\\{]+)([\\s\\=\\{\\w\\}]+)([\\}]+)"
             + "([a-zA-Z\\s]+[\\=\\{\\s]+)([[\\s\\w%<>\\=\\+\\-\\:\\.\"\\/]*]+)([\\}\\s]+).*");
@@ -126,6 +124,7 @@ public class JmsComparator implements IComparator {
         InputSource expected;
         InputSource actual;
         final XPath xpath = XPathFactory.newInstance().newXPath();
+        List<DiffMessage> resultList = new ArrayList<>();
         for (int i = 0; i < xpathList.length; i++) {
             expected = new InputSource(new StringReader(erXML));
             actual = new InputSource(new StringReader(arXML));
@@ -137,13 +136,14 @@ public class JmsComparator implements IComparator {
             }
             final Pattern regexp = Pattern.compile(regexpList[i]);
             final String mappedXpath = xpathList[i];
-            validate(expected, expr, regexp, mappedXpath, true);
-            validate(actual, expr, regexp, mappedXpath, false);
+            validate(expected, expr, regexp, mappedXpath, true, resultList);
+            validate(actual, expr, regexp, mappedXpath, false, resultList);
         }
         return resultList;
     }
 
-    private void compare(NodeList nodeList, Pattern regexp, String mappedXpath, boolean isControl) {
+    private void compare(NodeList nodeList, Pattern regexp, String mappedXpath, boolean isControl,
+                         List<DiffMessage> resultList) {
 
         for (int index = 0; index < nodeList.getLength(); index++) {
             final Node node = nodeList.item(index);
@@ -174,7 +174,7 @@ public class JmsComparator implements IComparator {
                     }
                 }
             } else {
-                compare(node.getChildNodes(), regexp, mappedXpath, isControl);
+                compare(node.getChildNodes(), regexp, mappedXpath, isControl, resultList);
             }
         }
     }
@@ -235,7 +235,7 @@ public class JmsComparator implements IComparator {
 
     // mapped xml place
     private void validate(InputSource source, XPathExpression expr, Pattern regexp, String mappedXpath,
-                          boolean isControl) throws ComparatorException {
+                          boolean isControl, List<DiffMessage> resultList) throws ComparatorException {
 
         NodeList nodeList;
 
@@ -245,7 +245,7 @@ public class JmsComparator implements IComparator {
         } catch (XPathExpressionException e) {
             throw new ComparatorException("Failed to evaluate xpath", e);
         }
-        compare(nodeList, regexp, mappedXpath, isControl);
+        compare(nodeList, regexp, mappedXpath, isControl, resultList);
     }
 
     public static String getFullXPath(Node n) {
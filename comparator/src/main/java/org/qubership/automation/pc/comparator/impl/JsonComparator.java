@@ -51,16 +51,21 @@ import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.qubership.automation.pc.comparator.cache.RuleSetCache;
 import org.qubership.automation.pc.comparator.impl.json.SimpleJsonSchemaValidator;
 import org.qubership.automation.pc.compareresult.DiffMessage;
 import org.qubership.automation.pc.compareresult.JsonDiffMessage;
 import org.qubership.automation.pc.compareresult.ResultType;
 import org.qubership.automation.pc.configuration.parameters.Parameters;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
+import org.qubership.automation.pc.core.helpers.CompareProfiler;
 import org.qubership.automation.pc.core.exceptions.ReaderException;
 import org.qubership.automation.pc.core.helpers.ScriptUtils;
 import org.qubership.automation.pc.core.utils.JsonComparatorUtils;
 import org.qubership.automation.pc.core.utils.jsondiff.JsonDiffTuned;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.PreparedExpectation;
 import org.qubership.automation.pc.models.ChangeDiffResultRule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -108,18 +113,11 @@ import com.networknt.schema.ValidationMessage;
  */
 public class JsonComparator extends AbstractComparator {
 
-    private ObjectMapper objectMapper = new ObjectMapper();
-    private JsonDiffTuned jsonDiffTuned = new JsonDiffTuned();
-    private List<FilterObjectProperty> ignorePropertiesList;
-    private List<String>  checkArrayList;
-    private List<String>  mandatoryAttributeList;
-    private List<String> ignorePropertiesV2List;
-    private List<String> ignoreValue;
-
-    private String diffSummaryTemplate;
-    private boolean ignoreExtra;
-    private boolean keysCaseInsensitive;
-    private boolean saveDiffValue;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Configuration pathListConfiguration = Configuration.builder()
+            .options(Option.AS_PATH_LIST, Option.SUPPRESS_EXCEPTIONS).build();
+    private final JsonSchemaFactory schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+    private final RuleSetCache<JsonRules> ruleSets = new RuleSetCache<>();
 
     private static final Logger log = LoggerFactory.getLogger(JsonComparator.class);
 
@@ -131,82 +129,93 @@ public class JsonComparator extends AbstractComparator {
     private static final String DIFF_MACROS_AR_JSON_PATH = "ARJSONPATH";
 
     public List<DiffMessage> compare(String er, String ar, Parameters parameters) throws ComparatorException {
+        return compare(prepare(null, er, parameters), ar);
+    }
+
+    @Override
+    public PreparedExpectation prepare(Data er, Parameters parameters) throws ComparatorException {
+        return prepare(er, DataContentConverter.toString(er), parameters);
+    }
+
+    @Override
+    public List<DiffMessage> compare(PreparedExpectation er, Data ar) throws ComparatorException {
+        JsonExpectation expectation = er instanceof JsonExpectation
+                ? (JsonExpectation) er : prepare(er.getData(), er.getContent(), er.getParameters());
+        return compare(expectation, DataContentConverter.toString(ar));
+    }
+
+    /*
+     * Reads rules and parses ER once for all ARs compared with it.
+     * ER parsing error is kept in the expectation and thrown by each comparison after AR is parsed,
+     * so it is reported the same way as before.
+     */
+    private JsonExpectation prepare(Data data, String er, Parameters parameters) throws ComparatorException {
+        parameters = Optional.ofNullable(parameters).orElse(new Parameters());
+        //.orElseThrow(() -> new ComparatorException("The transmitted parameters are NULL."));
+        JsonRules prepared = ruleSets.get(parameters, this::getConfigurationParameters);
+        JsonExpectation expectation = new JsonExpectation(data, er, parameters, prepared);
+        if (prepared.validateSchema.isEmpty() && !prepared.findErInAr) {
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("json.parse")) {
+                expectation.jsonNodeER = readByPath(er, prepared.readByPath, prepared.keysCaseInsensitive);
+            } catch (IOException ex) {
+                expectation.failure = ex;
+            }
+        }
+        return expectation;
+    }
+
+    private List<DiffMessage> compare(JsonExpectation expectation, String ar) throws ComparatorException {
         List<DiffMessage> result = new ArrayList<>();
         String messageForExceptionIfPathNotExist = "Error while parsing input message %s. The path '%s' "
                 + "specified in parameter 'readByPath' does not exist.";
         String messageForExceptionIfObjectIsNull = "The transmitted %s are NULL.";
         String arContent = Optional.ofNullable(ar).orElseThrow(() -> new ComparatorException(
                 String.format(messageForExceptionIfObjectIsNull, "ar"), 20000));
+        JsonRules rules = expectation.rules;
         JsonNode jsonNodeER = null;
         JsonNode jsonNodeAR = null;
         try {
-            parameters = Optional.ofNullable(parameters).orElse(new Parameters());
-            //.orElseThrow(() -> new ComparatorException("The transmitted parameters are NULL."));
-            List<String> parameterReadByPathValue = PARAMETER_READ_BY_PATH.getValue(parameters);
-            keysCaseInsensitive = PARAMETER_KEYS_CASE_INSENSITIVE.getValue(parameters);
-            String parameterValidateSchemaValue = PARAMETER_VALIDATE_SCHEMA.getValue(parameters);
-            jsonNodeAR = readByPath(ar, parameterReadByPathValue, keysCaseInsensitive)
-                    .orElseThrow(() -> new ComparatorException(String.format(messageForExceptionIfPathNotExist, "ar",
-                            parameterReadByPathValue.get(0)), 20000));
-            if (!parameterValidateSchemaValue.isEmpty()) {
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("json.parse")) {
+                jsonNodeAR = readByPath(ar, rules.readByPath, rules.keysCaseInsensitive)
+                        .orElseThrow(() -> new ComparatorException(String.format(messageForExceptionIfPathNotExist,
+                                "ar", rules.readByPath.get(0)), 20000));
+            }
+            if (!rules.validateSchema.isEmpty()) {
                 if (!arContent.isEmpty()) {
-                    result = validateJsonSchema(jsonNodeAR, parameterValidateSchemaValue);
+                    try (CompareProfiler.Stage stage = CompareProfiler.stage("json.validateSchema")) {
+                        result = validateJsonSchema(jsonNodeAR, rules.validateSchema);
+                    }
                 } else {
                     result.add(new DiffMessage().setOrderId(1).setDescription("").setResult(ResultType.FAILED));
                 }
-            } else if (((Boolean)(PARAMETER_FIND_ER_IN_AR.getValue(parameters))).booleanValue()) {
-                //set explicit cost of boolean to run unit-tests
-                result = findErInAr(er, ar);
-            } else if (((Boolean)PARAMETER_VALIDATE_AS_SIMPLE_SCHEMA.getValue(parameters)).booleanValue()) {
-                //set explicit cost of boolean to run unit-tests
-                jsonNodeER = readByPath(er, parameterReadByPathValue, keysCaseInsensitive)
-                        .orElseThrow(()
-                                -> new ComparatorException(String.format(messageForExceptionIfPathNotExist, "ER",
-                                parameterReadByPathValue.get(0)), 20000));
-                result = validateBySimpleSchema(jsonNodeER.toString(), jsonNodeAR.toString());
+            } else if (rules.findErInAr) {
+                result = findErInAr(expectation.getContent(), ar);
             } else {
-                jsonNodeER = readByPath(er, parameterReadByPathValue, keysCaseInsensitive)
+                if (expectation.failure != null) {
+                    throw expectation.failure;
+                }
+                jsonNodeER = expectation.jsonNodeER
                         .orElseThrow(()
                                 -> new ComparatorException(String.format(messageForExceptionIfPathNotExist, "ER",
-                                parameterReadByPathValue.get(0)), 20000));
-                Map<String, String> mergedObjectPrimaryKey = mergeObjectPrimaryKeysVersion(parameters);
-                if (keysCaseInsensitive
-                        && Objects.nonNull(mergedObjectPrimaryKey)
-                        && !mergedObjectPrimaryKey.isEmpty()) {
-                    mergedObjectPrimaryKey = mergedObjectPrimaryKey.entrySet().stream()
-                            .collect(Collectors.toMap(
-                                    entry -> entry.getKey().toLowerCase(),
-                                    entry -> entry.getValue().toLowerCase())
-                            );
-                }
-                JsonNode comparisonResult = jsonDiffTuned.asJson(jsonNodeER, jsonNodeAR,
-                        PARAMETER_IGNORE_ARRAY_ELEMENTS_ORDER.getValue(parameters),
-                        PARAMETER_DISABLE_TYPE_CHECK_IF_REGEXP.getValue(parameters),
-                        mergedObjectPrimaryKey);
-                ignorePropertiesList = PARAMETER_IGNORE_PROPERTIES.<List<String>>getValue(parameters).stream()
-                        .filter(str -> !StringUtils.isBlank(str))
-                        .filter(str -> !str.trim().replace("/", "").trim().isEmpty())
-                        .map(str -> keysCaseInsensitive ? str.toLowerCase() : str)
-                        .map(str -> new JsonComparator.FilterObjectProperty(str.trim()))
-                        .collect(Collectors.toList());
-                checkArrayList = PARAMETER_CHECK_ARRAY.getValue(parameters);
-                mandatoryAttributeList = PARAMETER_MANDATORY_ATTRIBUTE.getValue(parameters);
-                ignorePropertiesV2List = PARAMETER_IGNORE_PROPERTIES_V2.getValue(parameters);
-                diffSummaryTemplate = PARAMETER_DIFF_SUMMARY_TEMPLATE.getValue(parameters);
-                ignoreExtra = PARAMETER_IGNORE_EXTRA.getValue(parameters);
-                ignoreValue = PARAMETER_IGNORE_VALUE.getValue(parameters);
-                saveDiffValue = PARAMETER_SAVE_DIFF_VALUE.getValue(parameters);
-                if (keysCaseInsensitive) {
-                    checkArrayList = JsonComparatorUtils.jsonPathsToLowercase(checkArrayList);
-                    mandatoryAttributeList = JsonComparatorUtils.jsonPathsToLowercase(mandatoryAttributeList);
-                    ignorePropertiesV2List = JsonComparatorUtils.jsonPathsToLowercase(ignorePropertiesV2List);
-                    ignoreValue = JsonComparatorUtils.jsonPathsToLowercase(ignoreValue);
-                }
-                try {
-                    log.debug("[Json comparator] formDiffMessages");
-                    result = formDiffMessages(comparisonResult, jsonNodeER, jsonNodeAR);
-                } catch (ReaderException ex) {
-                    throw new ComparatorException("Error while parsing Diff Template", ex);
+                                rules.readByPath.get(0)), 20000));
+                if (rules.validateAsSimpleSchema) {
+                    result = validateBySimpleSchema(jsonNodeER.toString(), jsonNodeAR.toString());
+                } else {
+                    // JsonDiffTuned keeps the options of a comparison, so it is not shared
+                    JsonNode comparisonResult;
+                    try (CompareProfiler.Stage stage = CompareProfiler.stage("json.diff")) {
+                        comparisonResult = new JsonDiffTuned().asJson(jsonNodeER, jsonNodeAR,
+                                rules.ignoreArraysOrder,
+                                rules.disableTypeCheckIfRegexp,
+                                rules.objectPrimaryKeys);
+                    }
+                    // rules filtering differences by JSON paths are applied here
+                    try (CompareProfiler.Stage stage = CompareProfiler.stage("json.formDiffMessages")) {
+                        log.debug("[Json comparator] formDiffMessages");
+                        result = formDiffMessages(comparisonResult, jsonNodeER, jsonNodeAR, rules);
+                    } catch (ReaderException ex) {
+                        throw new ComparatorException("Error while parsing Diff Template", ex);
+                    }
                 }
             }
         } catch (IOException ex) {
@@ -215,14 +224,75 @@ public class JsonComparator extends AbstractComparator {
                             jsonNodeAR == null ? "AR" : "ER", ex.getMessage()), 20000);
         }
         log.debug("[Json comparator] changeDiffResults");
-        changeDiffResults(parameters, result, jsonNodeER, jsonNodeAR);
+        try (CompareProfiler.Stage stage = CompareProfiler.stage("json.changeDiffResult")) {
+            changeDiffResults(result, jsonNodeER, jsonNodeAR, rules);
+        }
         return result;
     }
 
-    private void changeDiffResults(Parameters parameters, List<DiffMessage> diffMessages, JsonNode jsonNodeER,
-                                   JsonNode jsonNodeAR) {
-        List<ChangeDiffResultRule> changeDiffResultRules = PARAMETER_CHANGE_DIFF_RESULT.getValue(parameters);
-        boolean keysCaseInsensitive = PARAMETER_KEYS_CASE_INSENSITIVE.getValue(parameters);
+    /*
+     * Rules which are only needed to find differences are not read
+     * if schema validation or 'findERInAR' check is configured.
+     */
+    private JsonRules getConfigurationParameters(Parameters parameters) {
+        JsonRules rules = new JsonRules();
+        rules.readByPath = PARAMETER_READ_BY_PATH.getValue(parameters);
+        rules.keysCaseInsensitive = PARAMETER_KEYS_CASE_INSENSITIVE.getValue(parameters);
+        rules.validateSchema = PARAMETER_VALIDATE_SCHEMA.getValue(parameters);
+        rules.changeDiffResultRules = PARAMETER_CHANGE_DIFF_RESULT.getValue(parameters);
+        if (!rules.validateSchema.isEmpty()) {
+            return rules;
+        }
+        //set explicit cost of boolean to run unit-tests
+        rules.findErInAr = ((Boolean) (PARAMETER_FIND_ER_IN_AR.getValue(parameters))).booleanValue();
+        if (rules.findErInAr) {
+            return rules;
+        }
+        //set explicit cost of boolean to run unit-tests
+        rules.validateAsSimpleSchema = ((Boolean) PARAMETER_VALIDATE_AS_SIMPLE_SCHEMA.getValue(parameters))
+                .booleanValue();
+        if (rules.validateAsSimpleSchema) {
+            return rules;
+        }
+        Map<String, String> mergedObjectPrimaryKey = mergeObjectPrimaryKeysVersion(parameters);
+        if (rules.keysCaseInsensitive
+                && Objects.nonNull(mergedObjectPrimaryKey)
+                && !mergedObjectPrimaryKey.isEmpty()) {
+            mergedObjectPrimaryKey = mergedObjectPrimaryKey.entrySet().stream()
+                    .collect(Collectors.toMap(
+                            entry -> entry.getKey().toLowerCase(),
+                            entry -> entry.getValue().toLowerCase())
+                    );
+        }
+        rules.objectPrimaryKeys = mergedObjectPrimaryKey;
+        rules.ignoreArraysOrder = PARAMETER_IGNORE_ARRAY_ELEMENTS_ORDER.getValue(parameters);
+        rules.disableTypeCheckIfRegexp = PARAMETER_DISABLE_TYPE_CHECK_IF_REGEXP.getValue(parameters);
+        rules.ignorePropertiesList = PARAMETER_IGNORE_PROPERTIES.<List<String>>getValue(parameters).stream()
+                .filter(str -> !StringUtils.isBlank(str))
+                .filter(str -> !str.trim().replace("/", "").trim().isEmpty())
+                .map(str -> rules.keysCaseInsensitive ? str.toLowerCase() : str)
+                .map(str -> new JsonComparator.FilterObjectProperty(str.trim()))
+                .collect(Collectors.toList());
+        rules.checkArrayList = PARAMETER_CHECK_ARRAY.getValue(parameters);
+        rules.mandatoryAttributeList = PARAMETER_MANDATORY_ATTRIBUTE.getValue(parameters);
+        rules.ignorePropertiesV2List = PARAMETER_IGNORE_PROPERTIES_V2.getValue(parameters);
+        rules.diffSummaryTemplate = PARAMETER_DIFF_SUMMARY_TEMPLATE.getValue(parameters);
+        rules.ignoreExtra = PARAMETER_IGNORE_EXTRA.getValue(parameters);
+        rules.ignoreValue = PARAMETER_IGNORE_VALUE.getValue(parameters);
+        rules.saveDiffValue = PARAMETER_SAVE_DIFF_VALUE.getValue(parameters);
+        if (rules.keysCaseInsensitive) {
+            rules.checkArrayList = JsonComparatorUtils.jsonPathsToLowercase(rules.checkArrayList);
+            rules.mandatoryAttributeList = JsonComparatorUtils.jsonPathsToLowercase(rules.mandatoryAttributeList);
+            rules.ignorePropertiesV2List = JsonComparatorUtils.jsonPathsToLowercase(rules.ignorePropertiesV2List);
+            rules.ignoreValue = JsonComparatorUtils.jsonPathsToLowercase(rules.ignoreValue);
+        }
+        return rules;
+    }
+
+    private void changeDiffResults(List<DiffMessage> diffMessages, JsonNode jsonNodeER, JsonNode jsonNodeAR,
+                                   JsonRules rules) {
+        List<ChangeDiffResultRule> changeDiffResultRules = rules.changeDiffResultRules;
+        boolean keysCaseInsensitive = rules.keysCaseInsensitive;
         log.debug("[changeDiffResults] start");
         for (ChangeDiffResultRule rule : changeDiffResultRules) {
             diffMessages.stream()
@@ -251,7 +321,7 @@ public class JsonComparator extends AbstractComparator {
     }
 
     private List<String> findPathListForJsonPath(String json, String jsonPath) throws InvalidPathException {
-        return JsonPath.using(Configuration.builder().options(Option.AS_PATH_LIST, Option.SUPPRESS_EXCEPTIONS).build())
+        return JsonPath.using(pathListConfiguration)
                 .parse(json)
                 .read(jsonPath);
     }
@@ -308,9 +378,8 @@ public class JsonComparator extends AbstractComparator {
     private List<DiffMessage> validateJsonSchema(JsonNode jsonNode, String schema) throws ComparatorException {
         Set<ValidationMessage> resultValidation = new HashSet<>();
         AtomicInteger count = new AtomicInteger();
-        JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
         try {
-            JsonSchema jsonSchema = factory.getSchema(schema);
+            JsonSchema jsonSchema = schemaFactory.getSchema(schema);
             switch (jsonNode.getNodeType()) {
                 case ARRAY:
                 case OBJECT: {
@@ -375,14 +444,15 @@ public class JsonComparator extends AbstractComparator {
 
     private List<DiffMessage> formDiffMessages(JsonNode comparisonResult,
                                                JsonNode jsonNodeER,
-                                               JsonNode jsonNodeAR) throws ReaderException {
+                                               JsonNode jsonNodeAR,
+                                               JsonRules rules) throws ReaderException {
         Set<String> ignorePathsER = new HashSet<>();
         Set<String> ignorePathsAR = new HashSet<>();
         Set<String> ignoreValuesER = new HashSet<>();
         Set<String> ignoreValuesAR = new HashSet<>();
         Set<String> checkPathsER = new HashSet<>();
         Set<String> checkPathsAR = new HashSet<>();
-        for (String path: ignorePropertiesV2List) {
+        for (String path: rules.ignorePropertiesV2List) {
             try {
                 ignorePathsER.addAll(findPathListForJsonPath(jsonNodeER.toString(), path));
                 ignorePathsAR.addAll(findPathListForJsonPath(jsonNodeAR.toString(), path));
@@ -390,7 +460,7 @@ public class JsonComparator extends AbstractComparator {
                 log.warn("Invalid Path for rule 'ignorePropertiesV2': {}", path);
             }
         }
-        for (String path: ignoreValue) {
+        for (String path: rules.ignoreValue) {
             try {
                 ignoreValuesER.addAll(findPathListForJsonPath(jsonNodeER.toString(), path));
                 ignoreValuesAR.addAll(findPathListForJsonPath(jsonNodeAR.toString(), path));
@@ -398,7 +468,7 @@ public class JsonComparator extends AbstractComparator {
                 log.warn("Invalid Path for rule 'ignoreValue': {}", path);
             }
         }
-        for (String path: checkArrayList) {
+        for (String path: rules.checkArrayList) {
             try {
                 checkPathsER.addAll(findPathListForJsonPath(jsonNodeER.toString(), path));
                 checkPathsAR.addAll(findPathListForJsonPath(jsonNodeAR.toString(), path));
@@ -408,7 +478,7 @@ public class JsonComparator extends AbstractComparator {
         }
         Set<String> mandatoryPathsER = new HashSet<>();
         Set<String> mandatoryPathsAR = new HashSet<>();
-        for (String path: mandatoryAttributeList) {
+        for (String path: rules.mandatoryAttributeList) {
             try {
                 mandatoryPathsER.addAll(findPathListForJsonPath(jsonNodeER.toString(), path));
                 mandatoryPathsAR.addAll(findPathListForJsonPath(jsonNodeAR.toString(), path));
@@ -429,7 +499,8 @@ public class JsonComparator extends AbstractComparator {
             String erJsonPath = macroses.get(DIFF_MACROS_ER_JSON_PATH);
             String arJsonPath = macroses.get(DIFF_MACROS_AR_JSON_PATH);
             JsonDiffMessage diffMessage;
-            if (!ignoreDifference(macroses) && mandatoryAttribute(macroses, mandatoryPathsER, mandatoryPathsAR)
+            if (!ignoreDifference(macroses, rules.ignorePropertiesList)
+                    && mandatoryAttribute(macroses, mandatoryPathsER, mandatoryPathsAR, rules.mandatoryAttributeList)
                     && !ignorePropertiesByJsonPath(macroses, ignorePathsER, ignorePathsAR, checkPathsER, checkPathsAR)
                     && !ignoreValuesByJsonPath(macroses, operation, ignoreValuesER, ignoreValuesAR)) {
                 switch (operation) {
@@ -438,7 +509,7 @@ public class JsonComparator extends AbstractComparator {
                             log.debug("[formDiffMessages] prepareParameterizedScript");
                             macroses.put(DIFF_MACROS_SUMMARY, "er and ar root nodes have different types.");
                             diffMessage = new JsonDiffMessage(diffCounter, erPath, arPath, ResultType.MODIFIED,
-                                    ScriptUtils.prepareParameterizedScript(this.diffSummaryTemplate, macroses),
+                                    ScriptUtils.prepareParameterizedScript(rules.diffSummaryTemplate, macroses),
                                     erJsonPath, arJsonPath);
                         } else {
                             macroses.put(DIFF_MACROS_SUMMARY, "Node values are different.");
@@ -452,7 +523,7 @@ public class JsonComparator extends AbstractComparator {
                                 macroses.put(DIFF_MACROS_SUMMARY, "Result is changed due to inline-regexp checking.");
                             }
                             log.debug("[formDiffMessages] prepareParameterizedScript1 {}", checkRegexpResult);
-                            diffMessage.setDescription(ScriptUtils.prepareParameterizedScript(this.diffSummaryTemplate,
+                            diffMessage.setDescription(ScriptUtils.prepareParameterizedScript(rules.diffSummaryTemplate,
                                     macroses));
                         }
                         break;
@@ -460,16 +531,16 @@ public class JsonComparator extends AbstractComparator {
                         macroses.put(DIFF_MACROS_SUMMARY, "Nodes have different types.");
                         log.debug("[formDiffMessages] prepareParameterizedScript2");
                         diffMessage = new JsonDiffMessage(diffCounter, erPath, arPath, ResultType.MODIFIED,
-                                ScriptUtils.prepareParameterizedScript(this.diffSummaryTemplate, macroses),
+                                ScriptUtils.prepareParameterizedScript(rules.diffSummaryTemplate, macroses),
                                 erJsonPath, arJsonPath);
                         break;
                     case "add":
                         macroses.put(DIFF_MACROS_SUMMARY, "ar has extra node(s).");
                         log.debug("[formDiffMessages] prepareParameterizedScript3");
                         diffMessage = new JsonDiffMessage(diffCounter, "", arPath, ResultType.EXTRA,
-                                ScriptUtils.prepareParameterizedScript(this.diffSummaryTemplate, macroses),
+                                ScriptUtils.prepareParameterizedScript(rules.diffSummaryTemplate, macroses),
                                 "", arJsonPath);
-                        if (ignoreExtra) {
+                        if (rules.ignoreExtra) {
                             diffMessage.setResult(ResultType.IDENTICAL);
                         }
                         break;
@@ -477,7 +548,7 @@ public class JsonComparator extends AbstractComparator {
                         macroses.put(DIFF_MACROS_SUMMARY, "er node is missed.");
                         log.debug("[formDiffMessages] prepareParameterizedScript4");
                         diffMessage = new JsonDiffMessage(diffCounter, erPath, "", ResultType.MISSED,
-                                ScriptUtils.prepareParameterizedScript(this.diffSummaryTemplate, macroses),
+                                ScriptUtils.prepareParameterizedScript(rules.diffSummaryTemplate, macroses),
                                 erJsonPath, "");
                         break;
                     case "move":
@@ -486,13 +557,13 @@ public class JsonComparator extends AbstractComparator {
                         macroses.put(DIFF_MACROS_SUMMARY, "er and ar nodes have different types and/or structure.");
                         log.debug("[formDiffMessages] prepareParameterizedScript4");
                         diffMessage = new JsonDiffMessage(diffCounter, erPath, arPath, ResultType.MODIFIED,
-                                ScriptUtils.prepareParameterizedScript(this.diffSummaryTemplate, macroses),
+                                ScriptUtils.prepareParameterizedScript(rules.diffSummaryTemplate, macroses),
                                 erJsonPath, arJsonPath);
                         break;
                     default:
                         continue;
                 }
-                if (saveDiffValue) {
+                if (rules.saveDiffValue) {
                     String expectedValue = Strings.isNullOrEmpty(diffMessage.getExpected()) ? "" :
                             jsonNodeER.at(diffMessage.getExpected()).toString();
                     String actualValue = Strings.isNullOrEmpty(diffMessage.getActual()) ? "" :
@@ -510,7 +581,8 @@ public class JsonComparator extends AbstractComparator {
 
     private boolean mandatoryAttribute(Map<String, String> macroses,
                                        Set<String> mandatoryPathsER,
-                                       Set<String> mandatoryPathsAR) {
+                                       Set<String> mandatoryPathsAR,
+                                       List<String> mandatoryAttributeList) {
         String expected = macroses.get(DIFF_MACROS_ER_JSON_PATH);
         String actual = macroses.get(DIFF_MACROS_AR_JSON_PATH);
         if (!mandatoryAttributeList.isEmpty()) {
@@ -545,7 +617,7 @@ public class JsonComparator extends AbstractComparator {
         return macroses;
     }
 
-    private boolean ignoreDifference(Map<String, String> macroses) {
+    private boolean ignoreDifference(Map<String, String> macroses, List<FilterObjectProperty> ignorePropertiesList) {
         String expected = macroses.get(DIFF_MACROS_ER_PATH);
         String actual = macroses.get(DIFF_MACROS_AR_PATH);
         long startTime = System.currentTimeMillis();
@@ -647,6 +719,46 @@ public class JsonComparator extends AbstractComparator {
         return objectPrimaryKeys;
     }
 
+    /*
+     * Rules of the comparison read from parameters.
+     * Rules are shared by comparisons with equal parameters, so they are not changed once read.
+     */
+    private static class JsonRules {
+        private List<String> readByPath;
+        private boolean keysCaseInsensitive;
+        private String validateSchema;
+        private boolean findErInAr;
+        private boolean validateAsSimpleSchema;
+        private List<ChangeDiffResultRule> changeDiffResultRules;
+        private Map<String, String> objectPrimaryKeys;
+        private boolean ignoreArraysOrder;
+        private boolean disableTypeCheckIfRegexp;
+
+        private List<FilterObjectProperty> ignorePropertiesList;
+        private List<String> checkArrayList;
+        private List<String> mandatoryAttributeList;
+        private List<String> ignorePropertiesV2List;
+        private List<String> ignoreValue;
+
+        private String diffSummaryTemplate;
+        private boolean ignoreExtra;
+        private boolean saveDiffValue;
+    }
+
+    /*
+     * ER read by path, with the rules to apply to each AR.
+     */
+    private static class JsonExpectation extends PreparedExpectation {
+        private final JsonRules rules;
+        private Optional<JsonNode> jsonNodeER = Optional.empty();
+        private IOException failure;
+
+        private JsonExpectation(Data data, String content, Parameters parameters, JsonRules rules) {
+            super(data, content, parameters);
+            this.rules = rules;
+        }
+    }
+
     private class FilterObjectProperty {
 
         private String obj;
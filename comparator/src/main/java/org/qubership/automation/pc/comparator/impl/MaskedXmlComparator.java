@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -57,18 +58,25 @@ public class MaskedXmlComparator extends AbstractComparator {
     public static final String PARAMETER_NAME_MAPPING_XPATH = "mappingXpath";
     public static final String PARAMETER_NAME_MAPPING_REGEXP = "mappingRegexp";
   
-    final XPath xpath = XPathFactory.newInstance().newXPath();
-    private List<XPathExpression> mappingXpathCompiled;
-    private List<Pattern> mappingRegexpCompiled;
-    private List<String> mappingXpath;
-    private List<String> mappingRegexp;
-    
-    List<DiffMessage> resultList = new ArrayList<>();
-    int diffCounter = 0; // Global diffs' counter (diffMessages are produced in different places of this comparator)
+    // XPath objects are not thread-safe, and creating of the factory is costly
+    private static final ThreadLocal<XPath> xpath
+            = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
 
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
-        getConfigurationParameters(configuration);
+        List<String> mappingXpath = configuration.getParameters(PARAMETER_NAME_MAPPING_XPATH);
+        if (mappingXpath == null) {
+            mappingXpath = new ArrayList<>();
+        }
+        List<String> mappingRegexp = configuration.getParameters(PARAMETER_NAME_MAPPING_REGEXP);
+        if (mappingRegexp == null) {
+            mappingRegexp = new ArrayList<>();
+        }
+        if (mappingXpath.size() != mappingRegexp.size()) {
+            throw new ComparatorException("Mappings and Regexps don't correspond each other", 20002);
+        }
+        List<XPathExpression> mappingXpathCompiled = compileXpaths(mappingXpath);
+        List<Pattern> mappingRegexpCompiled = compileRegexps(mappingRegexp);
         Document docER;
         Document docAR;
         try {
@@ -83,50 +91,48 @@ public class MaskedXmlComparator extends AbstractComparator {
             throw new ComparatorException(ex.getMessage().replace("\"", "`").replace("'", "`"), 20002);
         }
 
+        List<DiffMessage> resultList = new ArrayList<>();
+        // Diffs' counter of the comparison (diffMessages are produced in different places of this comparator)
+        AtomicInteger diffCounter = new AtomicInteger();
         for (int i = 0; i < mappingXpathCompiled.size(); i++) {
-            validate(docER, mappingXpathCompiled.get(i), mappingRegexpCompiled.get(i), mappingRegexp.get(i), true);
-            validate(docAR, mappingXpathCompiled.get(i), mappingRegexpCompiled.get(i), mappingRegexp.get(i), false);
+            validate(docER, mappingXpathCompiled.get(i), mappingRegexpCompiled.get(i), mappingRegexp.get(i), true,
+                    resultList, diffCounter);
+            validate(docAR, mappingXpathCompiled.get(i), mappingRegexpCompiled.get(i), mappingRegexp.get(i), false,
+                    resultList, diffCounter);
         }
         return resultList;
     }
 
-    private void getConfigurationParameters(Parameters configuration) throws ComparatorException {
-        mappingXpath = configuration.getParameters(PARAMETER_NAME_MAPPING_XPATH);
-        if (mappingXpath == null) {
-            mappingXpath = new ArrayList<>();
-        }
-        mappingRegexp = configuration.getParameters(PARAMETER_NAME_MAPPING_REGEXP);
-        if (mappingRegexp == null) {
-            mappingRegexp = new ArrayList<>();
-        }
-        
-        if (mappingXpath.size() != mappingRegexp.size()) {
-            throw new ComparatorException("Mappings and Regexps don't correspond each other", 20002);
-        } else {
-            mappingXpathCompiled = new ArrayList<>();
-            for (int k = 0; k < mappingXpath.size(); k++) {
-                try {
-                    mappingXpathCompiled.add(xpath.compile(mappingXpath.get(k)));
-                } catch (XPathExpressionException ex) {
-                    throw new ComparatorException(" Xpath = " + mappingXpath.get(k).replace("\"", "`")
-                            .replace("'","`") + "; " + ex.getMessage(), 20004);
-                }
+    private List<XPathExpression> compileXpaths(List<String> mappingXpath) throws ComparatorException {
+        List<XPathExpression> mappingXpathCompiled = new ArrayList<>();
+        for (int k = 0; k < mappingXpath.size(); k++) {
+            try {
+                mappingXpathCompiled.add(xpath.get().compile(mappingXpath.get(k)));
+            } catch (XPathExpressionException ex) {
+                throw new ComparatorException(" Xpath = " + mappingXpath.get(k).replace("\"", "`")
+                        .replace("'","`") + "; " + ex.getMessage(), 20004);
             }
-            mappingRegexpCompiled = new ArrayList<>();
-            for (int k = 0; k < mappingRegexp.size(); k++) {
-                try {
-                    mappingRegexpCompiled.add(Pattern.compile(mappingRegexp.get(k)));
-                } catch (PatternSyntaxException ex) {
-                    throw new ComparatorException(" Regexp = " + mappingRegexp.get(k)
-                            .replace("\"", "`")
-                            .replace("'","`") + "; " + ex.getMessage(), 20003);
-                }
+        }
+        return mappingXpathCompiled;
+    }
+
+    private List<Pattern> compileRegexps(List<String> mappingRegexp) throws ComparatorException {
+        List<Pattern> mappingRegexpCompiled = new ArrayList<>();
+        for (int k = 0; k < mappingRegexp.size(); k++) {
+            try {
+                mappingRegexpCompiled.add(Pattern.compile(mappingRegexp.get(k)));
+            } catch (PatternSyntaxException ex) {
+                throw new ComparatorException(" Regexp = " + mappingRegexp.get(k)
+                        .replace("\"", "`")
+                        .replace("'","`") + "; " + ex.getMessage(), 20003);
             }
         }
+        return mappingRegexpCompiled;
     }
-        
+
     private void validate(Document doc, XPathExpression expr, Pattern regexp, String regexpString,
-                          boolean isControl) throws ComparatorException {
+                          boolean isControl, List<DiffMessage> resultList,
+                          AtomicInteger diffCounter) throws ComparatorException {
         NodeList nodeList;
      
         try {
@@ -134,11 +140,11 @@ public class MaskedXmlComparator extends AbstractComparator {
         } catch (XPathExpressionException e) {
             throw new ComparatorException("Failed to evaluate xpath ", e);
         }
-        checkRecursively(nodeList, regexp, regexpString, isControl, 0);
+        checkRecursively(nodeList, regexp, regexpString, isControl, 0, resultList, diffCounter);
     }
 
     private void checkRecursively(NodeList nodeList, Pattern regexp, String regexpString, boolean isControl,
-                                  int level) {
+                                  int level, List<DiffMessage> resultList, AtomicInteger diffCounter) {
 
         for (int index = 0; index < nodeList.getLength(); index++) {
             final Node node = nodeList.item(index);
@@ -156,13 +162,13 @@ public class MaskedXmlComparator extends AbstractComparator {
                         diffMessage.setActual(nodeXpath);
                     }        
                     diffMessage.setResult(ResultType.MODIFIED);
-                    diffMessage.setOrderId(++diffCounter);
+                    diffMessage.setOrderId(diffCounter.incrementAndGet());
                     diffMessage.setDescription("Node value doesn't match regexp: " + regexpString);
                     resultList.add(diffMessage);
                 }
             } else  if (level == 0) {
                 // Only one level of recursion. We are interested only in children, not in grandchildren
-                checkRecursively(node.getChildNodes(), regexp, regexpString, isControl, 1);
+                checkRecursively(node.getChildNodes(), regexp, regexpString, isControl, 1, resultList, diffCounter);
             }           
         }
     }
@@ -56,16 +56,13 @@ public class PlainTextComparator extends AbstractComparator {
     public static final String SINGLE_ROW_MODE = "singleRowMode";
     public static final String IGNORE_IDENTICAL = "ignoreIdentical";
 
-    public static boolean ignoreIdentical;
-
-    private boolean ignoreCase;
-    private boolean singleRowMode;
     private final Logger log = LoggerFactory.getLogger(PlainTextComparator.class);
 
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
         try {
-            getConfigurationParameters(configuration);
+            boolean ignoreCase = configuration.getBooleanParameter(IGNORE_CASE, false);
+            boolean singleRowMode = configuration.getBooleanParameter(SINGLE_ROW_MODE, false);
 
             final List<String> erList = TextHelpers.stringToList((ignoreCase) ? er.toLowerCase() : er);
             final List<String> arList = TextHelpers.stringToList((ignoreCase) ? ar.toLowerCase() : ar);
@@ -204,10 +201,4 @@ public class PlainTextComparator extends AbstractComparator {
         }
         return differences;        
     }
-    
-    private void getConfigurationParameters(Parameters configuration) throws ComparatorException {
-        ignoreCase = configuration.getBooleanParameter(IGNORE_CASE, false);
-        singleRowMode = configuration.getBooleanParameter(SINGLE_ROW_MODE, false);
-        ignoreIdentical = configuration.getBooleanParameter(IGNORE_IDENTICAL, false);
-    }
 }
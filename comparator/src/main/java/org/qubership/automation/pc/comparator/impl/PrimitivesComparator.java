@@ -39,14 +39,10 @@ public class PrimitivesComparator extends AbstractComparator {
 
     public static final String IGNORE_IDENTICAL  = "ignoreIdentical";
 
-    public static boolean ignoreIdentical;
-
-
     private final Logger log = LoggerFactory.getLogger(PrimitivesComparator.class);
 
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
-        getConfigurationParameters(configuration);
         return compareStrings(er, ar);
     }
     
@@ -207,8 +203,4 @@ public class PrimitivesComparator extends AbstractComparator {
             }
         }
     }
-
-    private void getConfigurationParameters(Parameters configuration) throws ComparatorException {
-        ignoreIdentical = configuration.getBooleanParameter(IGNORE_IDENTICAL, false);
-    }
 }
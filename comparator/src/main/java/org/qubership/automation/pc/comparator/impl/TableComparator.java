@@ -42,6 +42,10 @@ import org.qubership.automation.pc.compareresult.ResultType;
 import org.qubership.automation.pc.configuration.parameters.Parameters;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
 import org.qubership.automation.pc.core.exceptions.FailedToParseException;
+import org.qubership.automation.pc.core.helpers.ThreadUtils;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.PreparedExpectation;
 import org.qubership.automation.pc.models.Table;
 import org.qubership.automation.pc.models.TablesList;
 import org.qubership.automation.pc.models.table.CheckColumnOperations;
@@ -85,48 +89,88 @@ public class TableComparator extends AbstractComparator {
     public static final String PARAMETER_IGNORE_MISSED = "ignoreMissed";
     public static final String PARAMETER_IGNORE_EXTRA = "ignoreExtra";
 
-    List<String> checkPocRules = new ArrayList<>();
-    List<CheckPocSection> checkConfig = new ArrayList<>();
-    List<CheckColumnRule> checkColumnRules = new ArrayList<>();
-    boolean ignoreCase = false;
-    boolean ignoreColumnCase = false;
-    boolean cellAsRegexp = false;
-    boolean ignoreMissed = false;
-    boolean ignoreExtra = false;
 
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
-        String erContent = er;
-        String arContent = ar;
-
         // Currently (20/02/2017) there are no actions to do if er or ar are empty
         // Thats why we simply return empty list of diffMessages in this case
         if (StringUtils.isBlank(er) && StringUtils.isBlank(ar)) {
             return new ArrayList<>();
-        } else if (StringUtils.isBlank(er)) {
-            erContent = "{}";
+        }
+        return compare(prepare(null, er, configuration), ar);
+    }
+
+    @Override
+    public PreparedExpectation prepare(Data er, Parameters configuration) {
+        return prepare(er, DataContentConverter.toString(er), configuration);
+    }
+
+    @Override
+    public List<DiffMessage> compare(PreparedExpectation er, Data ar) throws ComparatorException {
+        TableExpectation expectation = er instanceof TableExpectation
+                ? (TableExpectation) er : prepare(er.getData(), er.getContent(), er.getParameters());
+        return compare(expectation, DataContentConverter.toString(ar));
+    }
+
+    /*
+     * Reads rules once for all ARs compared with ER; ER tables are parsed once too,
+     * unless 'checkPOC' rule is set (it changes ER tables while checking).
+     * Errors are kept in the expectation and thrown by each comparison, the same way as before.
+     */
+    private TableExpectation prepare(Data data, String er, Parameters configuration) {
+        TableExpectation expectation = new TableExpectation(data, er, configuration);
+        expectation.erContent = StringUtils.isBlank(er) ? "{}" : er;
+        try {
+            expectation.rules = getConfigurationParameters(configuration);
+        } catch (ComparatorException ex) {
+            expectation.failure = ex;
+            return expectation;
+        } catch (IndexOutOfBoundsException e) {
+            expectation.failure = new ComparatorException("Error while parsing input message(s). "
+                    + "Probably it is not valid JSON.\n" + e.getMessage(), e);
+            return expectation;
+        }
+        if (expectation.rules.checkConfig.isEmpty() && expectation.rules.checkColumnRules.isEmpty()) {
+            try {
+                expectation.erTables = TablesList.getTableListFromJson(expectation.erContent);
+            } catch (Exception ex) {
+                expectation.erTablesFailure = ex;
+            }
+        }
+        return expectation;
+    }
+
+    private List<DiffMessage> compare(TableExpectation expectation, String ar) throws ComparatorException {
+        String erContent = expectation.erContent;
+        String arContent = ar;
+
+        if (StringUtils.isBlank(expectation.getContent()) && StringUtils.isBlank(ar)) {
+            return new ArrayList<>();
         } else if (StringUtils.isBlank(ar)) {
             arContent = "{}";
         }
+        if (expectation.failure != null) {
+            throw expectation.failure;
+        }
 
         try {
-            getConfigurationParameters(configuration);
+            TableRules rules = expectation.rules;
 
-            if (!checkConfig.isEmpty()) {
-                return checkPoc(erContent, arContent, checkConfig);
-            } else if (!checkColumnRules.isEmpty()) {
+            if (!rules.checkConfig.isEmpty()) {
+                return checkPoc(erContent, arContent, rules.checkConfig, rules);
+            } else if (!rules.checkColumnRules.isEmpty()) {
                 // This rule was added to provide SVp tool required functionality. If it's present in list of
                 // rules - others will be skipped
                 // and table will be processed differently (only ar, not designed to work with highlighter)
                 // Rule syntax <columnName>=<operation>=<expected_value> (Status=NOT_EQUALS=FAILED)
                 List<DiffMessage> diffs = new ArrayList<>();
-                for (CheckColumnRule rule : checkColumnRules) {
+                for (CheckColumnRule rule : rules.checkColumnRules) {
                     // TODO: This is a quick implementation. May be prone to instability
                     diffs.addAll(rule.processTable(TablesList.getTableListFromJson(arContent).get(0)));
                 }
                 return diffs;
             } else {
-                return compareTablesByDefault(erContent, arContent);
+                return compareTablesByDefault(expectation, arContent);
             }
         } catch (IndexOutOfBoundsException e) {
             throw new ComparatorException("Error while parsing input message(s). Probably it is not valid JSON.\n"
@@ -201,28 +245,29 @@ public class TableComparator extends AbstractComparator {
         return filterErIndexes;
     }
 
-    private void getConfigurationParameters(Parameters configuration) throws ComparatorException {
-        ignoreCase = configuration.getBooleanParameter(PARAMETER_NAME_IGNORE_CASE, ignoreCase);
-        ignoreColumnCase = configuration.getBooleanParameter(PARAMETER_IGNORE_COLUMN_CASE, false);
-        cellAsRegexp = configuration.getBooleanParameter(PARAMETER_CELL_AS_REGEXP, false);
-        ignoreMissed = configuration.getBooleanParameter(PARAMETER_IGNORE_MISSED, false);
-        ignoreExtra = configuration.getBooleanParameter(PARAMETER_IGNORE_EXTRA, false);
+    private TableRules getConfigurationParameters(Parameters configuration) throws ComparatorException {
+        TableRules rules = new TableRules();
+        rules.ignoreCase = configuration.getBooleanParameter(PARAMETER_NAME_IGNORE_CASE, false);
+        rules.ignoreColumnCase = configuration.getBooleanParameter(PARAMETER_IGNORE_COLUMN_CASE, false);
+        rules.cellAsRegexp = configuration.getBooleanParameter(PARAMETER_CELL_AS_REGEXP, false);
+        rules.ignoreMissed = configuration.getBooleanParameter(PARAMETER_IGNORE_MISSED, false);
+        rules.ignoreExtra = configuration.getBooleanParameter(PARAMETER_IGNORE_EXTRA, false);
         List<String> rows = configuration.getParameters(PARAMETER_NAME_CHECK_POC);
         if (Objects.nonNull(rows) && !rows.isEmpty()) {
             CheckPocRule checkPocRule = new CheckPocRule(rows);
-            checkConfig.addAll(checkPocRule.getCheckPocSections());
+            rules.checkConfig.addAll(checkPocRule.getCheckPocSections());
         }
         List<String> checkColumns = configuration.getParameters(PARAMETER_CHECK_COLUMN_VALUE);
-        checkColumnRules = new ArrayList<>();
         if (checkColumns != null) {
-            checkColumns.forEach(this::parseCheckColumnRule);
+            checkColumns.forEach(rawString -> parseCheckColumnRule(rawString, rules.checkColumnRules));
         }
+        return rules;
     }
 
     /**
      * Parsing checkColumn rule from raw string into object.
      */
-    private void parseCheckColumnRule(String rawString) {
+    private void parseCheckColumnRule(String rawString, List<CheckColumnRule> checkColumnRules) {
         String[] rawSplit = rawString.split("=");
         if (rawSplit.length == 3) {
             try {
@@ -236,8 +281,9 @@ public class TableComparator extends AbstractComparator {
         }
     }
 
-    private List<DiffMessage> compareTablesByDefault(String jsonStringER,
+    private List<DiffMessage> compareTablesByDefault(TableExpectation expectation,
                                                      String jsonStringAR) throws ComparatorException {
+        TableRules rules = expectation.rules;
         int diffCounter = 1;
         try {
             List<DiffMessage> diffMessages = new ArrayList<>();
@@ -252,7 +298,10 @@ public class TableComparator extends AbstractComparator {
             //                Please check source configuration and/or input files.");
             //            }
 
-            TablesList erTables = TablesList.getTableListFromJson(jsonStringER);
+            if (expectation.erTablesFailure != null) {
+                throw expectation.erTablesFailure;
+            }
+            TablesList erTables = expectation.erTables;
             if (erTables == null || erTables.isEmpty()) {
                 throw new ComparatorException("er tables are missed! "
                         + "Please check source configuration and/or input files.");
@@ -270,10 +319,11 @@ public class TableComparator extends AbstractComparator {
                 //  Cells are compared similar way: 1st - 1st, 2nd - 2nd, ...
                 //      Cell values are compared as strings, for equality
                 for (int i = 0; i < Math.min(erTable.rows.size(), arTable.rows.size()); i++) {
+                    ThreadUtils.checkInterrupted();
                     Table.TableRow erRow = erTable.rows.get(i);
                     Table.TableRow arRow = arTable.rows.get(i);
                     for (int k = 0; k < Math.min(erRow.size(), arRow.size()); k++) {
-                        if (!equalsByRule(arRow.get(k), erRow.get(k))) {
+                        if (!equalsByRule(arRow.get(k), erRow.get(k), rules)) {
                             // Cell values are different. Report error
                             diffMessages.add(new DiffMessage(diffCounter++,
                                     "" + "/" + erTable.name + "/" + i + "/" + k + "/" + erTable.headers.get(k),
@@ -312,7 +362,7 @@ public class TableComparator extends AbstractComparator {
                             + i, "", ResultType.MISSED, "er row# " + i + " is missed."));
                 }
             }
-            processIgnoreMissedAndExtraRules(diffMessages);
+            processIgnoreMissedAndExtraRules(diffMessages, rules);
             return diffMessages;
         } catch (Exception ex) {
             throw new ComparatorException("Error while comparing er/ar tables. "
@@ -322,7 +372,8 @@ public class TableComparator extends AbstractComparator {
 
     private List<DiffMessage> checkPoc(String jsonStringER,
                                        String jsonStringAR,
-                                       List<CheckPocSection> checkConfig) throws ComparatorException {
+                                       List<CheckPocSection> checkConfig,
+                                       TableRules rules) throws ComparatorException {
         int diffCounter = 1;
         try {
             List<DiffMessage> diffMessages = new ArrayList<>();
@@ -404,7 +455,7 @@ public class TableComparator extends AbstractComparator {
                 boolean aliasesFiltered = false;
                 for (CheckPocSection item : checkConfig) {
                     if (CheckPocSectionType.ALIAS.equals(item.cfgType)) {
-                        List<String> colValues = getLookup(erTables, item.erTable, item.colName, item.filters);
+                        List<String> colValues = getLookup(erTables, item.erTable, item.colName, item.filters, rules);
                         aliases.put(item.cfgName, colValues);
                         //filter er table
                         if (!item.filters.isEmpty()) {
@@ -448,7 +499,7 @@ public class TableComparator extends AbstractComparator {
                                     List<String> localAliasValues = new ArrayList<>();
                                     localAliasValues.addAll(getLookup(erTables, item.erTable,
                                             spec.lov.get(0).substring(1, spec.lov.get(0).length() - 1).trim(),
-                                            new HashMap<>()));
+                                            new HashMap<>(), rules));
                                     if (!localAliasValues.isEmpty()) {
                                         spec.lov.clear();
                                         spec.lov.addAll(localAliasValues);
@@ -460,16 +511,16 @@ public class TableComparator extends AbstractComparator {
 
                             // Prepare RelationsMaps...
                             List<Relation> relationList
-                                    = prepareRelations(item.relations, arTableHeaderIds, checkTableHeaderIds);
+                                    = prepareRelations(item.relations, arTableHeaderIds, checkTableHeaderIds, rules);
                             List<Relation> columnsList
-                                    = prepareRelations(item.columns, arTableHeaderIds, checkTableHeaderIds);
+                                    = prepareRelations(item.columns, arTableHeaderIds, checkTableHeaderIds, rules);
 
                             // Loop through ar rows (+apply filter)
                             List<Integer> arFilteredRowNumbers = new ArrayList<>();
                             List<Integer> matchingErRowNumbers = new ArrayList<>();
 
                             for (int i = 0; i < arTable.rows.size(); i++) {
-                                if (checkFilter(arTable.rows.get(i), filterIds)) {
+                                if (checkFilter(arTable.rows.get(i), filterIds, rules)) {
                                     //Saving rowNumbers to List for future use
                                     arFilteredRowNumbers.add(i);
 
@@ -479,7 +530,7 @@ public class TableComparator extends AbstractComparator {
                                     }
 
                                     //Searching corresponding row in checkTable
-                                    int erRowIdx = searchErRow(checkTable, relationList, matchingErRowNumbers);
+                                    int erRowIdx = searchErRow(checkTable, relationList, matchingErRowNumbers, rules);
                                     if (erRowIdx == -1) {
                                         // Corresponding row doesn't exist. Report error
                                         diffMessages.add(
@@ -501,7 +552,7 @@ public class TableComparator extends AbstractComparator {
                                             col.arColValue = arTable.rows.get(i).get(col.arColumnId);
                                             col.erColValue = checkTable.rows.get(erRowIdx).get(col.erColumnId);
                                             //if( !col.arColValue.equals(col.erColValue) ) {
-                                            if (!equalsByRule(col.arColValue, col.erColValue)) {
+                                            if (!equalsByRule(col.arColValue, col.erColValue, rules)) {
                                                 // Attribute values are different. Report error
                                                 String reportMessage = "";
                                                 int originalRowId = erRowIdx;
@@ -565,7 +616,7 @@ public class TableComparator extends AbstractComparator {
                     }
                 }
             }
-            processIgnoreMissedAndExtraRules(diffMessages);
+            processIgnoreMissedAndExtraRules(diffMessages, rules);
             return diffMessages;
         } catch (Exception ex) {
             throw new ComparatorException("Error while comparing er/ar tables. "
@@ -573,11 +624,11 @@ public class TableComparator extends AbstractComparator {
         }
     }
 
-    private void processIgnoreMissedAndExtraRules(List<DiffMessage> diffs) {
-        if (ignoreMissed) {
+    private void processIgnoreMissedAndExtraRules(List<DiffMessage> diffs, TableRules rules) {
+        if (rules.ignoreMissed) {
             changeResultType(diffs, ResultType.MISSED, ResultType.IDENTICAL, "ignoreMissed rule");
         }
-        if (ignoreExtra) {
+        if (rules.ignoreExtra) {
             changeResultType(diffs, ResultType.EXTRA, ResultType.IDENTICAL, "ignoreExtra rule");
         }
     }
@@ -627,13 +678,14 @@ public class TableComparator extends AbstractComparator {
         return result;
     }
 
-    private int searchErRow(Table checkTable, List<Relation> relationList, List<Integer> matchingErRowNumbers) {
+    private int searchErRow(Table checkTable, List<Relation> relationList, List<Integer> matchingErRowNumbers,
+                            TableRules rules) {
         for (int i = 0; i < checkTable.rows.size(); i++) {
             if (!matchingErRowNumbers.contains((Integer) i)) {
                 boolean found = true;
                 for (Relation rel : relationList) {
                     //if( !rel.arColValue.equals(checkTable.rows.get(i).get(rel.erColumnId)) ) {
-                    if (!equalsByRule(rel.arColValue, checkTable.rows.get(i).get(rel.erColumnId))) {
+                    if (!equalsByRule(rel.arColValue, checkTable.rows.get(i).get(rel.erColumnId), rules)) {
                         found = false;
                         break;
                     }
@@ -647,7 +699,7 @@ public class TableComparator extends AbstractComparator {
     }
 
     private List<String> getLookup(List<Table> erTables, String erTable, String colName, Map<String,
-            CheckPocSection.FilterSpecification> filters) {
+            CheckPocSection.FilterSpecification> filters, TableRules rules) {
         List<String> result = new ArrayList<>();
 
         Table lookupTable = getTableByName(erTables, erTable);
@@ -656,7 +708,7 @@ public class TableComparator extends AbstractComparator {
             Map<Integer, CheckPocSection.FilterSpecification> filterIds = getFiltersMap(filters, headerIds);
             Integer idx = headerIds.get(colName);
             if (idx != null) {
-                return getColumnValues(lookupTable, idx, filterIds, true);
+                return getColumnValues(lookupTable, idx, filterIds, true, rules);
             }
         }
         return result;
@@ -693,7 +745,7 @@ public class TableComparator extends AbstractComparator {
     }
 
     private List<Relation> prepareRelations(Map<String, String> relations, Map<String, Integer> arHeaderIds,
-                                            Map<String, Integer> erHeaderIds) {
+                                            Map<String, Integer> erHeaderIds, TableRules rules) {
         List<Relation> result = new ArrayList<>();
         for (Map.Entry entry : relations.entrySet()) {
             String arKey = entry.getKey().toString();
@@ -702,8 +754,8 @@ public class TableComparator extends AbstractComparator {
             rel.arColName = arKey;
             rel.erColName = erKey;
             try {
-                rel.arColumnId = findHeader(arHeaderIds, arKey);
-                rel.erColumnId = findHeader(erHeaderIds, erKey);
+                rel.arColumnId = findHeader(arHeaderIds, arKey, rules);
+                rel.erColumnId = findHeader(erHeaderIds, erKey, rules);
             } catch (FailedToParseException ex) {
                 throw new FailedToParseException(String.format("Can’t find columns specified in CheckPOC rule"
                         + " configuration: er-table %s, ar-table %s.", erKey, arKey));
@@ -713,8 +765,8 @@ public class TableComparator extends AbstractComparator {
         return result;
     }
 
-    private int findHeader(Map<String, Integer> headerIds, String key) {
-        if (ignoreColumnCase) {
+    private int findHeader(Map<String, Integer> headerIds, String key, TableRules rules) {
+        if (rules.ignoreColumnCase) {
             for (String s : headerIds.keySet()) {
                 if (StringUtils.equalsIgnoreCase(s, key)) {
                     return headerIds.get(s);
@@ -729,11 +781,11 @@ public class TableComparator extends AbstractComparator {
     private List<String> getColumnValues(Table lookupTable,
                                          int idx,
                                          Map<Integer, CheckPocSection.FilterSpecification> filterIds,
-                                         boolean distinct) {
+                                         boolean distinct, TableRules rules) {
         List<String> result = new ArrayList<>();
 
         for (Table.TableRow row : lookupTable.rows) {
-            if (!checkFilter(row, filterIds)) {
+            if (!checkFilter(row, filterIds, rules)) {
                 continue;
             }
             try {
@@ -749,7 +801,8 @@ public class TableComparator extends AbstractComparator {
         return result;
     }
 
-    private boolean checkFilter(Table.TableRow row, Map<Integer, CheckPocSection.FilterSpecification> filterIds) {
+    private boolean checkFilter(Table.TableRow row, Map<Integer, CheckPocSection.FilterSpecification> filterIds,
+                                TableRules rules) {
         if (filterIds.isEmpty()) {
             return true;
         } else {
@@ -757,7 +810,8 @@ public class TableComparator extends AbstractComparator {
                 //if( !row.get((Integer)entry.getKey()).equals(entry.getValue().toString() ) ) {
                 CheckPocSection.FilterSpecification filterSpec
                         = (CheckPocSection.FilterSpecification) entry.getValue();
-                if (!inLovByRule(row.get((Integer) entry.getKey()), filterSpec.comparisonOperand, filterSpec.lov)) {
+                if (!inLovByRule(row.get((Integer) entry.getKey()), filterSpec.comparisonOperand, filterSpec.lov,
+                        rules)) {
                     return false;
                 }
             }
@@ -765,46 +819,46 @@ public class TableComparator extends AbstractComparator {
         }
     }
 
-    private boolean equalsByRule(String str1, String str2) {
-        if (cellAsRegexp) {
+    private boolean equalsByRule(String str1, String str2, TableRules rules) {
+        if (rules.cellAsRegexp) {
             return str1.matches(str2);
-        } else if (ignoreCase) {
+        } else if (rules.ignoreCase) {
             return str1.equalsIgnoreCase(str2);
         } else {
             return str1.equals(str2);
         }
     }
 
-    private boolean inLovByRule(String str, String operand, List<String> strList) {
+    private boolean inLovByRule(String str, String operand, List<String> strList, TableRules rules) {
         switch (ComparisonOperand.fromSymbols(operand)) {
             case EQUAL:
-                return checkEqual(str, strList);
+                return checkEqual(str, strList, rules);
             case NOTEQUAL:
-                return !checkEqual(str, strList);
+                return !checkEqual(str, strList, rules);
             case LESS_OR_EQUAL:
                 // this is unary operation; only 1st element of strList is compared
-                return checkLessOrEqual(str, strList.get(0), false);
+                return checkLessOrEqual(str, strList.get(0), false, rules);
             case MORE_OR_EQUAL:
                 // this is unary operation; only 1st element of strList is compared
-                return !checkLessOrEqual(str, strList.get(0), true);
+                return !checkLessOrEqual(str, strList.get(0), true, rules);
             case LESS:
                 // this is unary operation; only 1st element of strList is compared
-                return checkLessOrEqual(str, strList.get(0), true);
+                return checkLessOrEqual(str, strList.get(0), true, rules);
             case MORE:
                 // this is unary operation; only 1st element of strList is compared
-                return !checkLessOrEqual(str, strList.get(0), false);
+                return !checkLessOrEqual(str, strList.get(0), false, rules);
             case LIKE:
                 // this is unary operation; only 1st element of strList is compared
-                return checkLike(str, strList.get(0));
+                return checkLike(str, strList.get(0), rules);
             case UNLIKE:
-                return !checkLike(str, strList.get(0));
+                return !checkLike(str, strList.get(0), rules);
             default:
                 return false;
         }
     }
 
-    private boolean checkEqual(String str, List<String> strList) {
-        if (ignoreCase) {
+    private boolean checkEqual(String str, List<String> strList, TableRules rules) {
+        if (rules.ignoreCase) {
             for (String s : strList) {
                 if (str.equalsIgnoreCase(s)) {
                     return true;
@@ -816,7 +870,7 @@ public class TableComparator extends AbstractComparator {
         }
     }
 
-    private boolean checkLessOrEqual(String str1, String str2, boolean strictComparison) {
+    private boolean checkLessOrEqual(String str1, String str2, boolean strictComparison, TableRules rules) {
         // Special case of comparison - date comparison, dor example: ColumnValue < date('17.03.2015','dd.mm.yyyy')
         if (str2.matches("\\S+\\(.*\\)")) {
             String methodName = str2.substring(0, str2.indexOf("("));
@@ -842,7 +896,7 @@ public class TableComparator extends AbstractComparator {
                                 ? (String) (method.invoke(instance))
                                 : (String) (method.invoke(instance, paramsList.toString()));
 
-                        int i = (ignoreCase) ? result1.compareToIgnoreCase(str2) : result2.compareTo(str2);
+                        int i = (rules.ignoreCase) ? result1.compareToIgnoreCase(str2) : result2.compareTo(str2);
                         if (i < 0) {
                             return true;
                         } else if (i == 0) {
@@ -865,7 +919,7 @@ public class TableComparator extends AbstractComparator {
             }
         }
 
-        int i = (ignoreCase) ? str1.compareToIgnoreCase(str2) : str1.compareTo(str2);
+        int i = (rules.ignoreCase) ? str1.compareToIgnoreCase(str2) : str1.compareTo(str2);
         if (i < 0) {
             return true;
         } else if (i == 0) {
@@ -875,13 +929,13 @@ public class TableComparator extends AbstractComparator {
         }
     }
 
-    private boolean checkLike(String str, String strTemplate) {
+    private boolean checkLike(String str, String strTemplate, TableRules rules) {
         final String regexpKeyword = "regexp:";
         if (strTemplate.startsWith(regexpKeyword)) {
             String regexpSubstring = strTemplate.substring(regexpKeyword.length(), strTemplate.length());
             return str.matches(regexpSubstring);
         } else {
-            if (ignoreCase) {
+            if (rules.ignoreCase) {
                 return str.toUpperCase().contains(strTemplate);
             } else {
                 return str.contains(strTemplate);
@@ -910,6 +964,34 @@ public class TableComparator extends AbstractComparator {
         }
     }
 
+    /*
+     * Rules of the comparison read from parameters.
+     */
+    private static class TableRules {
+        private final List<CheckPocSection> checkConfig = new ArrayList<>();
+        private final List<CheckColumnRule> checkColumnRules = new ArrayList<>();
+        private boolean ignoreCase;
+        private boolean ignoreColumnCase;
+        private boolean cellAsRegexp;
+        private boolean ignoreMissed;
+        private boolean ignoreExtra;
+    }
+
+    /*
+     * ER tables (if they are not changed while checking), with the rules to apply to each AR.
+     */
+    private static class TableExpectation extends PreparedExpectation {
+        private String erContent;
+        private TableRules rules;
+        private ComparatorException failure;
+        private TablesList erTables;
+        private Exception erTablesFailure;
+
+        private TableExpectation(Data data, String content, Parameters parameters) {
+            super(data, content, parameters);
+        }
+    }
+
     public static class FilterFunctions {
 
         public String date(String str, String mask) {
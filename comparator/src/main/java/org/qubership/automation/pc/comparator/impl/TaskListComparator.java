@@ -49,21 +49,17 @@ public class TaskListComparator extends AbstractComparator {
     public static final String TASK_AS_REGEXP = "TaskAsRegexp";
     public static final String MULTIPLE_MATCH = "multipleMatch";
 
-    public static boolean ignoreIdentical;
-    public static boolean taskAsRegexp;
-    public static boolean multipleMatch;
-
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
-        getConfigurationParameters(configuration);
-        return compareTaskLists(er, ar);
+        return compareTaskLists(er, ar, configuration.getBooleanParameter(TASK_AS_REGEXP, false),
+                configuration.getBooleanParameter(MULTIPLE_MATCH, false));
     }
 
     /**
      * Compares two lists of strings by existence of expected results.
      * Returns {@code List<DiffMessage>} - array of detailed diffs.
      */
-    private List<DiffMessage> compareTaskLists(String er, String ar) {
+    private List<DiffMessage> compareTaskLists(String er, String ar, boolean taskAsRegexp, boolean multipleMatch) {
         int diffCounter = 0;
         List<DiffMessage> differences = new ArrayList<>();
 
@@ -187,10 +183,4 @@ public class TaskListComparator extends AbstractComparator {
         }
         return differences;
     }
-
-    private void getConfigurationParameters(Parameters configuration) {
-        ignoreIdentical = configuration.getBooleanParameter(IGNORE_IDENTICAL, false);
-        taskAsRegexp = configuration.getBooleanParameter(TASK_AS_REGEXP, false);
-        multipleMatch = configuration.getBooleanParameter(MULTIPLE_MATCH, false);
-    }
 }
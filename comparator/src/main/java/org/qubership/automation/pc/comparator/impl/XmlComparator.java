@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -47,13 +48,19 @@ import javax.xml.xpath.XPathFactory;
 
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.qubership.automation.pc.comparator.cache.RuleSetCache;
 import org.qubership.automation.pc.compareresult.DiffMessage;
 import org.qubership.automation.pc.compareresult.ResultType;
 import org.qubership.automation.pc.configuration.parameters.Parameters;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
+import org.qubership.automation.pc.core.helpers.CompareProfiler;
 import org.qubership.automation.pc.core.helpers.IntelliNodeMatcher;
 import org.qubership.automation.pc.core.helpers.ScriptUtils;
+import org.qubership.automation.pc.core.helpers.ThreadUtils;
 import org.qubership.automation.pc.core.helpers.XmlHelpers;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.PreparedExpectation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -115,102 +122,141 @@ public class XmlComparator extends AbstractComparator {
         NODE_TYPE               // When?
      */
 
-    private final XPath xpath = XPathFactory.newInstance().newXPath();
-    private List<XPathExpression> excludeXPathsCompiled;
-    private List<XPathExpression> mappingXpathCompiled;
-    private List<Pattern> mappingRegexpCompiled;
-
-    private List<String> excludeXPaths;
-    private List<String> sortBy;
-    private List<String> mappingXpath;
-    private List<String> mappingRegexp;
-    private List<String> mappingXR;
-    private boolean changeDiffResult;
-    private boolean abcSort;
-    private List<ChangeDiffResultRule> listChangeDiffResultRule;
-    private Map<String, List<KeyChildDescription>> keyChildren;
-    private boolean keyChildrenIgnore;
-
-    private List<String> atpMacros;
-    private String atpFormat;
-    private boolean needAtpFormatting;
-    private Map<String, String> atpMacrosValues;
-    private List<AtpDiffAdditionalKeyRule> atpDiffAdditionalKeyRules;
-
-    private boolean saveDiffValue;
+    // XPath objects are not thread-safe, and creating of the factory is costly
+    private static final ThreadLocal<XPath> xpath
+            = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
 
     private static final Logger log = LoggerFactory.getLogger(XmlComparator.class);
 
-    int diffCounter = 0; // Global diffs' counter (diffMessages are produced in different places of this comparator)
+    // Compiled XPath expressions are not thread-safe either, so rules are cached per thread
+    private final ThreadLocal<RuleSetCache<XmlRules>> ruleSets = ThreadLocal.withInitial(RuleSetCache::new);
 
-    private Document docER;
-    private Document docAR;
-    private Document docErWoNamespace;
-    private Document docArWoNamespace;
 
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
-        List<DiffMessage> resultList = new ArrayList<>();
+        if (er.isEmpty() && ar.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return compare(prepare(null, er, configuration), ar);
+    }
+
+    @Override
+    public PreparedExpectation prepare(Data er, Parameters configuration) {
+        return prepare(er, DataContentConverter.toString(er), configuration);
+    }
+
+    @Override
+    public List<DiffMessage> compare(PreparedExpectation er, Data ar) throws ComparatorException {
+        XmlExpectation expectation = er instanceof XmlExpectation
+                ? (XmlExpectation) er : prepare(er.getData(), er.getContent(), er.getParameters());
+        return compare(expectation, DataContentConverter.toString(ar));
+    }
+
+    /*
+     * Parses ER and reads rules once for all ARs compared with it.
+     * Errors are not thrown here but kept in the expectation and thrown by each comparison,
+     * so they are reported the same way as before (and are not reported if both ER and AR are empty).
+     */
+    private XmlExpectation prepare(Data data, String er, Parameters configuration) {
+        XmlExpectation expectation = new XmlExpectation(data, er, configuration);
         try {
-            if (er.isEmpty() && ar.isEmpty()) {
-                return resultList;
-            }
             log.debug("[XML comparator] building");
             DocumentBuilderFactory fctr = DocumentBuilderFactory.newInstance();
             DocumentBuilderFactory fctrWoNamespace = DocumentBuilderFactory.newInstance();
             secureXmlFactory(fctr);
             secureXmlFactory(fctrWoNamespace);
             fctr.setNamespaceAware(true);
-            DocumentBuilder bldr;
-            DocumentBuilder bldrWoName;
             log.debug("[XML comparator] built");
             try {
-                bldr = fctr.newDocumentBuilder();
-                bldrWoName = fctrWoNamespace.newDocumentBuilder();
+                expectation.bldr = fctr.newDocumentBuilder();
+                expectation.bldrWoName = fctrWoNamespace.newDocumentBuilder();
             } catch (ParserConfigurationException ex) {
                 throw new ComparatorException(ex.getMessage(), 20002);
             }
             log.debug("[XML comparator] getting conf");
-            getConfigurationParameters(configuration);
+            XmlRules rules = ruleSets.get().get(configuration, this::getConfigurationParameters);
+            expectation.rules = rules;
             String erXML;
-            String arXML;
-            if (abcSort) {
+            if (rules.abcSort) {
                 log.debug("[XML comparator] abcSorting");
-                Transformer abcTransformerXslt = XmlHelpers.createAbcTransformer();
-                erXML = XmlHelpers.transformXml(er, abcTransformerXslt);
-                arXML = XmlHelpers.transformXml(ar, abcTransformerXslt);
+                try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.abcSort")) {
+                    expectation.abcTransformerXslt = XmlHelpers.createAbcTransformer();
+                    erXML = XmlHelpers.transformXml(er, expectation.abcTransformerXslt);
+                }
                 log.debug("[XML comparator] abcSorted");
             } else {
                 erXML = er;
-                arXML = ar;
             }
-            Transformer transformerXslt = null;
-            if (!excludeXPaths.isEmpty() || !sortBy.isEmpty()) {
+            if (!rules.excludeXPaths.isEmpty() || !rules.sortBy.isEmpty()) {
                 log.debug("[XML comparator] transformer");
-                transformerXslt = XmlHelpers.createTransformer(excludeXPaths, sortBy);
+                try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.createTransformer")) {
+                    expectation.transformerXslt = XmlHelpers.createTransformer(rules.excludeXPaths, rules.sortBy);
+                }
                 log.debug("[XML comparator] transformed");
             }
-            CleanupAndParseResult parsedER = prepareXml(bldr, transformerXslt, erXML, false);
-            CleanupAndParseResult parsedAR = prepareXml(bldr, transformerXslt, arXML, true);
+            expectation.parsedER = prepareXml(expectation.bldr, expectation.transformerXslt, rules, erXML, false);
+            if (expectation.parsedER.errorMessage.isEmpty()) {
+                log.debug("[XML comparator] parsing ER");
+                try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.parse")) {
+                    expectation.docER = expectation.bldr.parse(
+                            new InputSource(new StringReader(expectation.parsedER.preparedXML)));
+                }
+            }
+        } catch (Exception ex) {
+            expectation.failure = ex;
+        }
+        return expectation;
+    }
+
+    private List<DiffMessage> compare(XmlExpectation expectation, String ar) throws ComparatorException {
+        List<DiffMessage> resultList = new ArrayList<>();
+        try {
+            if (expectation.getContent().isEmpty() && ar.isEmpty()) {
+                return resultList;
+            }
+            if (expectation.failure != null) {
+                throw expectation.failure;
+            }
+            XmlRules rules = expectation.rules;
+            // Diffs' counter of the comparison (diffMessages are produced in different places of this comparator)
+            AtomicInteger diffCounter = new AtomicInteger();
+            String arXML;
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.abcSort")) {
+                arXML = rules.abcSort ? XmlHelpers.transformXml(ar, expectation.abcTransformerXslt) : ar;
+            }
+            CleanupAndParseResult parsedER = expectation.parsedER;
+            CleanupAndParseResult parsedAR = prepareXml(expectation.bldr, expectation.transformerXslt, rules,
+                    arXML, true);
             if (!parsedER.errorMessage.isEmpty() || !parsedAR.errorMessage.isEmpty()) {
                 throw new SAXException((parsedER.errorMessage.isEmpty())
                         ? parsedAR.errorMessage : parsedER.errorMessage + "\n" + parsedAR.errorMessage);
             }
             log.debug("[XML comparator] parsing");
-            docER = bldr.parse(new InputSource(new StringReader(parsedER.preparedXML)));
-            docAR = bldr.parse(new InputSource(new StringReader(parsedAR.preparedXML)));
-            docErWoNamespace = bldrWoName.parse(new InputSource(new StringReader(parsedER.preparedXML)));
-            docArWoNamespace = bldrWoName.parse(new InputSource(new StringReader(parsedAR.preparedXML)));
-            IntelliNodeMatcher nodeMatcher = new IntelliNodeMatcher(keyChildren, keyChildrenIgnore);
+            Document docER = expectation.docER;
+            Document docAR;
+            Document docArWoNamespace;
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.parse")) {
+                docAR = expectation.bldr.parse(new InputSource(new StringReader(parsedAR.preparedXML)));
+                docArWoNamespace = expectation.bldrWoName.parse(
+                        new InputSource(new StringReader(parsedAR.preparedXML)));
+            }
+            // Values of macros are filled for each difference, so the map of the rules is not shared
+            Map<String, String> atpMacrosValues = rules.needAtpFormatting
+                    ? new HashMap<>(rules.atpMacrosValues) : null;
+            IntelliNodeMatcher nodeMatcher = new IntelliNodeMatcher(rules.keyChildren, rules.keyChildrenIgnore);
             log.debug("[XML comparator] diff builder compare");
-            Diff myDiff = DiffBuilder.compare(docER).withTest(docAR)
-                    .checkForSimilar() // a different order is always 'similar' not equals.
-                    .withNodeMatcher(nodeMatcher)
-                    .build();
-            log.debug("[XML comparator] compared");
-            Iterable<Difference> differences = myDiff.getDifferences();
+            Iterable<Difference> differences;
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.diff")) {
+                Diff myDiff = DiffBuilder.compare(docER).withTest(docAR)
+                        .checkForSimilar() // a different order is always 'similar' not equals.
+                        .withNodeMatcher(nodeMatcher)
+                        .build();
+                log.debug("[XML comparator] compared");
+                differences = myDiff.getDifferences();
+            }
             log.debug("[XML comparator] got differences");
             for (Difference difference : differences) {
+                ThreadUtils.checkInterrupted();
                 Comparison comparison = difference.getComparison();
                 if (!ALLOWED_DIFFERENCES.contains(comparison.getType())) {
                     continue;
@@ -218,7 +264,7 @@ public class XmlComparator extends AbstractComparator {
 
                 DiffMessage diffMessage = new DiffMessage();
 
-                if (saveDiffValue) {
+                if (rules.saveDiffValue) {
                     try {
                         log.debug("[XML comparator] saveDiffValue");
                         diffMessage.setExpectedValue(
@@ -314,32 +360,34 @@ public class XmlComparator extends AbstractComparator {
                             : comparison.getTestDetails().getXPath()
                     );
                 }
-                if (changeDiffResult && (comparison.getControlDetails().getXPath() != null
+                if (rules.changeDiffResult && (comparison.getControlDetails().getXPath() != null
                         || comparison.getTestDetails().getXPath() != null)) {
                     log.debug("[XML comparator] changeDiffResult");
-                    for (ChangeDiffResultRule changeDiffResultRule : listChangeDiffResultRule) {
-                        if (verifyXpath(comparison.getControlDetails(), docER, changeDiffResultRule.xpathsCompiled,
-                                diffMessage.getExpected()) || verifyXpath(comparison.getTestDetails(),
-                                docAR, changeDiffResultRule.xpathsCompiled, diffMessage.getActual())) {
-                            if (changeDiffResultRule.action.equals("ignore")) {
-                                diffMessage.setResult(ResultType.IDENTICAL);
-                                ruleActionDescription = "; Result is set to IDENTICAL due to 'ignore'-rule.";
-                            } else if (changeDiffResultRule.action.equals("change")
-                                    && diffMessage.getResult().equals(changeDiffResultRule.oldResult)) {
-                                diffMessage.setResult(changeDiffResultRule.newResult);
-                                ruleActionDescription = "; Result is set to " + changeDiffResultRule.newResult
-                                        + " due to 'changeDiffResult'-rule.";
+                    try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.changeDiffResult")) {
+                        for (ChangeDiffResultRule changeDiffResultRule : rules.listChangeDiffResultRule) {
+                            if (verifyXpath(comparison.getControlDetails(), docER, changeDiffResultRule.xpathsCompiled,
+                                    diffMessage.getExpected()) || verifyXpath(comparison.getTestDetails(),
+                                    docAR, changeDiffResultRule.xpathsCompiled, diffMessage.getActual())) {
+                                if (changeDiffResultRule.action.equals("ignore")) {
+                                    diffMessage.setResult(ResultType.IDENTICAL);
+                                    ruleActionDescription = "; Result is set to IDENTICAL due to 'ignore'-rule.";
+                                } else if (changeDiffResultRule.action.equals("change")
+                                        && diffMessage.getResult().equals(changeDiffResultRule.oldResult)) {
+                                    diffMessage.setResult(changeDiffResultRule.newResult);
+                                    ruleActionDescription = "; Result is set to " + changeDiffResultRule.newResult
+                                            + " due to 'changeDiffResult'-rule.";
+                                }
+                                break; // Skip all other rules' checking if this rule is applied
                             }
-                            break; // Skip all other rules' checking if this rule is applied
                         }
                     }
                 }
-                if (needAtpFormatting) {
+                if (rules.needAtpFormatting) {
                     log.debug("[XML comparator] needAtpFormatting");
                     Map<String, String> customDiffFormattingMacroses = fillAtpValues(difference, atpMacrosValues);
 
                     // Create Additional Keys
-                    for (AtpDiffAdditionalKeyRule rule : atpDiffAdditionalKeyRules) {
+                    for (AtpDiffAdditionalKeyRule rule : rules.atpDiffAdditionalKeyRules) {
                         // ar
                         if (verifyNodeTagName(comparison.getTestDetails().getXPath(), rule.sourceStr)) {
                             String targetXPath = rule.buildTarget(comparison.getTestDetails().getXPath());
@@ -350,16 +398,19 @@ public class XmlComparator extends AbstractComparator {
                     }
 
                     String atpDescription = ScriptUtils.prepareParameterizedScript(
-                            atpFormat, customDiffFormattingMacroses, true, false);
+                            rules.atpFormat, customDiffFormattingMacroses, true, false);
                     diffMessage.setDescription(atpDescription);
                 } else {
                     diffMessage.setDescription(difference.toString() + ruleActionDescription);
                 }
-                diffMessage.setOrderId(++diffCounter);
+                diffMessage.setOrderId(diffCounter.incrementAndGet());
                 resultList.add(diffMessage);
             }
 
-            resultList.addAll(doExtraXpathRegexpCheckings(docER, docAR, mappingXpathCompiled, mappingRegexpCompiled));
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.xpathRegexpCheck")) {
+                resultList.addAll(doExtraXpathRegexpCheckings(docER, docAR,
+                        rules.mappingXpathCompiled, rules.mappingRegexpCompiled, diffCounter));
+            }
             log.debug("[XML comparator] resultList");
             return resultList;
         } catch (Exception ex) {
@@ -387,6 +438,7 @@ public class XmlComparator extends AbstractComparator {
 
     private CleanupAndParseResult prepareXml(DocumentBuilder bldr,
                                              Transformer transformerXslt,
+                                             XmlRules rules,
                                              String xmlString,
                                              boolean isActual) throws ComparatorException {
         CleanupAndParseResult result = new CleanupAndParseResult();
@@ -395,7 +447,7 @@ public class XmlComparator extends AbstractComparator {
         //Before check XML remove linebreaks and comments
         String prepared = XmlHelpers.cleanCommentsAndStartXML(xmlString);
         if (!prepared.isEmpty()) {
-            try {
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.validate")) {
                 Document doc = bldr.parse(new InputSource(new StringReader(prepared)));
             } catch (SAXParseException ex) {
                 result.errorMessage = String.format(((isActual) ? "AR" : "ER")
@@ -413,9 +465,12 @@ public class XmlComparator extends AbstractComparator {
 
         prepared = XmlHelpers.cleanLineBreaks(prepared);
 
-        if (!excludeXPaths.isEmpty() || !sortBy.isEmpty()) {
-            prepared = (prepared.isEmpty())
-                    ? prepared : XmlHelpers.cleanXml(XmlHelpers.transformXml(prepared, transformerXslt));
+        if (!rules.excludeXPaths.isEmpty() || !rules.sortBy.isEmpty()) {
+            // rules 'excludeXPath' and 'SortBy'
+            try (CompareProfiler.Stage stage = CompareProfiler.stage("xml.transform")) {
+                prepared = (prepared.isEmpty())
+                        ? prepared : XmlHelpers.cleanXml(XmlHelpers.transformXml(prepared, transformerXslt));
+            }
         }
 
         // After all cleanups & XSLT-transformations (rules 'excludeXPath' and/or 'SortBy' can be invalid - why not?)
@@ -429,30 +484,31 @@ public class XmlComparator extends AbstractComparator {
         return result;
     }
 
-    private void getConfigurationParameters(Parameters configuration) throws ComparatorException {
-        abcSort = configuration.getBooleanParameter(PARAMETER_ALPHABET_SORT, false);
-        saveDiffValue = configuration.getBooleanParameter(PARAMETER_NAME_SAVE_DIFF_VALUE, false);
+    private XmlRules getConfigurationParameters(Parameters configuration) throws ComparatorException {
+        XmlRules rules = new XmlRules();
+        rules.abcSort = configuration.getBooleanParameter(PARAMETER_ALPHABET_SORT, false);
+        rules.saveDiffValue = configuration.getBooleanParameter(PARAMETER_NAME_SAVE_DIFF_VALUE, false);
 
-        excludeXPaths = configuration.getParameters(PARAMETER_NAME_EXCLUDE_XPATH);
-        if (excludeXPaths == null) {
-            excludeXPaths = new ArrayList<>();
+        rules.excludeXPaths = configuration.getParameters(PARAMETER_NAME_EXCLUDE_XPATH);
+        if (rules.excludeXPaths == null) {
+            rules.excludeXPaths = new ArrayList<>();
         }
-        excludeXPathsCompiled = new ArrayList<>();
-        for (int k = 0; k < excludeXPaths.size(); k++) {
+        rules.excludeXPathsCompiled = new ArrayList<>();
+        for (int k = 0; k < rules.excludeXPaths.size(); k++) {
             try {
-                excludeXPathsCompiled.add(xpath.compile(excludeXPaths.get(k)));
+                rules.excludeXPathsCompiled.add(xpath.get().compile(rules.excludeXPaths.get(k)));
             } catch (XPathExpressionException ex) {
-                throw new ComparatorException(" Xpath = " + excludeXPaths.get(k).replace("\"", "`")
+                throw new ComparatorException(" Xpath = " + rules.excludeXPaths.get(k).replace("\"", "`")
                         .replace("'", "`") + "; " + ex.getMessage(), 20004);
             }
         }
-        sortBy = configuration.getParameters(PARAMETER_NAME_SORTBY);
-        if (sortBy == null) {
-            sortBy = new ArrayList<>();
+        rules.sortBy = configuration.getParameters(PARAMETER_NAME_SORTBY);
+        if (rules.sortBy == null) {
+            rules.sortBy = new ArrayList<>();
         }
 
-        changeDiffResult = false;
-        listChangeDiffResultRule = new ArrayList<>();
+        rules.changeDiffResult = false;
+        rules.listChangeDiffResultRule = new ArrayList<>();
         List<String> arrayChangeDiffResultRule = configuration.getParameters(PARAMETER_NAME_CHANGE_DIFF_RESULT);
         if (arrayChangeDiffResultRule != null) {
             ChangeDiffResultRule prevRule = null;
@@ -466,13 +522,13 @@ public class XmlComparator extends AbstractComparator {
                     }
                 } else {
                     if (prevRule != null) {
-                        listChangeDiffResultRule.add(prevRule);
+                        rules.listChangeDiffResultRule.add(prevRule);
                     }
                     prevRule = thisRule;
                 }
             }
             if (prevRule != null) {
-                listChangeDiffResultRule.add(prevRule);
+                rules.listChangeDiffResultRule.add(prevRule);
             }
         }
 
@@ -480,100 +536,101 @@ public class XmlComparator extends AbstractComparator {
         // Left for backward compatibility (rule 'similar2modified' was introduced before than 'changeDiffResult')
         List<String> changeDiffResultXPaths = configuration.getParameters(PARAMETER_NAME_SIMILAR2MODIFIED);
         if (changeDiffResultXPaths != null) {
-            listChangeDiffResultRule.add(new ChangeDiffResultRule("change", ResultType.SIMILAR,
+            rules.listChangeDiffResultRule.add(new ChangeDiffResultRule("change", ResultType.SIMILAR,
                     ResultType.MODIFIED, changeDiffResultXPaths));
         }
-        if (!listChangeDiffResultRule.isEmpty()) {
-            changeDiffResult = true;
+        if (!rules.listChangeDiffResultRule.isEmpty()) {
+            rules.changeDiffResult = true;
         }
 
-        mappingXpath = configuration.getParameters(PARAMETER_NAME_MAPPING_XPATH);
-        if (mappingXpath == null) {
-            mappingXpath = new ArrayList<>();
+        rules.mappingXpath = configuration.getParameters(PARAMETER_NAME_MAPPING_XPATH);
+        if (rules.mappingXpath == null) {
+            rules.mappingXpath = new ArrayList<>();
         }
-        mappingRegexp = configuration.getParameters(PARAMETER_NAME_MAPPING_REGEXP);
-        if (mappingRegexp == null) {
-            mappingRegexp = new ArrayList<>();
+        rules.mappingRegexp = configuration.getParameters(PARAMETER_NAME_MAPPING_REGEXP);
+        if (rules.mappingRegexp == null) {
+            rules.mappingRegexp = new ArrayList<>();
         }
 
-        mappingXR = configuration.getParameters(PARAMETER_NAME_XR);
-        if (mappingXR != null) {
-            for (String str : mappingXR) {
+        rules.mappingXR = configuration.getParameters(PARAMETER_NAME_XR);
+        if (rules.mappingXR != null) {
+            for (String str : rules.mappingXR) {
                 String[] stringArray = str.split(DELIMETER_XR_STRING);
                 if (stringArray.length != 2) {
                     continue; // Required format is: xpath==regexp i.e. //*[local-name()='item']==qwerty
                 }
-                mappingXpath.add(stringArray[0]);
-                mappingRegexp.add(stringArray[1]);
+                rules.mappingXpath.add(stringArray[0]);
+                rules.mappingRegexp.add(stringArray[1]);
             }
         }
 
-        if (mappingXpath.size() != mappingRegexp.size()) {
+        if (rules.mappingXpath.size() != rules.mappingRegexp.size()) {
             throw new ComparatorException("Mappings and Regexps don't correspond each other", 20002);
         } else {
-            mappingXpathCompiled = new ArrayList<>();
-            for (int k = 0; k < mappingXpath.size(); k++) {
+            rules.mappingXpathCompiled = new ArrayList<>();
+            for (int k = 0; k < rules.mappingXpath.size(); k++) {
                 try {
-                    mappingXpathCompiled.add(xpath.compile(mappingXpath.get(k)));
+                    rules.mappingXpathCompiled.add(xpath.get().compile(rules.mappingXpath.get(k)));
                 } catch (XPathExpressionException ex) {
-                    throw new ComparatorException(" Xpath = " + mappingXpath.get(k)
+                    throw new ComparatorException(" Xpath = " + rules.mappingXpath.get(k)
                             .replace("\"", "`")
                             .replace("'", "`") + "; " + ex.getMessage(), 20004);
                 }
             }
-            mappingRegexpCompiled = new ArrayList<>();
-            for (int k = 0; k < mappingRegexp.size(); k++) {
+            rules.mappingRegexpCompiled = new ArrayList<>();
+            for (int k = 0; k < rules.mappingRegexp.size(); k++) {
                 try {
-                    mappingRegexpCompiled.add(Pattern.compile(mappingRegexp.get(k)));
+                    rules.mappingRegexpCompiled.add(Pattern.compile(rules.mappingRegexp.get(k)));
                 } catch (PatternSyntaxException ex) {
-                    throw new ComparatorException(" Regexp = " + mappingRegexp.get(k)
+                    throw new ComparatorException(" Regexp = " + rules.mappingRegexp.get(k)
                             .replace("\"", "`")
                             .replace("'", "`") + "; " + ex.getMessage(), 20003);
                 }
             }
         }
-        keyChildrenIgnore = configuration.getBooleanParameter(PARAMETER_NAME_KEY_CHILD_IGNORE, false);
-        keyChildren = new HashMap<>();
+        rules.keyChildrenIgnore = configuration.getBooleanParameter(PARAMETER_NAME_KEY_CHILD_IGNORE, false);
+        rules.keyChildren = new HashMap<>();
         List<String> keyChildrenCfg = configuration.getParameters(PARAMETER_NAME_KEY_CHILD);
         if (keyChildrenCfg != null) {
             for (String item : keyChildrenCfg) {
                 KeyChildDescription kd = new KeyChildDescription(item);
                 List<KeyChildDescription> kdList;
                 if (kd.valid) {
-                    if (keyChildren.containsKey(kd.thisNode)) {
-                        kdList = keyChildren.get(kd.thisNode);
+                    if (rules.keyChildren.containsKey(kd.thisNode)) {
+                        kdList = rules.keyChildren.get(kd.thisNode);
                     } else {
                         kdList = new ArrayList<>();
                     }
                     kdList.add(kd);
-                    keyChildren.put(kd.thisNode, kdList);
+                    rules.keyChildren.put(kd.thisNode, kdList);
                 }
             }
         }
 
-        atpFormat = configuration.getParameter(PARAMETER_ATP_DIFFERENCES_FORMAT);
-        if (StringUtils.isBlank(atpFormat)) {
-            needAtpFormatting = false;
+        rules.atpFormat = configuration.getParameter(PARAMETER_ATP_DIFFERENCES_FORMAT);
+        if (StringUtils.isBlank(rules.atpFormat)) {
+            rules.needAtpFormatting = false;
         } else {
-            atpMacros = ScriptUtils.getMacros(atpFormat);
-            needAtpFormatting = !atpMacros.isEmpty();
-            if (needAtpFormatting) {
-                atpMacrosValues = new HashMap<>();
-                for (String key : atpMacros) {
-                    atpMacrosValues.put(key, "");
+            rules.atpMacros = ScriptUtils.getMacros(rules.atpFormat);
+            rules.needAtpFormatting = !rules.atpMacros.isEmpty();
+            if (rules.needAtpFormatting) {
+                rules.atpMacrosValues = new HashMap<>();
+                for (String key : rules.atpMacros) {
+                    rules.atpMacrosValues.put(key, "");
                 }
             }
         }
         List<String> atpAdditionalKeysRulesList
                 = configuration.getParameters(PARAMETER_ATP_DIFFERENCES_ADDITIONAL_KEY);
-        this.atpDiffAdditionalKeyRules = new ArrayList<>();
+        rules.atpDiffAdditionalKeyRules = new ArrayList<>();
         if (atpAdditionalKeysRulesList != null) {
             for (String atpAdditionalKeysRulesListItem : atpAdditionalKeysRulesList) {
                 AtpDiffAdditionalKeyRule atpDiffAdditionalKeyRule
                         = new AtpDiffAdditionalKeyRule(atpAdditionalKeysRulesListItem);
-                this.atpDiffAdditionalKeyRules.add(atpDiffAdditionalKeyRule);
+                rules.atpDiffAdditionalKeyRules.add(atpDiffAdditionalKeyRule);
             }
         }
+        return rules;
     }
 
     private Boolean verifyXpath(Detail differenceNodeDetail,
@@ -617,7 +674,8 @@ public class XmlComparator extends AbstractComparator {
     private List<DiffMessage> doExtraXpathRegexpCheckings(Document docER,
                                                           Document docAR,
                                                           List<XPathExpression> mappingXpathCompiled,
-                                                          List<Pattern> mappingRegexpCompiled)
+                                                          List<Pattern> mappingRegexpCompiled,
+                                                          AtomicInteger diffCounter)
             throws ComparatorException {
         List<DiffMessage> resultList = new ArrayList<>();
 
@@ -628,10 +686,10 @@ public class XmlComparator extends AbstractComparator {
         }
 
         for (int i = 0; i < mappingXpathCompiled.size(); i++) {
-            resultList
-                    .addAll(validate(docER, mappingRegexpCompiled.get(i), mappingXpathCompiled.get(i), true));
-            resultList
-                    .addAll(validate(docAR, mappingRegexpCompiled.get(i), mappingXpathCompiled.get(i), false));
+            resultList.addAll(validate(docER, mappingRegexpCompiled.get(i), mappingXpathCompiled.get(i), true,
+                    diffCounter));
+            resultList.addAll(validate(docAR, mappingRegexpCompiled.get(i), mappingXpathCompiled.get(i), false,
+                    diffCounter));
         }
         return resultList;
     }
@@ -639,21 +697,23 @@ public class XmlComparator extends AbstractComparator {
     private List<DiffMessage> validate(Document doc,
                                        Pattern regex,
                                        XPathExpression xpath,
-                                       boolean isControl) throws ComparatorException {
+                                       boolean isControl,
+                                       AtomicInteger diffCounter) throws ComparatorException {
         List<DiffMessage> resultList = new ArrayList<>();
         NodeList nodeList;
 
         try {
             nodeList = (NodeList) xpath.evaluate(doc, XPathConstants.NODESET);
 
-            resultList.addAll(check(nodeList, regex, isControl, 0));
+            resultList.addAll(check(nodeList, regex, isControl, 0, diffCounter));
         } catch (XPathExpressionException e) {
             throw new ComparatorException("Failed to evaluate xpath", e);
         }
         return resultList;
     }
 
-    private List<DiffMessage> check(NodeList nodeList, Pattern regexp, boolean isControl, int level) {
+    private List<DiffMessage> check(NodeList nodeList, Pattern regexp, boolean isControl, int level,
+                                    AtomicInteger diffCounter) {
         List<DiffMessage> resultList = new ArrayList<>();
         for (int index = 0; index < nodeList.getLength(); index++) {
             final Node node = nodeList.item(index);
@@ -671,13 +731,13 @@ public class XmlComparator extends AbstractComparator {
                         diffMessage.setActual(nodeFullXpath);
                     }
                     diffMessage.setResult(ResultType.MODIFIED);
-                    diffMessage.setOrderId(++diffCounter);
+                    diffMessage.setOrderId(diffCounter.incrementAndGet());
                     diffMessage.setDescription("Xpath-Regexp checking is violated: " + nodeFullXpath);
                     resultList.add(diffMessage);
                 }
             } else if (level == 0) {
                 // Only one level of recursion. We are interested only in children, not in grandchildren
-                resultList.addAll(check(node.getChildNodes(), regexp, isControl, 1));
+                resultList.addAll(check(node.getChildNodes(), regexp, isControl, 1, diffCounter));
             }
         }
         return resultList;
@@ -902,6 +962,56 @@ public class XmlComparator extends AbstractComparator {
         public String errorMessage = "";
     }
 
+    /*
+     * Rules of the comparison read from parameters (XPaths and regexps are compiled).
+     * Rules are shared by comparisons with equal parameters made in the same thread,
+     * so they are not changed once read.
+     */
+    private static class XmlRules {
+
+        private List<XPathExpression> excludeXPathsCompiled;
+        private List<XPathExpression> mappingXpathCompiled;
+        private List<Pattern> mappingRegexpCompiled;
+
+        private List<String> excludeXPaths;
+        private List<String> sortBy;
+        private List<String> mappingXpath;
+        private List<String> mappingRegexp;
+        private List<String> mappingXR;
+        private boolean changeDiffResult;
+        private boolean abcSort;
+        private List<ChangeDiffResultRule> listChangeDiffResultRule;
+        private Map<String, List<KeyChildDescription>> keyChildren;
+        private boolean keyChildrenIgnore;
+
+        private List<String> atpMacros;
+        private String atpFormat;
+        private boolean needAtpFormatting;
+        private Map<String, String> atpMacrosValues;
+        private List<AtpDiffAdditionalKeyRule> atpDiffAdditionalKeyRules;
+
+        private boolean saveDiffValue;
+    }
+
+    /*
+     * ER parsed and cleaned up, with the rules and transformers to apply to each AR.
+     */
+    private static class XmlExpectation extends PreparedExpectation {
+
+        private Exception failure;
+        private XmlRules rules;
+        private DocumentBuilder bldr;
+        private DocumentBuilder bldrWoName;
+        private Transformer abcTransformerXslt;
+        private Transformer transformerXslt;
+        private CleanupAndParseResult parsedER;
+        private Document docER;
+
+        private XmlExpectation(Data data, String content, Parameters parameters) {
+            super(data, content, parameters);
+        }
+    }
+
     private Boolean verifyNodeTagName(String sourceXPath, String targetName) throws ComparatorException {
         String xpathStr = XmlHelpers.clearXPath(sourceXPath);
         return XmlHelpers.xpathStringContainsTag(xpathStr, targetName);
@@ -910,7 +1020,8 @@ public class XmlComparator extends AbstractComparator {
     private String getAtpDiffAdditionalKey(String targetXPath, Document docEar) throws ComparatorException {
         NodeList nodeList;
         try {
-            nodeList = (NodeList) xpath.evaluate(targetXPath, docEar.getDocumentElement(), XPathConstants.NODESET);
+            nodeList = (NodeList) xpath.get().evaluate(targetXPath, docEar.getDocumentElement(),
+                    XPathConstants.NODESET);
             if (nodeList != null && nodeList.getLength() > 0) {
                 return nodeList.item(0).getNodeValue();
             }
@@ -62,7 +62,6 @@ public class XsdComparator extends AbstractComparator {
 
     public static final String XSD_FILE = "xsdFile";
     public static final String SKIP_ER_VALIDATION = "skipER";
-    private List<DiffMessage> diffMessages = new ArrayList<>();
 
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
@@ -73,16 +72,18 @@ public class XsdComparator extends AbstractComparator {
         }
         String xsdFile = StringUtils.join(xsdRows, '\n');
         final Schema schema = getSchema(new StreamSource(new StringReader(xsdFile)));
+        List<DiffMessage> diffMessages = new ArrayList<>();
         if (!configuration.getBooleanParameter(SKIP_ER_VALIDATION, false)) {
-            validate(er, schema, true, 0);
+            validate(er, schema, true, diffMessages);
         }
-        validate(ar, schema, false, diffMessages.size());
+        validate(ar, schema, false, diffMessages);
         return diffMessages;
     }
 
-    private void validate(String xml, Schema xsd, boolean isControl, int startCounter) throws ComparatorException {
+    private void validate(String xml, Schema xsd, boolean isControl, List<DiffMessage> diffMessages)
+            throws ComparatorException {
         final Validator validator = xsd.newValidator();
-        validator.setErrorHandler(new ReportErrorHandler(diffMessages, isControl, startCounter));
+        validator.setErrorHandler(new ReportErrorHandler(diffMessages, isControl, diffMessages.size()));
 
         /* Need to remove all dust before "<?xml..." but we can't use XmlHelpers.cleanXml -
         it collapses all content to single line */
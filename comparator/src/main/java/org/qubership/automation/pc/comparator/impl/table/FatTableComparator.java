@@ -29,6 +29,10 @@ import org.qubership.automation.pc.compareresult.DiffMessage;
 import org.qubership.automation.pc.compareresult.ResultType;
 import org.qubership.automation.pc.configuration.parameters.Parameters;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
+import org.qubership.automation.pc.core.helpers.ThreadUtils;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.PreparedExpectation;
 import org.qubership.automation.pc.models.table.CheckColumnRule;
 import org.qubership.automation.pc.models.table.FatTable;
 
@@ -40,12 +44,45 @@ public class FatTableComparator extends AbstractComparator {
 
     @Override
     public List<DiffMessage> compare(String er, String ar, Parameters configuration) throws ComparatorException {
+        return compare(prepare(null, er, configuration), ar);
+    }
+
+    @Override
+    public PreparedExpectation prepare(Data er, Parameters configuration) {
+        return prepare(er, DataContentConverter.toString(er), configuration);
+    }
+
+    @Override
+    public List<DiffMessage> compare(PreparedExpectation er, Data ar) throws ComparatorException {
+        FatTableExpectation expectation = er instanceof FatTableExpectation
+                ? (FatTableExpectation) er : prepare(er.getData(), er.getContent(), er.getParameters());
+        return compare(expectation, DataContentConverter.toString(ar));
+    }
+
+    /*
+     * Rules and ER table are read once for all ARs; ER table is not changed while comparing.
+     */
+    private FatTableExpectation prepare(Data data, String er, Parameters configuration) {
+        FatTableExpectation expectation = new FatTableExpectation(data, er, configuration);
         try {
+            expectation.rules = ComparableTableRuleSet.fromParameters(configuration);
+            expectation.expectedTable = FatTable.fromString(er);
+        } catch (JsonSyntaxException jsonEx) {
+            expectation.failure = jsonEx;
+        }
+        return expectation;
+    }
+
+    private List<DiffMessage> compare(FatTableExpectation expectation, String ar) throws ComparatorException {
+        try {
+            if (expectation.failure != null) {
+                throw expectation.failure;
+            }
             List<DiffMessage> diffs = new ArrayList<>();
 
-            ComparableTableRuleSet rules = ComparableTableRuleSet.fromParameters(configuration);
+            ComparableTableRuleSet rules = expectation.rules;
 
-            FatTable expectedTable = FatTable.fromString(er);
+            FatTable expectedTable = expectation.expectedTable;
             FatTable actualTable = FatTable.fromString(ar);
 
             if (actualTable != null) {
@@ -82,6 +119,7 @@ public class FatTableComparator extends AbstractComparator {
         combinedHeaders.addAll(actualTable.getHeaders());
         boolean searchByKeyColumns = !primaryKeys.isEmpty();
         for (int erIdx = 0; erIdx < expectedTable.getRows().size(); erIdx++) {
+            ThreadUtils.checkInterrupted();
             Map<String, String> erRow = expectedTable.getRow(erIdx);
             Map<String, String> arRow = null;
             Integer arFoundIdx = null;
@@ -170,4 +208,14 @@ public class FatTableComparator extends AbstractComparator {
         }
         return diffs;
     }
+
+    private static class FatTableExpectation extends PreparedExpectation {
+        private ComparableTableRuleSet rules;
+        private FatTable expectedTable;
+        private JsonSyntaxException failure;
+
+        private FatTableExpectation(Data data, String content, Parameters parameters) {
+            super(data, content, parameters);
+        }
+    }
 }
@@ -31,6 +31,10 @@ import org.qubership.automation.pc.compareresult.DiffMessage;
 import org.qubership.automation.pc.compareresult.ResultType;
 import org.qubership.automation.pc.configuration.parameters.Parameters;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
+import org.qubership.automation.pc.core.helpers.ThreadUtils;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.PreparedExpectation;
 import org.qubership.automation.pc.models.Table;
 import org.qubership.automation.pc.models.table.CheckColumnRule;
 import org.qubership.automation.pc.models.table.ComparableTable;
@@ -49,12 +53,46 @@ public class TableComparatorNew extends AbstractComparator {
     @Override
     public List<DiffMessage> compare(@Nonnull String er, @Nonnull String ar, @Nonnull Parameters configuration)
             throws ComparatorException {
+        return compare(prepare(null, er, configuration), ar);
+    }
+
+    @Override
+    public PreparedExpectation prepare(Data er, Parameters configuration) {
+        return prepare(er, DataContentConverter.toString(er), configuration);
+    }
+
+    @Override
+    public List<DiffMessage> compare(PreparedExpectation er, Data ar) throws ComparatorException {
+        TableExpectation expectation = er instanceof TableExpectation
+                ? (TableExpectation) er : prepare(er.getData(), er.getContent(), er.getParameters());
+        return compare(expectation, DataContentConverter.toString(ar));
+    }
+
+    /*
+     * Rules and ER table are read once for all ARs; ER rows are copied for each AR
+     * because they are removed while matching.
+     */
+    private TableExpectation prepare(Data data, String er, Parameters configuration) {
+        TableExpectation expectation = new TableExpectation(data, er, configuration);
+        try {
+            expectation.rules = ComparableTableRuleSet.fromParameters(configuration);
+            expectation.expectedTable = Table.fromString(er);
+        } catch (JsonSyntaxException jsonEx) {
+            expectation.failure = jsonEx;
+        }
+        return expectation;
+    }
+
+    private List<DiffMessage> compare(TableExpectation expectation, String ar) throws ComparatorException {
         try {
+            if (expectation.failure != null) {
+                throw expectation.failure;
+            }
             List<DiffMessage> diffs = new ArrayList<>();
 
-            ComparableTableRuleSet rules = ComparableTableRuleSet.fromParameters(configuration);
+            ComparableTableRuleSet rules = expectation.rules;
 
-            ComparableTable expectedTable = ComparableTable.fromTable(Table.fromString(er));
+            ComparableTable expectedTable = ComparableTable.fromTable(expectation.expectedTable);
             ComparableTable actualTable = ComparableTable.fromTable(Table.fromString(ar));
 
             if (actualTable != null) {
@@ -92,6 +130,7 @@ public class TableComparatorNew extends AbstractComparator {
         // Process matched rows
         ListIterator<ComparableTableRow> iterator = unprocessedErRows.listIterator();
         while (iterator.hasNext()) {
+            ThreadUtils.checkInterrupted();
             ComparableTableRow currErRow = iterator.next();
             ComparableTableRow arMatchedRow = findMatchedRow(currErRow, unprocessedArRows, columnAnalysisResult);
             if (arMatchedRow != null) {
@@ -216,4 +255,14 @@ public class TableComparatorNew extends AbstractComparator {
         public int er;
         public int ar;
     }
+
+    private static class TableExpectation extends PreparedExpectation {
+        private ComparableTableRuleSet rules;
+        private Table expectedTable;
+        private JsonSyntaxException failure;
+
+        private TableExpectation(Data data, String content, Parameters parameters) {
+            super(data, content, parameters);
+        }
+    }
 }
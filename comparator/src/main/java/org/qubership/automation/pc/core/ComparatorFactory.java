@@ -16,7 +16,7 @@
 
 package org.qubership.automation.pc.core;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 import org.qubership.automation.pc.core.enums.DataContentType;
@@ -34,6 +34,9 @@ import org.slf4j.LoggerFactory;
  * instantiate them on demand. Comparators are mapped via their fully-qualified class names
  * and loaded dynamically using reflection.
  * <p>
+ * Comparators keep no state between calls, so each of them is instantiated once, on the first request,
+ * and the same instance serves all threads afterwards.
+ * <p>
  * <strong>Supported DataContentTypes:</strong>
  * <ul>
  *   <li>PRIMITIVES → PrimitivesComparator</li>
@@ -60,7 +63,7 @@ import org.slf4j.LoggerFactory;
 public class ComparatorFactory {
     
     private final Logger log = LoggerFactory.getLogger(ComparatorFactory.class);
-    private final Map<DataContentType,ComparatorInfo> comparators = new HashMap<>();
+    private final Map<DataContentType,ComparatorInfo> comparators = new EnumMap<>(DataContentType.class);
     
     public ComparatorFactory() {
         fillComparators();
@@ -91,14 +94,13 @@ public class ComparatorFactory {
     
     private IComparator getComparatorByContentType(DataContentType contentType)
             throws FactoryInstatiationException, ComparatorNotFoundException {
-        if (comparators.containsKey(contentType)) {
+        ComparatorInfo info = comparators.get(contentType);
+        if (info != null) {
             try {
-                Class<?> comparatorClass = comparators.get(contentType).getComparatorClass(); 
-                IComparator comparator = (IComparator) comparatorClass.newInstance();
-                return comparator;
+                return info.getComparator();
             } catch (InstantiationException | IllegalAccessException ex) {
-                log.error(ResponseMessages.msg(20103, comparators.get(contentType).path));
-                throw new FactoryInstatiationException(ResponseMessages.msg(20103, comparators.get(contentType).path));
+                log.error(ResponseMessages.msg(20103, info.path));
+                throw new FactoryInstatiationException(ResponseMessages.msg(20103, info.path));
             } catch (ClassNotFoundException ex) {
                 log.error(ResponseMessages.msg(20104,contentType.toString()));
                 throw new ComparatorNotFoundException(ResponseMessages.msg(20104,contentType.toString()));
@@ -109,13 +111,9 @@ public class ComparatorFactory {
         }
     }
     
-    private static ComparatorFactory _instance;
+    private static final ComparatorFactory _instance = new ComparatorFactory();
     
     public static ComparatorFactory getInstance() {
-        if (_instance == null) {
-            _instance = new ComparatorFactory();
-        }
-        
         return _instance;
     }
     
@@ -127,6 +125,7 @@ public class ComparatorFactory {
     private class ComparatorInfo {
         public String path;
         public Class<?> comparatorClass;
+        private volatile IComparator comparator;
         
         public ComparatorInfo() {
         }
@@ -145,5 +144,20 @@ public class ComparatorFactory {
             }
             return this.comparatorClass;
         }
+
+        public IComparator getComparator()
+                throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+            IComparator result = this.comparator;
+            if (result == null) {
+                synchronized (this) {
+                    result = this.comparator;
+                    if (result == null) {
+                        result = (IComparator) getComparatorClass().newInstance();
+                        this.comparator = result;
+                    }
+                }
+            }
+            return result;
+        }
     }
 }
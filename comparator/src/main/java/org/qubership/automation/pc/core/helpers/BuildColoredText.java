@@ -17,7 +17,6 @@
 package org.qubership.automation.pc.core.helpers;
 
 import static org.qubership.automation.pc.comparator.impl.PlainTextComparator.IGNORE_IDENTICAL;
-import static org.qubership.automation.pc.comparator.impl.PlainTextComparator.ignoreIdentical;
 import static org.qubership.automation.pc.core.helpers.TextHelpers.escapeHtmlEntities;
 
 import java.util.ArrayList;
@@ -56,7 +55,7 @@ import org.qubership.automation.pc.models.HighlighterResult;
  * and/or merged visual representations for expected and actual inputs.
  * </p>
  *
- * <p>This class is stateless in behavior but uses internal static fields for configuration during execution.</p>
+ * <p>This class is stateless: rules of each call are read into a local {@code HighlightRules} object.</p>
  */
 public class BuildColoredText {
 
@@ -67,47 +66,44 @@ public class BuildColoredText {
     // Needed for rule "replaceRegexp", value = delimiter between regexpStr and replaceStr
     private static final String REPLACE_DELIMITER = "==";
 
-    private static boolean sortErAr;
-    private static List<CheckRegexpRule> listReplaceRegexpRule;
-    private static List<CheckRegexpRule> listReplaceRegexpRuleFullText;
-
     public static HighlighterResult highlight(List<DiffMessage> differences, String er, String ar) {
         List<String> erList = TextHelpers.stringToList(er);
         List<String> arList = TextHelpers.stringToList(ar);
-        return highlightText(er, ar, differences, erList, arList);
+        return highlightText(er, ar, differences, erList, arList, false);
     }
 
     public static HighlighterResult highlightPlainText(List<DiffMessage> differences,
                                                        String er,
                                                        String ar,
                                                        Map<String, List<String>> rules) throws ComparatorException {
-        getConfigurationParameters(rules);
+        HighlightRules highlightRules = getConfigurationParameters(rules);
 
         List<String> erList = TextHelpers.stringToList(er);
         List<String> arList = TextHelpers.stringToList(ar);
         TextHelpers.processRule_ExcludeTextBlocks(erList, arList, rules);
 
-        return highlightText(er, ar, differences, erList, arList);
+        return highlightText(er, ar, differences, erList, arList, highlightRules.ignoreIdentical);
     }
 
     private static HighlighterResult highlightText(String er,
                                                    String ar,
                                                    List<DiffMessage> differences,
                                                    List<String> erList,
-                                                   List<String> arList) {
+                                                   List<String> arList,
+                                                   boolean ignoreIdentical) {
         HighlighterNode erMessage = new HighlighterNode();
         if (StringUtils.isBlank(er)) {
             erMessage.setValue("$$$root$$$");
             addNewHighlighterNode(erMessage, "", "IDENTICAL",0);
         } else {
-            erMessage = processDifferences(differences, erList, false);
+            erMessage = processDifferences(differences, erList, false, ignoreIdentical);
         }
         HighlighterNode arMessage = new HighlighterNode();
         if (StringUtils.isBlank(ar)) {
             arMessage.setValue("$$$root$$$");
             addNewHighlighterNode(arMessage, "", "IDENTICAL",0);
         } else {
-            arMessage = processDifferences(differences, arList, true);
+            arMessage = processDifferences(differences, arList, true, ignoreIdentical);
         }
         HighlighterResult resultMap = new HighlighterResult();
         resultMap.setEr(erMessage);
@@ -119,15 +115,15 @@ public class BuildColoredText {
                                                       String er,
                                                       String ar,
                                                       Map<String, List<String>> rules) throws ComparatorException {
-        getConfigurationParameters(rules);
+        HighlightRules highlightRules = getConfigurationParameters(rules);
 
-        final List<String> erList
-                = TextHelpers.stringToList(FullTextComparator.replaceRegexpFullText(er, listReplaceRegexpRuleFullText));
-        final List<String> arList
-                = TextHelpers.stringToList(FullTextComparator.replaceRegexpFullText(ar, listReplaceRegexpRuleFullText));
+        final List<String> erList = TextHelpers.stringToList(
+                FullTextComparator.replaceRegexpFullText(er, highlightRules.listReplaceRegexpRuleFullText));
+        final List<String> arList = TextHelpers.stringToList(
+                FullTextComparator.replaceRegexpFullText(ar, highlightRules.listReplaceRegexpRuleFullText));
 
         TextHelpers.processRule_ExcludeTextBlocks(erList, arList, rules);
-        if (sortErAr) {
+        if (highlightRules.sortErAr) {
             Collections.sort(erList);
             Collections.sort(arList);
         }
@@ -137,14 +133,14 @@ public class BuildColoredText {
             erMessage.setValue("$$$root$$$");
             addNewHighlighterNode(erMessage, "", "IDENTICAL",0);
         } else {
-            erMessage = processFullTextDifferences(differences, erList, false);
+            erMessage = processFullTextDifferences(differences, erList, false, highlightRules);
         }
         HighlighterNode arMessage = new HighlighterNode();
         if (StringUtils.isBlank(ar)) {
             arMessage.setValue("$$$root$$$");
             addNewHighlighterNode(arMessage, "", "IDENTICAL",0);
         } else {
-            arMessage = processFullTextDifferences(differences, arList, true);
+            arMessage = processFullTextDifferences(differences, arList, true, highlightRules);
         }
 
         HighlighterResult resultMap = new HighlighterResult();
@@ -164,7 +160,8 @@ public class BuildColoredText {
         Thats why 2nd version ( processDifferences() ) makes resultmsg in different way */
     private static HighlighterNode processDifferences(List<DiffMessage> differences,
                                                       List<String> ear,
-                                                      Boolean isActual) {
+                                                      Boolean isActual,
+                                                      boolean ignoreIdentical) {
         String diffText;  // "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + "<pre>";
         String diffResult;
         Map<Integer, String> coloured = new HashMap<>();
@@ -242,12 +239,13 @@ public class BuildColoredText {
 
     private static HighlighterNode processFullTextDifferences(List<DiffMessage> differences,
                                                               List<String> ear,
-                                                              Boolean isActual) {
+                                                              Boolean isActual,
+                                                              HighlightRules highlightRules) {
         String diffText; // "<?xml version=\"1.0\" encoding=\"UTF-8\"?><pre>";
         Map<Integer, Integer> emptyLineNumbers = new HashMap<>();
         int earSize = ear.size();
 
-        for (CheckRegexpRule rule : listReplaceRegexpRule) {
+        for (CheckRegexpRule rule : highlightRules.listReplaceRegexpRule) {
             for (int k = 0; k < rule.regexps.size(); k++) {
                 String regexp = rule.regexps.get(k);
                 String replacement = rule.replacements.get(k);
@@ -368,12 +366,16 @@ public class BuildColoredText {
         //                + " class=\"" + diffResult + "\">" + diffText + "</span>";
     }
 
-    private static void getConfigurationParameters(Map<String, List<String>> rules) throws ComparatorException {
-        ignoreIdentical = getIgnoreIdenticalRuleValueFromRules(rules);
-        listReplaceRegexpRule = FullTextComparator.prepareReplaceRegexpRules(rules.get(REPLACE_REGEXP));
-        listReplaceRegexpRuleFullText
+    private static HighlightRules getConfigurationParameters(Map<String, List<String>> rules)
+            throws ComparatorException {
+        HighlightRules highlightRules = new HighlightRules();
+        highlightRules.ignoreIdentical = getIgnoreIdenticalRuleValueFromRules(rules);
+        highlightRules.listReplaceRegexpRule
+                = FullTextComparator.prepareReplaceRegexpRules(rules.get(REPLACE_REGEXP));
+        highlightRules.listReplaceRegexpRuleFullText
                 = FullTextComparator.prepareReplaceRegexpRules(rules.get(REPLACE_REGEXP_FULL_TEXT));
-        sortErAr = getSortErArRuleValueFromRules(rules);
+        highlightRules.sortErAr = getSortErArRuleValueFromRules(rules);
+        return highlightRules;
     }
 
     private static boolean getIgnoreIdenticalRuleValueFromRules(Map<String, List<String>> rules) {
@@ -386,6 +388,13 @@ public class BuildColoredText {
                 .stream().allMatch("true"::equals);
     }
 
+    private static class HighlightRules {
+        private boolean ignoreIdentical;
+        private boolean sortErAr;
+        private List<CheckRegexpRule> listReplaceRegexpRule;
+        private List<CheckRegexpRule> listReplaceRegexpRuleFullText;
+    }
+
     private static class Interval {
 
         public int start;
@@ -0,0 +1,163 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.threads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+
+/**
+ * A comparison submitted to {@link CompareJobsManager} to be run in background.
+ *
+ * <p>
+ * The job collects {@link CompareResult}s in the order packages are compared, so clients can poll
+ * {@link #getCompletedCount() progress} and fetch results page by page while the job is still running.
+ * The job id is also the id of its {@link MultiThreadsQueue}, so statuses of parallel sessions are available
+ * via {@link CompareSessionsManager#getSessionStatusesByQueue(String)} until the job is finished.
+ * </p>
+ */
+public class CompareJob {
+
+    /**
+     * Body of a job.
+     */
+    @FunctionalInterface
+    public interface Task {
+
+        /**
+         * Runs the comparison, handing every result to {@link CompareJob#addResult(CompareResult)}.
+         *
+         * @param job job being run
+         * @throws Exception if the comparison fails
+         */
+        void run(CompareJob job) throws Exception;
+    }
+
+    private final String id;
+    private final int total;
+    private final List<CompareResult> results = Collections.synchronizedList(new ArrayList<>());
+    private final Date created = new Date();
+    private volatile CompareSessionStatus status = CompareSessionStatus.NOT_STARTED;
+    private volatile Date started;
+    private volatile Date finished;
+    private volatile int errorCode;
+    private volatile String errorMessage;
+    private volatile Future<?> future;
+
+    public CompareJob(String id, int total) {
+        this.id = id;
+        this.total = total;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the number of packages submitted with the job.
+     *
+     * @return total number of results expected
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCompletedCount() {
+        return results.size();
+    }
+
+    public void addResult(CompareResult result) {
+        results.add(result);
+    }
+
+    /**
+     * Returns a page of results collected so far, in order of completion.
+     *
+     * @param offset index of the first result
+     * @param limit  max number of results; not positive value means all the rest
+     * @return copy of the requested page, empty if {@code offset} is out of range
+     */
+    public List<CompareResult> getResults(int offset, int limit) {
+        synchronized (results) {
+            int from = Math.max(0, Math.min(offset, results.size()));
+            int to = limit > 0 ? Math.min(results.size(), from + limit) : results.size();
+            return new ArrayList<>(results.subList(from, to));
+        }
+    }
+
+    public CompareSessionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CompareSessionStatus status) {
+        this.status = status;
+    }
+
+    public boolean isFinished() {
+        return finished != null;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public Date getStarted() {
+        return started;
+    }
+
+    public void setStarted(Date started) {
+        this.started = started;
+    }
+
+    public Date getFinished() {
+        return finished;
+    }
+
+    public void setFinished(Date finished) {
+        this.finished = finished;
+    }
+
+    /**
+     * Returns the status code of the error the job failed with, 0 if there is no error.
+     *
+     * @return status code, see {@link org.qubership.automation.pc.core.helpers.ResponseMessages}
+     */
+    public int getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setError(int errorCode, String errorMessage) {
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    Future<?> getFuture() {
+        return future;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+}
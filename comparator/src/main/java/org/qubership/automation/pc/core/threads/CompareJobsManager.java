@@ -0,0 +1,249 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.threads;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.qubership.automation.pc.core.exceptions.ComparatorManagerException;
+import org.qubership.automation.pc.core.exceptions.ParentException;
+import org.qubership.automation.pc.core.helpers.ResponseMessages;
+import org.qubership.automation.pc.core.helpers.ThreadUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Runs {@link CompareJob}s in background and keeps them until the client takes the results.
+ *
+ * <p>
+ * Admission is bounded: no more than {@value #MAX_RUNNING_PROPERTY} jobs run at once
+ * and no more than {@value #MAX_PENDING_PROPERTY} jobs wait for their turn;
+ * a job submitted above these limits is rejected with status code 20116, so the client can retry later
+ * instead of the service accepting unlimited work.
+ * Finished jobs which are not {@link #removeJob(String) removed} by the client are dropped by a timer
+ * {@value #RETENTION_PROPERTY} milliseconds after they are finished, whether new jobs are submitted or not.
+ * </p>
+ *
+ * <p>
+ * Use {@link #getInstance()} to access the singleton instance.
+ * </p>
+ */
+public class CompareJobsManager {
+
+    public static final String MAX_RUNNING_PROPERTY = "pc.compare.jobs.maxRunning";
+    public static final String MAX_PENDING_PROPERTY = "pc.compare.jobs.maxPending";
+    public static final String RETENTION_PROPERTY = "pc.compare.jobs.retentionMs";
+    private static final String JOB_THREAD_PREFIX = "pc-compare-job-";
+    private static final String TIMER_THREAD_NAME = "pc-compare-jobs-timer";
+    private static final int DEFAULT_MAX_RUNNING = 4;
+    private static final int DEFAULT_MAX_PENDING = 64;
+    private static final long DEFAULT_RETENTION = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Logger log = LoggerFactory.getLogger(CompareJobsManager.class);
+    private static final ScheduledExecutorService timer = createTimer();
+    private static final CompareJobsManager instance = new CompareJobsManager();
+
+    private final ConcurrentHashMap<String, CompareJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final long retention;
+
+    public CompareJobsManager() {
+        this(getIntProperty(MAX_RUNNING_PROPERTY, DEFAULT_MAX_RUNNING),
+                getIntProperty(MAX_PENDING_PROPERTY, DEFAULT_MAX_PENDING),
+                getIntProperty(RETENTION_PROPERTY, (int) DEFAULT_RETENTION));
+    }
+
+    /**
+     * Creates the manager with explicit limits.
+     *
+     * @param maxRunning max number of jobs running at once
+     * @param maxPending max number of jobs waiting for their turn
+     * @param retention  time in milliseconds a finished job is kept for
+     */
+    public CompareJobsManager(int maxRunning, int maxPending, long retention) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxRunning, maxRunning, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxPending), runnable -> {
+            Thread thread = new Thread(runnable, JOB_THREAD_PREFIX + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.retention = retention;
+    }
+
+    public static CompareJobsManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Submits the job to be run in background.
+     *
+     * @param jobId id of the job, random if {@code null}
+     * @param total number of results the job is expected to produce
+     * @param task  body of the job
+     * @return submitted job
+     * @throws ComparatorManagerException if the job with this id already exists (20118)
+     *                                    or there are too many jobs already (20116)
+     */
+    public CompareJob submit(String jobId, int total, final CompareJob.Task task)
+            throws ComparatorManagerException {
+        final CompareJob job = new CompareJob(jobId == null ? UUID.randomUUID().toString() : jobId, total);
+        if (jobs.putIfAbsent(job.getId(), job) != null) {
+            throw new ComparatorManagerException(ResponseMessages.msg(20118, job.getId()), 20118);
+        }
+        final Map<String, String> mdcMap = MDC.getCopyOfContextMap();
+        try {
+            job.setFuture(executor.submit(() -> runJob(job, task, mdcMap)));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.getId());
+            log.warn("[CompareJobsManager] job {} is rejected: {} jobs are running, {} are waiting",
+                    job.getId(), executor.getActiveCount(), executor.getQueue().size());
+            throw new ComparatorManagerException(ResponseMessages.msg(20116), ex, 20116);
+        }
+        log.info("[CompareJobsManager] job {} is submitted, {} packages", job.getId(), total);
+        return job;
+    }
+
+    private void runJob(CompareJob job, CompareJob.Task task, Map<String, String> mdcMap) {
+        synchronized (job) {
+            if (job.getStatus() != CompareSessionStatus.NOT_STARTED) {
+                // cancelled while waiting for its turn
+                return;
+            }
+            job.setStarted(new Date());
+            job.setStatus(CompareSessionStatus.IN_PROGRESS);
+        }
+        ThreadUtils.setMdcContextMap(mdcMap);
+        try {
+            task.run(job);
+        } catch (ParentException ex) {
+            log.error("[CompareJobsManager] job {} failed", job.getId(), ex);
+            job.setError(ex.getStatusCode(), ResponseMessages.msg(ex.getStatusCode(), ex.getMessage()));
+        } catch (InterruptedException ex) {
+            log.debug("[CompareJobsManager] job {} is interrupted", job.getId());
+            job.setStatus(CompareSessionStatus.CANCELLED);
+        } catch (Exception ex) {
+            log.error("[CompareJobsManager] job {} failed", job.getId(), ex);
+            job.setError(20002, ResponseMessages.msg(20002, ex.getMessage()));
+        } finally {
+            synchronized (job) {
+                if (job.getStatus() == CompareSessionStatus.IN_PROGRESS) {
+                    job.setStatus(CompareSessionStatus.COMPLETED);
+                }
+                job.setFinished(new Date());
+            }
+            scheduleExpiry(job);
+            Thread.interrupted();
+            MDC.clear();
+        }
+    }
+
+    public CompareJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Cancels the job. A waiting job is not started at all; a running job has its compare queue cancelled,
+     * so the packages which are not compared yet get {@code CANCELLED} results.
+     *
+     * @param jobId id of the job
+     * @return {@code false} if there is no such job
+     */
+    public boolean cancelJob(String jobId) {
+        CompareJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        synchronized (job) {
+            if (job.isFinished()) {
+                return true;
+            }
+            boolean started = job.getStatus() != CompareSessionStatus.NOT_STARTED;
+            job.setStatus(CompareSessionStatus.CANCELLED);
+            if (!started) {
+                job.setFinished(new Date());
+                Future<?> future = job.getFuture();
+                if (future != null) {
+                    future.cancel(false);
+                }
+                scheduleExpiry(job);
+                return true;
+            }
+        }
+        if (!CompareSessionsManager.getInstance().cancelQueue(jobId)) {
+            // the queue is not created yet
+            Future<?> future = job.getFuture();
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cancels the job if it is not finished and forgets it.
+     *
+     * @param jobId id of the job
+     * @return removed job or {@code null} if there is no such job
+     */
+    public CompareJob removeJob(String jobId) {
+        cancelJob(jobId);
+        return jobs.remove(jobId);
+    }
+
+    private void scheduleExpiry(final CompareJob job) {
+        // the job is removed only if it is not replaced by a new job with the same id
+        timer.schedule(() -> jobs.remove(job.getId(), job), retention, TimeUnit.MILLISECONDS);
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, TIMER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private static int getIntProperty(String name, int defaultValue) {
+        String configured = System.getProperty(name);
+        if (configured != null) {
+            try {
+                int value = Integer.parseInt(configured.trim());
+                if (value > 0) {
+                    return value;
+                }
+            } catch (NumberFormatException ex) {
+                log.warn("[CompareJobsManager] illegal value of {}: {}", name, configured);
+            }
+        }
+        return defaultValue;
+    }
+}
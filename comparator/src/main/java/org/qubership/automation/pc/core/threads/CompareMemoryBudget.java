@@ -0,0 +1,196 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.threads;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.qubership.automation.pc.core.exceptions.ComparatorManagerException;
+import org.qubership.automation.pc.core.helpers.ResponseMessages;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide budget of memory taken by content being compared.
+ *
+ * <p>
+ * Every package reserves its estimated working set (encoded and decoded content, parsed trees, result)
+ * before it is compared and gives it back afterwards. When the budget is exhausted the package waits
+ * up to {@value #WAIT_PROPERTY} milliseconds for other packages to finish and fails with status code 20119
+ * after that ({@code 0} means fail at once), so excessive load is queued or rejected
+ * instead of ending with an {@link OutOfMemoryError} for all requests in flight.
+ * The wait is a {@link ForkJoinPool.ManagedBlocker}, so the pool compare sessions run in adds workers
+ * while its workers wait, and sessions which free the budget are not starved of threads.
+ * </p>
+ *
+ * <p>
+ * The budget is {@value #BUDGET_PROPERTY} megabytes, a quarter of the max heap size by default.
+ * It is accounted in kilobytes; a package larger than the whole budget is admitted when nothing else runs.
+ * </p>
+ *
+ * <p>
+ * Time spent waiting for the budget is recorded in {@link MetricsRegistry}, as well as used memory
+ * and the number of waiting threads of the shared budget.
+ * </p>
+ */
+public class CompareMemoryBudget {
+
+    public static final String BUDGET_PROPERTY = "pc.compare.memoryBudgetMb";
+    public static final String WAIT_PROPERTY = "pc.compare.memoryBudget.waitMs";
+    private static final long DEFAULT_WAIT = TimeUnit.MINUTES.toMillis(1);
+    public static final String WAIT_METRIC = "pc.compare.memory.wait";
+    public static final String USED_METRIC = "pc.compare.memory.used";
+    public static final String WAITING_METRIC = "pc.compare.memory.waiting";
+    private static final int KB = 1024;
+
+    private static final Logger log = LoggerFactory.getLogger(CompareMemoryBudget.class);
+    private static final CompareMemoryBudget instance = new CompareMemoryBudget(getConfiguredBudget(),
+            getConfiguredWait());
+
+    static {
+        MetricsRegistry.getInstance().gauge(USED_METRIC, instance::getUsedBytes);
+        MetricsRegistry.getInstance().gauge(WAITING_METRIC, instance::getWaitingCount);
+    }
+
+    private final int capacityKb;
+    private final long waitMillis;
+    private final Semaphore permits;
+
+    /**
+     * Creates the budget.
+     *
+     * @param capacityBytes size of the budget in bytes
+     * @param waitMillis    time to wait for the budget, {@code 0} to fail at once
+     */
+    public CompareMemoryBudget(long capacityBytes, long waitMillis) {
+        this.capacityKb = (int) Math.max(1, Math.min(Integer.MAX_VALUE, capacityBytes / KB));
+        this.waitMillis = waitMillis;
+        // fair, so a large package is not starved by small ones
+        this.permits = new Semaphore(capacityKb, true);
+    }
+
+    public static CompareMemoryBudget getInstance() {
+        return instance;
+    }
+
+    /**
+     * Reserves memory, waiting for it if the budget is exhausted.
+     *
+     * @param bytes estimated size, the same value is to be passed to {@link #release(long)}
+     * @throws ComparatorManagerException if the memory is not available in time (20119)
+     * @throws InterruptedException       if the thread is interrupted while waiting
+     */
+    public void acquire(long bytes) throws ComparatorManagerException, InterruptedException {
+        int requested = toPermits(bytes);
+        long startNanos = System.nanoTime();
+        boolean acquired;
+        if (waitMillis > 0) {
+            BudgetBlocker blocker = new BudgetBlocker(requested);
+            ForkJoinPool.managedBlock(blocker);
+            acquired = blocker.acquired;
+        } else {
+            acquired = permits.tryAcquire(requested);
+        }
+        MetricsRegistry.getInstance().timer(WAIT_METRIC).recordSince(startNanos);
+        if (!acquired) {
+            log.warn("[CompareMemoryBudget] {} KB is not available, used {} of {} KB, {} threads are waiting",
+                    requested, getUsedBytes() / KB, capacityKb, permits.getQueueLength());
+            throw new ComparatorManagerException(ResponseMessages.msg(20119, String.valueOf(bytes / KB)), 20119);
+        }
+    }
+
+    public void release(long bytes) {
+        permits.release(toPermits(bytes));
+    }
+
+    public long getCapacityBytes() {
+        return (long) capacityKb * KB;
+    }
+
+    public long getUsedBytes() {
+        return (long) (capacityKb - permits.availablePermits()) * KB;
+    }
+
+    /**
+     * Returns an estimate of the number of threads waiting for the budget.
+     *
+     * @return number of waiting threads
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    private int toPermits(long bytes) {
+        return (int) Math.max(1, Math.min(capacityKb, (bytes + KB - 1) / KB));
+    }
+
+    private static long getConfiguredBudget() {
+        String configured = System.getProperty(BUDGET_PROPERTY);
+        if (configured != null) {
+            try {
+                long budget = Long.parseLong(configured.trim());
+                if (budget > 0) {
+                    return budget * KB * KB;
+                }
+            } catch (NumberFormatException ex) {
+                log.warn("[CompareMemoryBudget] illegal value of {}: {}", BUDGET_PROPERTY, configured);
+            }
+        }
+        return Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    private static long getConfiguredWait() {
+        String configured = System.getProperty(WAIT_PROPERTY);
+        if (configured != null) {
+            try {
+                long wait = Long.parseLong(configured.trim());
+                if (wait >= 0) {
+                    return wait;
+                }
+            } catch (NumberFormatException ex) {
+                log.warn("[CompareMemoryBudget] illegal value of {}: {}", WAIT_PROPERTY, configured);
+            }
+        }
+        return DEFAULT_WAIT;
+    }
+
+    private final class BudgetBlocker implements ForkJoinPool.ManagedBlocker {
+        private final int requested;
+        private boolean done;
+        private boolean acquired;
+
+        private BudgetBlocker(int requested) {
+            this.requested = requested;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!done) {
+                acquired = permits.tryAcquire(requested, waitMillis, TimeUnit.MILLISECONDS);
+                done = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+}
@@ -18,9 +18,14 @@ package org.qubership.automation.pc.core.threads;
 
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.compareresult.DiffMessage;
+import org.qubership.automation.pc.compareresult.ResultType;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
+import org.qubership.automation.pc.core.helpers.ResponseMessages;
 
 /**
  * An abstract base class representing a single comparison session within a multi-threaded
@@ -41,21 +46,40 @@ import org.qubership.automation.pc.core.exceptions.ComparatorException;
  *
  * <p>
  * This class also provides utility methods to update the session state and mark
- * completion.
+ * completion. Completion is exposed as a {@link CompletableFuture} via {@link #getCompletion()},
+ * so callers can block on (or chain to) the result directly instead of polling the status.
+ * A session can be {@link #cancel(ResultType) cancelled}: it is completed at once with a
+ * {@link ResultType#CANCELLED}/{@link ResultType#TIMEOUT} result and the thread running it is interrupted.
  * </p>
  */
 public abstract class CompareSession {
+    private final String key = UUID.randomUUID().toString();
     private String sessionId = UUID.randomUUID().toString();
     private CompareSessionStatus status;
     private Date started;
     private Date finished;
     private MultiThreadsQueue parent;
+    private long estimatedCost;
     private CompareResult compareResult;
+    private final CompletableFuture<CompareSession> completion = new CompletableFuture<>();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private Thread runner;
 
     public CompareSession() {
         status = CompareSessionStatus.NOT_STARTED;
     }
     
+    /**
+     * Returns the key the session is registered with in {@link CompareSessionsManager}.
+     * Unlike {@link #getSessionId()}, which may be set by the caller (e.g. to ER external id),
+     * the key is unique and never changed.
+     *
+     * @return unique key of the session
+     */
+    public String getKey() {
+        return key;
+    }
+
     public String getSessionId() {
         return sessionId;
     }
@@ -96,6 +120,19 @@ public abstract class CompareSession {
         this.parent = parent;
     }
 
+    /**
+     * Returns relative cost of the session; {@link MultiThreadsQueue} starts the most expensive sessions first.
+     *
+     * @return estimated cost, 0 if unknown
+     */
+    public long getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    public void setEstimatedCost(long estimatedCost) {
+        this.estimatedCost = estimatedCost;
+    }
+
     public CompareResult getCompareResult() {
         return compareResult;
     }
@@ -104,12 +141,94 @@ public abstract class CompareSession {
         this.compareResult = compareResult;
     }
     
+    /**
+     * Returns the future which is completed with this session once it is marked as completed.
+     *
+     * @return completion of this session
+     */
+    public CompletableFuture<CompareSession> getCompletion() {
+        return completion;
+    }
+
+    public boolean isCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Marks the session as completed and completes its {@link #getCompletion() future}.
+     * Only the first call has an effect.
+     */
     public void markAsCompleted() {
+        complete(compareResult, CompareSessionStatus.COMPLETED);
+    }
+
+    /**
+     * Sets the result and marks the session as completed, unless it is already completed or cancelled.
+     *
+     * @param result compare result
+     * @return {@code true} if the result is accepted
+     */
+    public boolean complete(CompareResult result) {
+        return complete(result, CompareSessionStatus.COMPLETED);
+    }
+
+    /**
+     * Cancels the session: completes it with {@link #createCancelledResult(ResultType)} and interrupts
+     * the thread which runs it, if any. Has no effect on a completed session.
+     *
+     * @param reason {@link ResultType#CANCELLED} or {@link ResultType#TIMEOUT}
+     * @return {@code true} if the session is cancelled by this call
+     */
+    public boolean cancel(ResultType reason) {
+        CompareSessionStatus cancelledStatus = reason == ResultType.TIMEOUT
+                ? CompareSessionStatus.TIMEOUT : CompareSessionStatus.CANCELLED;
+        if (!complete(createCancelledResult(reason), cancelledStatus)) {
+            return false;
+        }
+        synchronized (this) {
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the result of a cancelled session. Subclasses may override to fill type and data of the result.
+     *
+     * @param reason {@link ResultType#CANCELLED} or {@link ResultType#TIMEOUT}
+     * @return compare result
+     */
+    protected CompareResult createCancelledResult(ResultType reason) {
+        CompareResult result = new CompareResult();
+        result.setId(sessionId);
+        result.setSummaryResult(reason);
+        result.setSummaryMessage(new DiffMessage(0,
+                ResponseMessages.msg(reason == ResultType.TIMEOUT ? 20114 : 20113, sessionId), "", reason));
+        return result;
+    }
+
+    synchronized void attachRunner(Thread thread) {
+        this.runner = thread;
+    }
+
+    synchronized void detachRunner() {
+        this.runner = null;
+    }
+
+    private boolean complete(CompareResult result, CompareSessionStatus finalStatus) {
+        if (!completed.compareAndSet(false, true)) {
+            return false;
+        }
+        this.compareResult = result;
         setFinished(new Date());
-        this.parent.getCompletedSessions().add(sessionId);
+        setStatus(finalStatus);
+        if (this.parent != null) {
+            this.parent.sessionCompleted(this);
+        }
+        completion.complete(this);
+        return true;
     }
 
     public abstract void run() throws ComparatorException;
-        
-    
 }
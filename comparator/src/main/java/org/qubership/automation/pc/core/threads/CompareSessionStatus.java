@@ -28,8 +28,10 @@ package org.qubership.automation.pc.core.threads;
  *     <li>{@code AWAITING} – the session is waiting on external resources or dependencies</li>
  *     <li>{@code ON_HOLD} – the session has been paused or deferred</li>
  *     <li>{@code COMPLETED} – the session has finished processing</li>
+ *     <li>{@code CANCELLED} – the session was cancelled before it finished</li>
+ *     <li>{@code TIMEOUT} – the session did not finish before the deadline of its queue</li>
  * </ul>
  */
 public enum CompareSessionStatus {
-    ON_HOLD, NOT_STARTED, STARTED, IN_PROGRESS, AWAITING, COMPLETED
+    ON_HOLD, NOT_STARTED, STARTED, IN_PROGRESS, AWAITING, COMPLETED, CANCELLED, TIMEOUT
 }
@@ -20,10 +20,23 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+import org.qubership.automation.pc.compareresult.ResultType;
+import org.qubership.automation.pc.core.exceptions.CompareCancelledException;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
 import org.qubership.automation.pc.core.helpers.ThreadUtils;
+import org.qubership.automation.pc.core.jfr.CompareSessionEvent;
+import org.qubership.automation.pc.core.jfr.JfrEvents;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 /**
@@ -33,25 +46,43 @@ import org.slf4j.MDC;
  * This singleton class acts as a central coordinator for:
  * <ul>
  *     <li>Registering and tracking active comparison sessions</li>
- *     <li>Handling execution of sessions via named threads</li>
+ *     <li>Handling execution of sessions on a shared, bounded {@link ExecutorService}</li>
  *     <li>Managing {@link MultiThreadsQueue} objects and their associated semaphores</li>
  *     <li>Ensuring proper cleanup of sessions and resources upon completion</li>
  * </ul>
  *
  * <p>
- * Each session belongs to a queue and may be executed asynchronously in a separate thread.
+ * Each session belongs to a queue and is executed asynchronously on the shared executor.
+ * The executor is created once per manager and is a {@link ForkJoinPool} whose parallelism is taken from
+ * the {@value #POOL_SIZE_PROPERTY} system property (number of available processors by default).
+ * Another engine can be plugged in with {@link #setExecutor(ExecutorService)}.
+ * Queues can be cancelled by id ({@link #cancelQueue(String)}) or by timeout ({@link #scheduleTimeout}).
  * The manager ensures controlled access to queue resources using {@link Semaphore}.
  * </p>
  *
  * <p>
  * Use {@link #getInstance()} to access the singleton instance.
+ * Its active sessions, queues and sessions waiting in the queues are exported as gauges of
+ * {@link MetricsRegistry}; time sessions wait for a permit of their queue is recorded as well.
  * </p>
  */
 public class CompareSessionsManager {
 
+    public static final String POOL_SIZE_PROPERTY = "pc.compare.poolSize";
+    public static final String ACTIVE_SESSIONS_METRIC = "pc.compare.sessions.active";
+    public static final String QUEUES_METRIC = "pc.compare.queues";
+    public static final String QUEUE_DEPTH_METRIC = "pc.compare.queue.depth";
+    public static final String QUEUE_WAIT_METRIC = "pc.compare.queue.wait";
+    private static final String WORKER_THREAD_PREFIX = "pc-compare-worker-";
+    private static final String TIMER_THREAD_NAME = "pc-compare-timer";
+
+    private static final Logger log = LoggerFactory.getLogger(CompareSessionsManager.class);
+
     private ConcurrentHashMap<String, CompareSession> activeSessions;
     private ConcurrentHashMap<String, Semaphore> queueSemaphores;
     private ConcurrentHashMap<String, MultiThreadsQueue> queues;
+    private volatile ExecutorService executor;
+    private volatile ScheduledExecutorService timer;
 
     public CompareSessionsManager() {
         this.activeSessions = new ConcurrentHashMap<>();
@@ -61,6 +92,13 @@ public class CompareSessionsManager {
 
     private static final CompareSessionsManager instance = new CompareSessionsManager();
 
+    static {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge(ACTIVE_SESSIONS_METRIC, () -> instance.getActiveSessions().size());
+        metrics.gauge(QUEUES_METRIC, () -> instance.queues.size());
+        metrics.gauge(QUEUE_DEPTH_METRIC, instance::getPendingCount);
+    }
+
     public static CompareSessionsManager getInstance() {
         return instance;
     }
@@ -81,6 +119,59 @@ public class CompareSessionsManager {
         this.queueSemaphores = queueSemaphores;
     }
 
+    /**
+     * Returns the executor all sessions are run on, creating the default pool on first use.
+     *
+     * @return shared executor of this manager
+     */
+    public ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = createDefaultExecutor();
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Replaces the execution engine used for sessions.
+     * Sessions which are already submitted keep running on the previous executor;
+     * the previous executor is not shut down by this method.
+     *
+     * @param executor executor to run sessions on
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    private static ExecutorService createDefaultExecutor() {
+        int poolSize = getConfiguredPoolSize();
+        log.info("[CompareSessionsManager] creating compare pool, parallelism = {}", poolSize);
+        return new ForkJoinPool(poolSize, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(WORKER_THREAD_PREFIX + thread.getPoolIndex());
+            return thread;
+        }, null, true);
+    }
+
+    static int getConfiguredPoolSize() {
+        int defaultSize = Runtime.getRuntime().availableProcessors();
+        String configured = System.getProperty(POOL_SIZE_PROPERTY);
+        if (configured != null) {
+            try {
+                int poolSize = Integer.parseInt(configured.trim());
+                if (poolSize > 0) {
+                    return poolSize;
+                }
+            } catch (NumberFormatException ex) {
+                log.warn("[CompareSessionsManager] illegal value of {}: {}", POOL_SIZE_PROPERTY, configured);
+            }
+        }
+        return defaultSize;
+    }
+
     public void addSession(CompareSession session) {
         addSession(session, false);
     }
@@ -89,18 +180,23 @@ public class CompareSessionsManager {
         if (this.activeSessions == null) {
             this.activeSessions = new ConcurrentHashMap<>();
         }
-        this.activeSessions.put(session.getSessionId(), session);
+        this.activeSessions.put(session.getKey(), session);
 
         if (executeAfterAdd) {
-            runSession(session.getSessionId());
+            runSession(session);
         }
     }
 
     public void updateSession(String sessionId) {
     }
 
-    public void removeSession(String sessionId) {
-        activeSessions.remove(sessionId);
+    /**
+     * Removes the session from active sessions.
+     *
+     * @param sessionKey {@link CompareSession#getKey() key} of the session
+     */
+    public void removeSession(String sessionKey) {
+        activeSessions.remove(sessionKey);
     }
 
     public void removeSemaphore(String queueId) {
@@ -111,60 +207,194 @@ public class CompareSessionsManager {
         queues.remove(queueId);
     }
 
+    /**
+     * Releases the queue once its caller is done with it: the timeout is cancelled and the queue,
+     * its sessions and its semaphore are removed. If sessions of the queue are not completed
+     * (the caller quits abnormally), the queue is cancelled and removed once its sessions complete.
+     *
+     * @param queueId id of the queue
+     */
     public void releaseQueue(String queueId) {
-        MultiThreadsQueue queue = getQueue(queueId);
+        final MultiThreadsQueue queue = getQueue(queueId);
+        if (queue == null) {
+            return;
+        }
+        queue.cancelTimeout();
         if (queue.queueIsCompleted()) {
-            for (String sessionId : queue.getCompletedSessions()) {
-                removeSession(sessionId);
-            }
+            removeQueue(queue);
+        } else {
+            log.warn("[CompareSessionsManager] queue {} is released before its sessions are completed", queueId);
+            queue.cancel(ResultType.CANCELLED);
+            queue.getResults().whenComplete((results, ex) -> removeQueue(queue));
+        }
+    }
 
-            Semaphore semaphore = queue.getSemaphore();
-            if (!semaphore.isFair() && !semaphore.hasQueuedThreads()) {
-                removeSemaphore(queueId);
-            }
-            removeQueue(queueId);
+    private void removeQueue(MultiThreadsQueue queue) {
+        for (CompareSession session : queue.getQueueSessions()) {
+            removeSession(session.getKey());
+        }
+        Semaphore semaphore = queue.getSemaphore();
+        if (semaphore != null && !semaphore.hasQueuedThreads()) {
+            queueSemaphores.remove(queue.getId(), semaphore);
         }
+        // another queue may be registered with the same id since
+        queues.remove(queue.getId(), queue);
     }
 
-    public CompareSession getSession(String sessionId) {
-        return null;
-    }
-
-    public void runSession(String sessionId) {
-        if (activeSessions.containsKey(sessionId)) {
-            final CompareSession selectedSession = activeSessions.get(sessionId);
-            String sessionThreadName = ThreadUtils.getThreadName() + "%session:" + selectedSession.getSessionId();
-            Map<String, String> mdcMap = MDC.getCopyOfContextMap();
-            Thread sessionThread = new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    ThreadUtils.setMdcContextMap(mdcMap);
-                    try {
-                        queueSemaphores.get(selectedSession.getParent().getId()).acquire();
-                        selectedSession.run();
-                    } catch (InterruptedException | ComparatorException e) {
-                        //TODO: print out exception in log
-                    } finally {
-                        queueSemaphores.get(selectedSession.getParent().getId()).release();
-                    }
+    /**
+     * Returns the active session.
+     *
+     * @param sessionKey {@link CompareSession#getKey() key} of the session
+     * @return session or {@code null} if there is no such active session
+     */
+    public CompareSession getSession(String sessionKey) {
+        return activeSessions.get(sessionKey);
+    }
+
+    /**
+     * Cancels the queue: its unfinished sessions get {@link ResultType#CANCELLED} results
+     * and threads still working on them are interrupted.
+     *
+     * @param queueId id of the queue
+     * @return {@code false} if there is no such queue
+     */
+    public boolean cancelQueue(String queueId) {
+        return cancelQueue(queueId, ResultType.CANCELLED);
+    }
+
+    /**
+     * Cancels the queue with the given reason.
+     *
+     * @param queueId id of the queue
+     * @param reason  {@link ResultType#CANCELLED} or {@link ResultType#TIMEOUT}
+     * @return {@code false} if there is no such queue
+     */
+    public boolean cancelQueue(String queueId, ResultType reason) {
+        MultiThreadsQueue queue = getQueue(queueId);
+        if (queue == null) {
+            return false;
+        }
+        log.info("[CompareSessionsManager] queue {} is cancelled: {}", queueId, reason);
+        queue.cancel(reason);
+        return true;
+    }
+
+    /**
+     * Registers the queue without running it, so it can be found and cancelled by its id.
+     *
+     * @param queue queue to register
+     */
+    public void registerQueue(MultiThreadsQueue queue) {
+        queues.put(queue.getId(), queue);
+    }
+
+    /**
+     * Cancels the queue with {@link ResultType#TIMEOUT} once the timeout elapses,
+     * unless the queue is released before.
+     *
+     * @param queue         queue to watch
+     * @param timeoutMillis timeout in milliseconds
+     */
+    public void scheduleTimeout(final MultiThreadsQueue queue, long timeoutMillis) {
+        queue.setTimeout(getTimer().schedule(() -> queue.cancel(ResultType.TIMEOUT),
+                timeoutMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private ScheduledExecutorService getTimer() {
+        if (timer == null) {
+            synchronized (this) {
+                if (timer == null) {
+                    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                        Thread thread = new Thread(runnable, TIMER_THREAD_NAME);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler.setRemoveOnCancelPolicy(true);
+                    timer = scheduler;
                 }
-            }, sessionThreadName);
-            sessionThread.start();
+            }
         }
+        return timer;
     }
 
+    /**
+     * Runs the active session on the shared executor.
+     *
+     * @param sessionKey {@link CompareSession#getKey() key} of the session
+     */
+    public void runSession(String sessionKey) {
+        final CompareSession selectedSession = activeSessions.get(sessionKey);
+        if (selectedSession != null) {
+            runSession(selectedSession);
+        }
+    }
+
+    /**
+     * Runs the session on the shared executor. When the session is over, its queue, if any,
+     * is notified to free the slot of the session.
+     *
+     * @param selectedSession session to run
+     */
+    public void runSession(final CompareSession selectedSession) {
+        final String sessionThreadName = ThreadUtils.getThreadName() + "%session:" + selectedSession.getSessionId();
+        final Map<String, String> mdcMap = MDC.getCopyOfContextMap();
+        getExecutor().execute(() -> {
+            ThreadUtils.setMdcContextMap(mdcMap);
+            ThreadUtils.setThreadName(sessionThreadName);
+            MultiThreadsQueue parent = selectedSession.getParent();
+            selectedSession.attachRunner(Thread.currentThread());
+            CompareSessionEvent event = null;
+            try {
+                if (!selectedSession.isCompleted()) {
+                    event = JfrEvents.ENABLED ? new CompareSessionEvent() : null;
+                    selectedSession.run();
+                }
+            } catch (CompareCancelledException e) {
+                log.debug("[CompareSessionsManager] session {} is interrupted", selectedSession.getSessionId());
+            } catch (ComparatorException | RuntimeException e) {
+                log.error("[CompareSessionsManager] session {} failed", selectedSession.getSessionId(), e);
+            } finally {
+                if (event != null) {
+                    event.finish(selectedSession.getSessionId(), parent == null ? null : parent.getId(),
+                            selectedSession.getEstimatedCost(), selectedSession.getCompareResult());
+                }
+                selectedSession.detachRunner();
+                // the worker is reused, so the interruption of a cancelled session must not leak to the next task
+                Thread.interrupted();
+                // a failed session must not leave its waiters blocked
+                selectedSession.markAsCompleted();
+                ThreadUtils.returnToOriginalThreadName();
+                MDC.clear();
+                if (parent != null) {
+                    parent.sessionFinished();
+                }
+            }
+        });
+    }
+
+    /**
+     * Registers the queue and dispatches its sessions to the shared executor.
+     * The call does not block: no more than {@link MultiThreadsQueue#getSize()} sessions of the queue
+     * are submitted at once, the rest are submitted as running sessions finish.
+     *
+     * @param queue queue to run
+     */
     public void runQueue(final MultiThreadsQueue queue) {
         queues.put(queue.getId(), queue);
-        String queueThreadName = ThreadUtils.getThreadName() + "%queue:" + queue.getId();
-        Map<String, String> mdcMap = MDC.getCopyOfContextMap();
-        Thread queueThread = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                ThreadUtils.setMdcContextMap(mdcMap);
-                queue.run();
-            }
-        }, queueThreadName);
-        queueThread.start();
+        queue.run();
+    }
+
+    /**
+     * Returns the number of sessions of all queues waiting to be dispatched.
+     *
+     * @return number of sessions not dispatched yet
+     */
+    public int getPendingCount() {
+        int pending = 0;
+        for (MultiThreadsQueue queue : queues.values()) {
+            pending += queue.getPendingCount();
+        }
+        return pending;
     }
 
     public MultiThreadsQueue getQueue(String queueId) {
@@ -18,12 +18,25 @@ package org.qubership.automation.pc.core.threads;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.compareresult.ResultType;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
 
 /**
  * Represents a queue of {@link CompareSession} instances that are executed concurrently.
@@ -31,11 +44,21 @@ import java.util.concurrent.Semaphore;
  * <p>
  * This class provides management of session execution using a fixed-size semaphore to control concurrency.
  * Sessions are tracked for completion status and can be added individually or in bulk.
- * It also integrates with {@code CompareSessionsManager} to manage execution threads.
+ * It also integrates with {@code CompareSessionsManager}, which runs the sessions on its shared executor.
+ * </p>
+ *
+ * <p>
+ * Implements {@link Runnable}; {@link #run()} does not block: it submits the first {@link #getSize()} sessions
+ * and every finished session submits the next pending one.
+ * Sessions are started in descending order of {@link CompareSession#getEstimatedCost()} (sessions of equal cost
+ * keep the order they were added in), so one huge session does not start last and dominate the tail latency.
+ * Use {@link #getResults()} or {@link #awaitResults()} to wait for the whole queue.
  * </p>
  *
  * <p>
- * Implements {@link Runnable} to allow execution in a separate thread.
+ * The queue can be {@link #cancel(ResultType) cancelled}: sessions which are not completed yet are completed
+ * with a cancelled result, running ones and threads attached with {@link #attachInlineRunner(Thread)}
+ * are interrupted.
  * </p>
  */
 public class MultiThreadsQueue implements Runnable {
@@ -44,9 +67,15 @@ public class MultiThreadsQueue implements Runnable {
 
     protected List<CompareSession> queueSessions = new ArrayList<>();
     protected ConcurrentHashMap<String, CompareSession> sessions = new ConcurrentHashMap<>();
-    protected List<String> completedSessions = new CopyOnWriteArrayList<>();
+    protected List<String> completedSessions = Collections.synchronizedList(new ArrayList<>());
     private Semaphore semaphore;
     protected int queueSize = 0;
+    private final AtomicInteger nextSessionIndex = new AtomicInteger();
+    private List<CompareSession> dispatchOrder;
+    private volatile ResultType cancelReason;
+    private final Set<Thread> inlineRunners = ConcurrentHashMap.newKeySet();
+    private volatile ScheduledFuture<?> timeout;
+    private long startNanos;
     public CountDownLatch cdl;
 
     public String getId() {
@@ -112,9 +141,77 @@ public class MultiThreadsQueue implements Runnable {
     }
     
     public boolean queueIsCompleted() {
+        if (cdl != null) {
+            return cdl.getCount() == 0;
+        }
         return completedSessions.size() == queueSessions.size();
     }
-    
+
+    /**
+     * Returns a future which is completed when every session of the queue is completed.
+     * Results are listed in the order the sessions were added to the queue.
+     *
+     * @return future of the queue results
+     */
+    public CompletableFuture<List<CompareResult>> getResults() {
+        final List<CompletableFuture<CompareSession>> completions = new ArrayList<>(queueSessions.size());
+        for (CompareSession session : queueSessions) {
+            completions.add(session.getCompletion());
+        }
+        return CompletableFuture.allOf(completions.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<CompareResult> results = new ArrayList<>(completions.size());
+            for (CompletableFuture<CompareSession> completion : completions) {
+                results.add(completion.join().getCompareResult());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Blocks the caller until every session of the queue is completed.
+     *
+     * @return results in the order the sessions were added to the queue
+     * @throws InterruptedException if the caller is interrupted while waiting
+     */
+    public List<CompareResult> awaitResults() throws InterruptedException {
+        try {
+            return getResults().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Hands results to the consumer in the order the sessions complete, on the calling thread.
+     * The session drops its reference to a result once it has been consumed,
+     * so only results which are not consumed yet are kept in memory.
+     *
+     * @param consumer consumer of the results
+     * @throws InterruptedException if the caller is interrupted while waiting
+     */
+    public void awaitResults(Consumer<CompareResult> consumer) throws InterruptedException {
+        awaitSessions(session -> consumer.accept(session.getCompareResult()));
+    }
+
+    /**
+     * Hands completed sessions to the consumer in the order they complete, on the calling thread.
+     * The result of the session is dropped once the consumer returns.
+     *
+     * @param consumer consumer of the sessions
+     * @throws InterruptedException if the caller is interrupted while waiting
+     */
+    public void awaitSessions(Consumer<CompareSession> consumer) throws InterruptedException {
+        final BlockingQueue<CompareSession> completed = new LinkedBlockingQueue<>();
+        for (CompareSession session : queueSessions) {
+            session.getCompletion().thenAccept(completed::add);
+        }
+        for (int i = 0; i < queueSessions.size(); i++) {
+            CompareSession session = completed.take();
+            consumer.accept(session);
+            session.setCompareResult(null);
+        }
+    }
+
     public Semaphore getSemaphore() {
         return semaphore;
     }
@@ -128,17 +225,118 @@ public class MultiThreadsQueue implements Runnable {
         if (queueSize > 0) {
             semaphore = new Semaphore(queueSize, true);
             cdl = new CountDownLatch(queueSessions.size());
-            CompareSessionsManager.getInstance().getQueueSemaphores().put(this.id,semaphore);
+            CompareSessionsManager.getInstance().getQueueSemaphores().put(this.id, semaphore);
             for (CompareSession session : queueSessions) {
-                CompareSessionsManager.getInstance().addSession(session, true);
-            }
-            try {
-                cdl.await();
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+                CompareSessionsManager.getInstance().addSession(session, false);
             }
+            startNanos = System.nanoTime();
+            dispatchOrder = new ArrayList<>(queueSessions);
+            dispatchOrder.sort(Comparator.comparingLong(CompareSession::getEstimatedCost).reversed());
+            dispatchPendingSessions();
         }
     }
 
-    
+    /**
+     * Cancels the queue. Only the first call has an effect.
+     *
+     * @param reason {@link ResultType#CANCELLED} or {@link ResultType#TIMEOUT}
+     */
+    public synchronized void cancel(ResultType reason) {
+        if (cancelReason != null) {
+            return;
+        }
+        cancelReason = reason;
+        for (CompareSession session : queueSessions) {
+            session.cancel(reason);
+        }
+        for (Thread inlineRunner : inlineRunners) {
+            inlineRunner.interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of sessions waiting for a permit of the queue semaphore to be dispatched.
+     *
+     * @return number of sessions not dispatched yet
+     */
+    public int getPendingCount() {
+        List<CompareSession> order = dispatchOrder;
+        return order == null ? 0 : Math.max(0, order.size() - nextSessionIndex.get());
+    }
+
+    public boolean isCancelled() {
+        return cancelReason != null;
+    }
+
+    /**
+     * Returns the reason the queue is cancelled with.
+     *
+     * @return {@link ResultType#CANCELLED}, {@link ResultType#TIMEOUT} or {@code null} if the queue is not cancelled
+     */
+    public ResultType getCancelReason() {
+        return cancelReason;
+    }
+
+    /**
+     * Registers a thread which does the queue work outside of sessions, so it is interrupted on cancellation.
+     *
+     * @param thread thread to register
+     * @return {@code false} if the queue is already cancelled
+     */
+    public synchronized boolean attachInlineRunner(Thread thread) {
+        if (cancelReason != null) {
+            return false;
+        }
+        inlineRunners.add(thread);
+        return true;
+    }
+
+    public synchronized void detachInlineRunner(Thread thread) {
+        inlineRunners.remove(thread);
+    }
+
+    void setTimeout(ScheduledFuture<?> timeout) {
+        this.timeout = timeout;
+    }
+
+    void cancelTimeout() {
+        ScheduledFuture<?> scheduledTimeout = this.timeout;
+        if (scheduledTimeout != null) {
+            scheduledTimeout.cancel(false);
+        }
+    }
+
+    void sessionCompleted(CompareSession session) {
+        completedSessions.add(session.getSessionId());
+        if (cdl != null) {
+            cdl.countDown();
+        }
+    }
+
+    /**
+     * Called by {@link CompareSessionsManager} when a session of this queue has finished (successfully or not).
+     * Frees its slot and submits the next pending session, if any.
+     */
+    void sessionFinished() {
+        semaphore.release();
+        dispatchPendingSessions();
+    }
+
+    private void dispatchPendingSessions() {
+        while (semaphore.tryAcquire()) {
+            int index = nextSessionIndex.getAndIncrement();
+            if (index >= dispatchOrder.size()) {
+                semaphore.release();
+                return;
+            }
+            CompareSession session = dispatchOrder.get(index);
+            if (session.isCompleted()) {
+                // cancelled before it was started
+                semaphore.release();
+                continue;
+            }
+            MetricsRegistry.getInstance().timer(CompareSessionsManager.QUEUE_WAIT_METRIC).recordSince(startNanos);
+            CompareSessionsManager.getInstance().runSession(session);
+        }
+    }
 }
@@ -30,6 +30,8 @@ import java.util.Stack;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.qubership.automation.pc.core.helpers.ThreadUtils;
+
 /*
  * Functions for diff, match and patch.
  * Computes the difference between two texts to create a patch.
@@ -388,6 +390,7 @@ public class DiffMatchPatch {
             if (System.currentTimeMillis() > deadline) {
                 break;
             }
+            ThreadUtils.checkInterrupted();
 
             // Walk the front path one step.
             for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
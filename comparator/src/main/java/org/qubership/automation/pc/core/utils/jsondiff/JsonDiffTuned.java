@@ -37,6 +37,7 @@ import java.util.stream.StreamSupport;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.qubership.automation.pc.core.helpers.JSONUtils;
+import org.qubership.automation.pc.core.helpers.ThreadUtils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -239,6 +240,7 @@ public final class JsonDiffTuned {
     }
 
     private void generateDiffs(List<Diff> diffs, List<Object> path, JsonNode source, JsonNode target) {
+        ThreadUtils.checkInterrupted();
         final NodeType sourceType = NodeType.getNodeType(source);
         final NodeType targetType = NodeType.getNodeType(target);
         boolean isRequiredRegexpCheck = false;
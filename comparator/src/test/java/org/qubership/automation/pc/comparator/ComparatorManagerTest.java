@@ -0,0 +1,308 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.comparator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.compareresult.ResultType;
+import org.qubership.automation.pc.configuration.ComparatorConfiguration;
+import org.qubership.automation.pc.core.enums.DataContentType;
+import org.qubership.automation.pc.core.enums.DataType;
+import org.qubership.automation.pc.core.exceptions.ComparatorManagerException;
+import org.qubership.automation.pc.core.exceptions.CompareCancelledException;
+import org.qubership.automation.pc.core.threads.CompareSessionsManager;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.DataPackage;
+
+public class ComparatorManagerTest {
+
+    // large enough for packages of a batch to be compared in parallel
+    private static final int PARALLEL_CONTENT_LENGTH = 100 * 1024;
+
+    @Test
+    public void compare_handsOverResultsOfDuplicates_atTheirOwnPositions() throws Exception {
+        assertDuplicatesAtTheirOwnPositions(1);
+    }
+
+    @Test
+    public void compare_handsOverResultsOfDuplicates_atTheirOwnPositions_whenComparedInParallel()
+            throws Exception {
+        assertDuplicatesAtTheirOwnPositions(PARALLEL_CONTENT_LENGTH);
+    }
+
+    @Test
+    public void compare_streamsResultOfEveryDuplicate() throws Exception {
+        List<DataPackage> dataPackages = Arrays.asList(
+                simplePackage("first", repeat("a", PARALLEL_CONTENT_LENGTH), repeat("a", PARALLEL_CONTENT_LENGTH)),
+                simplePackage("second", repeat("a", PARALLEL_CONTENT_LENGTH), repeat("a", PARALLEL_CONTENT_LENGTH)),
+                simplePackage("third", repeat("b", PARALLEL_CONTENT_LENGTH), repeat("c", PARALLEL_CONTENT_LENGTH)));
+        List<String> ids = new ArrayList<>();
+
+        new ComparatorManager().compare(dataPackages, new ComparatorConfiguration(),
+                result -> ids.add(result.getId()));
+
+        ids.sort(null);
+        Assertions.assertEquals(Arrays.asList("first", "second", "third"), ids);
+    }
+
+    @Test
+    public void compare_timesOutPackages_whichAreNotComparedInTime() throws Exception {
+        ComparatorConfiguration configuration = new ComparatorConfiguration();
+        configuration.getGlobal().getParameters().put(ComparatorManager.COMPARE_TIMEOUT_NAME, "50");
+
+        List<CompareResult> results = compareWhileWorkersAreBusy(parallelPackages(), configuration, null);
+
+        assertResults(results, ResultType.TIMEOUT);
+    }
+
+    @Test
+    public void compare_cancelsPackages_whenQueueIsCancelled() throws Exception {
+        final String queueId = "cancelled-" + System.nanoTime();
+        ComparatorConfiguration configuration = new ComparatorConfiguration();
+        configuration.getGlobal().getParameters().put(ComparatorManager.COMPARE_QUEUE_ID_NAME, queueId);
+
+        List<CompareResult> results = compareWhileWorkersAreBusy(parallelPackages(), configuration, () -> {
+            while (!CompareSessionsManager.getInstance().cancelQueue(queueId)) {
+                Thread.yield();
+            }
+        });
+
+        assertResults(results, ResultType.CANCELLED);
+        Assertions.assertNull(CompareSessionsManager.getInstance().getQueue(queueId));
+    }
+
+    @Test
+    public void compare_failsWithStatusCode_whenTimeoutIsNotNumber() {
+        ComparatorConfiguration configuration = new ComparatorConfiguration();
+        configuration.getGlobal().getParameters().put(ComparatorManager.COMPARE_TIMEOUT_NAME, "soon");
+
+        ComparatorManagerException ex = Assertions.assertThrows(ComparatorManagerException.class,
+                () -> new ComparatorManager().compare(
+                        Collections.singletonList(simplePackage("value", "a", "a")), configuration));
+        Assertions.assertEquals(20120, ex.getStatusCode());
+    }
+
+    @Test
+    public void processCompare_buildsSameResult_whenParametersAreComparedInParallel() {
+        Data er = process("er", null, "a", "b", "c");
+        List<Data> ar = Arrays.asList(
+                process("identical", null, "a", "b", "c"),
+                process("different", null, "a", "x", "c"),
+                process("missed", null, "a", "b"));
+
+        CompareResult serial = new ComparatorManager().processCompare(er, ar, processConfiguration(false));
+        CompareResult parallel = new ComparatorManager().processCompare(er, ar, processConfiguration(true));
+
+        Assertions.assertEquals(describe(serial), describe(parallel));
+        Assertions.assertEquals(Arrays.asList(ResultType.IDENTICAL, ResultType.MODIFIED, ResultType.MISSED),
+                Arrays.asList(parallel.getChilds().get(0).getSummaryResult(),
+                        parallel.getChilds().get(1).getSummaryResult(),
+                        parallel.getChilds().get(2).getSummaryResult()));
+    }
+
+    @Test
+    public void processCompare_skipsParameterComparisons_whenCancelled() throws Exception {
+        final AtomicInteger compared = new AtomicInteger();
+        final Data er = process("er", null, "a", "b");
+        final List<Data> ar = Collections.singletonList(process("ar", compared, "a", "b"));
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        whileWorkersAreBusy(() -> {
+            Thread compareThread = new Thread(() -> {
+                try {
+                    new ComparatorManager().processCompare(er, ar, processConfiguration(true));
+                } catch (CompareCancelledException ex) {
+                    cancelled.set(true);
+                }
+            });
+            compareThread.start();
+            // the thread waits for parameter tasks which cannot start while the workers are busy
+            while (compareThread.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+            compareThread.interrupt();
+            compareThread.join();
+            return null;
+        });
+
+        Assertions.assertTrue(cancelled.get());
+        Assertions.assertEquals(0, compared.get());
+    }
+
+    /**
+     * Compares the packages while the shared executor is busy, so sessions of the request are not started
+     * until they are cancelled or timed out; the canceller, if any, runs in parallel with the comparison.
+     */
+    private static List<CompareResult> compareWhileWorkersAreBusy(List<DataPackage> dataPackages,
+                                                                  ComparatorConfiguration configuration,
+                                                                  Runnable canceller) throws Exception {
+        return whileWorkersAreBusy(() -> {
+            if (canceller != null) {
+                new Thread(canceller).start();
+            }
+            return new ComparatorManager().compare(dataPackages, configuration);
+        });
+    }
+
+    /**
+     * Calls the action while the only worker of the shared executor is busy; tasks submitted by the action
+     * are run (or skipped) by the time this method returns.
+     */
+    private static <T> T whileWorkersAreBusy(Callable<T> action) throws Exception {
+        CompareSessionsManager manager = CompareSessionsManager.getInstance();
+        ExecutorService previous = manager.getExecutor();
+        final CountDownLatch busy = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        manager.setExecutor(executor);
+        try {
+            return action.call();
+        } finally {
+            manager.setExecutor(previous);
+            busy.countDown();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static ComparatorConfiguration processConfiguration(boolean parallel) {
+        ComparatorConfiguration configuration = new ComparatorConfiguration();
+        configuration.getGlobal().getParameters()
+                .put(ComparatorManager.PARALLEL_PROCESS_COMPARE_NAME, String.valueOf(parallel));
+        return configuration;
+    }
+
+    /**
+     * Builds a process of two steps; parameter {@code i} of a step has value {@code values[i]}
+     * followed by the step number. Decodings of parameter content are counted, if the counter is set.
+     */
+    private static Data process(String externalId, final AtomicInteger decodings, String... values) {
+        Data process = new Data(externalId, DataType.PROCESS, externalId, new Date());
+        process.setChilds(new ArrayList<>());
+        for (int stepIndex = 1; stepIndex <= 2; stepIndex++) {
+            Data step = new Data("step-" + stepIndex, DataType.PROCESS_STEP, String.valueOf(stepIndex), new Date());
+            step.setChilds(new ArrayList<>());
+            for (int paramIndex = 0; paramIndex < values.length; paramIndex++) {
+                Data parameter = decodings == null ? new Data() : new Data() {
+                    @Override
+                    public String getDecodedContent() {
+                        decodings.incrementAndGet();
+                        return super.getDecodedContent();
+                    }
+                };
+                parameter.setName("param-" + paramIndex);
+                parameter.setDataType(DataType.SIMPLE);
+                parameter.setContentType(DataContentType.PRIMITIVES);
+                parameter.setContent(DataContentConverter.fromString(values[paramIndex] + stepIndex));
+                step.getChilds().add(parameter);
+            }
+            process.getChilds().add(step);
+        }
+        return process;
+    }
+
+    private static String describe(CompareResult result) {
+        StringBuilder description = new StringBuilder()
+                .append(result.getType()).append(':').append(result.getSummaryResult());
+        if (result.getChilds() != null) {
+            description.append('[');
+            for (CompareResult child : result.getChilds()) {
+                description.append(describe(child)).append(';');
+            }
+            description.append(']');
+        }
+        return description.toString();
+    }
+
+    private static List<DataPackage> parallelPackages() {
+        return Arrays.asList(
+                simplePackage("first", repeat("a", PARALLEL_CONTENT_LENGTH), repeat("b", PARALLEL_CONTENT_LENGTH)),
+                simplePackage("second", repeat("c", PARALLEL_CONTENT_LENGTH), repeat("d", PARALLEL_CONTENT_LENGTH)));
+    }
+
+    private static void assertResults(List<CompareResult> results, ResultType summaryResult) {
+        Assertions.assertEquals(Arrays.asList("first", "second"),
+                Arrays.asList(results.get(0).getId(), results.get(1).getId()));
+        for (CompareResult result : results) {
+            Assertions.assertEquals(summaryResult, result.getSummaryResult());
+        }
+    }
+
+    private static void assertDuplicatesAtTheirOwnPositions(int contentLength) throws Exception {
+        String same = repeat("a", contentLength);
+        List<DataPackage> dataPackages = Arrays.asList(
+                simplePackage("first", same, same),
+                simplePackage("changed", repeat("b", contentLength), repeat("c", contentLength)),
+                simplePackage("duplicate", same, same));
+
+        List<CompareResult> results = new ComparatorManager().compare(dataPackages, new ComparatorConfiguration());
+
+        Assertions.assertEquals(3, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            DataPackage dataPackage = dataPackages.get(i);
+            Assertions.assertEquals(dataPackage.getEr().getExternalId(), results.get(i).getId());
+            Assertions.assertSame(dataPackage.getEr(), results.get(i).getData());
+            Assertions.assertSame(dataPackage.getAr().get(0), results.get(i).getAr().get(0).getAr());
+        }
+        Assertions.assertEquals(results.get(0).getSummaryResult(), results.get(2).getSummaryResult());
+        Assertions.assertNotEquals(results.get(0).getSummaryResult(), results.get(1).getSummaryResult());
+    }
+
+    private static DataPackage simplePackage(String id, String er, String ar) {
+        DataPackage dataPackage = new DataPackage();
+        dataPackage.setEr(simpleData(id, er));
+        dataPackage.getAr().add(simpleData(id + "-ar", ar));
+        return dataPackage;
+    }
+
+    private static Data simpleData(String id, String content) {
+        Data data = new Data("value", DataType.SIMPLE, id, new Date());
+        data.setContentType(DataContentType.PRIMITIVES);
+        data.setContent(DataContentConverter.fromString(content));
+        return data;
+    }
+
+    private static String repeat(String value, int count) {
+        StringBuilder builder = new StringBuilder(value.length() * count);
+        for (int i = 0; i < count; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.comparator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.comparator.impl.XmlComparator;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+import org.qubership.automation.pc.core.enums.DataContentType;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataPackage;
+
+public class CompareCostEstimatorTest {
+
+    @Test
+    public void estimate_structuredContentIsMoreExpensiveThanPrimitives() {
+        long primitives = CompareCostEstimator.estimate(dataPackage(DataContentType.PRIMITIVES, 1000), null);
+        long xml = CompareCostEstimator.estimate(dataPackage(DataContentType.XML, 1000), null);
+
+        Assertions.assertTrue(xml > primitives);
+    }
+
+    @Test
+    public void estimate_sortRuleIncreasesCost() {
+        DataPackage dataPackage = dataPackage(DataContentType.XML, 1000);
+        Parameters parameters = new Parameters();
+        parameters.put(XmlComparator.PARAMETER_NAME_SORTBY, "/root/item");
+
+        Assertions.assertTrue(CompareCostEstimator.estimate(dataPackage, parameters)
+                > CompareCostEstimator.estimate(dataPackage, new Parameters()));
+    }
+
+    @Test
+    public void estimate_emptyPackageCostsBaseCost() {
+        Assertions.assertEquals(CompareCostEstimator.BASE_PACKAGE_COST,
+                CompareCostEstimator.estimate(dataPackage(DataContentType.JSON, 0), null));
+    }
+
+    @Test
+    public void estimateMemory_countsContentOfProcessChildren() {
+        DataPackage simple = dataPackage(DataContentType.XML, 1000);
+        DataPackage process = new DataPackage();
+        process.setEr(process(simple.getEr()));
+        process.getAr().add(process(simple.getAr().get(0)));
+
+        Assertions.assertEquals(CompareCostEstimator.estimateMemory(simple),
+                CompareCostEstimator.estimateMemory(process));
+    }
+
+    private static Data process(Data parameter) {
+        Data step = new Data();
+        step.getChilds().add(parameter);
+        Data testCase = new Data();
+        testCase.getChilds().add(step);
+        return testCase;
+    }
+
+    private static DataPackage dataPackage(DataContentType contentType, int contentLength) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < contentLength; i++) {
+            content.append('a');
+        }
+        Data er = new Data();
+        er.setContentType(contentType);
+        er.setContent(content.toString());
+        Data ar = new Data();
+        ar.setContentType(contentType);
+        ar.setContent(content.toString());
+        DataPackage dataPackage = new DataPackage();
+        dataPackage.setEr(er);
+        dataPackage.getAr().add(ar);
+        return dataPackage;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.comparator;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+import org.qubership.automation.pc.core.enums.DataContentType;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+
+public class CompareFingerprintTest {
+
+    @Test
+    public void of_isEqual_forEqualContentWithDifferentIds() {
+        Assertions.assertEquals(
+                CompareFingerprint.of(data("er-1", "<a/>"), Collections.singletonList(data("ar-1", "<b/>")), null),
+                CompareFingerprint.of(data("er-2", "<a/>"), Collections.singletonList(data("ar-2", "<b/>")), null));
+    }
+
+    @Test
+    public void of_differs_whenContentOrParametersDiffer() {
+        Parameters parameters = new Parameters();
+        parameters.put("ignoreNamespaces", "true");
+        String fingerprint = CompareFingerprint.of(data("er", "<a/>"),
+                Collections.singletonList(data("ar", "<b/>")), null);
+
+        Assertions.assertNotEquals(fingerprint, CompareFingerprint.of(data("er", "<a/>"),
+                Collections.singletonList(data("ar", "<c/>")), null));
+        Assertions.assertNotEquals(fingerprint, CompareFingerprint.of(data("er", "<a/>"),
+                Collections.singletonList(data("ar", "<b/>")), parameters));
+        Assertions.assertNotEquals(fingerprint, CompareFingerprint.of(data("er", "<a/><b/>"),
+                Collections.singletonList(data("ar", "")), null));
+    }
+
+    @Test
+    public void of_isEqual_forContentSetDecoded() {
+        Data decoded = data("er", "");
+        decoded.setDecodedContent("<a/>");
+
+        Assertions.assertEquals(CompareFingerprint.of(data("er", "<a/>"), Collections.emptyList(), null),
+                CompareFingerprint.of(decoded, Collections.emptyList(), null));
+    }
+
+    @Test
+    public void of_isEqual_forParametersGivenInDifferentOrder() {
+        Parameters first = new Parameters();
+        first.put("ignoreNamespaces", "true");
+        first.put("SortBy", "a");
+        first.put("SortBy", "b");
+        Parameters second = new Parameters();
+        second.put("SortBy", "a");
+        second.put("SortBy", "b");
+        second.put("ignoreNamespaces", "true");
+        Parameters reordered = new Parameters();
+        reordered.put("SortBy", "b");
+        reordered.put("SortBy", "a");
+        reordered.put("ignoreNamespaces", "true");
+
+        String fingerprint = CompareFingerprint.of(data("er", "<a/>"), Collections.emptyList(), first);
+        Assertions.assertEquals(fingerprint,
+                CompareFingerprint.of(data("er", "<a/>"), Collections.emptyList(), second));
+        Assertions.assertNotEquals(fingerprint,
+                CompareFingerprint.of(data("er", "<a/>"), Collections.emptyList(), reordered));
+    }
+
+    private static Data data(String externalId, String content) {
+        Data data = new Data();
+        data.setExternalId(externalId);
+        data.setContentType(DataContentType.XML);
+        data.setContent(DataContentConverter.fromString(content));
+        return data;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.comparator.api;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.compareresult.ResultType;
+import org.qubership.automation.pc.core.enums.DataContentType;
+import org.qubership.automation.pc.core.enums.DataType;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataContentConverter;
+import org.qubership.automation.pc.data.DataPackage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+public class ComparatorResourceTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void compare_writesResultOfEveryPackage_asLineOfNdjson() throws IOException {
+        List<DataPackage> dataPackages = Arrays.asList(
+                simplePackage("first", "a", "a"),
+                simplePackage("second", "b", "c"));
+        JsonObject request = new JsonObject();
+        request.add("dataPackages", gson.toJsonTree(dataPackages));
+
+        List<String> lines = compare(request.toString());
+
+        Assertions.assertEquals(2, lines.size());
+        List<String> ids = new ArrayList<>();
+        for (String line : lines) {
+            CompareResult result = gson.fromJson(line, CompareResult.class);
+            ids.add(result.getId());
+            Assertions.assertEquals("first".equals(result.getId()) ? ResultType.IDENTICAL : ResultType.MODIFIED,
+                    result.getSummaryResult());
+        }
+        ids.sort(null);
+        Assertions.assertEquals(Arrays.asList("first", "second"), ids);
+    }
+
+    @Test
+    public void compare_writesErrorLine_whenThereAreNoDataPackages() throws IOException {
+        List<String> lines = compare("{\"dataPackages\":[]}");
+
+        Assertions.assertEquals(1, lines.size());
+        Assertions.assertEquals(20101, gson.fromJson(lines.get(0), JsonObject.class).get("statusCode").getAsInt());
+    }
+
+    @Test
+    public void compare_writesErrorLine_whenRequestIsNotJsonObject() throws IOException {
+        List<String> lines = compare("[]");
+
+        Assertions.assertEquals(1, lines.size());
+        Assertions.assertEquals(20102, gson.fromJson(lines.get(0), JsonObject.class).get("statusCode").getAsInt());
+    }
+
+    /**
+     * Compares the request with the streaming variant and returns lines of the response,
+     * checking that each line is terminated.
+     */
+    private static List<String> compare(String request) throws IOException {
+        StringWriter response = new StringWriter();
+        new ComparatorResource().compare(new StringReader(request), response);
+        String body = response.toString();
+        Assertions.assertTrue(body.endsWith("\n"));
+        return Arrays.asList(body.substring(0, body.length() - 1).split("\n"));
+    }
+
+    private static DataPackage simplePackage(String id, String er, String ar) {
+        DataPackage dataPackage = new DataPackage();
+        dataPackage.setEr(simpleData(id, er));
+        dataPackage.getAr().add(simpleData(id + "-ar", ar));
+        return dataPackage;
+    }
+
+    private static Data simpleData(String id, String content) {
+        Data data = new Data("value", DataType.SIMPLE, id, new Date());
+        data.setContentType(DataContentType.PRIMITIVES);
+        data.setContent(DataContentConverter.fromString(content));
+        return data;
+    }
+}
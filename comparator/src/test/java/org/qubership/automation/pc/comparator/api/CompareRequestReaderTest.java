@@ -0,0 +1,64 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.comparator.api;
+
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.data.DataContentConverter;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+public class CompareRequestReaderTest {
+
+    @Test
+    public void read_buildsConfigurationAndDataPackages_skippingOtherProperties() {
+        String er = DataContentConverter.fromString("<a/>");
+        CompareRequestReader reader = new CompareRequestReader(new Gson()).read(new StringReader("{"
+                + "\"dataPackages\":[{\"er\":{\"name\":\"er\",\"content\":\"" + er + "\"},"
+                + "\"ar\":[{\"name\":\"ar\"}]},null],"
+                + "\"unknown\":{\"nested\":[1,2]},"
+                + "\"comparatorConfiguration\":{}}"));
+
+        Assertions.assertNotNull(reader.getConfiguration());
+        Assertions.assertEquals(1, reader.getDataPackages().size());
+        Assertions.assertEquals("er", reader.getDataPackages().get(0).getEr().getName());
+        Assertions.assertEquals("<a/>", reader.getDataPackages().get(0).getEr().getDecodedContent());
+        Assertions.assertEquals("ar", reader.getDataPackages().get(0).getAr().get(0).getName());
+    }
+
+    @Test
+    public void read_leavesConfigurationNull_whenRequestHasNone() {
+        CompareRequestReader reader = new CompareRequestReader(new Gson()).read(new StringReader("{}"));
+
+        Assertions.assertNull(reader.getConfiguration());
+        Assertions.assertTrue(reader.getDataPackages().isEmpty());
+    }
+
+    @Test
+    public void read_throwsJsonSyntaxException_whenRequestIsNotObject() {
+        Assertions.assertThrows(JsonSyntaxException.class,
+                () -> new CompareRequestReader(new Gson()).read(new StringReader("[]")));
+        Assertions.assertThrows(JsonSyntaxException.class,
+                () -> new CompareRequestReader(new Gson()).read(new StringReader("")));
+        Assertions.assertThrows(JsonSyntaxException.class,
+                () -> new CompareRequestReader(new Gson()).read(new StringReader("{\"dataPackages\":{}}")));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.comparator.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.compareresult.DiffMessage;
+import org.qubership.automation.pc.compareresult.ResultData;
+import org.qubership.automation.pc.compareresult.ResultType;
+import org.qubership.automation.pc.data.Data;
+
+public class CompareResultCacheTest {
+
+    @Test
+    public void put_storesResultWithoutData_andCountsHitsAndMisses() {
+        CompareResultCache cache = new CompareResultCache(new MemoryCompareResultStore(1024 * 1024));
+        Assertions.assertNull(cache.get("key"));
+
+        cache.put("key", result("expected"));
+        CompareResult cached = cache.get("key");
+
+        Assertions.assertNotNull(cached);
+        Assertions.assertNull(cached.getData());
+        Assertions.assertNull(cached.getAr().get(0).getAr());
+        Assertions.assertEquals(ResultType.MODIFIED, cached.getSummaryResult());
+        Assertions.assertEquals("expected", cached.getAr().get(0).getDifferences().get(0).getExpected());
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+
+        cache.invalidateAll();
+        Assertions.assertNull(cache.get("key"));
+        Assertions.assertEquals(0, cache.getSizeBytes());
+    }
+
+    @Test
+    public void memoryStore_evictsLeastRecentlyUsedEntries_whenSizeIsExceeded() {
+        MemoryCompareResultStore store = new MemoryCompareResultStore(4096);
+        store.put("first", result(repeat('a', 600)));
+        store.put("second", result(repeat('b', 600)));
+        store.get("first");
+        store.put("third", result(repeat('c', 600)));
+
+        Assertions.assertNotNull(store.get("first"));
+        Assertions.assertNull(store.get("second"));
+        Assertions.assertNotNull(store.get("third"));
+        Assertions.assertTrue(store.getSizeBytes() <= 4096);
+    }
+
+    @Test
+    public void fileStore_keepsResultsBetweenInstances() throws Exception {
+        Path directory = Files.createTempDirectory("compare-cache");
+        FileCompareResultStore store = new FileCompareResultStore(directory, 1024 * 1024);
+        store.put("key", result("expected"));
+
+        FileCompareResultStore reopened = new FileCompareResultStore(directory, 1024 * 1024);
+        Assertions.assertEquals(1, reopened.getCount());
+        Assertions.assertEquals("expected",
+                reopened.get("key").getAr().get(0).getDifferences().get(0).getExpected());
+
+        reopened.clear();
+        Assertions.assertEquals(0, reopened.getCount());
+        Path versionDirectory = directory.resolve(FileCompareResultStore.getVersionDirectoryName());
+        Assertions.assertFalse(Files.exists(versionDirectory.resolve("key.json")));
+        Files.delete(versionDirectory);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void fileStore_doesNotReadResultsOfAnotherVersion() throws Exception {
+        Path directory = Files.createTempDirectory("compare-cache");
+        Path otherVersion = Files.createDirectories(directory.resolve("v0"));
+        Files.write(otherVersion.resolve("key.json"), "{}".getBytes(StandardCharsets.UTF_8));
+
+        FileCompareResultStore store = new FileCompareResultStore(directory, 1024 * 1024);
+
+        Assertions.assertEquals(0, store.getCount());
+        Assertions.assertNull(store.get("key"));
+        Files.delete(otherVersion.resolve("key.json"));
+        Files.delete(otherVersion);
+        Files.delete(directory.resolve(FileCompareResultStore.getVersionDirectoryName()));
+        Files.delete(directory);
+    }
+
+    @Test
+    public void fileStore_keepsSizesConsistent_whenKeysAreWrittenConcurrently() throws Exception {
+        Path directory = Files.createTempDirectory("compare-cache");
+        final FileCompareResultStore store = new FileCompareResultStore(directory, 16 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final String key = "key-" + (i % 50);
+            final String expected = repeat('a', i);
+            futures.add(executor.submit(() -> {
+                store.put(key, result(expected));
+                store.get(key);
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        long filesSize = 0;
+        Path versionDirectory = directory.resolve(FileCompareResultStore.getVersionDirectoryName());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(versionDirectory)) {
+            for (Path file : files) {
+                filesSize += Files.size(file);
+            }
+        }
+        Assertions.assertTrue(store.getSizeBytes() <= 16 * 1024);
+        Assertions.assertEquals(filesSize, store.getSizeBytes());
+        store.clear();
+        Files.delete(versionDirectory);
+        Files.delete(directory);
+    }
+
+    private static CompareResult result(String expected) {
+        ResultData resultData = new ResultData();
+        resultData.setAr(new Data());
+        resultData.setSummaryResult(ResultType.MODIFIED);
+        resultData.setDifferences(new ArrayList<>(Collections.singletonList(
+                new DiffMessage(1, expected, "actual", ResultType.MODIFIED))));
+        CompareResult result = new CompareResult();
+        result.setData(new Data());
+        result.setSummaryResult(ResultType.MODIFIED);
+        result.setAr(new ArrayList<>(Collections.singletonList(resultData)));
+        return result;
+    }
+
+    private static String repeat(char character, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, character);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.comparator.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+import org.qubership.automation.pc.core.exceptions.ComparatorException;
+
+public class RuleSetCacheTest {
+
+    @Test
+    public void get_compilesOnce_forEqualParametersGivenInDifferentOrder() throws ComparatorException {
+        RuleSetCache<String> cache = new RuleSetCache<>(8);
+        AtomicInteger compilations = new AtomicInteger();
+        Parameters first = new Parameters();
+        first.put("ignoreCase", "true");
+        first.put("ignoreRegexp", "\\d+");
+        Parameters second = new Parameters();
+        second.put("ignoreRegexp", "\\d+");
+        second.put("ignoreCase", "true");
+
+        String compiled = cache.get(first, parameters -> "rules-" + compilations.incrementAndGet());
+
+        Assertions.assertSame(compiled, cache.get(second, parameters -> "rules-" + compilations.incrementAndGet()));
+        Assertions.assertEquals(1, compilations.get());
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void get_evictsLeastRecentlyUsedRules_whenCountIsExceeded() throws ComparatorException {
+        RuleSetCache<String> cache = new RuleSetCache<>(2);
+        cache.get(parameters("first"), parameters -> "first");
+        cache.get(parameters("second"), parameters -> "second");
+        cache.get(parameters("first"), parameters -> "first again");
+        cache.get(parameters("third"), parameters -> "third");
+
+        Assertions.assertEquals(2, cache.getCount());
+        Assertions.assertEquals("first", cache.get(parameters("first"), parameters -> "first again"));
+        Assertions.assertEquals("second again", cache.get(parameters("second"), parameters -> "second again"));
+    }
+
+    @Test
+    public void get_doesNotCacheFailure() {
+        RuleSetCache<String> cache = new RuleSetCache<>(8);
+        AtomicInteger compilations = new AtomicInteger();
+        RuleSetCache.RuleSetCompiler<String> failing = parameters -> {
+            compilations.incrementAndGet();
+            throw new ComparatorException("bad regexp", 20003);
+        };
+
+        Assertions.assertThrows(ComparatorException.class, () -> cache.get(parameters("bad"), failing));
+        Assertions.assertThrows(ComparatorException.class, () -> cache.get(parameters("bad"), failing));
+        Assertions.assertEquals(2, compilations.get());
+        Assertions.assertEquals(0, cache.getCount());
+    }
+
+    private static Parameters parameters(String ignoreRegexp) {
+        Parameters parameters = new Parameters();
+        parameters.put("ignoreRegexp", ignoreRegexp);
+        return parameters;
+    }
+}
@@ -32,7 +32,10 @@ import com.jcabi.immutable.Array;
 import org.qubership.automation.pc.compareresult.DiffMessage;
 import org.qubership.automation.pc.compareresult.ResultType;
 import org.qubership.automation.pc.configuration.parameters.Parameters;
+import org.qubership.automation.pc.core.enums.DataContentType;
 import org.qubership.automation.pc.core.exceptions.ComparatorException;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.PreparedExpectation;
 
 public class XmlComparatorTest {
 
@@ -2672,4 +2675,31 @@ public class XmlComparatorTest {
         assertThrows(ComparatorException.class, ()->comparator.compare(er, ar, params));
     }
 
+    @Test
+    public void compare_preparedExpectationWithSeveralActuals_sameDiffsAsCompareOfStrings()
+            throws ComparatorException {
+        String er = "<root><a>1</a><b>2</b></root>";
+        String firstAr = "<root><a>1</a><b>3</b></root>";
+        String secondAr = "<root><a>1</a></root>";
+        Parameters params = new Parameters();
+        PreparedExpectation prepared = comparator.prepare(data(er), params);
+
+        for (String ar : new String[]{firstAr, secondAr, er}) {
+            List<DiffMessage> expected = new XmlComparator().compare(er, ar, params);
+            List<DiffMessage> actual = comparator.compare(prepared, data(ar));
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getResult(), actual.get(i).getResult());
+                assertEquals(expected.get(i).getExpected(), actual.get(i).getExpected());
+                assertEquals(expected.get(i).getActual(), actual.get(i).getActual());
+            }
+        }
+    }
+
+    private static Data data(String content) {
+        Data data = new Data();
+        data.setContentType(DataContentType.XML);
+        data.setContent(content);
+        return data;
+    }
 }
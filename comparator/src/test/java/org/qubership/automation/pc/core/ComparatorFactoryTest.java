@@ -0,0 +1,71 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.compareresult.DiffMessage;
+import org.qubership.automation.pc.configuration.parameters.Parameters;
+import org.qubership.automation.pc.core.enums.DataContentType;
+import org.qubership.automation.pc.core.interfaces.IComparator;
+
+public class ComparatorFactoryTest {
+
+    @Test
+    public void getComparator_returnsSameInstance_forSameContentType() throws Exception {
+        IComparator first = ComparatorFactory.getComparator(DataContentType.XML);
+
+        Assertions.assertSame(first, ComparatorFactory.getComparator(DataContentType.XML));
+        Assertions.assertNotSame(first, ComparatorFactory.getComparator(DataContentType.PLAIN_TEXT));
+    }
+
+    @Test
+    public void sharedComparator_givesSameDiffs_whenUsedFromSeveralThreads() throws Exception {
+        IComparator comparator = ComparatorFactory.getComparator(DataContentType.FULL_TEXT);
+        Parameters ignoreCase = new Parameters();
+        ignoreCase.put("ignoreCase", "true");
+        Parameters caseSensitive = new Parameters();
+        int expectedIgnoreCase = comparator.compare("a\nB\nc", "A\nb\nd", ignoreCase).size();
+        int expectedCaseSensitive = comparator.compare("a\nB\nc", "A\nb\nd", caseSensitive).size();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Parameters parameters = i % 2 == 0 ? ignoreCase : caseSensitive;
+                results.add(executor.submit(() -> {
+                    List<DiffMessage> diffs = comparator.compare("a\nB\nc", "A\nb\nd", parameters);
+                    return diffs.size();
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Assertions.assertEquals(i % 2 == 0 ? expectedIgnoreCase : expectedCaseSensitive,
+                        results.get(i).get().intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertNotEquals(expectedIgnoreCase, expectedCaseSensitive);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.threads;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.core.exceptions.ComparatorManagerException;
+
+public class CompareJobsManagerTest {
+
+    @Test
+    public void submit_rejectsJob_whenRunningAndPendingLimitsAreReached() throws Exception {
+        CompareJobsManager manager = new CompareJobsManager(1, 1, 60000);
+        final CountDownLatch release = new CountDownLatch(1);
+        CompareJob.Task blockingTask = job -> release.await();
+        try {
+            manager.submit("running", 1, blockingTask);
+            manager.submit("pending", 1, blockingTask);
+            ComparatorManagerException ex = Assertions.assertThrows(ComparatorManagerException.class,
+                    () -> manager.submit("rejected", 1, blockingTask));
+            Assertions.assertEquals(20116, ex.getStatusCode());
+            Assertions.assertNull(manager.getJob("rejected"));
+
+            Assertions.assertTrue(manager.cancelJob("pending"));
+            Assertions.assertEquals(CompareSessionStatus.CANCELLED, manager.getJob("pending").getStatus());
+            Assertions.assertTrue(manager.getJob("pending").isFinished());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void getResults_returnsPagesOfResultsInOrderOfCompletion() throws Exception {
+        CompareJobsManager manager = new CompareJobsManager(1, 1, 60000);
+        final CountDownLatch done = new CountDownLatch(1);
+        CompareJob job = manager.submit(null, 5, compareJob -> {
+            for (int i = 0; i < 5; i++) {
+                CompareResult result = new CompareResult();
+                result.setId("result-" + i);
+                compareJob.addResult(result);
+            }
+            done.countDown();
+        });
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        List<CompareResult> page = job.getResults(2, 2);
+        Assertions.assertEquals(2, page.size());
+        Assertions.assertEquals("result-2", page.get(0).getId());
+        Assertions.assertEquals("result-3", page.get(1).getId());
+        Assertions.assertEquals(1, job.getResults(4, 10).size());
+        Assertions.assertTrue(job.getResults(10, 10).isEmpty());
+        Assertions.assertEquals(5, job.getCompletedCount());
+        Assertions.assertSame(job, manager.removeJob(job.getId()));
+        Assertions.assertNull(manager.getJob(job.getId()));
+    }
+
+    @Test
+    public void finishedJob_isDropped_afterRetentionWithoutNewSubmissions() throws Exception {
+        CompareJobsManager manager = new CompareJobsManager(1, 1, 50);
+        CompareJob job = manager.submit(null, 0, compareJob -> {
+        });
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (manager.getJob(job.getId()) != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(job.isFinished());
+        Assertions.assertNull(manager.getJob(job.getId()));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.threads;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.core.exceptions.ComparatorManagerException;
+
+public class CompareMemoryBudgetTest {
+
+    @Test
+    public void acquire_failsWithStatusCode_whenBudgetIsExhausted() throws Exception {
+        CompareMemoryBudget budget = new CompareMemoryBudget(100 * 1024, 0);
+        budget.acquire(60 * 1024);
+        Assertions.assertEquals(60 * 1024, budget.getUsedBytes());
+
+        ComparatorManagerException ex = Assertions.assertThrows(ComparatorManagerException.class,
+                () -> budget.acquire(60 * 1024));
+        Assertions.assertEquals(20119, ex.getStatusCode());
+
+        budget.release(60 * 1024);
+        Assertions.assertEquals(0, budget.getUsedBytes());
+    }
+
+    @Test
+    public void acquire_admitsPackageLargerThanBudget_whenNothingElseRuns() throws Exception {
+        CompareMemoryBudget budget = new CompareMemoryBudget(100 * 1024, 0);
+        budget.acquire(1024 * 1024);
+        Assertions.assertEquals(budget.getCapacityBytes(), budget.getUsedBytes());
+        budget.release(1024 * 1024);
+        Assertions.assertEquals(0, budget.getUsedBytes());
+    }
+
+    @Test
+    public void acquire_letsPoolRunOtherTasks_whileWaiting() throws Exception {
+        CompareMemoryBudget budget = new CompareMemoryBudget(100 * 1024, TimeUnit.SECONDS.toMillis(30));
+        budget.acquire(100 * 1024);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            Future<?> waiting = pool.submit(() -> {
+                budget.acquire(100 * 1024);
+                return null;
+            });
+            // runs only if the pool adds a worker while its only worker waits for the budget
+            Future<?> releasing = pool.submit(() -> budget.release(100 * 1024));
+            releasing.get(10, TimeUnit.SECONDS);
+            waiting.get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(budget.getCapacityBytes(), budget.getUsedBytes());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
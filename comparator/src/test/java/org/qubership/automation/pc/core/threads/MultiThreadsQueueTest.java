@@ -0,0 +1,146 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.core.threads;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.compareresult.ResultType;
+
+public class MultiThreadsQueueTest {
+
+    @Test
+    public void awaitResults_returnsResultsInSubmissionOrder_andLimitsConcurrency() throws InterruptedException {
+        final int queueSize = 3;
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        MultiThreadsQueue queue = new MultiThreadsQueue();
+        queue.setSize(queueSize);
+        for (int i = 0; i < 20; i++) {
+            final String id = "session-" + i;
+            CompareSession session = new CompareSession() {
+                @Override
+                public void run() {
+                    int current = running.incrementAndGet();
+                    maxRunning.accumulateAndGet(current, Math::max);
+                    try {
+                        Thread.sleep(5);
+                        CompareResult result = new CompareResult();
+                        result.setId(id);
+                        setCompareResult(result);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        running.decrementAndGet();
+                        markAsCompleted();
+                    }
+                }
+            };
+            session.setSessionId(id);
+            queue.add(session);
+        }
+
+        CompareSessionsManager.getInstance().runQueue(queue);
+        List<CompareResult> results = queue.awaitResults();
+        CompareSessionsManager.getInstance().releaseQueue(queue.getId());
+
+        Assertions.assertEquals(20, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assertions.assertEquals("session-" + i, results.get(i).getId());
+        }
+        Assertions.assertTrue(queue.queueIsCompleted());
+        Assertions.assertTrue(maxRunning.get() <= queueSize);
+        Assertions.assertNull(CompareSessionsManager.getInstance().getQueue(queue.getId()));
+    }
+
+    @Test
+    public void awaitResults_runsEverySession_whenSessionIdsAreEqual() throws InterruptedException {
+        MultiThreadsQueue queue = new MultiThreadsQueue();
+        queue.setSize(2);
+        final AtomicInteger runs = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            final String id = "result-" + i;
+            CompareSession session = new CompareSession() {
+                @Override
+                public void run() {
+                    runs.incrementAndGet();
+                    CompareResult result = new CompareResult();
+                    result.setId(id);
+                    complete(result);
+                }
+            };
+            session.setSessionId("same-er");
+            queue.add(session);
+        }
+
+        CompareSessionsManager.getInstance().runQueue(queue);
+        List<CompareResult> results = queue.awaitResults();
+        CompareSessionsManager.getInstance().releaseQueue(queue.getId());
+
+        Assertions.assertEquals(10, runs.get());
+        for (int i = 0; i < results.size(); i++) {
+            Assertions.assertEquals("result-" + i, results.get(i).getId());
+        }
+        for (CompareSession session : queue.getQueueSessions()) {
+            Assertions.assertNull(CompareSessionsManager.getInstance().getSession(session.getKey()));
+        }
+    }
+
+    @Test
+    public void releaseQueue_cancelsAndRemovesQueue_whenSessionsAreNotCompleted() throws InterruptedException {
+        MultiThreadsQueue queue = new MultiThreadsQueue();
+        queue.setSize(2);
+        final CountDownLatch started = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            CompareSession session = new CompareSession() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        // interrupted by cancellation of the queue
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            session.setSessionId("released-" + i);
+            queue.add(session);
+        }
+        CompareSessionsManager manager = CompareSessionsManager.getInstance();
+        manager.runQueue(queue);
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        manager.releaseQueue(queue.getId());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (manager.getQueue(queue.getId()) != null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertNull(manager.getQueue(queue.getId()));
+        Assertions.assertNull(manager.getQueueSemaphores().get(queue.getId()));
+        for (CompareSession session : queue.getQueueSessions()) {
+            Assertions.assertEquals(ResultType.CANCELLED, session.getCompareResult().getSummaryResult());
+            Assertions.assertNull(manager.getSession(session.getKey()));
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.qubership.automation.pc.rest;
 
+import javax.ws.rs.GET;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -28,7 +29,8 @@ import javax.ws.rs.core.MediaType;
  * It acts as a proxy to the internal API implementation found in
  * {@code org.qubership.automation.pc.reader.api.ReaderResource}.</p>
  *
- * <p>All responses are serialized to JSON format.</p>
+ * <p>All responses are serialized to JSON format, except <code>GET /read/metrics</code>, which returns
+ * read metrics in Prometheus text format if <code>text/plain</code> is accepted.</p>
  *
  * @see org.qubership.automation.pc.reader.api.ReaderResource
  */
@@ -51,4 +53,21 @@ public class ReaderResource {
                 = new org.qubership.automation.pc.reader.api.ReaderResource();
         return readerResource.testConnection(context);
     }
+
+    @GET
+    @Path("/metrics")
+    public String getMetrics() {
+        org.qubership.automation.pc.reader.api.ReaderResource readerResource
+                = new org.qubership.automation.pc.reader.api.ReaderResource();
+        return readerResource.getMetrics();
+    }
+
+    @GET
+    @Path("/metrics")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String getMetricsText() {
+        org.qubership.automation.pc.reader.api.ReaderResource readerResource
+                = new org.qubership.automation.pc.reader.api.ReaderResource();
+        return readerResource.getMetricsText();
+    }
 }
@@ -19,17 +19,25 @@ package org.qubership.automation.pc.reader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 
 import org.apache.commons.lang3.EnumUtils;
+import org.qubership.automation.pc.configuration.ITFReaderConfiguration;
 import org.qubership.automation.pc.configuration.ReaderConfiguration;
+import org.qubership.automation.pc.configuration.SQLReaderConfiguration;
+import org.qubership.automation.pc.configuration.datasource.SQLDataSource;
 import org.qubership.automation.pc.core.ReaderFactory;
 import org.qubership.automation.pc.core.enums.ReaderMode;
+import org.qubership.automation.pc.core.enums.ReaderType;
 import org.qubership.automation.pc.core.exceptions.FactoryInstatiationException;
 import org.qubership.automation.pc.core.exceptions.ReaderException;
 import org.qubership.automation.pc.core.exceptions.ReaderManagerException;
 import org.qubership.automation.pc.core.exceptions.ReaderNotFoundException;
 import org.qubership.automation.pc.core.helpers.ResponseMessages;
 import org.qubership.automation.pc.core.interfaces.IReader;
+import org.qubership.automation.pc.core.jfr.JfrEvents;
+import org.qubership.automation.pc.core.jfr.ReadEvent;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
 import org.qubership.automation.pc.data.DataList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +57,12 @@ import org.slf4j.LoggerFactory;
  * It also provides a method for testing reader connections based on the specified type and parameters.
  * </p>
  *
+ * <p>
+ * Latency of successful reads and count of the rows (data items) read are recorded in {@link MetricsRegistry}
+ * by reader type ({@link ReaderType} name or {@value MetricsRegistry#UNKNOWN_TAG_VALUE}).
+ * Every read is also emitted as {@link ReadEvent} while it is recorded by JFR.
+ * </p>
+ *
  * @see ReaderFactory
  * @see IReader
  * @see ReaderMode
@@ -58,6 +72,8 @@ public class ReaderManager {
     
     public static final String PARAMETER_READER_TYPE = "readerType";
     public static final String PARAMETER_READER_MODE = "readerMode";
+    public static final String READ_DURATION_METRIC = "pc.read.duration";
+    public static final String READ_ROWS_METRIC = "pc.read.rows";
  
     private final Logger log = LoggerFactory.getLogger(ReaderManager.class);
     
@@ -75,18 +91,60 @@ public class ReaderManager {
         }
         ReaderMode readerMode = ReaderMode.valueOf(globalConfiguration.getGlobal().get(PARAMETER_READER_MODE));
         
+        String readerType = globalConfiguration.getGlobal().get(PARAMETER_READER_TYPE);
+        ReadEvent event = JfrEvents.ENABLED ? new ReadEvent() : null;
+        List<DataList> resultData = null;
         try {
-            IReader reader = ReaderFactory.getReader(globalConfiguration.getGlobal().get(PARAMETER_READER_TYPE));
-            List<DataList> resultData = new ArrayList<>();
+            IReader reader = ReaderFactory.getReader(readerType);
+            long startNanos = System.nanoTime();
+            resultData = new ArrayList<>();
             if (readerMode == ReaderMode.SIMPLE) {
                 resultData = reader.readSimple(readerConfiguration);
             } else if (readerMode == ReaderMode.PROCESS) {
                 resultData = reader.readProcess(readerConfiguration);
             }
+            recordReadMetrics(readerType, startNanos, resultData);
             return resultData;
         } catch (ReaderNotFoundException | FactoryInstatiationException | ReaderException ex) {
+            resultData = null;
             throw new ReaderManagerException(ex);
+        } finally {
+            if (event != null) {
+                event.finish(readerType, readerMode.name(), dataSourceNames(globalConfiguration), resultData);
+            }
+        }
+    }
+
+    private static String dataSourceNames(ReaderConfiguration configuration) {
+        List<SQLDataSource> dataSources = null;
+        if (configuration instanceof SQLReaderConfiguration) {
+            dataSources = ((SQLReaderConfiguration) configuration).getDataSources();
+        } else if (configuration instanceof ITFReaderConfiguration) {
+            dataSources = ((ITFReaderConfiguration) configuration).getDataSources();
+        }
+        if (dataSources == null || dataSources.isEmpty()) {
+            return null;
+        }
+        StringJoiner names = new StringJoiner(",");
+        for (SQLDataSource dataSource : dataSources) {
+            names.add(String.valueOf(dataSource.getName()));
+        }
+        return names.toString();
+    }
+
+    private static void recordReadMetrics(String readerType, long startNanos, List<DataList> resultData) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        String readerTag = MetricsRegistry.enumTag(ReaderType.class, readerType);
+        metrics.timer(READ_DURATION_METRIC, "readerType", readerTag).recordSince(startNanos);
+        long rows = 0;
+        if (resultData != null) {
+            for (DataList dataList : resultData) {
+                if (dataList != null && dataList.getDatas() != null) {
+                    rows += dataList.getDatas().size();
+                }
+            }
         }
+        metrics.counter(READ_ROWS_METRIC, "readerType", readerTag).increment(rows);
     }
 
     public String testConnection(String readerType, Map<String,String> parameters) throws ReaderManagerException {
@@ -26,12 +26,14 @@ import org.qubership.automation.pc.core.enums.ReaderType;
 import org.qubership.automation.pc.core.exceptions.ReaderManagerException;
 import org.qubership.automation.pc.core.helpers.JSONUtils;
 import org.qubership.automation.pc.core.helpers.ResponseMessages;
+import org.qubership.automation.pc.core.metrics.MetricsRegistry;
 import org.qubership.automation.pc.data.DataList;
 import org.qubership.automation.pc.reader.ReaderManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
@@ -78,6 +80,28 @@ public class ReaderResource {
         }
     }
     
+    /**
+     * Returns read latencies and row counts by reader type, see {@link MetricsRegistry}.
+     *
+     * @return JSON object with {@code timers}, {@code counters} and {@code gauges} arrays
+     */
+    public String getMetrics() {
+        JsonObject response = JSONUtils.statusMessage(10000);
+        for (Map.Entry<String, JsonElement> metrics : MetricsRegistry.getInstance().toJson().entrySet()) {
+            response.add(metrics.getKey(), metrics.getValue());
+        }
+        return response.toString();
+    }
+
+    /**
+     * Returns the same metrics as {@link #getMetrics()} in Prometheus text format.
+     *
+     * @return metrics to be scraped
+     */
+    public String getMetricsText() {
+        return MetricsRegistry.getInstance().toPrometheus();
+    }
+
     private Object getReaderConfiguration(ReaderType readerType, String context) {
         if (readerType == null) {
             return null;
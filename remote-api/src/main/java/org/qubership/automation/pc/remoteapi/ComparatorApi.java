@@ -16,19 +16,36 @@
 
 package org.qubership.automation.pc.remoteapi;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.data.ContentEnvelope;
+import org.qubership.automation.pc.data.DataPackage;
 import org.qubership.automation.pc.models.HighlighterResult;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * {@code ComparatorApi} is a client-side utility for interacting with a remote data comparison API.
@@ -44,6 +61,12 @@ import com.google.gson.reflect.TypeToken;
  * ComparatorApi comparatorApi = new ComparatorApi("http://localhost:8080/api", "REST");
  * List<CompareResult> results = comparatorApi.compare(dataPackages, comparatorConfig);
  * }</pre>
+ *
+ * <p>In REST mode, {@link #setBinaryTransport(boolean)} makes it pass ER/AR contents as raw bytes,
+ * see {@link ContentEnvelope}.</p>
+ *
+ * <p>{@link #compareAsync(List, Object)} splits a large batch into chunks compared concurrently,
+ * possibly by several services.</p>
  */
 public class ComparatorApi extends RemoteApi {
     protected ComparatorApiMode comparatorApiMode;
@@ -51,7 +74,20 @@ public class ComparatorApi extends RemoteApi {
     private String comparatorPath;
     private String highlighterPath;
 
+    private static final Type COMPARE_RESULTS_TYPE = new TypeToken<List<CompareResult>>() {
+    }.getType();
+    private static final Type HIGHLIGHTER_RESULTS_TYPE = new TypeToken<List<HighlighterResult>>() {
+    }.getType();
+
+    private static final int DEFAULT_CHUNKS_PER_ENDPOINT = 2;
+    private static final String ASYNC_THREAD_PREFIX = "pc-compare-async-";
+
     private Gson gson = new Gson();
+    private boolean binaryTransport;
+    private List<CompareEndpoint> endpoints;
+    private int chunksPerEndpoint = DEFAULT_CHUNKS_PER_ENDPOINT;
+    private Executor executor;
+    private ThreadPoolExecutor defaultExecutor;
 
     public ComparatorApi(String comparatorApiUrl) {
         this.comparatorApiUrl = comparatorApiUrl;
@@ -77,53 +113,208 @@ public class ComparatorApi extends RemoteApi {
         this.remoteMethod = ((this.comparatorApiMode == ComparatorApiMode.JSP) ? RemoteMethod.POST : RemoteMethod.PUT);
     }
 
-    public List<CompareResult> compare(Object dataPackages, Object comparatorConfiguration) throws RemoteApiException {
-        String responseString = prepareRequest(dataPackages, comparatorConfiguration);
-        JsonElement jsonElement = new JsonParser().parse(responseString);
-        if (jsonElement.isJsonObject()) {
-            JsonObject jsonObject = jsonElement.getAsJsonObject();
-            if (jsonObject.has("statusCode")) {
-                String statusCode = jsonObject.get("statusCode").getAsString();
-                String statusMessage = "Unknown comparator exception (statusCode = " + statusCode + ")";
-                if (jsonObject.has("statusMessage")) {
-                    statusMessage = jsonObject.get("statusMessage").getAsString();
+    /**
+     * Sends requests in {@link ContentEnvelope} format, where ER/AR contents are raw bytes instead of Base64
+     * strings inside JSON. It is supported by REST mode only and needs the service supporting the format.
+     *
+     * @param binaryTransport true to send requests in {@link ContentEnvelope} format
+     */
+    public void setBinaryTransport(boolean binaryTransport) {
+        this.binaryTransport = binaryTransport;
+    }
+
+    /**
+     * Sets services {@link #compareAsync(List, Object)} spreads the packages over; this service by default.
+     *
+     * @param endpoints services to compare the packages
+     */
+    public void setEndpoints(List<CompareEndpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * Sets number of chunks per service {@link #compareAsync(List, Object)} splits the packages into,
+     * 2 by default; more chunks balance the load better, but take more requests.
+     *
+     * @param chunksPerEndpoint number of chunks per service
+     */
+    public void setChunksPerEndpoint(int chunksPerEndpoint) {
+        this.chunksPerEndpoint = Math.max(1, chunksPerEndpoint);
+    }
+
+    /**
+     * Sets executor {@link #compareAsync(List, Object)} sends chunks with. By default it is a pool of this API
+     * of daemon threads, one per chunk (number of services multiplied by chunks per service), which are
+     * stopped when idle.
+     *
+     * @param executor executor of the requests
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Compares the packages asynchronously, splitting them into chunks of about equal content size
+     * (see {@link #setChunksPerEndpoint(int)}) which are sent concurrently to the services set with
+     * {@link #setEndpoints(List)}. A chunk which fails is sent to the next service, until all of them
+     * are tried. Context parameter packages are sent with every chunk.
+     *
+     * @param dataPackages            packages to compare
+     * @param comparatorConfiguration global configuration
+     * @return results in the order of the packages; completed exceptionally with {@link RemoteApiException}
+     *     if a chunk fails on all services
+     */
+    public CompletableFuture<List<CompareResult>> compareAsync(List<DataPackage> dataPackages,
+                                                               Object comparatorConfiguration) {
+        final List<CompareEndpoint> targets = endpoints == null || endpoints.isEmpty()
+                ? Collections.singletonList(this::compare) : new ArrayList<>(endpoints);
+        int maxChunks = targets.size() * chunksPerEndpoint;
+        List<CompareChunk> chunks = CompareChunk.split(dataPackages, maxChunks);
+        Executor chunkExecutor = getExecutor(maxChunks);
+        final CompareResult[] merged = new CompareResult[dataPackages.size()];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks.size()];
+        for (int i = 0; i < chunks.size(); i++) {
+            final CompareChunk chunk = chunks.get(i);
+            final int first = i % targets.size();
+            futures[i] = CompletableFuture.supplyAsync(
+                    () -> compareChunk(chunk, comparatorConfiguration, targets, first), chunkExecutor)
+                    .thenAccept(results -> {
+                        synchronized (merged) {
+                            chunk.merge(results, merged);
+                        }
+                    });
+        }
+        return CompletableFuture.allOf(futures).thenApply(ignored -> {
+            List<CompareResult> results = new ArrayList<>(merged.length);
+            synchronized (merged) {
+                for (CompareResult result : merged) {
+                    if (result != null) {
+                        results.add(result);
+                    }
                 }
-                throw new RemoteApiException(statusMessage);
             }
+            return results;
+        });
+    }
+
+    private synchronized Executor getExecutor(int poolSize) {
+        if (executor != null) {
+            return executor;
+        }
+        if (defaultExecutor == null || defaultExecutor.getMaximumPoolSize() != poolSize) {
+            if (defaultExecutor != null) {
+                // chunks already sent to the previous pool are completed
+                defaultExecutor.shutdown();
+            }
+            final AtomicInteger threadNumber = new AtomicInteger();
+            defaultExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, ASYNC_THREAD_PREFIX + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            defaultExecutor.allowCoreThreadTimeOut(true);
         }
-        List<CompareResult> resultList = gson.fromJson(responseString, new TypeToken<List<CompareResult>>() {
-        }.getType());
-        return resultList;
+        return defaultExecutor;
+    }
+
+    private static List<CompareResult> compareChunk(CompareChunk chunk, Object comparatorConfiguration,
+                                                    List<CompareEndpoint> targets, int first) {
+        RemoteApiException failure = null;
+        for (int attempt = 0; attempt < targets.size(); attempt++) {
+            try {
+                return targets.get((first + attempt) % targets.size())
+                        .compare(chunk.getDataPackages(), comparatorConfiguration);
+            } catch (RemoteApiException | RuntimeException ex) {
+                if (failure == null) {
+                    failure = new RemoteApiException("Chunk of " + chunk.getDataPackages().size()
+                            + " packages is not compared by any of " + targets.size() + " endpoints", ex);
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        throw new CompletionException(failure);
+    }
+
+    public List<CompareResult> compare(Object dataPackages, Object comparatorConfiguration) throws RemoteApiException {
+        if (binaryTransport && comparatorApiMode == ComparatorApiMode.REST) {
+            ContentEnvelope response = prepareEnvelopeRequest(dataPackages, comparatorConfiguration);
+            try {
+                return readResults(new StringReader(response.getJson()), response.getGson(), COMPARE_RESULTS_TYPE,
+                        "comparator");
+            } catch (IOException ex) {
+                throw new RemoteApiException(ex);
+            }
+        }
+        return exchange(this.comparatorPath, requestContentType(),
+                out -> writeRequest(out, gson, dataPackages, comparatorConfiguration),
+                in -> readResults(new InputStreamReader(in, StandardCharsets.UTF_8), gson,
+                        COMPARE_RESULTS_TYPE, "comparator"));
     }
 
     public String prepareRequest(Object dataPackages, Object comparatorConfiguration) throws RemoteApiException {
-        JsonObject jsRequest = new JsonObject();
-        jsRequest.add("comparatorConfiguration", gson.toJsonTree(comparatorConfiguration));
-        jsRequest.add("dataPackages", gson.toJsonTree(dataPackages));
+        return exchange(this.comparatorPath, requestContentType(),
+                out -> writeRequest(out, gson, dataPackages, comparatorConfiguration),
+                in -> IOUtils.toString(in, StandardCharsets.UTF_8));
+    }
 
-        return readRemote(this.comparatorPath, jsRequest.toString());
+    /**
+     * Sends the request in {@link ContentEnvelope} format.
+     *
+     * @param dataPackages            data packages
+     * @param comparatorConfiguration global configuration
+     * @return response envelope
+     * @throws RemoteApiException if the request fails or the response is not an envelope
+     */
+    public ContentEnvelope prepareEnvelopeRequest(Object dataPackages, Object comparatorConfiguration)
+            throws RemoteApiException {
+        final ContentEnvelope request = new ContentEnvelope();
+        JsonObject jsRequest = new JsonObject();
+        jsRequest.add("comparatorConfiguration", request.getGson().toJsonTree(comparatorConfiguration));
+        jsRequest.add("dataPackages", request.getGson().toJsonTree(dataPackages));
+        final String json = jsRequest.toString();
+        return exchange(this.comparatorPath, ContentEnvelope.MEDIA_TYPE, out -> request.write(json, out),
+                ContentEnvelope::read);
     }
 
     public List<HighlighterResult> getHighlight(Object diffs) throws RemoteApiException {
-        String responseString = prepareHighLightRequest(diffs);
-        JsonElement jsonElement = new JsonParser().parse(responseString);
-        if (jsonElement.isJsonObject()) {
-            JsonObject jsonObject = jsonElement.getAsJsonObject();
-            if (jsonObject.has("statusCode")) {
-                String statusCode = jsonObject.get("statusCode").getAsString();
-                String statusMessage = "Unknown highlighter exception (statusCode = " + statusCode + ")";
-                if (jsonObject.has("statusMessage")) {
-                    statusMessage = jsonObject.get("statusMessage").getAsString();
-                }
-                throw new RemoteApiException(statusMessage);
-            }
-        }
-        List<HighlighterResult> resultList = gson.fromJson(responseString, new TypeToken<List<HighlighterResult>>() {
-        }.getType());
-        return resultList;
+        return exchange(this.highlighterPath, requestContentType(), out -> writeDiffs(out, diffs),
+                in -> readResults(new InputStreamReader(in, StandardCharsets.UTF_8), gson,
+                        HIGHLIGHTER_RESULTS_TYPE, "highlighter"));
     }
 
     public String prepareHighLightRequest(Object diffs) throws RemoteApiException {
-        return readRemote(this.highlighterPath, ((JsonArray) diffs).toString());
+        return exchange(this.highlighterPath, requestContentType(), out -> writeDiffs(out, diffs),
+                in -> IOUtils.toString(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the compare request directly from the objects, without building its JSON tree or text.
+     */
+    private void writeRequest(OutputStream out, Gson requestGson, Object dataPackages,
+                              Object comparatorConfiguration) throws IOException {
+        JsonWriter writer = new JsonWriter(createWriter(out));
+        writer.beginObject();
+        writer.name("comparatorConfiguration");
+        writeValue(writer, requestGson, comparatorConfiguration);
+        writer.name("dataPackages");
+        writeValue(writer, requestGson, dataPackages);
+        writer.endObject();
+        writer.flush();
+    }
+
+    private void writeDiffs(OutputStream out, Object diffs) throws IOException {
+        JsonWriter writer = new JsonWriter(createWriter(out));
+        gson.toJson((JsonArray) diffs, writer);
+        writer.flush();
+    }
+
+    private static void writeValue(JsonWriter writer, Gson requestGson, Object value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else {
+            requestGson.toJson(value, value.getClass(), writer);
+        }
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.remoteapi;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.core.enums.DataType;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataPackage;
+
+/**
+ * Part of a batch sent to one {@link CompareEndpoint} by {@link ComparatorApi#compareAsync(List, Object)}.
+ *
+ * <p>
+ * Packages are spread over chunks of about equal total content size. Context parameter packages
+ * are added to every chunk, as they apply to all packages of the request and have no results.
+ * </p>
+ */
+final class CompareChunk {
+
+    private final List<Integer> positions = new ArrayList<>();
+    private final List<DataPackage> dataPackages = new ArrayList<>();
+    private long size;
+
+    /**
+     * Splits the batch.
+     *
+     * @param dataPackages packages of the batch
+     * @param maxChunks    max number of chunks
+     * @return chunks; there is one chunk at least, even if the batch has only context packages
+     */
+    static List<CompareChunk> split(List<DataPackage> dataPackages, int maxChunks) {
+        List<DataPackage> contextPackages = new ArrayList<>();
+        List<Integer> compared = new ArrayList<>();
+        for (int i = 0; i < dataPackages.size(); i++) {
+            if (dataPackages.get(i).getEr().getDataType() == DataType.CONTEXT_PARAMETER) {
+                contextPackages.add(dataPackages.get(i));
+            } else {
+                compared.add(i);
+            }
+        }
+        int chunkCount = Math.max(1, Math.min(maxChunks, compared.size()));
+        // the largest packages first, each to the smallest chunk so far
+        long[] sizes = new long[dataPackages.size()];
+        for (int position : compared) {
+            sizes[position] = sizeOf(dataPackages.get(position));
+        }
+        compared.sort(Comparator.comparingLong((Integer position) -> sizes[position]).reversed());
+        PriorityQueue<CompareChunk> smallest = new PriorityQueue<>(Comparator.comparingLong(chunk -> chunk.size));
+        List<CompareChunk> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            CompareChunk chunk = new CompareChunk();
+            chunks.add(chunk);
+            smallest.add(chunk);
+        }
+        for (int position : compared) {
+            CompareChunk chunk = smallest.poll();
+            chunk.positions.add(position);
+            chunk.size += sizes[position];
+            smallest.add(chunk);
+        }
+        for (CompareChunk chunk : chunks) {
+            chunk.positions.sort(null);
+            chunk.dataPackages.addAll(contextPackages);
+            for (int position : chunk.positions) {
+                chunk.dataPackages.add(dataPackages.get(position));
+            }
+        }
+        return chunks;
+    }
+
+    List<DataPackage> getDataPackages() {
+        return dataPackages;
+    }
+
+    /**
+     * Puts results of the chunk to positions of their packages in the batch. A result is matched
+     * to a package by ER external id, so the order of results returned by the service does not matter;
+     * results which do not match are put to the positions left in order.
+     *
+     * @param results results of the chunk
+     * @param merged  results of the batch by positions of the packages
+     */
+    void merge(List<CompareResult> results, CompareResult[] merged) {
+        Map<String, Deque<Integer>> positionsById = new HashMap<>();
+        // packages of the chunk follow its context packages
+        int offset = dataPackages.size() - positions.size();
+        for (int i = 0; i < positions.size(); i++) {
+            String id = dataPackages.get(offset + i).getEr().getExternalId();
+            positionsById.computeIfAbsent(id, key -> new ArrayDeque<>()).add(positions.get(i));
+        }
+        List<CompareResult> unmatched = new ArrayList<>();
+        for (CompareResult result : results) {
+            Deque<Integer> matching = result == null ? null : positionsById.get(result.getId());
+            if (matching == null || matching.isEmpty()) {
+                unmatched.add(result);
+            } else {
+                merged[matching.poll()] = result;
+            }
+        }
+        int next = 0;
+        for (int position : positions) {
+            if (next == unmatched.size()) {
+                break;
+            }
+            if (merged[position] == null) {
+                merged[position] = unmatched.get(next++);
+            }
+        }
+    }
+
+    private static long sizeOf(DataPackage dataPackage) {
+        long size = sizeOf(dataPackage.getEr());
+        if (dataPackage.getAr() != null) {
+            for (Data ar : dataPackage.getAr()) {
+                size += sizeOf(ar);
+            }
+        }
+        return size;
+    }
+
+    private static long sizeOf(Data data) {
+        if (data == null) {
+            return 0;
+        }
+        // a package is not free to compare even if it has no content
+        long size = 1 + (data.getContent() == null ? 0 : data.getContent().length());
+        if (data.getChilds() != null) {
+            for (Data child : data.getChilds()) {
+                size += sizeOf(child);
+            }
+        }
+        return size;
+    }
+}
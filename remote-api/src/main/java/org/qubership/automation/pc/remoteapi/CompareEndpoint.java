@@ -0,0 +1,47 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+
+package org.qubership.automation.pc.remoteapi;
+
+import java.util.List;
+
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.data.DataPackage;
+
+/**
+ * Comparator service a chunk of packages is sent to by {@link ComparatorApi#compareAsync(List, Object)}:
+ * a remote one, e.g. {@code otherNodeApi::compare}, or a local one calling {@code ComparatorManager}.
+ *
+ * <p>
+ * Chunks are compared concurrently and share context parameter packages and the configuration,
+ * so a local endpoint must not change them (ComparatorManager does), e.g. it compares their copies.
+ * </p>
+ */
+@FunctionalInterface
+public interface CompareEndpoint {
+
+    /**
+     * Compares the packages.
+     *
+     * @param dataPackages            packages to compare
+     * @param comparatorConfiguration global configuration
+     * @return results of the packages
+     * @throws RemoteApiException if the packages can not be compared
+     */
+    List<CompareResult> compare(List<DataPackage> dataPackages, Object comparatorConfiguration)
+            throws RemoteApiException;
+}
@@ -16,15 +16,16 @@
 
 package org.qubership.automation.pc.remoteapi;
 
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.qubership.automation.pc.data.DataList;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 
 /**
@@ -42,6 +43,9 @@ import com.google.gson.reflect.TypeToken;
  * }</pre>
  */
 public class ReaderApi extends RemoteApi {
+    private static final Type DATA_LISTS_TYPE = new TypeToken<List<DataList>>() {
+    }.getType();
+
     protected ComparatorApiMode comparatorApiMode;
     private String readerApiUrl;
     private String readerPath;
@@ -70,22 +74,11 @@ public class ReaderApi extends RemoteApi {
     }
     
     public List<DataList> readAsList(Object readerConfiguration) throws RemoteApiException {
-        String responseString = readAsString(readerConfiguration);
-        JsonElement jsonElement = new JsonParser().parse(responseString);
-        if (jsonElement.isJsonObject()) {
-            JsonObject jsonObject = jsonElement.getAsJsonObject();
-            if (jsonObject.has("statusCode")) {
-                String statusCode = jsonObject.get("statusCode").getAsString();
-                String statusMessage = "Unknown reader exception (statusCode = " + statusCode + ")";
-                if (jsonObject.has("statusMessage")) {
-                    statusMessage = jsonObject.get("statusMessage").getAsString();
-                }
-                throw new RemoteApiException(statusMessage);
-            }
-        }
-        List<DataList> resultList = gson.fromJson(responseString, new TypeToken<List<DataList>>() {
-        }.getType());
-        return resultList;
+        return exchange(this.readerPath, requestContentType(), out -> {
+            Writer writer = createWriter(out);
+            gson.toJson(readerConfiguration, writer);
+            writer.flush();
+        }, in -> readResults(new InputStreamReader(in, StandardCharsets.UTF_8), gson, DATA_LISTS_TYPE, "reader"));
     }
 
     public String readAsString(Object readerConfiguration) throws RemoteApiException {
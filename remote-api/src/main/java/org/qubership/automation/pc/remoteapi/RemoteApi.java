@@ -14,16 +14,37 @@
  * # limitations under the License.
  */
 
+
 package org.qubership.automation.pc.remoteapi;
 
-import java.io.BufferedReader;
-import java.io.DataOutputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.StatusLine;
+import org.apache.http.client.entity.GzipCompressingEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.entity.ContentProducer;
+import org.apache.http.entity.EntityTemplate;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * Abstract base class for interacting with remote APIs over HTTP.
@@ -34,58 +55,239 @@ import com.google.gson.Gson;
  * It supports content encoding and response decoding with UTF-8 charset,
  * and is designed to be extended by concrete API client implementations.
  * </p>
+ *
+ * <p>
+ * All instances share one HTTP client with a pool of keep-alive connections, {@value #MAX_CONNECTIONS_PROPERTY}
+ * connections at most (20 by default). Request bodies are written directly to the connection,
+ * gzip-compressed if {@link #setCompressRequests(boolean)} is set; gzip-compressed responses are accepted
+ * and decoded transparently.
+ * </p>
  */
 public abstract class RemoteApi {
 
+    public static final String MAX_CONNECTIONS_PROPERTY = "pc.remoteapi.maxConnections";
+    protected static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    protected static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded; charset=utf-8";
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+    private static final CloseableHttpClient httpClient = createHttpClient();
+
     protected Gson gson = new Gson();
 
     protected RemoteMethod remoteMethod;
 
+    private boolean compressRequests;
+
     public void setRemoteMethod(RemoteMethod remoteMethod) {
         this.remoteMethod = remoteMethod;
     }
 
-    protected String readRemote(String url, String sendContent) throws RemoteApiException {
-        try {
-            if (this.remoteMethod == null) {
-                this.remoteMethod = RemoteMethod.POST;
+    /**
+     * Compresses request bodies with gzip. The service must accept {@code Content-Encoding: gzip} requests,
+     * which the REST API does and JSP pages do not.
+     *
+     * @param compressRequests true to compress request bodies
+     */
+    public void setCompressRequests(boolean compressRequests) {
+        this.compressRequests = compressRequests;
+    }
+
+    protected String readRemote(String url, final String sendContent) throws RemoteApiException {
+        ContentProducer body = sendContent.isEmpty() ? null : out -> {
+            Writer writer = createWriter(out);
+            writer.write(sendContent);
+            writer.flush();
+        };
+        return exchange(url, requestContentType(), body,
+                in -> IOUtils.toString(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends the request and reads the response in one pass, without keeping either of them as a whole.
+     *
+     * @param url         url of the remote method
+     * @param contentType content type of the request
+     * @param body        writer of the request body, {@code null} if there is no body
+     * @param reader      reader of the response body
+     * @param <T>         type of the response
+     * @return response read
+     * @throws RemoteApiException if the request fails, the service returns an error or the reader fails
+     */
+    protected <T> T exchange(String url, String contentType, ContentProducer body, ResponseReader<T> reader)
+            throws RemoteApiException {
+        if (this.remoteMethod == null) {
+            this.remoteMethod = RemoteMethod.POST;
+        }
+        RemoteRequest request = new RemoteRequest(this.remoteMethod, url);
+        request.setHeader("Accept-Charset", "UTF-8");
+        if (body != null) {
+            EntityTemplate entity = new EntityTemplate(body);
+            entity.setContentType(contentType);
+            entity.setChunked(true);
+            request.setEntity(compressRequests ? new GzipCompressingEntity(entity) : entity);
+        }
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            HttpEntity entity = response.getEntity();
+            StatusLine status = response.getStatusLine();
+            if (status.getStatusCode() >= 400) {
+                EntityUtils.consume(entity);
+                throw new RemoteApiException("Server returned HTTP response code: " + status.getStatusCode()
+                        + " for URL: " + url);
+            }
+            if (entity == null) {
+                throw new RemoteApiException("Server returned no content for URL: " + url);
             }
+            try (InputStream in = entity.getContent()) {
+                return reader.read(in);
+            }
+        } catch (IOException ex) {
+            throw new RemoteApiException(ex);
+        }
+    }
+
+    /**
+     * Returns content type of request bodies: a form for POST (JSP mode), JSON otherwise.
+     *
+     * @return content type
+     */
+    protected String requestContentType() {
+        return remoteMethod == RemoteMethod.POST || remoteMethod == null ? FORM_CONTENT_TYPE : JSON_CONTENT_TYPE;
+    }
 
-            URL httpUrl = new URL(url);
-            HttpURLConnection con = (HttpURLConnection) httpUrl.openConnection();
-            con.setRequestMethod(this.remoteMethod.toString());
-            con.setRequestProperty("User-Ager", "Mozilla/5.0");
-            con.setRequestProperty("Connection", "keep-alive");
-            con.setRequestProperty("Accept-Language", "ru-RU,ru;q=0.8,en-US;q=0.6,en;q=0.4");
-            con.setRequestProperty("Accept-Charset", "UTF-8");
-            con.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=utf-8");
-
-            if (!sendContent.isEmpty()) {
-                con.setDoOutput(true);
-                DataOutputStream wr = new DataOutputStream(con.getOutputStream());
-                if (remoteMethod == RemoteMethod.POST) {
-                    wr.writeBytes("content=");
-                    sendContent = sendContent.replaceAll("\\%", "%25").replaceAll("\\+", "%2B").replace("&", "%26");
+    /**
+     * Reads the response in a single pass: JSON array of results, or status message object of an error.
+     *
+     * @param in           response body
+     * @param responseGson Gson to read the results with
+     * @param type         type of the results
+     * @param service      name of the service for the message of an unknown error
+     * @param <T>          type of the results
+     * @return results
+     * @throws IOException        if the response can not be read
+     * @throws RemoteApiException if the service returns an error or the response is not valid
+     */
+    protected static <T> T readResults(Reader in, Gson responseGson, Type type, String service)
+            throws IOException, RemoteApiException {
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+        try {
+            if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                JsonObject jsonObject = responseGson.fromJson(reader, JsonObject.class);
+                String statusCode = jsonObject.has("statusCode") ? jsonObject.get("statusCode").getAsString() : null;
+                String statusMessage = "Unknown " + service + " exception (statusCode = " + statusCode + ")";
+                if (jsonObject.has("statusMessage")) {
+                    statusMessage = jsonObject.get("statusMessage").getAsString();
                 }
-                // Other (bad for non-Latin1 charsets) variants:
-                // wr.writeUTF(sendContent);
-                // wr.writeBytes(sendContent);
-                wr.write(sendContent.getBytes("UTF-8"));
-                wr.flush();
-                wr.close();
+                throw new RemoteApiException(statusMessage);
             }
+            return responseGson.fromJson(reader, type);
+        } catch (JsonParseException ex) {
+            throw new RemoteApiException(ex);
+        }
+    }
+
+    /**
+     * Creates writer of the request body: for POST (JSP mode) the content is sent
+     * as the {@code content} form parameter, so it is prefixed and escaped on the fly.
+     *
+     * @param out request body stream
+     * @return writer of the content
+     * @throws IOException if the stream can not be written
+     */
+    protected Writer createWriter(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        if (remoteMethod != RemoteMethod.POST) {
+            return writer;
+        }
+        writer.write("content=");
+        return new FormParameterWriter(writer);
+    }
 
-            BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream(), StandardCharsets.UTF_8));
-            String inLine;
-            StringBuffer response = new StringBuffer();
-            while ((inLine = in.readLine()) != null) {
-                response.append(inLine);
+    private static CloseableHttpClient createHttpClient() {
+        int maxConnections = Integer.getInteger(MAX_CONNECTIONS_PROPERTY, DEFAULT_MAX_CONNECTIONS);
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setUserAgent("Mozilla/5.0")
+                .build();
+    }
+
+    /**
+     * Reader of a response body.
+     *
+     * @param <T> type of the response
+     */
+    @FunctionalInterface
+    protected interface ResponseReader<T> {
+        T read(InputStream in) throws IOException, RemoteApiException;
+    }
+
+    /**
+     * Request of the configured method with a body. GET is sent as POST,
+     * as {@code HttpURLConnection} used before did with a body.
+     */
+    private static final class RemoteRequest extends HttpEntityEnclosingRequestBase {
+        private final String method;
+
+        private RemoteRequest(RemoteMethod remoteMethod, String url) {
+            this.method = remoteMethod == RemoteMethod.PUT ? "PUT" : "POST";
+            setURI(URI.create(url));
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+    }
+
+    /**
+     * Escapes characters which have special meaning in a form parameter value: '%', '+' and '&amp;'.
+     */
+    private static final class FormParameterWriter extends Writer {
+        private final Writer writer;
+
+        private FormParameterWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int start = offset;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                String escaped = escape(chars[i]);
+                if (escaped != null) {
+                    writer.write(chars, start, i - start);
+                    writer.write(escaped);
+                    start = i + 1;
+                }
             }
-            in.close();
+            writer.write(chars, start, end - start);
+        }
 
-            return response.toString();
-        } catch (Exception ex) {
-            throw new RemoteApiException(ex);
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private static String escape(char character) {
+            switch (character) {
+                case '%':
+                    return "%25";
+                case '+':
+                    return "%2B";
+                case '&':
+                    return "%26";
+                default:
+                    return null;
+            }
         }
     }
 }
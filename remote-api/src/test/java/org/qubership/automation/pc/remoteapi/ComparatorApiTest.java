@@ -0,0 +1,101 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.remoteapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.core.enums.DataType;
+import org.qubership.automation.pc.data.DataPackage;
+
+public class ComparatorApiTest {
+
+    @Test
+    public void compareAsync_returnsResultsInOrderOfPackages() throws Exception {
+        List<DataPackage> dataPackages = dataPackages(10);
+        ComparatorApi api = new ComparatorApi("http://localhost");
+        api.setEndpoints(Arrays.asList(ComparatorApiTest::echo, ComparatorApiTest::echo));
+
+        List<CompareResult> results = api.compareAsync(dataPackages, null).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(10, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assertions.assertEquals("er-" + i, results.get(i).getId());
+        }
+    }
+
+    @Test
+    public void compareAsync_sendsFailedChunkToNextEndpoint() throws Exception {
+        final AtomicInteger failures = new AtomicInteger();
+        CompareEndpoint failing = (dataPackages, configuration) -> {
+            failures.incrementAndGet();
+            throw new RemoteApiException("service is down");
+        };
+        ComparatorApi api = new ComparatorApi("http://localhost");
+        api.setEndpoints(Arrays.asList(failing, ComparatorApiTest::echo));
+        api.setChunksPerEndpoint(1);
+
+        List<CompareResult> results = api.compareAsync(dataPackages(4), null).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(4, results.size());
+        Assertions.assertEquals("er-0", results.get(0).getId());
+        Assertions.assertEquals("er-3", results.get(3).getId());
+        Assertions.assertEquals(1, failures.get());
+    }
+
+    @Test
+    public void compareAsync_fails_whenAllEndpointsFail() {
+        CompareEndpoint failing = (dataPackages, configuration) -> {
+            throw new RemoteApiException("service is down");
+        };
+        ComparatorApi api = new ComparatorApi("http://localhost");
+        api.setEndpoints(Arrays.asList(failing, failing));
+        api.setChunksPerEndpoint(1);
+
+        ExecutionException ex = Assertions.assertThrows(ExecutionException.class,
+                () -> api.compareAsync(dataPackages(4), null).get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(ex.getCause() instanceof RemoteApiException);
+        Assertions.assertEquals(1, ex.getCause().getSuppressed().length);
+    }
+
+    private static List<CompareResult> echo(List<DataPackage> dataPackages, Object configuration) {
+        List<CompareResult> results = new ArrayList<>();
+        for (DataPackage dataPackage : dataPackages) {
+            if (dataPackage.getEr().getDataType() != DataType.CONTEXT_PARAMETER) {
+                results.add(0, CompareChunkTest.result(dataPackage.getEr().getExternalId()));
+            }
+        }
+        // the service does not have to keep the order
+        return results;
+    }
+
+    private static List<DataPackage> dataPackages(int count) {
+        List<DataPackage> dataPackages = new ArrayList<>();
+        dataPackages.add(CompareChunkTest.dataPackage("context", DataType.CONTEXT_PARAMETER, 0));
+        for (int i = 0; i < count; i++) {
+            dataPackages.add(CompareChunkTest.dataPackage("er-" + i, DataType.SIMPLE, 10 + i));
+        }
+        return dataPackages;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * # Copyright 2024-2025 NetCracker Technology Corporation
+ * #
+ * # Licensed under the Apache License, Version 2.0 (the "License");
+ * # you may not use this file except in compliance with the License.
+ * # You may obtain a copy of the License at
+ * #
+ * #      http://www.apache.org/licenses/LICENSE-2.0
+ * #
+ * # Unless required by applicable law or agreed to in writing, software
+ * # distributed under the License is distributed on an "AS IS" BASIS,
+ * # WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * # See the License for the specific language governing permissions and
+ * # limitations under the License.
+ */
+
+package org.qubership.automation.pc.remoteapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.qubership.automation.pc.compareresult.CompareResult;
+import org.qubership.automation.pc.core.enums.DataType;
+import org.qubership.automation.pc.data.Data;
+import org.qubership.automation.pc.data.DataPackage;
+
+public class CompareChunkTest {
+
+    @Test
+    public void split_balancesContentSize_andAddsContextPackagesToEveryChunk() {
+        List<DataPackage> dataPackages = new ArrayList<>();
+        dataPackages.add(dataPackage("context", DataType.CONTEXT_PARAMETER, 0));
+        for (int size : new int[] {100, 10, 90, 50, 40, 10}) {
+            dataPackages.add(dataPackage("er-" + size, DataType.SIMPLE, size));
+        }
+
+        List<CompareChunk> chunks = CompareChunk.split(dataPackages, 2);
+
+        Assertions.assertEquals(2, chunks.size());
+        long[] sizes = new long[chunks.size()];
+        int compared = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            List<DataPackage> chunkPackages = chunks.get(i).getDataPackages();
+            Assertions.assertSame(dataPackages.get(0), chunkPackages.get(0));
+            for (DataPackage dataPackage : chunkPackages.subList(1, chunkPackages.size())) {
+                sizes[i] += dataPackage.getEr().getContent().length();
+                compared++;
+            }
+            // packages of a chunk keep the order of the batch
+            List<Integer> positions = new ArrayList<>();
+            for (DataPackage dataPackage : chunkPackages.subList(1, chunkPackages.size())) {
+                positions.add(dataPackages.indexOf(dataPackage));
+            }
+            List<Integer> sorted = new ArrayList<>(positions);
+            Collections.sort(sorted);
+            Assertions.assertEquals(sorted, positions);
+        }
+        Assertions.assertEquals(6, compared);
+        Assertions.assertTrue(Math.abs(sizes[0] - sizes[1]) <= 20);
+    }
+
+    @Test
+    public void split_makesNoMoreChunksThanPackages() {
+        List<DataPackage> dataPackages = Arrays.asList(dataPackage("context", DataType.CONTEXT_PARAMETER, 0),
+                dataPackage("er", DataType.SIMPLE, 10));
+
+        Assertions.assertEquals(1, CompareChunk.split(dataPackages, 4).size());
+        Assertions.assertEquals(1, CompareChunk.split(dataPackages.subList(0, 1), 4).size());
+    }
+
+    @Test
+    public void merge_putsResultsToPositionsOfPackages_byExternalIdOrInOrder() {
+        List<DataPackage> dataPackages = Arrays.asList(dataPackage("a", DataType.SIMPLE, 1),
+                dataPackage("same", DataType.SIMPLE, 1), dataPackage("b", DataType.SIMPLE, 1),
+                dataPackage("same", DataType.SIMPLE, 1), dataPackage("c", DataType.SIMPLE, 1));
+        CompareChunk chunk = CompareChunk.split(dataPackages, 1).get(0);
+        CompareResult unknown = result("unknown");
+        CompareResult firstSame = result("same");
+        CompareResult secondSame = result("same");
+        CompareResult[] merged = new CompareResult[dataPackages.size()];
+
+        chunk.merge(Arrays.asList(result("c"), firstSame, unknown, secondSame, result("a")), merged);
+
+        Assertions.assertEquals("a", merged[0].getId());
+        Assertions.assertSame(firstSame, merged[1]);
+        // "b" is not returned, the unmatched result takes its position
+        Assertions.assertSame(unknown, merged[2]);
+        Assertions.assertSame(secondSame, merged[3]);
+        Assertions.assertEquals("c", merged[4].getId());
+    }
+
+    @Test
+    public void merge_leavesPositionsEmpty_whenResultsAreMissing() {
+        List<DataPackage> dataPackages = Arrays.asList(dataPackage("a", DataType.SIMPLE, 1),
+                dataPackage("b", DataType.SIMPLE, 1));
+        CompareChunk chunk = CompareChunk.split(dataPackages, 1).get(0);
+        CompareResult[] merged = new CompareResult[dataPackages.size()];
+
+        chunk.merge(Collections.singletonList(result("b")), merged);
+
+        Assertions.assertNull(merged[0]);
+        Assertions.assertEquals("b", merged[1].getId());
+    }
+
+    static DataPackage dataPackage(String externalId, DataType dataType, int size) {
+        char[] content = new char[size];
+        Arrays.fill(content, 'a');
+        Data er = new Data(externalId, dataType, externalId, null);
+        er.setContent(new String(content));
+        DataPackage dataPackage = new DataPackage();
+        dataPackage.setEr(er);
+        return dataPackage;
+    }
+
+    static CompareResult result(String id) {
+        CompareResult result = new CompareResult();
+        result.setId(id);
+        return result;
+    }
+}